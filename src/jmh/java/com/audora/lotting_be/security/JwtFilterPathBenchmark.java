@@ -0,0 +1,79 @@
+package com.audora.lotting_be.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthTokenFilter의 토큰 처리 경로 비교.
+ * - legacy: 요청마다 파서를 두 번 만들고 같은 토큰을 두 번 검증 (validateJwtToken + getUserNameFromJwtToken)
+ * - parseOnce: 시작 시 만든 파서로 한 번만 검증 (검증 캐시 없음)
+ * - cached: parseOnce + 최근 검증 토큰 캐시 (같은 토큰이 반복되는 실제 사용 패턴)
+ *
+ * 실행: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class JwtFilterPathBenchmark {
+
+    private static final String SECRET = "BenchmarkSecretKeyForJwtSigningWhichIsAtLeast64CharactersLong!!!!";
+
+    // 동시에 쓰이는 관리자 토큰 수 (캐시 크기보다 작음)
+    private static final int TOKENS = 16;
+
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private Key key;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setup() {
+        AuthFailureTelemetry telemetry = new AuthFailureTelemetry(new SimpleMeterRegistry(), 0);
+        uncached = new JwtUtils(SECRET, 3_600_000, 0, telemetry);
+        uncached.init();
+        cached = new JwtUtils(SECRET, 3_600_000, 1024, telemetry);
+        cached.init();
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = cached.generateJwtToken(
+                    new UserDetailsImpl((long) i, "manager" + i, "", Collections.emptyList()));
+        }
+    }
+
+    private String nextToken() {
+        next = (next + 1) % TOKENS;
+        return tokens[next];
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        String token = nextToken();
+        boolean valid = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token) != null;
+        if (valid) {
+            bh.consume(Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject());
+        }
+    }
+
+    @Benchmark
+    public void parseOnce(Blackhole bh) {
+        Claims claims = uncached.parseToken(nextToken());
+        bh.consume(claims != null ? claims.getSubject() : null);
+    }
+
+    @Benchmark
+    public void cached(Blackhole bh) {
+        Claims claims = cached.parseToken(nextToken());
+        bh.consume(claims != null ? claims.getSubject() : null);
+    }
+}
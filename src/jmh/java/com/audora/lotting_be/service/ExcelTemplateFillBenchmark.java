@@ -0,0 +1,96 @@
+package com.audora.lotting_be.service;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /files/format1/{id} 서식 생성 비용 비교 (고객 조회 제외).
+ * legacy: 템플릿을 임시 파일로 복사 → 파일에서 파싱 → 같은 파일에 저장 → byte[]로 다시 읽기
+ * cached: ExcelTemplateCache에서 미리 파싱된 복제본을 꺼내 응답 스트림(여기서는 메모리)에 바로 기록
+ * SampleTime 모드 결과의 p0.50 / p0.99 를 비교합니다.
+ *
+ * 실행: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ExcelTemplateFillBenchmark {
+
+    // fillFormat1이 채우는 셀 위치 (행, 열)
+    private static final int[][] CELLS = {
+            {28, 49}, {33, 54}, {33, 60}, {36, 54}, {63, 7}, {65, 7}, {67, 7}, {69, 23},
+            {73, 23}, {81, 2}, {81, 11}, {81, 22}, {96, 13}, {65, 52}, {81, 52}
+    };
+
+    private ExcelTemplateCache cache;
+
+    @Setup
+    public void setup() {
+        cache = new ExcelTemplateCache();
+        cache.init();
+    }
+
+    @TearDown
+    public void tearDown() {
+        cache.shutdown();
+    }
+
+    @Benchmark
+    public byte[] legacyTempFile() throws IOException {
+        File tempFile = Files.createTempFile("format1-", ".xlsx").toFile();
+        try {
+            try (InputStream is = cache.openStream(ExcelTemplateCache.FORMAT1)) {
+                Files.copy(is, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (FileInputStream fis = new FileInputStream(tempFile);
+                 XSSFWorkbook workbook = new XSSFWorkbook(fis)) {
+                fill(workbook.getSheetAt(0));
+                workbook.setForceFormulaRecalculation(true);
+                try (FileOutputStream fos = new FileOutputStream(tempFile)) {
+                    workbook.write(fos);
+                }
+            }
+            return Files.readAllBytes(tempFile.toPath());
+        } finally {
+            tempFile.delete();
+        }
+    }
+
+    @Benchmark
+    public byte[] cachedClone() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        try (XSSFWorkbook workbook = cache.borrow(ExcelTemplateCache.FORMAT1)) {
+            fill(workbook.getSheetAt(0));
+            workbook.setForceFormulaRecalculation(true);
+            workbook.write(out);
+        }
+        return out.toByteArray();
+    }
+
+    private static void fill(XSSFSheet sheet) {
+        for (int[] rc : CELLS) {
+            Row row = sheet.getRow(rc[0]);
+            if (row == null) {
+                row = sheet.createRow(rc[0]);
+            }
+            Cell cell = row.getCell(rc[1]);
+            if (cell == null) {
+                cell = row.createCell(rc[1]);
+            }
+            cell.setCellValue("값" + rc[0]);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.audora.lotting_be.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExcelValueParser와 기존 파싱 코드(DateTimeFormatter 매 행 생성 + 예외 흐름, 정규식 replaceAll) 비교.
+ * 입력은 실제 업로드 파일과 비슷하게 대부분 정상 값이고 일부는 두 번째/세 번째 패턴이나 실패 값입니다.
+ *
+ * 실행: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ExcelValueParserBenchmark {
+
+    private static final String[] TRANSACTION_DATES = {
+            "2024.01.05 13:22:11", "2024.03.31 09:00:00", "2024-02-10 17:45:03",
+            "2024.04.01", "2024.05.12 08:01:59", "잘못된 값", "2023.12.31 23:59:59", "2024-06-30 12:00:00"
+    };
+    private static final String[] SHORT_DATES = {
+            "24-3-5", "23-12-31", "\"24-01-15\"", "22-7-9", "2024", "21-11-30", "-", "24-2-29"
+    };
+    private static final String[] AMOUNTS = {
+            "1,250,000", "-35,000", "0", "₩ 12,300", "980000", "-", "15,000,000", "3,300"
+    };
+
+    private static final String[] LEGACY_PATTERNS = {"yyyy.MM.dd HH:mm:ss", "yyyy-MM-dd HH:mm:ss", "yyyy.MM.dd"};
+
+    // ---------------- 거래일시 ----------------
+
+    @Benchmark
+    public void transactionDateLegacy(Blackhole bh) {
+        for (String s : TRANSACTION_DATES) {
+            bh.consume(legacyTransactionDateTime(s));
+        }
+    }
+
+    @Benchmark
+    public void transactionDateParser(Blackhole bh) {
+        for (String s : TRANSACTION_DATES) {
+            bh.consume(ExcelValueParser.parseTransactionDateTime(s));
+        }
+    }
+
+    // ---------------- yy-M-d ----------------
+
+    @Benchmark
+    public void shortDateLegacy(Blackhole bh) {
+        for (String s : SHORT_DATES) {
+            bh.consume(legacyShortDate(s));
+        }
+    }
+
+    @Benchmark
+    public void shortDateParser(Blackhole bh) {
+        for (String s : SHORT_DATES) {
+            bh.consume(ExcelValueParser.parseShortDate(s));
+        }
+    }
+
+    // ---------------- 금액 ----------------
+
+    @Benchmark
+    public void amountLegacy(Blackhole bh) {
+        for (String s : AMOUNTS) {
+            bh.consume(legacyParseLongOrZero(s));
+        }
+    }
+
+    @Benchmark
+    public void amountParser(Blackhole bh) {
+        for (String s : AMOUNTS) {
+            bh.consume(ExcelValueParser.parseSignedDigits(s, 0L));
+        }
+    }
+
+    // ---------------- 기존 구현 (비교용 복사본) ----------------
+
+    private static LocalDateTime legacyTransactionDateTime(String dateStr) {
+        String cleaned = dateStr.replaceAll("[\\r\\n]+", " ").trim();
+        for (String pattern : LEGACY_PATTERNS) {
+            try {
+                DateTimeFormatter dtf2 = DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH);
+                if (pattern.equals("yyyy.MM.dd")) {
+                    return LocalDate.parse(cleaned, dtf2).atStartOfDay();
+                }
+                return LocalDateTime.parse(cleaned, dtf2);
+            } catch (Exception ex) {
+                // 다음 패턴 시도
+            }
+        }
+        return null;
+    }
+
+    private static LocalDate legacyShortDate(String s) {
+        String text = s.replace("\"", "").trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text, DateTimeFormatter.ofPattern("yy-M-d"));
+        } catch (Exception e) {
+            try {
+                return LocalDate.parse(text, DateTimeFormatter.ofPattern("yyyy"));
+            } catch (Exception ex) {
+                return null;
+            }
+        }
+    }
+
+    private static long legacyParseLongOrZero(String numericStr) {
+        if (numericStr == null || numericStr.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(numericStr.replaceAll("[^0-9\\-]", ""));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.audora.lotting_be;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LottingBeApplication {
 
 	public static void main(String[] args) {
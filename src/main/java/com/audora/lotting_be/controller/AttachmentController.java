@@ -0,0 +1,75 @@
+package com.audora.lotting_be.controller;
+
+import com.audora.lotting_be.model.customer.CustomerAttachment;
+import com.audora.lotting_be.model.customer.DocumentType;
+import com.audora.lotting_be.payload.response.MessageResponse;
+import com.audora.lotting_be.service.CustomerAttachmentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 고객별 부속서류 제출 내역 API.
+ * 서류 종류(type)는 DocumentType 이름입니다. (SEAL_CERTIFICATE, ID_COPY, COMMITMENT_LETTER ...)
+ */
+@RestController
+@RequestMapping("/attachments")
+public class AttachmentController {
+
+    @Autowired
+    private CustomerAttachmentService customerAttachmentService;
+
+    // 고객의 서류 제출 내역
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<List<CustomerAttachment>> listCustomerAttachments(@PathVariable Integer customerId) {
+        return ResponseEntity.ok(customerAttachmentService.list(customerId));
+    }
+
+    /**
+     * 서류 제출 기록. 파일은 먼저 /files/store (또는 /files/uploads) 로 올린 뒤 그 id를 넘깁니다.
+     *
+     * @param storedFileId 제출 파일 id (없으면 제출 표시만)
+     */
+    @PutMapping("/customer/{customerId}/{type}")
+    public ResponseEntity<?> attach(@PathVariable Integer customerId,
+                                    @PathVariable DocumentType type,
+                                    @RequestParam(value = "storedFileId", required = false) Long storedFileId) {
+        try {
+            CustomerAttachment attachment = customerAttachmentService.attach(customerId, type, storedFileId);
+            if (attachment == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Customer not found."));
+            }
+            return ResponseEntity.ok(attachment);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/customer/{customerId}/{type}")
+    public ResponseEntity<?> detach(@PathVariable Integer customerId, @PathVariable DocumentType type) {
+        if (!customerAttachmentService.detach(customerId, type)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Attachment not found."));
+        }
+        return ResponseEntity.ok(new MessageResponse("서류 제출 내역이 삭제되었습니다."));
+    }
+
+    /**
+     * type 서류 미제출 고객 (id 순, 다음 페이지는 afterId=응답의 nextAfterId). 군, 가입차순으로 거를 수 있습니다.
+     */
+    @GetMapping("/missing")
+    public ResponseEntity<?> findMissing(@RequestParam("type") DocumentType type,
+                                         @RequestParam(value = "afterId", defaultValue = "0") int afterId,
+                                         @RequestParam(value = "size", defaultValue = "100") int size,
+                                         @RequestParam(value = "groupname", required = false) String groupname,
+                                         @RequestParam(value = "batch", required = false) String batch) {
+        return ResponseEntity.ok(customerAttachmentService.findMissing(type, afterId, size,
+                blankToNull(groupname), blankToNull(batch)));
+    }
+
+    private static String blankToNull(String value) {
+        return (value == null || value.isBlank()) ? null : value.trim();
+    }
+}
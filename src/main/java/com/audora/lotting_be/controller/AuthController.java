@@ -8,8 +8,12 @@ import com.audora.lotting_be.payload.response.JwtResponse;
 import com.audora.lotting_be.payload.response.MessageResponse;
 import com.audora.lotting_be.repository.ManagerRepository;
 import com.audora.lotting_be.security.JwtUtils;
+import com.audora.lotting_be.security.LoginRateLimiter;
 import com.audora.lotting_be.security.UserDetailsImpl;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
@@ -27,20 +31,30 @@ public class AuthController {
     private final ManagerRepository managerRepository;
     private final PasswordEncoder encoder;
     private final JwtUtils jwtUtils;
+    private final LoginRateLimiter loginRateLimiter;
 
     @Autowired
     public AuthController(AuthenticationManager authenticationManager,
                           ManagerRepository managerRepository,
                           PasswordEncoder encoder,
-                          JwtUtils jwtUtils) {
+                          JwtUtils jwtUtils,
+                          LoginRateLimiter loginRateLimiter) {
         this.authenticationManager = authenticationManager;
         this.managerRepository = managerRepository;
         this.encoder = encoder;
         this.jwtUtils = jwtUtils;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateManager(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateManager(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // 비밀번호 확인(BCrypt) 전에 IP/사용자명별 시도 횟수 제한
+        long retryAfter = loginRateLimiter.tryAcquire(request.getRemoteAddr(), loginRequest.getUsername());
+        if (retryAfter > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(new MessageResponse("Error: Too many sign-in attempts. Try again in " + retryAfter + " seconds."));
+        }
 
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
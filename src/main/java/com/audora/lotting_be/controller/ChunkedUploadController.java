@@ -0,0 +1,112 @@
+package com.audora.lotting_be.controller;
+
+import com.audora.lotting_be.payload.response.MessageResponse;
+import com.audora.lotting_be.service.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+/**
+ * 청크 업로드 API (대용량 파일, 이어 올리기).
+ * 1) POST   /files/uploads?filename=&size=            세션 생성 (id, chunkSize 반환)
+ * 2) PUT    /files/uploads/{id}?offset=                청크 본문 전송 (application/octet-stream, X-Chunk-Sha256 헤더 필수)
+ * 3) GET    /files/uploads/{id}                        받지 않은 청크 확인 (끊긴 뒤 이어 올리기)
+ * 4) POST   /files/uploads/{id}/complete               완료, StoredFile 반환 (/files/download?fileId= 로 받을 수 있음)
+ *    DELETE /files/uploads/{id}                        취소
+ */
+@RestController
+@RequestMapping("/files/uploads")
+public class ChunkedUploadController {
+
+    public static final String CHUNK_SHA256_HEADER = "X-Chunk-Sha256";
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @PostMapping
+    public ResponseEntity<?> start(@RequestParam("filename") String filename,
+                                   @RequestParam("size") long size,
+                                   @RequestParam(value = "contentType", required = false) String contentType,
+                                   @RequestParam(value = "customerId", required = false) Integer customerId,
+                                   @RequestParam(value = "chunkSize", required = false) Integer chunkSize) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.start(filename, size, contentType, customerId, chunkSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Could not create upload: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> status(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.status(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * 청크 전송. 멀티파트가 아닌 요청 본문을 그대로 읽어 파일에 기록하므로 컨테이너가 본문을 버퍼링하지 않습니다.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<?> putChunk(@PathVariable String id,
+                                      @RequestParam("offset") long offset,
+                                      @RequestHeader(value = CHUNK_SHA256_HEADER, required = false) String sha256,
+                                      HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.writeChunk(id, offset, request.getInputStream(), sha256));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Could not write chunk: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * @param sha256 전체 파일 SHA-256 (선택, 있으면 서버 계산 값과 비교)
+     */
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<?> complete(@PathVariable String id,
+                                      @RequestParam(value = "sha256", required = false) String sha256) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.complete(id, sha256));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Could not complete upload: " + e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> abort(@PathVariable String id) {
+        try {
+            chunkedUploadService.abort(id);
+            return ResponseEntity.ok(new MessageResponse("업로드가 취소되었습니다."));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Could not abort upload: " + e.getMessage()));
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.audora.lotting_be.controller;
 
 import com.audora.lotting_be.model.customer.Customer;
+import com.audora.lotting_be.model.customer.DocumentType;
 import com.audora.lotting_be.model.customer.Phase;
 import com.audora.lotting_be.model.customer.minor.*;
 import com.audora.lotting_be.payload.response.MessageResponse;
+import com.audora.lotting_be.service.CustomerAttachmentService;
 import com.audora.lotting_be.service.CustomerService;
 import com.audora.lotting_be.service.PhaseService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/customers")
@@ -22,6 +25,9 @@ public class CustomerController {
     @Autowired
     private PhaseService phaseService;
 
+    @Autowired
+    private CustomerAttachmentService customerAttachmentService;
+
     @GetMapping("/nextId")
     public ResponseEntity<Integer> getNextCustomerId() {
         Integer nextId = customerService.getNextCustomerId();
@@ -164,6 +170,8 @@ public class CustomerController {
         if (existingCustomer == null) {
             return ResponseEntity.notFound().build();
         }
+        // 부속서류 내역에는 바뀐 제출 여부만 반영
+        Set<DocumentType> providedBefore = DocumentType.providedIn(existingCustomer.getAttachments());
 
         // 1. 최상위 필드 업데이트
         existingCustomer.setCustomertype(updatedCustomer.getCustomertype());
@@ -312,6 +320,7 @@ public class CustomerController {
         existingCustomer.getAttachments().setPrizedate(updatedCustomer.getAttachments().getPrizedate());
 
         customerService.saveCustomer(existingCustomer);
+        customerAttachmentService.syncLegacyFlags(id, providedBefore, existingCustomer.getAttachments());
         customerService.recalculateEverything(existingCustomer);
 
         return ResponseEntity.ok(existingCustomer);
@@ -1,113 +1,192 @@
 package com.audora.lotting_be.controller;
 
-import com.audora.lotting_be.model.customer.DepositHistory;
+import com.audora.lotting_be.service.ArtifactStore;
+import com.audora.lotting_be.service.DataVersion;
 import com.audora.lotting_be.service.DepositExcelService;
-import com.audora.lotting_be.service.DepositHistoryService;
-import com.audora.lotting_be.util.FileCache;
+import com.audora.lotting_be.service.ExcelTemplateCache;
+import com.audora.lotting_be.service.ExportResultCache;
+import com.audora.lotting_be.service.JobExecutors;
+import com.audora.lotting_be.service.ProgressPublisher;
+import com.audora.lotting_be.service.ProgressSender;
+import com.audora.lotting_be.util.RangeFileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
-import org.springframework.web.util.UriUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
-import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/deposithistory/excel")
 public class DepositExcelController {
 
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
     @Autowired
     private DepositExcelService depositExcelService;
     @Autowired
-    private DepositHistoryService depositHistoryService;
+    private ExcelTemplateCache excelTemplateCache;
+    @Autowired
+    private DataVersion dataVersion;
+    @Autowired
+    private ExportResultCache exportResultCache;
+    @Autowired
+    private ArtifactStore artifactStore;
+    @Autowired
+    private JobExecutors jobExecutors;
+    @Autowired
+    private ProgressSender progressSender;
+
     /**
      * 엑셀 파일 업로드 엔드포인트
      * 파일을 받으면 DepositExcelService를 호출하여 파싱 및 DB 저장을 진행하고,
      * SSE를 통해 진행 상황을 클라이언트에 전달합니다.
      *
-     * @param file 업로드된 엑셀 파일
+     * deferred=true 이면 모든 행을 배치 저장한 뒤 영향받은 고객만 한 번씩 재계산합니다.
+     *
+     * @param file     업로드된 엑셀 파일
+     * @param deferred 지연 재계산 모드 사용 여부 (기본값 false: 행마다 저장 및 재계산)
      * @return 진행 상황을 전달하는 SseEmitter
      */
     @PostMapping(value = "/upload", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter uploadDepositHistoryExcel(@RequestParam("file") MultipartFile file) {
+    public SseEmitter uploadDepositHistoryExcel(@RequestParam("file") MultipartFile file,
+                                                @RequestParam(value = "deferred", defaultValue = "false") boolean deferred) {
         SseEmitter emitter = new SseEmitter(3000000L); // 최대 3000초(50분) timeout
-        CompletableFuture.runAsync(() -> {
+        jobExecutors.runAsync(jobExecutors.importJobs(), emitter, () -> {
+            ProgressPublisher progress = progressSender.open(emitter);
             try {
-                depositExcelService.processDepositExcelFileWithProgress(file, emitter);
-            } catch (IOException e) {
-                try {
-                    emitter.send(SseEmitter.event().name("error").data(e.getMessage()));
-                } catch (Exception ex) {
-                    // 추가 로깅 처리 가능
+                if (deferred) {
+                    depositExcelService.processDepositExcelFileDeferred(file, progress);
+                } else {
+                    depositExcelService.processDepositExcelFileWithProgress(file, progress);
                 }
-                emitter.completeWithError(e);
+            } catch (Exception e) {
+                progress.complete("error", e.getMessage());
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * 입금내역 CSV/TSV 업로드 엔드포인트 (열 구성은 엑셀과 동일, 첫 줄은 헤더)
+     * 인코딩(UTF-8 / EUC-KR)과 구분자(쉼표 / 탭)는 파일 내용으로 자동 판별합니다.
+     *
+     * @param file     업로드된 CSV/TSV 파일
+     * @param deferred 지연 재계산 모드 사용 여부
+     * @return 진행 상황을 전달하는 SseEmitter
+     */
+    @PostMapping(value = "/uploadCsv", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter uploadDepositHistoryCsv(@RequestParam("file") MultipartFile file,
+                                              @RequestParam(value = "deferred", defaultValue = "false") boolean deferred) {
+        SseEmitter emitter = new SseEmitter(3000000L); // 최대 3000초(50분) timeout
+        jobExecutors.runAsync(jobExecutors.importJobs(), emitter, () -> {
+            ProgressPublisher progress = progressSender.open(emitter);
+            try {
+                depositExcelService.processDepositCsvWithProgress(file, deferred, progress);
+            } catch (Exception e) {
+                progress.complete("error", e.getMessage());
             }
         });
         return emitter;
     }
 
     /**
-     * [신규] 모든 DepositHistory 데이터를 depformat.xlsx 템플릿에 채워서 파일로 생성하고,
-     * 진행 상황을 SSE로 전달합니다.
+     * 입금내역 엑셀 검증 (드라이런): DB에 저장하지 않고 행별 문제 목록을 반환합니다.
+     * annotate=true이면 문제 셀을 표시한 엑셀을 만들어 annotatedFileId로 돌려줍니다.
+     */
+    @PostMapping("/validate")
+    public ResponseEntity<?> validateDepositHistoryExcel(@RequestParam("file") MultipartFile file,
+                                                         @RequestParam(value = "annotate", defaultValue = "true") boolean annotate) {
+        try (InputStream is = file.getInputStream()) {
+            return ResponseEntity.ok(depositExcelService.validateDepositWorkbook(is, annotate));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * 검증 결과가 표시된 엑셀 다운로드
+     */
+    @GetMapping("/validate/file")
+    public void downloadValidatedExcel(@RequestParam("fileId") String fileId,
+                                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        File file = artifactStore.get(fileId);
+        if (file == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        // 다운로드 후 보관소에서 제거 (이어받기를 위해 잠시 유지한 뒤 파일 삭제)
+        artifactStore.release(fileId);
+        RangeFileSender.send(request, response, file, XLSX_CONTENT_TYPE, "deposit_validation_result.xlsx");
+    }
+
+    /**
+     * [신규] DepositHistory 데이터를 depformat.xlsx 템플릿에 채워서 파일로 생성하고,
+     * 진행 상황을 SSE로 전달합니다. DB에서 한 행씩 읽어 바로 기록하므로 전체 원장을 메모리에 올리지 않습니다.
      *
      * 프론트에서 GET /api/deposithistory/excel/download/progress 로 호출하면,
      * 최종적으로 고유 fileId가 SSE 이벤트 complete로 전달됩니다.
+     * complete 직전의 watermark 이벤트 값을 다음 요청의 since로 넘기면 그 이후 변경분만 받을 수 있습니다.
+     *
+     * @param from    거래일 시작일 (포함, 선택)
+     * @param to      거래일 종료일 (포함, 선택)
+     * @param account 계좌 (선택)
+     * @param since   이 일시 이후 저장/수정된 입금내역만 (ISO 일시, 선택)
      */
     @GetMapping(value = "/download/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter downloadDepositHistoryExcelProgress() {
+    public SseEmitter downloadDepositHistoryExcelProgress(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "account", required = false) String account,
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
         SseEmitter emitter = new SseEmitter(3000000L); // 최대 3000초 timeout
-        CompletableFuture.runAsync(() -> {
+        jobExecutors.runAsync(jobExecutors.exportJobs(), emitter, () -> {
+            ProgressPublisher progress = progressSender.open(emitter);
             File tempFile = null;
             try {
-                // 모든 DepositHistory 조회
-                List<DepositHistory> depositHistories = depositHistoryService.getAllDepositHistories();
-                if (depositHistories == null || depositHistories.isEmpty()) {
-                    emitter.send(SseEmitter.event().name("error").data("No deposit histories found."));
-                    emitter.complete();
+                // 템플릿 확인 (excel_templates/depformat.xlsx, 캐시된 복제본에 기록)
+                if (!excelTemplateCache.isAvailable(ExcelTemplateCache.DEPFORMAT)) {
+                    progress.complete("error", "Template file not found.");
                     return;
                 }
-                // 템플릿 파일 로드 (excel_templates/depformat.xlsx)
-                ClassPathResource templateResource = new ClassPathResource("excel_templates/depformat.xlsx");
-                if (!templateResource.exists()) {
-                    emitter.send(SseEmitter.event().name("error").data("Template file not found."));
-                    emitter.complete();
-                    return;
-                }
-                // 임시 파일 복사
+                String accountFilter = (account == null || account.isBlank()) ? null : account.trim();
+                // 데이터가 바뀌지 않았으면 같은 조건으로 이전에 만든 결과를 그대로 사용 (버전과 기준 시각은 조회 전에 읽음)
+                LocalDateTime watermark = dataVersion.watermark();
+                String cacheKey = ExportResultCache.depformatKey(dataVersion.current(), from, to, accountFilter, since);
+                // 결과를 저장할 임시 파일 (캐시에 있으면 캐시 파일의 링크)
                 tempFile = Files.createTempFile("depformat-", ".xlsx").toFile();
-                try (InputStream is = templateResource.getInputStream()) {
-                    Files.copy(is, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                if (!exportResultCache.copyTo(cacheKey, tempFile)) {
+                    // 템플릿에 depositHistory 데이터를 기록 (종료일은 그 날 전체를 포함)
+                    long written = depositExcelService.fillDepFormat(tempFile,
+                            from != null ? from.atStartOfDay() : null,
+                            to != null ? to.plusDays(1).atStartOfDay() : null,
+                            accountFilter,
+                            since,
+                            progress);
+                    if (written == 0) {
+                        tempFile.delete();
+                        progress.complete("error", "No deposit histories found.");
+                        return;
+                    }
+                    exportResultCache.putFile(cacheKey, tempFile);
                 }
-                // 템플릿에 depositHistory 데이터를 기록
-                depositExcelService.fillDepFormat(tempFile, depositHistories);
-                // 파일 생성 완료 후 고유 식별자 생성 및 캐시에 저장
-                String fileId = UUID.randomUUID().toString();
-                FileCache.put(fileId, tempFile);
-                emitter.send(SseEmitter.event().name("complete").data(fileId));
-                emitter.complete();
+                // 파일 생성 완료 후 보관소에 저장하고 고유 식별자 전달
+                String fileId = artifactStore.save(tempFile);
+                progress.event("watermark", watermark.toString());
+                progress.complete("complete", fileId);
             } catch (Exception e) {
-                try {
-                    emitter.send(SseEmitter.event().name("error").data(e.getMessage()));
-                } catch (Exception ex) {
-                    // 추가 로깅 가능
-                }
-                emitter.completeWithError(e);
+                progress.complete("error", e.getMessage());
                 if (tempFile != null && tempFile.exists()) {
                     tempFile.delete();
                 }
@@ -120,23 +199,15 @@ public class DepositExcelController {
      * [신규] fileId를 이용하여 생성된 DepositHistory 엑셀 파일을 다운로드합니다.
      */
     @GetMapping("/download/file")
-    public ResponseEntity<Resource> downloadDepositExcelFile(@RequestParam("fileId") String fileId) {
-        try {
-            File tempFile = FileCache.get(fileId);
-            if (tempFile == null || !tempFile.exists()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-            }
-            Resource resource = new UrlResource(tempFile.toURI());
-            String encodedFilename = UriUtils.encode("deposit_histories.xlsx", StandardCharsets.UTF_8);
-            MediaType mediaType = MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-            // 파일 다운로드 후 캐시에서 제거 (원하는 경우)
-            FileCache.remove(fileId);
-            return ResponseEntity.ok()
-                    .contentType(mediaType)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename)
-                    .body(resource);
-        } catch (MalformedURLException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    public void downloadDepositExcelFile(@RequestParam("fileId") String fileId,
+                                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        File file = artifactStore.get(fileId);
+        if (file == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
         }
+        // 다운로드 후 보관소에서 제거 (이어받기를 위해 잠시 유지한 뒤 파일 삭제)
+        artifactStore.release(fileId);
+        RangeFileSender.send(request, response, file, XLSX_CONTENT_TYPE, "deposit_histories.xlsx");
     }
 }
@@ -1,36 +1,53 @@
 package com.audora.lotting_be.controller;
 
 import com.audora.lotting_be.model.customer.Customer;
+import com.audora.lotting_be.model.file.StoredFile;
+import com.audora.lotting_be.payload.request.BulkFormRequest;
 import com.audora.lotting_be.payload.response.MessageResponse;
+import com.audora.lotting_be.repository.StoredFileRepository;
+import com.audora.lotting_be.service.ArtifactStore;
+import com.audora.lotting_be.service.BulkFormService;
+import com.audora.lotting_be.service.ContentStore;
 import com.audora.lotting_be.service.CustomerService;
+import com.audora.lotting_be.service.DataVersion;
 import com.audora.lotting_be.service.ExcelService;
-import com.audora.lotting_be.util.FileCache;
+import com.audora.lotting_be.service.ExcelTemplateCache;
+import com.audora.lotting_be.service.ExportResultCache;
+import com.audora.lotting_be.service.JobExecutors;
+import com.audora.lotting_be.service.ProgressPublisher;
+import com.audora.lotting_be.service.ProgressSender;
+import com.audora.lotting_be.service.SseProgressHub;
+import com.audora.lotting_be.service.ThumbnailService;
+import com.audora.lotting_be.util.RangeFileSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriUtils;
 
 import java.io.*;
-import java.net.MalformedURLException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/files")
 public class FileController {
 
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
@@ -42,14 +59,55 @@ public class FileController {
     @Autowired
     private ExcelService excelService;
 
+    @Autowired
+    private ExcelTemplateCache excelTemplateCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BulkFormService bulkFormService;
+
+    @Autowired
+    private SseProgressHub progressHub;
+
+    @Autowired
+    private DataVersion dataVersion;
+
+    @Autowired
+    private ExportResultCache exportResultCache;
+
+    @Autowired
+    private ArtifactStore artifactStore;
+
+    @Autowired
+    private JobExecutors jobExecutors;
+
+    @Autowired
+    private ProgressSender progressSender;
+
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
     /**
-     * 파일 업로드 예시 메서드
+     * 파일 업로드 (기존 방식). 업로드 디렉터리에 원본 파일명으로 저장하고 파일명을 반환합니다.
+     * 기존 클라이언트가 반환값을 Attachments.fileinfo 에 저장하므로 응답 형식을 유지합니다.
+     * 같은 이름의 파일은 덮어쓰므로, 새 클라이언트는 /files/store 를 사용합니다.
      */
     @PostMapping("/upload")
     public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file) {
         try {
             String fileName = Paths.get(file.getOriginalFilename()).getFileName().toString();
-            Path path = Paths.get(uploadDir).resolve(fileName);
+            Path path = legacyUploadPath(fileName);
+            if (path == null) {
+                return ResponseEntity.badRequest().body("Invalid filename: " + fileName);
+            }
             Files.createDirectories(path.getParent());
             Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
             return ResponseEntity.ok(fileName); // 파일명 반환
@@ -59,59 +117,134 @@ public class FileController {
     }
 
     /**
-     * 파일 다운로드 예시 메서드
+     * 파일 보관. 내용은 SHA-256 해시 경로에 한 번만 저장되고(같은 내용은 중복 저장하지 않음),
+     * 파일 정보(StoredFile: id, sha256, 원본 파일명, 크기, MIME 타입, 소유 고객)를 반환합니다.
+     * 반환된 id는 /files/download?fileId=, /files/preview?fileId=, /files/delete?fileId= 에 사용합니다.
+     *
+     * @param customerId 소유 고객 (선택)
      */
-    @GetMapping("/download")
-    public ResponseEntity<Resource> downloadFile(@RequestParam("id") Long id,
-                                                 @RequestParam("filename") String filename) {
+    @PostMapping("/store")
+    public ResponseEntity<?> storeFile(@RequestParam("file") MultipartFile file,
+                                       @RequestParam(value = "customerId", required = false) Integer customerId) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename).normalize();
-            Resource resource = new org.springframework.core.io.UrlResource(filePath.toUri());
-            if (!resource.exists()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+            return ResponseEntity.ok(contentStore.store(file, customerId));
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Could not upload file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 고객이 소유한 업로드 파일 목록 (최신순)
+     */
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<List<StoredFile>> listCustomerFiles(@PathVariable Integer customerId) {
+        return ResponseEntity.ok(storedFileRepository.findByCustomerIdOrderByIdDesc(customerId));
+    }
+
+    /**
+     * 파일 다운로드. fileId가 있으면 보관된 파일(StoredFile)을, 없으면 이전 방식(업로드 디렉터리의 filename)으로 찾습니다.
+     * id는 기존 클라이언트가 보내는 값(고객 id)으로, 파일을 찾는 데 사용하지 않습니다.
+     */
+    @GetMapping("/download")
+    public void downloadFile(@RequestParam(value = "id", required = false) Long id,
+                             @RequestParam(value = "fileId", required = false) Long fileId,
+                             @RequestParam(value = "filename", required = false) String filename,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (fileId != null) {
+            StoredFile stored = contentStore.find(fileId);
+            Path content = stored != null ? contentStore.resolve(stored) : null;
+            if (content == null) {
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+                return;
             }
+            RangeFileSender.send(request, response, content.toFile(), stored.getContentType(),
+                    stored.getOriginalFilename());
+            return;
+        }
+        Path filePath = filename != null ? legacyUploadPath(filename) : null;
+        if (filePath == null || !Files.isRegularFile(filePath)) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
 
-            String contentType = Files.probeContentType(filePath);
-            if (contentType == null) {
-                // 확장자별 MIME 타입 지정
-                String extension = com.google.common.io.Files.getFileExtension(filePath.toString());
-                switch (extension.toLowerCase()) {
-                    case "pdf":
-                        contentType = "application/pdf";
-                        break;
-                    case "jpg":
-                    case "jpeg":
-                        contentType = "image/jpeg";
-                        break;
-                    case "png":
-                        contentType = "image/png";
-                        break;
-                    default:
-                        contentType = "application/octet-stream";
-                }
+        String contentType = Files.probeContentType(filePath);
+        if (contentType == null) {
+            // 확장자별 MIME 타입 지정
+            String extension = com.google.common.io.Files.getFileExtension(filePath.toString());
+            switch (extension.toLowerCase()) {
+                case "pdf":
+                    contentType = "application/pdf";
+                    break;
+                case "jpg":
+                case "jpeg":
+                    contentType = "image/jpeg";
+                    break;
+                case "png":
+                    contentType = "image/png";
+                    break;
+                default:
+                    contentType = "application/octet-stream";
             }
+        }
 
-            String encodedFileName = UriUtils.encode(resource.getFilename(), StandardCharsets.UTF_8);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFileName)
-                    .body(resource);
+        // Range/조건부 요청 지원, 파일은 힙을 거치지 않고 전송
+        RangeFileSender.send(request, response, filePath.toFile(), contentType,
+                filePath.getFileName().toString());
+    }
 
-        } catch (MalformedURLException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+    /**
+     * 미리보기 썸네일 (이미지, PDF 첫 페이지, JPEG). 처음 요청할 때 만들어 디스크에 보관합니다.
+     * 내용이 바뀌지 않으므로 브라우저가 캐시하도록 하고, 생성 대기열이 가득 차면 503과 Retry-After로 응답합니다.
+     *
+     * @param fileId 보관된 파일 id (/files/store 결과)
+     * @param size   긴 변 크기 (128, 256, 512)
+     */
+    @GetMapping("/preview")
+    public void previewFile(@RequestParam("fileId") Long fileId,
+                            @RequestParam(value = "size", defaultValue = "" + ThumbnailService.DEFAULT_SIZE) int size,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StoredFile stored = contentStore.find(fileId);
+        if (stored == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        Path thumbnail;
+        try {
+            thumbnail = thumbnailService.thumbnail(stored, size);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+            return;
+        } catch (RejectedExecutionException e) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
         }
+        if (thumbnail == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=604800, immutable");
+        RangeFileSender.send(request, response, thumbnail.toFile(), MediaType.IMAGE_JPEG_VALUE, null);
     }
 
     /**
-     * 파일 삭제 예시 메서드
+     * 파일 삭제. fileId가 있으면 보관된 파일(StoredFile)을 삭제하고(다른 파일이 같은 내용을 쓰지 않으면 내용도 삭제),
+     * 없으면 이전 방식(업로드 디렉터리의 filename)으로 삭제합니다.
      */
     @DeleteMapping("/delete")
-    public ResponseEntity<?> deleteFile(@RequestParam("filename") String filename) {
+    public ResponseEntity<?> deleteFile(@RequestParam(value = "fileId", required = false) Long fileId,
+                                        @RequestParam(value = "filename", required = false) String filename) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename).normalize();
-            if (Files.exists(filePath)) {
+            if (fileId != null) {
+                return contentStore.delete(fileId)
+                        ? ResponseEntity.ok("파일이 성공적으로 삭제되었습니다.")
+                        : ResponseEntity.status(HttpStatus.NOT_FOUND).body("파일을 찾을 수 없습니다.");
+            }
+            if (filename == null) {
+                return ResponseEntity.badRequest().body("fileId 또는 filename이 필요합니다.");
+            }
+            Path filePath = legacyUploadPath(filename);
+            if (filePath != null && Files.exists(filePath)) {
                 Files.delete(filePath);
                 return ResponseEntity.ok("파일이 성공적으로 삭제되었습니다.");
             } else {
@@ -123,201 +256,210 @@ public class FileController {
         }
     }
 
+    // 업로드 디렉터리 안의 파일 경로, ../ 등으로 디렉터리 밖을 가리키면 null
+    private Path legacyUploadPath(String filename) {
+        Path dir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path filePath = dir.resolve(filename).normalize();
+        return filePath.startsWith(dir) && !filePath.equals(dir) ? filePath : null;
+    }
+
     /**
      * ------------------------------------------------------------------------
      * [신규] /format1/{id} 로 GET 요청이 들어올 때,
-     * - format1.xlsx 복사(TempFile)
-     * - {id}로 고객 정보 조회 & 엑셀 특정 셀들에 채워넣기 (ExcelService로 위임)
-     * - 완성본을 다운로드 응답 후, 복사본 파일은 삭제
+     * - 같은 고객 버전으로 만든 결과가 캐시에 있으면 DB 조회 없이 바로 응답
+     * - 없으면 {id}로 고객 정보를 조회하여 캐시된 format1.xlsx 템플릿 복제본에 채워넣기 (ExcelService로 위임)
+     * - 완성본을 임시 파일 없이 응답 스트림에 바로 기록
+     * 처리 시간은 excel.format.fill{template=format1} 타이머(p50/p99)로 기록됩니다.
      * ------------------------------------------------------------------------
      */
     @GetMapping("/format1/{id}")
-    public ResponseEntity<Resource> generateFormat1AndDownload(@PathVariable("id") Integer id) {
-        // 1) 고객 조회
-        Customer customer = customerService.getCustomerById(id);
-        if (customer == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-        }
+    public void generateFormat1AndDownload(@PathVariable("id") Integer id, HttpServletResponse response) throws IOException {
+        writeForm(id, ExcelService.FORMAT1, ExcelTemplateCache.FORMAT1, "일반 신청서.xlsx", response);
+    }
 
-        // 2) 템플릿 파일을 ClassPathResource로 불러오기
-        ClassPathResource templateResource = new ClassPathResource("excel_templates/format1.xlsx");
-        if (!templateResource.exists()) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
+    @GetMapping("/format2/{id}")
+    public void generateFormat2AndDownload(@PathVariable("id") Integer id, HttpServletResponse response) throws IOException {
+        writeForm(id, ExcelService.FORMAT2, ExcelTemplateCache.FORMAT2, "일반 부속 서류.xlsx", response);
+    }
 
-        // 3) 임시 파일 복사
-        File tempFile;
+    private void writeForm(Integer id, String format, String template, String downloadFilename,
+                           HttpServletResponse response) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            tempFile = Files.createTempFile("format1-", ".xlsx").toFile();
-            try (InputStream is = templateResource.getInputStream()) {
-                Files.copy(is, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            // 1) 고객 버전 기준 캐시 확인 (버전은 고객 조회 전에 읽음)
+            long version = dataVersion.customerVersion(id);
+            byte[] bytes = exportResultCache.get(ExportResultCache.formKey(format, id, version));
+            if (bytes == null) {
+                // 2) 고객 조회
+                Customer customer = customerService.getCustomerById(id);
+                if (customer == null) {
+                    response.setStatus(HttpStatus.NOT_FOUND.value());
+                    return;
+                }
+                // 3) 템플릿 확인
+                if (!excelTemplateCache.isAvailable(template)) {
+                    response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                    return;
+                }
+                // 4) ExcelService로 위임하여 엑셀에 데이터 기입 (결과는 캐시에 보관)
+                bytes = excelService.renderForm(format, customer, version);
             }
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+            setXlsxHeaders(response, downloadFilename);
+            response.setContentLength(bytes.length);
+            response.getOutputStream().write(bytes);
+        } finally {
+            sample.stop(formatTimer(format));
         }
+    }
 
-        // 4) ExcelService로 위임하여 엑셀에 데이터 기입
-        try {
-            excelService.fillFormat1(tempFile, customer);
-        } catch (IOException e) {
-            // 작업 실패 시 tempFile 삭제 후 에러 반환
-            tempFile.delete();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    /**
+     * 서식 일괄 생성: 고객 id 목록 또는 필터(군, 가입차순, 타입, 분류)에 해당하는 고객들의 서식을
+     * 병렬로 만들어 하나의 ZIP으로 스트리밍합니다. 실패한 고객은 ZIP 안의 failures.csv 에 기록됩니다.
+     * progressKey를 지정하고 /forms/bulk/progress/{progressKey} 를 먼저 구독하면 진행 상황을 받을 수 있습니다.
+     */
+    @PostMapping("/forms/bulk")
+    public ResponseEntity<?> generateFormsBulk(@RequestBody BulkFormRequest request) {
+        List<String> formats = (request.getFormats() == null || request.getFormats().isEmpty())
+                ? List.of(BulkFormService.FORMAT1) : request.getFormats();
+        for (String format : formats) {
+            if (!BulkFormService.FORMAT1.equals(format) && !BulkFormService.FORMAT2.equals(format)) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Unknown format: " + format));
+            }
         }
-
-        // 5) tempFile -> 메모리에 올려 Resource로 변환, tempFile 삭제 후 반환
-        ByteArrayResource resource;
-        try {
-            byte[] fileBytes = Files.readAllBytes(tempFile.toPath());
-            resource = new ByteArrayResource(fileBytes);
-        } catch (IOException e) {
-            tempFile.delete();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        List<Integer> customerIds = bulkFormService.resolveCustomerIds(request);
+        if (customerIds.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("No customers found."));
         }
 
-        tempFile.delete();
-
-        String downloadFilename = "일반 신청서.xlsx";
-        String encodedFilename = UriUtils.encode(downloadFilename, StandardCharsets.UTF_8);
-
-        MediaType mediaType = MediaType.parseMediaType(
-                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
-        );
-
+        StreamingResponseBody body = out -> bulkFormService.writeZip(customerIds, formats, request.getProgressKey(), out);
+        String encodedFilename = UriUtils.encode("서식_" + customerIds.size() + "명.zip", StandardCharsets.UTF_8);
         return ResponseEntity.ok()
-                .contentType(mediaType)
+                .contentType(MediaType.parseMediaType("application/zip"))
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename)
-                .body(resource);
+                .body(body);
     }
 
-    @GetMapping("/format2/{id}")
-    public ResponseEntity<Resource> generateFormat2AndDownload(@PathVariable("id") Integer id) {
-        // 1) 고객 조회
-        Customer customer = customerService.getCustomerById(id);
-        if (customer == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-        }
-
-        // 2) 템플릿 파일을 ClassPathResource로 불러오기
-        ClassPathResource templateResource = new ClassPathResource("excel_templates/format2.xlsx");
-        if (!templateResource.exists()) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
-
-        // 3) 임시 파일 복사
-        File tempFile;
-        try {
-            tempFile = Files.createTempFile("format2-", ".xlsx").toFile();
-            try (InputStream is = templateResource.getInputStream()) {
-                Files.copy(is, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            }
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
-
-        // 4) ExcelService로 위임하여 엑셀에 데이터 기입
-        try {
-            excelService.fillFormat2(tempFile, customer);
-        } catch (IOException e) {
-            tempFile.delete();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-
-        // 5) 메모리에 올려서 다운로드 응답
-        ByteArrayResource resource;
-        try {
-            byte[] fileBytes = Files.readAllBytes(tempFile.toPath());
-            resource = new ByteArrayResource(fileBytes);
-        } catch (IOException e) {
-            tempFile.delete();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
-
-        // 임시 파일 삭제
-        tempFile.delete();
+    // 서식 일괄 생성 진행 상황 구독 (phase, progress: ProgressSnapshot, complete: 요약, error)
+    @GetMapping(value = "/forms/bulk/progress/{progressKey}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeBulkFormProgress(@PathVariable String progressKey) {
+        return progressHub.attach(progressKey, 3000000L);
+    }
 
-        String downloadFilename = "일반 부속 서류.xlsx";
+    private void setXlsxHeaders(HttpServletResponse response, String downloadFilename) {
         String encodedFilename = UriUtils.encode(downloadFilename, StandardCharsets.UTF_8);
+        response.setContentType(XLSX_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename);
+    }
 
-        MediaType mediaType = MediaType.parseMediaType(
-                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
-        );
-
-        return ResponseEntity.ok()
-                .contentType(mediaType)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename)
-                .body(resource);
+    // 서식 생성 시간 (actuator /actuator/metrics/excel.format.fill 에서 p50/p99 확인)
+    private Timer formatTimer(String template) {
+        return Timer.builder("excel.format.fill")
+                .description("서식 엑셀 생성 시간")
+                .tag("template", template)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
     }
 
     @PostMapping(value = "/uploadExcelWithProgress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter uploadExcelWithProgress(@RequestParam("file") MultipartFile file) {
         SseEmitter emitter = new SseEmitter(3000000L);
-        CompletableFuture.runAsync(() -> {
+        jobExecutors.runAsync(jobExecutors.importJobs(), emitter, () -> {
+            ProgressPublisher progress = progressSender.open(emitter);
             try {
-                excelService.processExcelFileWithProgress(file, emitter);
-                emitter.send(SseEmitter.event().name("complete").data("Parsing complete"));
-                emitter.complete();
+                excelService.processExcelFileWithProgress(file, progress);
+                progress.complete("complete", "Parsing complete");
             } catch (Exception e) {
-                try {
-                    emitter.send(SseEmitter.event().name("error").data(e.getMessage()));
-                } catch (Exception ex) {
-                    // 로그 처리 등
-                }
-                emitter.completeWithError(e);
+                progress.complete("error", e.getMessage());
             }
         });
         return emitter;
     }
 
+    /**
+     * 고객 등록 엑셀 검증 (드라이런): DB에 저장하지 않고 행별 문제 목록을 반환합니다.
+     * annotate=true이면 문제 셀을 표시한 엑셀을 만들어 annotatedFileId로 돌려줍니다.
+     */
+    @PostMapping("/validateExcel")
+    public ResponseEntity<?> validateExcel(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(value = "annotate", defaultValue = "true") boolean annotate) {
+        try (InputStream is = file.getInputStream()) {
+            return ResponseEntity.ok(excelService.validateCustomerWorkbook(is, annotate));
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body(new MessageResponse("Could not read file: " + e.getMessage()));
+        }
+    }
+
+    // 검증 결과가 표시된 엑셀 다운로드
+    @GetMapping("/validateExcel/file")
+    public void downloadValidatedExcel(@RequestParam("fileId") String fileId,
+                                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        File file = artifactStore.get(fileId);
+        if (file == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        // 다운로드 후 보관소에서 제거 (이어받기를 위해 잠시 유지한 뒤 파일 삭제)
+        artifactStore.release(fileId);
+        RangeFileSender.send(request, response, file, XLSX_CONTENT_TYPE, "validation_result.xlsx");
+    }
+
     // (a) SSE 엔드포인트 : 파일 생성 및 진행 상황 전달
+    // streaming=true 이면 고객을 페이지 단위로 읽어 SXSSF로 기록합니다. (고객 수와 무관한 메모리 사용)
+    // since(ISO 일시)가 있으면 그 이후 고객 또는 차수/상태가 변경된 고객만 기록합니다. (항상 스트리밍 방식)
+    // complete 직전에 watermark 이벤트로 다음 변경분 요청의 since 값을 보냅니다.
     @GetMapping(value = "/regfiledownload/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter generateRegFile() {
+    public SseEmitter generateRegFile(
+            @RequestParam(value = "streaming", defaultValue = "false") boolean streaming,
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
         SseEmitter emitter = new SseEmitter(3000000L);
-        CompletableFuture.runAsync(() -> {
+        boolean paged = streaming || since != null;
+        jobExecutors.runAsync(jobExecutors.exportJobs(), emitter, () -> {
+            ProgressPublisher progress = progressSender.open(emitter);
             File tempFile = null;
             try {
-                // 고객 목록 조회 (phases 등 미리 초기화한 메서드 사용)
-                List<Customer> customers = customerService.getAllCustomersWithPhases();
-                if (customers == null || customers.isEmpty()) {
-                    emitter.send(SseEmitter.event().name("error").data("No customers found."));
-                    emitter.complete();
+                // 데이터가 바뀌지 않았으면 이전에 만든 결과를 그대로 사용 (버전과 기준 시각은 조회 전에 읽음)
+                long version = dataVersion.current();
+                LocalDateTime watermark = dataVersion.watermark();
+                String cacheKey = ExportResultCache.regformatKey(version, since);
+                // 결과를 저장할 임시 파일 (캐시에 있으면 캐시 파일의 링크)
+                tempFile = Files.createTempFile("regformat-", ".xlsx").toFile();
+                if (exportResultCache.copyTo(cacheKey, tempFile)) {
+                    String fileId = artifactStore.save(tempFile);
+                    progress.event("watermark", watermark.toString());
+                    progress.complete("complete", fileId);
                     return;
                 }
 
-                // 템플릿 파일 로드
-                ClassPathResource templateResource = new ClassPathResource("excel_templates/regformat.xlsx");
-                if (!templateResource.exists()) {
-                    emitter.send(SseEmitter.event().name("error").data("Template file not found."));
-                    emitter.complete();
+                // 고객 목록 조회 (phases 등 미리 초기화한 메서드 사용, 스트리밍 모드에서는 페이지 단위로 조회)
+                List<Customer> customers = paged ? null : customerService.getAllCustomersWithPhases();
+                if (!paged && (customers == null || customers.isEmpty())) {
+                    tempFile.delete();
+                    progress.complete("error", "No customers found.");
                     return;
                 }
 
-                // 템플릿 파일을 임시 파일로 복사
-                tempFile = Files.createTempFile("regformat-", ".xlsx").toFile();
-                try (InputStream is = templateResource.getInputStream()) {
-                    Files.copy(is, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                // 템플릿 확인 (캐시된 템플릿 복제본에 기록하므로 템플릿 복사는 하지 않음)
+                if (!excelTemplateCache.isAvailable(ExcelTemplateCache.REGFORMAT)) {
+                    tempFile.delete();
+                    progress.complete("error", "Template file not found.");
+                    return;
                 }
 
                 // 엑셀 템플릿에 고객 데이터 기록 (진행 상황 전달)
-                excelService.fillRegFormat(tempFile, customers, emitter);
+                if (paged) {
+                    excelService.fillRegFormatStreaming(tempFile, since, progress);
+                } else {
+                    excelService.fillRegFormat(tempFile, customers, progress);
+                }
+                exportResultCache.putFile(cacheKey, tempFile);
 
-                // 파일 생성 완료 후 고유 식별자 생성 및 캐시에 저장
-                String fileId = UUID.randomUUID().toString();
-                FileCache.put(fileId, tempFile);
+                // 파일 생성 완료 후 보관소에 저장하고 고유 식별자 전달
+                String fileId = artifactStore.save(tempFile);
 
-                emitter.send(SseEmitter.event().name("complete").data(fileId));
-                emitter.complete();
+                progress.event("watermark", watermark.toString());
+                progress.complete("complete", fileId);
             } catch (Exception e) {
-                try {
-                    emitter.send(SseEmitter.event().name("error").data(e.getMessage()));
-                } catch (Exception ex) {
-                    // 무시
-                }
-                emitter.completeWithError(e);
+                progress.complete("error", e.getMessage());
                 if (tempFile != null && tempFile.exists()) {
                     tempFile.delete();
                 }
@@ -328,26 +470,16 @@ public class FileController {
 
     // (b) 파일 다운로드 엔드포인트 : fileId를 이용하여 실제 파일 전달
     @GetMapping("/regfiledownload/file")
-    public ResponseEntity<Resource> downloadGeneratedRegFile(@RequestParam("fileId") String fileId) {
-        try {
-            File tempFile = FileCache.get(fileId);
-            if (tempFile == null || !tempFile.exists()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-            }
-            Resource resource = new UrlResource(tempFile.toURI());
-            String encodedFilename = UriUtils.encode("regformat_download.xlsx", StandardCharsets.UTF_8);
-            MediaType mediaType = MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-
-            // 파일 다운로드 후 캐시에서 제거 (원하는 경우)
-            FileCache.remove(fileId);
-
-            return ResponseEntity.ok()
-                    .contentType(mediaType)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename)
-                    .body(resource);
-        } catch (MalformedURLException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    public void downloadGeneratedRegFile(@RequestParam("fileId") String fileId,
+                                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        File file = artifactStore.get(fileId);
+        if (file == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
         }
+        // 다운로드 후 보관소에서 제거 (이어받기를 위해 잠시 유지한 뒤 파일 삭제)
+        artifactStore.release(fileId);
+        RangeFileSender.send(request, response, file, XLSX_CONTENT_TYPE, "regformat_download.xlsx");
     }
 
 }
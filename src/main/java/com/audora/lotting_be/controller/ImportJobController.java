@@ -0,0 +1,109 @@
+package com.audora.lotting_be.controller;
+
+import com.audora.lotting_be.model.job.ImportJob;
+import com.audora.lotting_be.model.job.ImportJobType;
+import com.audora.lotting_be.payload.response.MessageResponse;
+import com.audora.lotting_be.service.ImportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 재개 가능한 엑셀 가져오기 작업 API.
+ * 업로드 즉시 작업 정보(id)를 반환하고, 진행 상황은 /{id}/progress 로 언제든 다시 구독할 수 있습니다.
+ */
+@RestController
+@RequestMapping("/api/import-jobs")
+public class ImportJobController {
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    /**
+     * 고객 등록 엑셀 가져오기 작업 생성 (이미 존재하는 관리번호는 건너뜀)
+     */
+    @PostMapping("/customers")
+    public ResponseEntity<?> submitCustomerImport(@RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.ok(importJobService.submit(ImportJobType.CUSTOMER_EXCEL, file, false));
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body(new MessageResponse("Could not store file: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 입금내역 엑셀 가져오기 작업 생성
+     *
+     * @param deferred 지연 재계산 모드 사용 여부
+     */
+    @PostMapping("/deposits")
+    public ResponseEntity<?> submitDepositImport(@RequestParam("file") MultipartFile file,
+                                                 @RequestParam(value = "deferred", defaultValue = "false") boolean deferred) {
+        try {
+            return ResponseEntity.ok(importJobService.submit(ImportJobType.DEPOSIT_EXCEL, file, deferred));
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body(new MessageResponse("Could not store file: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ImportJob>> getRecentJobs() {
+        return ResponseEntity.ok(importJobService.getRecentJobs());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJob> getJob(@PathVariable String id) {
+        return importJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 진행 상황 (재)구독. 첫 이벤트로 현재 상태(status)를 보냅니다.
+     */
+    @GetMapping(value = "/{id}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@PathVariable String id) {
+        if (importJobService.getJob(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(importJobService.subscribe(id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<?> cancel(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(importJobService.cancel(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<?> resume(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(importJobService.resume(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/rerun")
+    public ResponseEntity<?> rerun(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(importJobService.rerun(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        }
+    }
+}
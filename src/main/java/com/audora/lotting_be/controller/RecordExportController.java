@@ -0,0 +1,112 @@
+package com.audora.lotting_be.controller;
+
+import com.audora.lotting_be.payload.response.MessageResponse;
+import com.audora.lotting_be.service.RecordExportService;
+import com.audora.lotting_be.util.RecordWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 외부 시스템(ERP 등) 연동용 CSV/NDJSON 내보내기 API.
+ * 엑셀 내보내기와 달리 파일을 만들지 않고 응답으로 바로 스트리밍합니다.
+ * 공통 파라미터: format=csv|ndjson (기본 csv), gzip=true 이면 .gz 로 압축, since(ISO 일시) 이후 변경분만
+ */
+@RestController
+@RequestMapping("/api/export")
+public class RecordExportController {
+
+    private static final MediaType CSV_TYPE = MediaType.parseMediaType("text/csv; charset=UTF-8");
+    private static final MediaType NDJSON_TYPE = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType GZIP_TYPE = MediaType.parseMediaType("application/gzip");
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private RecordExportService recordExportService;
+
+    /**
+     * 고객 (회원 명부와 같은 열). 군, 가입차순, 타입, 분류로 거를 수 있습니다.
+     */
+    @GetMapping("/customers")
+    public ResponseEntity<?> exportCustomers(
+            @RequestParam(value = "format", defaultValue = RecordWriter.CSV) String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @RequestParam(value = "groupname", required = false) String groupname,
+            @RequestParam(value = "batch", required = false) String batch,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "customertype", required = false) String customertype,
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return stream("customers", format, gzip, out -> recordExportService.writeCustomers(
+                format, out, blankToNull(groupname), blankToNull(batch), blankToNull(type), blankToNull(customertype), since));
+    }
+
+    /**
+     * 입금내역. 거래일(from~to, 종료일 포함)과 계좌로 거를 수 있습니다.
+     */
+    @GetMapping("/deposits")
+    public ResponseEntity<?> exportDepositHistories(
+            @RequestParam(value = "format", defaultValue = RecordWriter.CSV) String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "account", required = false) String account,
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return stream("deposit_histories", format, gzip, out -> recordExportService.writeDepositHistories(
+                format, out,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                blankToNull(account), since));
+    }
+
+    /**
+     * 차수. 고객 id와 차수로 거를 수 있습니다.
+     */
+    @GetMapping("/phases")
+    public ResponseEntity<?> exportPhases(
+            @RequestParam(value = "format", defaultValue = RecordWriter.CSV) String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @RequestParam(value = "customerId", required = false) Integer customerId,
+            @RequestParam(value = "phaseNumber", required = false) Integer phaseNumber,
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return stream("phases", format, gzip, out -> recordExportService.writePhases(
+                format, out, customerId, phaseNumber, since));
+    }
+
+    private interface RecordBody {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private ResponseEntity<?> stream(String name, String format, boolean gzip, RecordBody records) {
+        if (!RecordWriter.isSupported(format)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Unknown format: " + format));
+        }
+        String extension = format.toLowerCase();
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // RecordWriter를 닫으면 GZIP 스트림도 닫히며 마지막 블록이 기록됨
+                records.writeTo(new GZIPOutputStream(out, GZIP_BUFFER_SIZE));
+            } else {
+                records.writeTo(out);
+            }
+        };
+        String filename = name + "." + extension + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP_TYPE : RecordWriter.CSV.equals(extension) ? CSV_TYPE : NDJSON_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    private static String blankToNull(String value) {
+        return (value == null || value.isBlank()) ? null : value.trim();
+    }
+}
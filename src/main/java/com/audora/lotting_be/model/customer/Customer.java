@@ -2,15 +2,19 @@
 package com.audora.lotting_be.model.customer;
 
 import com.audora.lotting_be.model.customer.minor.*;
+import com.audora.lotting_be.model.listener.DataVersionListener;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@EntityListeners(DataVersionListener.class)
+@Table(indexes = @Index(name = "idx_customer_last_modified_at", columnList = "lastModifiedAt"))
 @Data
 @EqualsAndHashCode(exclude = "status")
 public class Customer {
@@ -89,4 +93,7 @@ public class Customer {
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL)
     @JsonManagedReference(value = "customer-depositHistories")
     private List<DepositHistory> depositHistories;
+
+    // 마지막 수정 시각 (DataVersionListener가 저장/수정 시 기록, 변경분 내보내기의 since 조건에 사용)
+    private LocalDateTime lastModifiedAt;
 }
@@ -0,0 +1,34 @@
+package com.audora.lotting_be.model.customer;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 고객별 부속서류 제출 내역 (고객, 서류 종류당 한 행).
+ * Customer를 로딩하지 않고 서류 목록과 "X 서류 미제출 고객"을 조회할 수 있도록 고객 id만 저장합니다.
+ * 파일을 올린 경우 storedFileId로 StoredFile(ContentStore)에 연결되며, 원본 없이 제출 표시만 한 경우는 null입니다.
+ */
+@Entity
+@Data
+@Table(name = "customer_attachment",
+        uniqueConstraints = @UniqueConstraint(name = "uk_customer_attachment_customer_type",
+                columnNames = {"customerId", "documentType"}),
+        indexes = @Index(name = "idx_customer_attachment_type_customer", columnList = "documentType, customerId"))
+public class CustomerAttachment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 40, nullable = false)
+    private DocumentType documentType;
+
+    private Long storedFileId;          // 제출 파일 (없으면 null)
+    private LocalDateTime submittedAt;  // 제출(기록) 시각
+}
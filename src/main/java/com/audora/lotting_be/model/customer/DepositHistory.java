@@ -1,6 +1,7 @@
 package com.audora.lotting_be.model.customer;
 
 import com.audora.lotting_be.model.customer.minor.Loan;
+import com.audora.lotting_be.model.listener.DataVersionListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -10,6 +11,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@EntityListeners(DataVersionListener.class)
+@Table(indexes = @Index(name = "idx_deposit_history_last_modified_at", columnList = "lastModifiedAt"))
 @Data
 public class DepositHistory {
 
@@ -101,4 +104,13 @@ public class DepositHistory {
     private Customer customer;
 
     private String allocationDetail; //기록용
+
+    // 엑셀 업로드 중복 방지용 지문 (거래일시, 입출금액, 잔액, 계좌, 계약자의 SHA-256)
+    // 업로드로 생성된 행에 기록되고, 그 전에 저장된 행은 시작 시 DepositFingerprintBackfill이 채웁니다.
+    // 이후 수정되어도 원본 행을 식별하도록 그대로 유지합니다.
+    @Column(unique = true, length = 64)
+    private String fingerprint;
+
+    // 마지막 수정 시각 (JDBC 배치 저장 시에는 저장소에서 직접 기록)
+    private LocalDateTime lastModifiedAt;
 }
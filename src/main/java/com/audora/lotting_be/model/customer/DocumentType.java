@@ -0,0 +1,59 @@
+package com.audora.lotting_be.model.customer;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+// 부속서류 종류 (legacyColumn: 같은 서류의 customer 테이블 제출 여부 열, Attachments 참고)
+public enum DocumentType {
+    SEAL_CERTIFICATE("인감증명서", "sealcertificateprovided", Attachments::getSealcertificateprovided),
+    SELF_SIGNATURE_CONFIRMATION("본인서명확인서", "selfsignatureconfirmationprovided", Attachments::getSelfsignatureconfirmationprovided),
+    ID_COPY("신분증 사본", "idcopyprovided", Attachments::getIdcopyprovided),
+    COMMITMENT_LETTER("확약서", "commitmentletterprovided", Attachments::getCommitmentletterprovided),
+    GENERAL_MEETING_CONSENT("총회 동의서", "generalmeetingconsentformprovided", Attachments::getGeneralmeetingconsentformprovided),
+    AGREEMENT("총회동의서(지산)", "agreement", Attachments::getAgreement),
+    CONTRACT("지산 A동 계약서", "contract", Attachments::getContract),
+    INVESTMENT("출자금", "investmentfile", Attachments::getInvestmentfile),
+    FOR_FOUNDING("창준위용", "forfounding", Attachments::getForfounding),
+    FREE_OPTION("무상옵션", "freeoption", Attachments::getFreeoption),
+    PREFERENCE("선호도조사", "preferenceattachment", Attachments::getPreferenceattachment),
+    PRIZE("사은품", "prizeattachment", Attachments::getPrizeattachment);
+
+    private final String label;
+    private final String legacyColumn;
+    private final Function<Attachments, Boolean> legacyFlag;
+
+    DocumentType(String label, String legacyColumn, Function<Attachments, Boolean> legacyFlag) {
+        this.label = label;
+        this.legacyColumn = legacyColumn;
+        this.legacyFlag = legacyFlag;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getLegacyColumn() {
+        return legacyColumn;
+    }
+
+    /**
+     * 기존 제출 여부 열(Attachments)에 이 서류가 제출된 것으로 표시되어 있는지
+     */
+    public boolean isProvidedIn(Attachments attachments) {
+        return attachments != null && Boolean.TRUE.equals(legacyFlag.apply(attachments));
+    }
+
+    /**
+     * 제출 여부 열(Attachments)에 제출로 표시된 서류들 (변경 전 상태를 남겨 두는 용도)
+     */
+    public static Set<DocumentType> providedIn(Attachments attachments) {
+        Set<DocumentType> provided = EnumSet.noneOf(DocumentType.class);
+        for (DocumentType type : values()) {
+            if (type.isProvidedIn(attachments)) {
+                provided.add(type);
+            }
+        }
+        return provided;
+    }
+}
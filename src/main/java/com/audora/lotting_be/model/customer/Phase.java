@@ -1,11 +1,15 @@
 package com.audora.lotting_be.model.customer;
 
+import com.audora.lotting_be.model.listener.DataVersionListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(DataVersionListener.class)
+@Table(indexes = @Index(name = "idx_phase_last_modified_at", columnList = "lastModifiedAt"))
 @Data
 public class Phase {
     @Id
@@ -30,4 +34,6 @@ public class Phase {
     @JoinColumn(name = "customer_id")
     @JsonBackReference
     private Customer customer;
+
+    private LocalDateTime lastModifiedAt; // 마지막 수정 시각 (변경분 내보내기용)
 }
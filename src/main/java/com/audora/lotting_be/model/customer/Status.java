@@ -1,12 +1,17 @@
 // Status.java
 package com.audora.lotting_be.model.customer;
 
+import com.audora.lotting_be.model.listener.DataVersionListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import java.time.LocalDateTime;
+
 @Entity
+@EntityListeners(DataVersionListener.class)
+@Table(indexes = @Index(name = "idx_status_last_modified_at", columnList = "lastModifiedAt"))
 @Data
 @EqualsAndHashCode(exclude = "customer") // customer 필드 제외
 public class Status {
@@ -29,4 +34,6 @@ public class Status {
     @JoinColumn(name = "customer_id")
     @JsonBackReference
     private Customer customer;
+
+    private LocalDateTime lastModifiedAt; // 마지막 수정 시각 (변경분 내보내기용)
 }
@@ -0,0 +1,34 @@
+package com.audora.lotting_be.model.file;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 업로드 파일 정보.
+ * 파일 내용은 ContentStore에 SHA-256 해시 경로(ab/cd/해시)로 한 번만 보관되고,
+ * 같은 내용을 여러 번(다른 고객, 다른 파일명으로) 올리면 이 행만 늘어납니다.
+ */
+@Entity
+@Data
+@Table(name = "stored_file", indexes = {
+        @Index(name = "idx_stored_file_sha256", columnList = "sha256"),
+        @Index(name = "idx_stored_file_customer_id", columnList = "customerId")
+})
+public class StoredFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 64, nullable = false)
+    private String sha256; // 내용 해시 (소문자 16진수)
+
+    private String originalFilename; // 업로드 원본 파일명
+    private Long size;               // bytes
+    private String contentType;      // MIME 타입
+    private Integer customerId;      // 소유 고객 (없으면 null)
+
+    private LocalDateTime createdAt;
+}
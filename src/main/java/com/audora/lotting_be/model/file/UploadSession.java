@@ -0,0 +1,36 @@
+package com.audora.lotting_be.model.file;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 청크 업로드 세션.
+ * 파일 전체 크기로 미리 만든 부분 파일에 청크를 위치(offset)별로 기록하며,
+ * 받은 청크 번호를 비트맵으로 남겨 연결이 끊기거나 서버가 재시작되어도 빠진 청크만 다시 보내면 됩니다.
+ */
+@Entity
+@Data
+@Table(name = "upload_session", indexes = {
+        @Index(name = "idx_upload_session_updated_at", columnList = "updatedAt")
+})
+public class UploadSession {
+
+    @Id
+    @Column(length = 36)
+    private String id; // UUID
+
+    private String originalFilename; // 업로드 원본 파일명
+    private String contentType;      // MIME 타입
+    private Long size;               // 전체 크기 (bytes)
+    private Integer chunkSize;       // 청크 크기 (마지막 청크만 더 작을 수 있음)
+    private Integer customerId;      // 소유 고객 (없으면 null)
+
+    // 받은 청크 번호 비트맵 (BitSet.toByteArray의 Base64)
+    @Lob
+    private String receivedChunks;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,53 @@
+package com.audora.lotting_be.model.job;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 엑셀 가져오기 작업.
+ * 업로드 파일은 로컬 디스크(storedPath)에 보관되고, 마지막으로 커밋된 시트 행(lastCommittedRow)을
+ * 체크포인트로 남겨 연결이 끊기거나 서버가 재시작되어도 이어서 처리할 수 있습니다.
+ */
+@Entity
+@Data
+@Table(name = "import_job", indexes = {
+        @Index(name = "idx_import_job_status", columnList = "status"),
+        @Index(name = "idx_import_job_created_at", columnList = "createdAt")
+})
+public class ImportJob {
+
+    @Id
+    @Column(length = 36)
+    private String id; // UUID
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ImportJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ImportJobStatus status;
+
+    private String originalFilename; // 업로드 원본 파일명
+    private String storedPath;       // 디스크에 보관된 파일 경로
+    private Boolean deferred;        // 입금내역: 지연 재계산 모드 여부
+
+    private Integer totalRows;        // 전체 데이터 행 수
+    private Integer lastCommittedRow; // 마지막으로 커밋된 시트 행 인덱스 (-1: 없음)
+    private Integer insertedCount;    // 저장 건수
+    private Integer skippedCount;     // 중복/기존 데이터로 건너뛴 건수
+    private String phase;             // 현재 단계 (insert, recalculate)
+
+    // 지연 재계산 모드에서 아직 재계산되지 않은 고객 id (콤마 구분)
+    @Lob
+    private String pendingCustomerIds;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,14 @@
+package com.audora.lotting_be.model.job;
+
+// 가져오기 작업 상태
+public enum ImportJobStatus {
+    QUEUED,     // 대기
+    RUNNING,    // 진행 중 (서버 재시작 시 체크포인트부터 재개)
+    COMPLETED,  // 완료
+    FAILED,     // 실패
+    CANCELLED;  // 취소
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
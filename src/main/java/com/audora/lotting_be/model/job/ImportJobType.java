@@ -0,0 +1,7 @@
+package com.audora.lotting_be.model.job;
+
+// 가져오기 작업 종류
+public enum ImportJobType {
+    CUSTOMER_EXCEL, // 고객 등록 엑셀 (regformat)
+    DEPOSIT_EXCEL   // 은행 입금내역 엑셀
+}
@@ -0,0 +1,61 @@
+package com.audora.lotting_be.model.listener;
+
+import com.audora.lotting_be.model.customer.Customer;
+import com.audora.lotting_be.model.customer.DepositHistory;
+import com.audora.lotting_be.model.customer.Phase;
+import com.audora.lotting_be.model.customer.Status;
+import com.audora.lotting_be.service.DataVersion;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Customer, Phase, Status, DepositHistory 변경 시 DataVersion을 올리고 마지막 수정 시각(lastModifiedAt)을 기록합니다.
+ */
+public class DataVersionListener {
+
+    @PrePersist
+    @PreUpdate
+    public void touch(Object entity) {
+        LocalDateTime now = LocalDateTime.now();
+        if (entity instanceof Customer c) {
+            c.setLastModifiedAt(now);
+        } else if (entity instanceof Phase phase) {
+            phase.setLastModifiedAt(now);
+        } else if (entity instanceof Status status) {
+            status.setLastModifiedAt(now);
+        } else if (entity instanceof DepositHistory dh) {
+            dh.setLastModifiedAt(now);
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        DataVersion dataVersion = DataVersion.get();
+        if (dataVersion == null) {
+            return;
+        }
+        // 커밋 전에 올리면 그 사이 시작된 내보내기가 이전 데이터를 새 버전으로 캐시할 수 있으므로 커밋 후에 올림
+        dataVersion.bumpAfterCommit(customerIdOf(entity));
+    }
+
+    private Integer customerIdOf(Object entity) {
+        Customer customer = null;
+        if (entity instanceof Customer c) {
+            customer = c;
+        } else if (entity instanceof Phase phase) {
+            customer = phase.getCustomer();
+        } else if (entity instanceof Status status) {
+            customer = status.getCustomer();
+        } else if (entity instanceof DepositHistory dh) {
+            customer = dh.getCustomer();
+        }
+        return customer != null ? customer.getId() : null;
+    }
+}
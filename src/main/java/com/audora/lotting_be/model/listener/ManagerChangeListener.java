@@ -0,0 +1,37 @@
+package com.audora.lotting_be.model.listener;
+
+import com.audora.lotting_be.model.manager.Manager;
+import com.audora.lotting_be.security.UserDetailsCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Manager 추가/수정/삭제 시 토큰 인증 캐시(UserDetailsCache)의 해당 관리자 항목을 지웁니다.
+ */
+public class ManagerChangeListener {
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Manager manager) {
+        UserDetailsCache cache = UserDetailsCache.get();
+        if (cache == null) {
+            return;
+        }
+        String username = manager.getUsername();
+        // 커밋 전에 지우면 그 사이 다른 요청이 이전 값을 다시 캐시할 수 있으므로 커밋 후에 지움
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        } else {
+            cache.invalidate(username);
+        }
+    }
+}
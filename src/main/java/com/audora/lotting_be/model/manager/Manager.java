@@ -1,11 +1,13 @@
 // src/main/java/com/audora/lotting_be/model/manager/Manager.java
 package com.audora.lotting_be.model.manager;
 
+import com.audora.lotting_be.model.listener.ManagerChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.util.Set;
 
 @Entity
+@EntityListeners(ManagerChangeListener.class)
 @Data
 @Table(name = "managers")
 public class Manager {
@@ -0,0 +1,26 @@
+package com.audora.lotting_be.payload.request;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 서식 일괄 생성 요청.
+ * ids가 있으면 해당 고객만, 없으면 필터(군, 가입차순, 타입, 분류)에 맞는 고객 전체를 대상으로 합니다.
+ */
+@Data
+public class BulkFormRequest {
+    private List<Integer> ids;
+
+    // 필터 (null 또는 빈 값이면 조건 없음)
+    private String groupname;
+    private String batch;
+    private String type;
+    private String customertype;
+
+    // 생성할 서식: "format1"(일반 신청서), "format2"(일반 부속 서류). 비어 있으면 format1
+    private List<String> formats;
+
+    // 진행 상황 구독 키 (선택). GET /files/forms/bulk/progress/{progressKey} 로 미리 구독합니다.
+    private String progressKey;
+}
@@ -0,0 +1,15 @@
+package com.audora.lotting_be.payload.response;
+
+import lombok.Data;
+
+/**
+ * 서류 미제출 고객 (목록 표시에 필요한 열만, 조회 결과에서 바로 생성)
+ */
+@Data
+public class MissingDocumentCustomer {
+    private final Integer id;        // 관리번호
+    private final String name;       // 성명
+    private final String phone;      // 휴대전화
+    private final String groupname;  // 군
+    private final String batch;      // 가입차순
+}
@@ -0,0 +1,15 @@
+package com.audora.lotting_be.payload.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 서류 미제출 고객 목록 한 페이지. 다음 페이지는 afterId=nextAfterId 로 요청합니다. (마지막 페이지이면 null)
+ */
+@Data
+public class MissingDocumentPage {
+    private String documentType;
+    private List<MissingDocumentCustomer> customers;
+    private Integer nextAfterId;
+}
@@ -0,0 +1,17 @@
+package com.audora.lotting_be.payload.response;
+
+import lombok.Data;
+
+/**
+ * 장시간 작업의 진행 상황 (SSE progress 이벤트 본문)
+ */
+@Data
+public class ProgressSnapshot {
+    private String phase; // 작업 단계 (export, insert, recalculate 등)
+    private long processed; // 처리 건수
+    private long total; // 전체 건수 (모르면 0)
+    private double percent; // 진행률 (%)
+    private double rate; // 초당 처리 건수
+    private Long etaSeconds; // 남은 예상 시간 (초, 계산할 수 없으면 null)
+    private long elapsedMs; // 현재 단계 경과 시간
+}
@@ -0,0 +1,27 @@
+// src/main/java/com/audora/lotting_be/payload/response/RowIssue.java
+package com.audora.lotting_be.payload.response;
+
+import lombok.Data;
+
+/**
+ * 엑셀 검증(드라이런) 결과의 행 단위 문제 항목.
+ */
+@Data
+public class RowIssue {
+    public static final String ERROR = "ERROR";     // 가져오기가 중단되거나 값이 저장되지 않음
+    public static final String WARNING = "WARNING"; // 기본값으로 대체되거나 건너뜀
+
+    private int row;        // 엑셀 행 번호 (1부터)
+    private String column;  // 엑셀 열 이름 (예: "EC")
+    private String value;   // 셀에 입력된 값
+    private String level;   // ERROR / WARNING
+    private String message; // 설명
+
+    public RowIssue(int row, String column, String value, String level, String message) {
+        this.row = row;
+        this.column = column;
+        this.value = value;
+        this.level = level;
+        this.message = message;
+    }
+}
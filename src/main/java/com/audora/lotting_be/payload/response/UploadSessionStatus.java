@@ -0,0 +1,18 @@
+package com.audora.lotting_be.payload.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 청크 업로드 세션 상태. 클라이언트는 missingChunks의 청크만 (다시) 보내면 됩니다.
+ */
+@Data
+public class UploadSessionStatus {
+    private String id;                  // 세션 id
+    private long size;                  // 전체 크기 (bytes)
+    private int chunkSize;              // 청크 크기, 청크 n의 offset = n * chunkSize
+    private int totalChunks;            // 전체 청크 수
+    private long receivedBytes;         // 받은 크기
+    private List<Integer> missingChunks; // 아직 받지 않은 청크 번호
+}
@@ -0,0 +1,31 @@
+// src/main/java/com/audora/lotting_be/payload/response/ValidationReport.java
+package com.audora.lotting_be.payload.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 엑셀 검증(드라이런) 결과. DB에는 아무것도 저장하지 않고 행별 문제만 모아서 돌려줍니다.
+ */
+@Data
+public class ValidationReport {
+    private String workbookType;   // customer / deposit
+    private int totalRows;         // 검사한 데이터 행 수
+    private int errorRows;         // ERROR가 하나 이상 있는 행 수
+    private int errorCount;        // ERROR 건수
+    private int warningCount;      // WARNING 건수
+    private long elapsedMs;        // 검증 소요 시간
+    private String annotatedFileId; // 문제 셀을 표시한 엑셀 파일 id (문제가 없으면 null)
+    private List<RowIssue> issues = new ArrayList<>();
+
+    public void add(RowIssue issue) {
+        issues.add(issue);
+        if (RowIssue.ERROR.equals(issue.getLevel())) {
+            errorCount++;
+        } else {
+            warningCount++;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.audora.lotting_be.repository;
+
+import com.audora.lotting_be.model.customer.CustomerAttachment;
+import com.audora.lotting_be.model.customer.DocumentType;
+import com.audora.lotting_be.payload.response.MissingDocumentCustomer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CustomerAttachmentRepository extends JpaRepository<CustomerAttachment, Long> {
+
+    List<CustomerAttachment> findByCustomerIdOrderByDocumentType(Integer customerId);
+
+    Optional<CustomerAttachment> findByCustomerIdAndDocumentType(Integer customerId, DocumentType documentType);
+
+    // 서류 미제출 고객: id 순 키셋 페이징, 한 번의 조회 (NOT EXISTS는 (customerId, documentType) 유니크 인덱스 사용)
+    // null 조건은 무시, 기본 고객 id 1 제외
+    @Query("SELECT new com.audora.lotting_be.payload.response.MissingDocumentCustomer(" +
+            "c.id, c.customerData.name, c.customerData.phone, c.groupname, c.batch)" +
+            " FROM Customer c WHERE c.id > :afterId AND c.id <> 1" +
+            " AND (:groupname IS NULL OR c.groupname = :groupname)" +
+            " AND (:batch IS NULL OR c.batch = :batch)" +
+            " AND NOT EXISTS (SELECT a.id FROM CustomerAttachment a" +
+            " WHERE a.customerId = c.id AND a.documentType = :documentType)" +
+            " ORDER BY c.id")
+    List<MissingDocumentCustomer> findCustomersMissing(@Param("documentType") DocumentType documentType,
+                                                       @Param("afterId") Integer afterId,
+                                                       @Param("groupname") String groupname,
+                                                       @Param("batch") String batch,
+                                                       Pageable pageable);
+}
@@ -2,19 +2,80 @@
 package com.audora.lotting_be.repository;
 
 import com.audora.lotting_be.model.customer.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Integer> {
+
+    // 변경분 내보내기 조건: 고객 또는 그 차수/상태가 since 이후 저장/수정됨
+    String MODIFIED_AFTER = "(c.lastModifiedAt > :since" +
+            " OR EXISTS (SELECT p.id FROM Phase p WHERE p.customer = c AND p.lastModifiedAt > :since)" +
+            " OR EXISTS (SELECT s.id FROM Status s WHERE s.customer = c AND s.lastModifiedAt > :since))";
+
     @Query(value = "SELECT COALESCE(MAX(id), 0) + 1 FROM customer", nativeQuery = true)
     Integer getNextId();
 
     List<Customer> findByCustomerDataNameContaining(String name);
 
+    // 엑셀 검증(드라이런)용: 엔티티를 로딩하지 않고 id/이름만 조회
+    @Query("SELECT c.id FROM Customer c")
+    List<Integer> findAllIds();
+
+    @Query("SELECT DISTINCT c.customerData.name FROM Customer c WHERE c.customerData.name IS NOT NULL")
+    List<String> findAllNames();
+
+    // 스트리밍 내보내기용: id 순 키셋 페이징 (lastId 다음부터 pageable 크기만큼)
+    @Query("SELECT c.id FROM Customer c WHERE c.id > :lastId ORDER BY c.id")
+    List<Integer> findIdsAfter(@Param("lastId") Integer lastId, Pageable pageable);
+
+    // 변경분 내보내기용: findIdsAfter와 같으나 since 이후 변경된 고객만
+    @Query("SELECT c.id FROM Customer c WHERE c.id > :lastId AND " + MODIFIED_AFTER + " ORDER BY c.id")
+    List<Integer> findModifiedIdsAfter(@Param("lastId") Integer lastId, @Param("since") LocalDateTime since,
+                                       Pageable pageable);
+
+    @Query("SELECT COUNT(c) FROM Customer c WHERE " + MODIFIED_AFTER)
+    long countModifiedAfter(@Param("since") LocalDateTime since);
+
+    @EntityGraph(attributePaths = "phases")
+    @Query("SELECT c FROM Customer c WHERE c.id IN :ids ORDER BY c.id")
+    List<Customer> findWithPhasesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // 서식 일괄 생성용: 필터에 맞는 고객 id (null 조건은 무시, 기본 고객 id 1 제외)
+    @Query("SELECT c.id FROM Customer c WHERE c.id <> 1" +
+            " AND (:groupname IS NULL OR c.groupname = :groupname)" +
+            " AND (:batch IS NULL OR c.batch = :batch)" +
+            " AND (:type IS NULL OR c.type = :type)" +
+            " AND (:customertype IS NULL OR c.customertype = :customertype)" +
+            " ORDER BY c.id")
+    List<Integer> findIdsByFilter(@Param("groupname") String groupname,
+                                  @Param("batch") String batch,
+                                  @Param("type") String type,
+                                  @Param("customertype") String customertype);
+
+    // CSV/NDJSON 내보내기용: findIdsByFilter 조건과 변경 기준(since, null이면 무시)에 맞는 고객 id, id 순 키셋 페이징
+    @Query("SELECT c.id FROM Customer c WHERE c.id > :lastId AND c.id <> 1" +
+            " AND (:groupname IS NULL OR c.groupname = :groupname)" +
+            " AND (:batch IS NULL OR c.batch = :batch)" +
+            " AND (:type IS NULL OR c.type = :type)" +
+            " AND (:customertype IS NULL OR c.customertype = :customertype)" +
+            " AND (:since IS NULL OR " + MODIFIED_AFTER + ")" +
+            " ORDER BY c.id")
+    List<Integer> findIdsByFilterAfter(@Param("lastId") Integer lastId,
+                                       @Param("groupname") String groupname,
+                                       @Param("batch") String batch,
+                                       @Param("type") String type,
+                                       @Param("customertype") String customertype,
+                                       @Param("since") LocalDateTime since,
+                                       Pageable pageable);
+
     List<Customer> findByCustomerDataNameAndId(String name, Integer id);
 
     Optional<Customer> findByCustomerDataName(String name);
@@ -0,0 +1,354 @@
+// src/main/java/com/audora/lotting_be/repository/DepositHistoryBatchRepository.java
+package com.audora.lotting_be.repository;
+
+import com.audora.lotting_be.model.customer.DepositHistory;
+import com.audora.lotting_be.model.customer.minor.Loan;
+import com.audora.lotting_be.service.DataVersion;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 대량 입금내역 적재용 JDBC 배치 저장소.
+ * DepositHistory는 IDENTITY 키를 사용하므로 Hibernate가 insert를 배치로 묶지 못합니다.
+ * 엑셀 일괄 업로드 시에는 이 저장소로 행을 한 번에 밀어넣고, 재계산은 호출 측에서 고객별로 한 번만 수행합니다.
+ * 엑셀 내보내기 시에는 전체 목록을 올리지 않고 커서로 한 행씩 읽습니다.
+ */
+@Repository
+public class DepositHistoryBatchRepository {
+
+    // IGNORE를 쓰지 않음: 지문 중복 외의 오류(값 잘림, 외래 키 위반 등)까지 경고로 바뀌어 행이 조용히 사라짐
+    private static final String INSERT_SQL =
+            "INSERT INTO deposit_history (" +
+                    "transaction_date_time, description, details, contractor, " +
+                    "withdrawn_amount, deposit_amount, balance_after, branch, account, " +
+                    "deposit_phase1, deposit_phase2, deposit_phase3, deposit_phase4, deposit_phase5, " +
+                    "deposit_phase6, deposit_phase7, deposit_phase8, deposit_phase9, deposit_phase10, " +
+                    "loan_status, loan_date, remarks, " +
+                    "loan_details_loandate, loan_details_loanbank, loan_details_loanammount, " +
+                    "loan_details_selfdate, loan_details_selfammount, loan_details_loanselfsum, " +
+                    "loan_details_loanselfcurrent, " +
+                    "loan_record, self_record, customer_id, allocation_detail, fingerprint, last_modified_at" +
+                    ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " +
+                    "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // 내보내기 엑셀(depformat) 열에 필요한 컬럼만 조회
+    private static final String EXPORT_COLUMNS =
+            "id, transaction_date_time, description, details, contractor, " +
+                    "withdrawn_amount, deposit_amount, balance_after, branch, account, " +
+                    "deposit_phase1, deposit_phase2, deposit_phase3, deposit_phase4, deposit_phase5, " +
+                    "deposit_phase6, deposit_phase7, deposit_phase8, deposit_phase9, deposit_phase10, " +
+                    "self_record, loan_record";
+
+    // CSV/NDJSON 내보내기 열 (연관/컬렉션을 제외한 컬럼)
+    public static final String[] RECORD_COLUMNS = {
+            "id", "customer_id", "transaction_date_time", "description", "details", "contractor",
+            "withdrawn_amount", "deposit_amount", "balance_after", "branch", "account",
+            "deposit_phase1", "deposit_phase2", "deposit_phase3", "deposit_phase4", "deposit_phase5",
+            "deposit_phase6", "deposit_phase7", "deposit_phase8", "deposit_phase9", "deposit_phase10",
+            "loan_status", "loan_date", "remarks", "loan_record", "self_record", "allocation_detail",
+            "last_modified_at"
+    };
+
+    private static final String INSERT_TARGET_PHASE_SQL =
+            "INSERT INTO deposit_history_target_phases (deposit_history_id, target_phase) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataVersion dataVersion;
+
+    public DepositHistoryBatchRepository(JdbcTemplate jdbcTemplate, DataVersion dataVersion) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataVersion = dataVersion;
+    }
+
+    /**
+     * 주어진 입금내역들을 하나의 트랜잭션 안에서 JDBC 배치로 저장합니다.
+     * 저장 후 생성된 id를 각 엔티티에 채워 넣고, targetPhases도 배치로 함께 저장합니다.
+     * 같은 지문의 행이 이미 있으면 배치 전체가 DuplicateKeyException으로 실패하고 롤백되므로,
+     * 호출 측에서 한 행씩 다시 저장해 충돌한 행을 가려냅니다.
+     *
+     * @return 저장된 행 수 (항상 histories.size())
+     */
+    @Transactional
+    public int insertAll(List<DepositHistory> histories) {
+        if (histories == null || histories.isEmpty()) {
+            return 0;
+        }
+        // 엔티티 리스너를 거치지 않으므로 마지막 수정 시각도 직접 기록
+        LocalDateTime now = LocalDateTime.now();
+        histories.forEach(dh -> dh.setLastModifiedAt(now));
+        Integer insertedCount = jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+            int inserted = 0;
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (DepositHistory dh : histories) {
+                    dh.setId(null);
+                    bind(ps, dh);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                // 모든 행이 저장되었으므로 생성된 키는 행 순서와 같음.
+                // 키 수가 다르면 어느 행의 id인지 알 수 없으므로 차수 정보를 엉뚱한 행에 붙이지 않도록 롤백
+                List<Long> ids = new ArrayList<>(histories.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                if (ids.size() != histories.size()) {
+                    throw new IllegalStateException("생성된 키 수(" + ids.size() + ")가 저장한 행 수("
+                            + histories.size() + ")와 다릅니다.");
+                }
+                for (int idx = 0; idx < histories.size(); idx++) {
+                    histories.get(idx).setId(ids.get(idx));
+                }
+                inserted = histories.size();
+            }
+
+            boolean hasTargetPhases = false;
+            try (PreparedStatement ps = con.prepareStatement(INSERT_TARGET_PHASE_SQL)) {
+                for (DepositHistory dh : histories) {
+                    if (dh.getId() == null || dh.getTargetPhases() == null) {
+                        continue;
+                    }
+                    for (Integer phaseNo : dh.getTargetPhases()) {
+                        ps.setLong(1, dh.getId());
+                        setInteger(ps, 2, phaseNo);
+                        ps.addBatch();
+                        hasTargetPhases = true;
+                    }
+                }
+                if (hasTargetPhases) {
+                    ps.executeBatch();
+                }
+            }
+            return inserted;
+        });
+        // JDBC 저장은 엔티티 리스너를 거치지 않으므로 고객별로 데이터 버전을 직접 올림 (커밋된 뒤에)
+        histories.stream()
+                .map(dh -> dh.getCustomer() != null ? dh.getCustomer().getId() : null)
+                .distinct()
+                .forEach(dataVersion::bumpAfterCommit);
+        return insertedCount != null ? insertedCount : 0;
+    }
+
+    /**
+     * 지문이 없는 입금내역을 id 순으로 limit건까지 조회합니다. (지문 채우기용, 지문 계산에 쓰는 열만 채움)
+     *
+     * @param afterId 이 id 다음부터 (키셋 페이지)
+     */
+    public List<DepositHistory> findWithoutFingerprint(long afterId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, transaction_date_time, deposit_amount, withdrawn_amount, balance_after, account, contractor"
+                        + " FROM deposit_history WHERE fingerprint IS NULL AND id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> {
+                    DepositHistory dh = new DepositHistory();
+                    dh.setId(rs.getLong("id"));
+                    Timestamp ts = rs.getTimestamp("transaction_date_time");
+                    dh.setTransactionDateTime(ts != null ? ts.toLocalDateTime() : null);
+                    dh.setDepositAmount(getLong(rs, "deposit_amount"));
+                    dh.setWithdrawnAmount(getLong(rs, "withdrawn_amount"));
+                    dh.setBalanceAfter(getLong(rs, "balance_after"));
+                    dh.setAccount(rs.getString("account"));
+                    dh.setContractor(rs.getString("contractor"));
+                    return dh;
+                },
+                afterId, limit);
+    }
+
+    /**
+     * 입금내역의 지문을 배치로 기록합니다. 이미 지문이 있는 행은 바꾸지 않으며, 수정 시각도 바꾸지 않습니다.
+     * (지문은 내보내기 열이 아니므로 변경분 내보내기 대상이 되지 않도록 함)
+     */
+    @Transactional
+    public void updateFingerprints(List<DepositHistory> histories) {
+        jdbcTemplate.batchUpdate("UPDATE deposit_history SET fingerprint = ? WHERE id = ? AND fingerprint IS NULL",
+                histories, histories.size(), (ps, dh) -> {
+                    ps.setString(1, dh.getFingerprint());
+                    ps.setLong(2, dh.getId());
+                });
+    }
+
+    /**
+     * 조건에 맞는 입금내역을 id 순으로 한 행씩 handler에 넘깁니다.
+     * MySQL 드라이버가 결과 전체를 메모리에 올리지 않도록 fetchSize를 Integer.MIN_VALUE로 지정해 스트리밍으로 읽으며,
+     * 전달되는 DepositHistory는 내보내기 열만 채운 비영속 객체입니다. (고객/차수 연관 없음)
+     *
+     * @param from    거래일시 하한 (이 시각 포함, null이면 제한 없음)
+     * @param to      거래일시 상한 (이 시각 미포함, 종료일 전체를 넣으려면 다음 날 0시, null이면 제한 없음)
+     * @param account 계좌 (null이면 전체)
+     * @param since   이 시각 이후 저장/수정된 행만 (제외, null이면 제한 없음)
+     */
+    public void streamForExport(LocalDateTime from, LocalDateTime to, String account, LocalDateTime since,
+                                Consumer<DepositHistory> handler) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + EXPORT_COLUMNS + " FROM deposit_history" + exportWhere(from, to, account, since, params) + " ORDER BY id";
+        stream(sql, params, rs -> handler.accept(mapExportRow(rs)));
+    }
+
+    /**
+     * streamForExport와 같은 조건의 입금내역을 RECORD_COLUMNS 순서의 값 배열로 한 행씩 넘깁니다. (CSV/NDJSON 내보내기용)
+     * 엔티티를 만들지 않고 같은 배열을 재사용하므로 handler는 배열을 보관하지 말고 바로 써야 합니다.
+     */
+    public void streamRecordsForExport(LocalDateTime from, LocalDateTime to, String account, LocalDateTime since,
+                                       Consumer<Object[]> handler) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + String.join(", ", RECORD_COLUMNS) + " FROM deposit_history"
+                + exportWhere(from, to, account, since, params) + " ORDER BY id";
+        Object[] values = new Object[RECORD_COLUMNS.length];
+        stream(sql, params, rs -> {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getObject(i + 1);
+            }
+            handler.accept(values);
+        });
+    }
+
+    // 결과 전체를 메모리에 올리지 않도록 MySQL 스트리밍 모드(fetchSize = Integer.MIN_VALUE)로 조회
+    private void stream(String sql, List<Object> params, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * streamForExport와 같은 조건의 행 수 (진행률 계산용)
+     */
+    public long countForExport(LocalDateTime from, LocalDateTime to, String account, LocalDateTime since) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM deposit_history" + exportWhere(from, to, account, since, params);
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, params.toArray());
+        return count != null ? count : 0L;
+    }
+
+    private String exportWhere(LocalDateTime from, LocalDateTime to, String account, LocalDateTime since,
+                               List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (from != null) {
+            conditions.add("transaction_date_time >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add("transaction_date_time < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        if (account != null) {
+            conditions.add("account = ?");
+            params.add(account);
+        }
+        if (since != null) {
+            conditions.add("last_modified_at > ?");
+            params.add(Timestamp.valueOf(since));
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private DepositHistory mapExportRow(ResultSet rs) throws SQLException {
+        DepositHistory dh = new DepositHistory();
+        dh.setId(rs.getLong("id"));
+        Timestamp ts = rs.getTimestamp("transaction_date_time");
+        dh.setTransactionDateTime(ts != null ? ts.toLocalDateTime() : null);
+        dh.setDescription(rs.getString("description"));
+        dh.setDetails(rs.getString("details"));
+        dh.setContractor(rs.getString("contractor"));
+        dh.setWithdrawnAmount(getLong(rs, "withdrawn_amount"));
+        dh.setDepositAmount(getLong(rs, "deposit_amount"));
+        dh.setBalanceAfter(getLong(rs, "balance_after"));
+        dh.setBranch(rs.getString("branch"));
+        dh.setAccount(rs.getString("account"));
+        dh.setDepositPhase1(rs.getString("deposit_phase1"));
+        dh.setDepositPhase2(rs.getString("deposit_phase2"));
+        dh.setDepositPhase3(rs.getString("deposit_phase3"));
+        dh.setDepositPhase4(rs.getString("deposit_phase4"));
+        dh.setDepositPhase5(rs.getString("deposit_phase5"));
+        dh.setDepositPhase6(rs.getString("deposit_phase6"));
+        dh.setDepositPhase7(rs.getString("deposit_phase7"));
+        dh.setDepositPhase8(rs.getString("deposit_phase8"));
+        dh.setDepositPhase9(rs.getString("deposit_phase9"));
+        dh.setDepositPhase10(rs.getString("deposit_phase10"));
+        dh.setSelfRecord(rs.getString("self_record"));
+        dh.setLoanRecord(rs.getString("loan_record"));
+        return dh;
+    }
+
+    private Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private void bind(PreparedStatement ps, DepositHistory dh) throws SQLException {
+        int i = 1;
+        ps.setTimestamp(i++, dh.getTransactionDateTime() != null ? Timestamp.valueOf(dh.getTransactionDateTime()) : null);
+        ps.setString(i++, dh.getDescription());
+        ps.setString(i++, dh.getDetails());
+        ps.setString(i++, dh.getContractor());
+        setLong(ps, i++, dh.getWithdrawnAmount());
+        setLong(ps, i++, dh.getDepositAmount());
+        setLong(ps, i++, dh.getBalanceAfter());
+        ps.setString(i++, dh.getBranch());
+        ps.setString(i++, dh.getAccount());
+        ps.setString(i++, dh.getDepositPhase1());
+        ps.setString(i++, dh.getDepositPhase2());
+        ps.setString(i++, dh.getDepositPhase3());
+        ps.setString(i++, dh.getDepositPhase4());
+        ps.setString(i++, dh.getDepositPhase5());
+        ps.setString(i++, dh.getDepositPhase6());
+        ps.setString(i++, dh.getDepositPhase7());
+        ps.setString(i++, dh.getDepositPhase8());
+        ps.setString(i++, dh.getDepositPhase9());
+        ps.setString(i++, dh.getDepositPhase10());
+        ps.setString(i++, dh.getLoanStatus());
+        ps.setDate(i++, dh.getLoanDate() != null ? Date.valueOf(dh.getLoanDate()) : null);
+        ps.setString(i++, dh.getRemarks());
+
+        Loan loan = dh.getLoanDetails();
+        ps.setDate(i++, loan != null && loan.getLoandate() != null ? Date.valueOf(loan.getLoandate()) : null);
+        ps.setString(i++, loan != null ? loan.getLoanbank() : null);
+        setLong(ps, i++, loan != null ? loan.getLoanammount() : null);
+        ps.setDate(i++, loan != null && loan.getSelfdate() != null ? Date.valueOf(loan.getSelfdate()) : null);
+        setLong(ps, i++, loan != null ? loan.getSelfammount() : null);
+        setLong(ps, i++, loan != null ? loan.getLoanselfsum() : null);
+        setLong(ps, i++, loan != null ? loan.getLoanselfcurrent() : null);
+
+        ps.setString(i++, dh.getLoanRecord());
+        ps.setString(i++, dh.getSelfRecord());
+        setInteger(ps, i++, dh.getCustomer() != null ? dh.getCustomer().getId() : null);
+        ps.setString(i++, dh.getAllocationDetail());
+        ps.setString(i++, dh.getFingerprint());
+        ps.setTimestamp(i, dh.getLastModifiedAt() != null ? Timestamp.valueOf(dh.getLastModifiedAt()) : null);
+    }
+
+    private void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+
+    private void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
@@ -3,6 +3,15 @@ package com.audora.lotting_be.repository;
 
 import com.audora.lotting_be.model.customer.DepositHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface DepositHistoryRepository extends JpaRepository<DepositHistory, Long> {
+
+    // 주어진 지문 중 이미 저장된 것만 반환 (업로드 청크당 한 번의 IN 조회)
+    @Query("SELECT d.fingerprint FROM DepositHistory d WHERE d.fingerprint IN :fingerprints")
+    List<String> findExistingFingerprints(@Param("fingerprints") Collection<String> fingerprints);
 }
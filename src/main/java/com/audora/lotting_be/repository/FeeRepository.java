@@ -3,7 +3,14 @@ package com.audora.lotting_be.repository;
 
 import com.audora.lotting_be.model.Fee.Fee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface FeeRepository extends JpaRepository<Fee, Long> {
     Fee findByGroupnameAndBatch(String groupname, String batch);
+
+    // 엑셀 검증(드라이런)용: [groupname, batch] 쌍 목록
+    @Query("SELECT f.groupname, f.batch FROM Fee f")
+    List<Object[]> findAllGroupnameAndBatch();
 }
@@ -0,0 +1,15 @@
+package com.audora.lotting_be.repository;
+
+import com.audora.lotting_be.model.job.ImportJob;
+import com.audora.lotting_be.model.job.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    List<ImportJob> findByStatusIn(Collection<ImportJobStatus> statuses);
+
+    List<ImportJob> findTop20ByOrderByCreatedAtDesc();
+}
@@ -0,0 +1,76 @@
+package com.audora.lotting_be.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 차수(Phase) CSV/NDJSON 내보내기용 JDBC 저장소.
+ * 엔티티를 만들지 않고 DB 커서에서 한 행씩 읽어 값 배열로 넘깁니다.
+ */
+@Repository
+public class PhaseExportRepository {
+
+    public static final String[] RECORD_COLUMNS = {
+            "id", "customer_id", "phase_number", "planneddate", "planneddate_string", "fullpaiddate",
+            "charge", "discount", "exemption", "service", "feesum", "move",
+            "charged", "loan_charged", "sum", "last_modified_at"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PhaseExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 조건에 맞는 차수를 (고객 id, 차수) 순으로 RECORD_COLUMNS 순서의 값 배열로 한 행씩 넘깁니다.
+     * 같은 배열을 재사용하므로 handler는 배열을 보관하지 말고 바로 써야 합니다.
+     *
+     * @param customerId  고객 id (null이면 전체)
+     * @param phaseNumber 차수 (null이면 전체)
+     * @param since       이 시각 이후 저장/수정된 차수만 (제외, null이면 제한 없음)
+     */
+    public void streamRecords(Integer customerId, Integer phaseNumber, LocalDateTime since, Consumer<Object[]> handler) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (customerId != null) {
+            conditions.add("customer_id = ?");
+            params.add(customerId);
+        }
+        if (phaseNumber != null) {
+            conditions.add("phase_number = ?");
+            params.add(phaseNumber);
+        }
+        if (since != null) {
+            conditions.add("last_modified_at > ?");
+            params.add(Timestamp.valueOf(since));
+        }
+        String sql = "SELECT " + String.join(", ", RECORD_COLUMNS) + " FROM phase"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY customer_id, phase_number";
+        Object[] values = new Object[RECORD_COLUMNS.length];
+        // MySQL 드라이버가 결과 전체를 메모리에 올리지 않도록 스트리밍 모드로 조회
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getObject(i + 1);
+            }
+            handler.accept(values);
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.audora.lotting_be.repository;
+
+import com.audora.lotting_be.model.file.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+
+    // 같은 내용을 참조하는 행 수 (0이 되면 내용 파일 삭제)
+    long countBySha256(String sha256);
+
+    List<StoredFile> findByCustomerIdOrderByIdDesc(Integer customerId);
+}
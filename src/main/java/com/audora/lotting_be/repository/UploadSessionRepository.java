@@ -0,0 +1,13 @@
+package com.audora.lotting_be.repository;
+
+import com.audora.lotting_be.model.file.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    // 오래 갱신되지 않은 (중단된) 세션
+    List<UploadSession> findByUpdatedAtBefore(LocalDateTime time);
+}
@@ -0,0 +1,117 @@
+package com.audora.lotting_be.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 토큰 인증 실패 집계.
+ * 만료된 토큰을 가진 브라우저 탭 하나가 초마다 요청해도 로그가 쌓이지 않도록, 실패는 사유별 카운터로만 세고
+ * - auth.failure-log.summary-interval-ms 마다 그동안의 사유별 건수를 한 줄로 기록하고,
+ * - 상세 로그(토큰 오류 메시지)는 사유마다 분당 auth.failure-log.samples-per-minute 줄까지만 기록합니다.
+ *   (만료 토큰이 몰려도 bad_signature, malformed 같은 다른 사유의 상세 로그는 남도록 사유별로 따로 셈)
+ * 지표: auth.token.failures{reason=expired|malformed|bad_signature|user_not_found|error}
+ */
+@Component
+public class AuthFailureTelemetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthFailureTelemetry.class);
+
+    public static final String EXPIRED = "expired";
+    public static final String MALFORMED = "malformed";
+    public static final String BAD_SIGNATURE = "bad_signature";
+    public static final String USER_NOT_FOUND = "user_not_found";
+    public static final String ERROR = "error";
+
+    private static final String[] REASONS = {EXPIRED, MALFORMED, BAD_SIGNATURE, USER_NOT_FOUND, ERROR};
+    private static final long SAMPLE_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final int samplesPerMinute;
+    private final Counter[] counters = new Counter[REASONS.length];
+    // 요약 로그용: 마지막 요약 이후 건수
+    private final LongAdder[] pending = new LongAdder[REASONS.length];
+    // 상세 로그 표본: 사유별 1분 구간 시작 시각과 구간 안의 줄 수
+    private final AtomicLong[] sampleWindowStart = new AtomicLong[REASONS.length];
+    private final AtomicLong[] samplesInWindow = new AtomicLong[REASONS.length];
+    private final LongAdder suppressed = new LongAdder();
+
+    public AuthFailureTelemetry(MeterRegistry meterRegistry,
+                                @Value("${auth.failure-log.samples-per-minute:6}") int samplesPerMinute) {
+        this.samplesPerMinute = samplesPerMinute;
+        for (int i = 0; i < REASONS.length; i++) {
+            counters[i] = Counter.builder("auth.token.failures")
+                    .description("토큰 인증 실패 횟수")
+                    .tag("reason", REASONS[i])
+                    .register(meterRegistry);
+            pending[i] = new LongAdder();
+            sampleWindowStart[i] = new AtomicLong(System.nanoTime());
+            samplesInWindow[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * 인증 실패 하나를 기록합니다. 상세 로그는 표본만 남깁니다.
+     *
+     * @param reason EXPIRED, MALFORMED, BAD_SIGNATURE, USER_NOT_FOUND, ERROR 중 하나
+     * @param detail 상세 내용 (예외 메시지, 토큰 원문은 넘기지 말 것)
+     */
+    public void record(String reason, String detail) {
+        int index = indexOf(reason);
+        counters[index].increment();
+        pending[index].increment();
+        if (sample(index)) {
+            logger.warn("토큰 인증 실패 [{}]: {}", REASONS[index], detail);
+        } else {
+            suppressed.increment();
+        }
+    }
+
+    /**
+     * 마지막 요약 이후 실패가 있었으면 사유별 건수를 한 줄로 기록합니다.
+     */
+    @Scheduled(fixedDelayString = "${auth.failure-log.summary-interval-ms:60000}")
+    public void logSummary() {
+        StringBuilder summary = new StringBuilder();
+        long total = 0;
+        for (int i = 0; i < REASONS.length; i++) {
+            long count = pending[i].sumThenReset();
+            if (count > 0) {
+                summary.append(summary.length() == 0 ? "" : ", ").append(REASONS[i]).append('=').append(count);
+                total += count;
+            }
+        }
+        if (total > 0) {
+            logger.info("토큰 인증 실패 {}건 ({}), 상세 로그 생략 {}건", total, summary, suppressed.sumThenReset());
+        }
+    }
+
+    // 사유마다 1분 단위 구간마다 samplesPerMinute 개까지 허용
+    private boolean sample(int index) {
+        if (samplesPerMinute <= 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        long start = sampleWindowStart[index].get();
+        if (now - start >= SAMPLE_WINDOW_NANOS && sampleWindowStart[index].compareAndSet(start, now)) {
+            samplesInWindow[index].set(0);
+        }
+        return samplesInWindow[index].incrementAndGet() <= samplesPerMinute;
+    }
+
+    private static int indexOf(String reason) {
+        for (int i = 0; i < REASONS.length; i++) {
+            if (REASONS[i].equals(reason)) {
+                return i;
+            }
+        }
+        return REASONS.length - 1;
+    }
+}
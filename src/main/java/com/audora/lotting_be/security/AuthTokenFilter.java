@@ -1,6 +1,7 @@
 // src/main/java/com/audora/lotting_be/security/AuthTokenFilter.java
 package com.audora.lotting_be.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.security.authentication.*;
@@ -23,7 +25,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private AuthFailureTelemetry authFailureTelemetry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,10 +37,13 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            // 토큰은 요청당 한 번만 검증/파싱 (최근 검증한 토큰은 JwtUtils가 서명 검증을 건너뜀)
+            Claims claims = jwt != null ? jwtUtils.parseToken(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // 요청마다 DB를 조회하지 않도록 캐시 사용 (관리자 변경 시 무효화)
+                UserDetails userDetails = userDetailsCache.load(username);
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
@@ -45,8 +53,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
+        } catch (UsernameNotFoundException e) {
+            authFailureTelemetry.record(AuthFailureTelemetry.USER_NOT_FOUND, e.getMessage());
         } catch (Exception e) {
-            System.err.println("Cannot set user authentication: " + e);
+            authFailureTelemetry.record(AuthFailureTelemetry.ERROR, "Cannot set user authentication: " + e);
         }
 
         filterChain.doFilter(request, response);
@@ -1,29 +1,61 @@
 // src/main/java/com/audora/lotting_be/security/JwtUtils.java
 package com.audora.lotting_be.security;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * JWT 생성/검증.
+ * 검증용 파서는 시작 시 한 번 만들어 재사용하고(스레드 안전), 요청마다 토큰을 한 번만 파싱해 Claims를 돌려줍니다.
+ * 최근 검증한 토큰은 SHA-256 요약값과 만료 시각을 최대 jwt.verified-cache.max-size 개 보관하여
+ * 같은 토큰이 반복해서 오면 Base64/JSON 파싱과 HMAC 서명 검증을 건너뜁니다. (토큰 원문은 보관하지 않음)
+ * 검증 실패는 요청마다 로그를 남기지 않고 AuthFailureTelemetry에 사유별로 기록합니다.
+ */
 @Component
 public class JwtUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
 
-    @Value("${jwt.expirationMs}")
-    private int jwtExpirationMs;
+    private final String jwtSecret;
+    private final int jwtExpirationMs;
+    private final int verifiedCacheSize;
+    private final AuthFailureTelemetry authFailureTelemetry;
 
     private Key key;
+    private JwtParser parser;
+    // 검증된 토큰 요약값(hex) -> Claims (만료 시각은 Claims에 포함)
+    private Cache<String, Claims> verified;
+
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret,
+                    @Value("${jwt.expirationMs}") int jwtExpirationMs,
+                    @Value("${jwt.verified-cache.max-size:1024}") int verifiedCacheSize,
+                    AuthFailureTelemetry authFailureTelemetry) {
+        this.jwtSecret = jwtSecret;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.verifiedCacheSize = verifiedCacheSize;
+        this.authFailureTelemetry = authFailureTelemetry;
+    }
 
     @PostConstruct
     public void init() {
@@ -31,6 +63,10 @@ public class JwtUtils {
             throw new IllegalArgumentException("JWT Secret must be at least 32 characters long.");
         }
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verified = verifiedCacheSize > 0
+                ? CacheBuilder.newBuilder().maximumSize(verifiedCacheSize).<String, Claims>build()
+                : null;
         logger.info("JWT Key initialized successfully.");
     }
 
@@ -43,22 +79,57 @@ public class JwtUtils {
                 .compact();
     }
 
+    /**
+     * 토큰을 검증하고 Claims를 반환합니다. 서명이 틀리거나 만료되었거나 형식이 잘못되었으면 null
+     */
+    public Claims parseToken(String token) {
+        String digest = verified != null ? digest(token) : null;
+        if (digest != null) {
+            Claims claims = verified.getIfPresent(digest);
+            if (claims != null) {
+                if (!isExpired(claims)) {
+                    return claims;
+                }
+                verified.invalidate(digest);
+                authFailureTelemetry.record(AuthFailureTelemetry.EXPIRED, "JWT expired at " + claims.getExpiration());
+                return null;
+            }
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (digest != null) {
+                verified.put(digest, claims);
+            }
+            return claims;
+        } catch (ExpiredJwtException e) {
+            authFailureTelemetry.record(AuthFailureTelemetry.EXPIRED, e.getMessage());
+        } catch (io.jsonwebtoken.security.SignatureException e) {
+            authFailureTelemetry.record(AuthFailureTelemetry.BAD_SIGNATURE, e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            authFailureTelemetry.record(AuthFailureTelemetry.MALFORMED, e.getMessage());
+        }
+        return null;
+    }
+
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        Claims claims = parseToken(token);
+        if (claims == null) {
+            throw new MalformedJwtException("Invalid JWT token");
+        }
+        return claims.getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
-            return true;
-        } catch (JwtException e) {
-            logger.error("JWT validation error: {}", e.getMessage());
-        }
-        return false;
+        return parseToken(authToken) != null;
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    private static String digest(String token) {
+        MessageDigest md = SHA256.get();
+        return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
     }
 }
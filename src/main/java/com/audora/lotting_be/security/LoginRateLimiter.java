@@ -0,0 +1,110 @@
+package com.audora.lotting_be.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 로그인(/api/auth/signin) 시도 제한.
+ * 비밀번호 확인(BCrypt)은 일부러 CPU를 많이 쓰므로, 한 IP나 한 사용자명으로 몰리는 시도가 코어를 모두 점유해
+ * 재계산/내보내기 작업까지 멈추지 않도록 IP별, 사용자명별 토큰 버킷으로 제한합니다.
+ * - 버킷은 최대 capacity 번 연속 시도를 허용하고, 분당 refill-per-minute 번씩 다시 채워집니다.
+ * - 버킷 상태는 "다음 시도가 허용되는 시각" 하나(AtomicLong)이고 CAS로 갱신하므로 잠금이 없습니다. (GCRA)
+ * - auth.rate-limit.idle-ttl 동안 쓰이지 않은 버킷은 자동으로 제거됩니다. (이때 버킷은 이미 가득 찬 상태)
+ *   없는 사용자명을 바꿔 가며 시도해도 버킷 수는 auth.rate-limit.max-buckets 를 넘지 않습니다.
+ * 지표: auth.signin.throttled{scope=ip|username}, auth.signin.buckets{scope}
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private final Limit ipLimit;
+    private final Limit usernameLimit;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${auth.rate-limit.ip.refill-per-minute:30}") int ipRefillPerMinute,
+                            @Value("${auth.rate-limit.username.capacity:5}") int usernameCapacity,
+                            @Value("${auth.rate-limit.username.refill-per-minute:6}") int usernameRefillPerMinute,
+                            @Value("${auth.rate-limit.idle-ttl:PT15M}") Duration idleTtl,
+                            @Value("${auth.rate-limit.max-buckets:100000}") long maxBuckets) {
+        this.ipLimit = new Limit("ip", ipCapacity, ipRefillPerMinute, idleTtl, maxBuckets, meterRegistry);
+        this.usernameLimit = new Limit("username", usernameCapacity, usernameRefillPerMinute, idleTtl, maxBuckets,
+                meterRegistry);
+    }
+
+    /**
+     * 로그인 시도 하나를 기록합니다.
+     *
+     * @return 허용되면 0, 제한되면 다시 시도할 수 있을 때까지의 초 (Retry-After)
+     */
+    public long tryAcquire(String ip, String username) {
+        long wait = ipLimit.tryAcquire(ip != null ? ip : "");
+        if (wait == 0) {
+            wait = usernameLimit.tryAcquire(username != null ? username.trim().toLowerCase(Locale.ROOT) : "");
+        }
+        return wait == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * 같은 종류(IP 또는 사용자명)의 버킷 모음
+     */
+    private static final class Limit {
+        private final String scope;
+        private final long intervalNanos;  // 토큰 하나가 채워지는 시간
+        private final long burstNanos;     // (capacity - 1) * interval: 연속 시도 허용 폭
+        private final Cache<String, AtomicLong> buckets;
+        private final Counter throttled;
+
+        private Limit(String scope, int capacity, int refillPerMinute, Duration idleTtl, long maxBuckets,
+                      MeterRegistry meterRegistry) {
+            this.scope = scope;
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, refillPerMinute);
+            this.burstNanos = intervalNanos * (Math.max(1, capacity) - 1);
+            this.buckets = CacheBuilder.newBuilder()
+                    .expireAfterAccess(idleTtl)
+                    .maximumSize(maxBuckets)
+                    .build();
+            this.throttled = Counter.builder("auth.signin.throttled").tag("scope", scope).register(meterRegistry);
+            Gauge.builder("auth.signin.buckets", buckets, Cache::size).tag("scope", scope).register(meterRegistry);
+        }
+
+        // @return 허용되면 0, 아니면 기다려야 하는 시간 (ns)
+        private long tryAcquire(String key) {
+            AtomicLong bucket;
+            try {
+                bucket = buckets.get(key, () -> new AtomicLong(System.nanoTime() - intervalNanos));
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+            while (true) {
+                long now = System.nanoTime();
+                // 쓴 토큰이 모두 다시 채워지는 시각, now 이전이면 버킷이 가득 찬 상태
+                long allowedAt = bucket.get();
+                long base = allowedAt - now < 0 ? now : allowedAt;
+                long wait = base - now - burstNanos;
+                if (wait > 0) {
+                    throttled.increment();
+                    logger.debug("로그인 시도 제한: {}={} ({}ms 후 허용)", scope, key, TimeUnit.NANOSECONDS.toMillis(wait));
+                    return wait;
+                }
+                if (bucket.compareAndSet(allowedAt, base + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.audora.lotting_be.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 토큰 인증(AuthTokenFilter)용 관리자 정보 캐시.
+ * 토큰이 붙은 모든 요청(SSE 재연결, 검색 입력마다의 요청 등)이 managers 조회를 하지 않도록
+ * 사용자명별 UserDetails를 최대 auth.user-cache.max-size 개, auth.user-cache.ttl 동안 보관합니다.
+ * 관리자가 추가/수정/삭제되면 ManagerChangeListener가 해당 항목을 지웁니다. (다른 서버 인스턴스는 ttl 후 반영)
+ * 로그인(/api/auth/signin)의 비밀번호 확인은 캐시를 거치지 않습니다.
+ * 지표: auth.user.cache.requests{result=hit|miss}, auth.user.cache.evictions, auth.user.cache.size, auth.user.cache.hit.ratio
+ */
+@Component
+public class UserDetailsCache {
+
+    // JPA 엔티티 리스너는 스프링 빈이 아니므로 정적 참조로 접근합니다.
+    private static volatile UserDetailsCache instance;
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(UserDetailsServiceImpl userDetailsService,
+                            MeterRegistry meterRegistry,
+                            @Value("${auth.user-cache.max-size:1000}") long maxSize,
+                            @Value("${auth.user-cache.ttl:PT5M}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        FunctionCounter.builder("auth.user.cache.requests", cache, c -> c.stats().hitCount())
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("auth.user.cache.requests", cache, c -> c.stats().missCount())
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("auth.user.cache.evictions", cache, c -> c.stats().evictionCount())
+                .register(meterRegistry);
+        Gauge.builder("auth.user.cache.size", cache, Cache::size).register(meterRegistry);
+        Gauge.builder("auth.user.cache.hit.ratio", this, UserDetailsCache::hitRatio).register(meterRegistry);
+        instance = this;
+    }
+
+    public static UserDetailsCache get() {
+        return instance;
+    }
+
+    /**
+     * 캐시된 관리자 정보, 없으면 DB에서 읽어 보관합니다. (없는 사용자는 보관하지 않음)
+     *
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException 없는 사용자
+     */
+    public UserDetails load(String username) {
+        UserDetails cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        UserDetails loaded = userDetailsService.loadUserByUsername(username);
+        cache.put(username, loaded);
+        return loaded;
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    public double hitRatio() {
+        CacheStats stats = cache.stats();
+        return stats.requestCount() == 0 ? 0.0 : stats.hitRate();
+    }
+}
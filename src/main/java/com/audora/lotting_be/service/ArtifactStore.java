@@ -0,0 +1,280 @@
+package com.audora.lotting_be.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 생성된 다운로드 파일(회원 명부, 입금내역, 검증 결과 엑셀 등) 보관소.
+ * 파일은 artifact.dir 아래로 옮겨 보관하고 fileId로 찾습니다.
+ * - 항목마다 만료 시간(artifact.ttl)이 있으며, 다운로드된 항목은 마지막 다운로드 요청 후 artifact.download-grace 가 지나면 삭제됩니다.
+ * - 전체 크기가 artifact.max-bytes를 넘으면 가장 오래 사용하지 않은 항목부터 삭제합니다.
+ * - 주기적으로 만료 항목과 목록에 없는 파일을 삭제합니다.
+ * - 항목 목록은 manifest.json에 기록하여 재시작 후에도 만료 전 파일을 다시 받을 수 있습니다.
+ * 지표: artifact.store.entries, artifact.store.bytes, artifact.store.evictions{reason=ttl|quota|downloaded}
+ */
+@Component
+public class ArtifactStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactStore.class);
+
+    private static final String MANIFEST = "manifest.json";
+
+    private final Path dir;
+    private final long ttlMillis;
+    private final long downloadGraceMillis;
+    private final long maxBytes;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 접근 순서 유지 (가장 오래 사용하지 않은 항목이 앞)
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // 옮기는 중이라 아직 목록에 없는 파일 이름 (정리 시 고아 파일로 지우지 않도록 예약)
+    private final Set<String> incoming = new HashSet<>();
+    private long totalBytes;
+
+    private final Counter ttlEvictions;
+    private final Counter quotaEvictions;
+    private final Counter downloadedEvictions;
+
+    public ArtifactStore(MeterRegistry meterRegistry,
+                         @Value("${artifact.dir:${java.io.tmpdir}/lotting-artifacts}") String dir,
+                         @Value("${artifact.ttl:PT1H}") Duration ttl,
+                         @Value("${artifact.download-grace:PT5M}") Duration downloadGrace,
+                         @Value("${artifact.max-bytes:1073741824}") long maxBytes) {
+        this.dir = Paths.get(dir);
+        this.ttlMillis = ttl.toMillis();
+        this.downloadGraceMillis = downloadGrace.toMillis();
+        this.maxBytes = maxBytes;
+        this.ttlEvictions = evictionCounter(meterRegistry, "ttl");
+        this.quotaEvictions = evictionCounter(meterRegistry, "quota");
+        this.downloadedEvictions = evictionCounter(meterRegistry, "downloaded");
+        Gauge.builder("artifact.store.entries", this, ArtifactStore::size).register(meterRegistry);
+        Gauge.builder("artifact.store.bytes", this, ArtifactStore::sizeBytes).register(meterRegistry);
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("artifact.store.evictions").tag("reason", reason).register(meterRegistry);
+    }
+
+    /**
+     * 보관 디렉터리를 만들고 manifest.json에서 만료되지 않은 항목을 복구합니다.
+     */
+    @PostConstruct
+    public synchronized void init() throws IOException {
+        Files.createDirectories(dir);
+        Path manifest = dir.resolve(MANIFEST);
+        if (Files.exists(manifest)) {
+            try {
+                List<Entry> saved = objectMapper.readValue(manifest.toFile(), new TypeReference<List<Entry>>() {
+                });
+                long now = System.currentTimeMillis();
+                for (Entry entry : saved) {
+                    Path path = dir.resolve(entry.getFileName());
+                    if (entry.getExpiresAt() > now && Files.exists(path)) {
+                        entries.put(entry.getId(), entry);
+                        totalBytes += entry.getSize();
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("artifact manifest를 읽지 못했습니다. 기존 파일은 정리됩니다: {}", e.getMessage());
+            }
+        }
+        deleteOrphans();
+        writeManifest();
+        logger.info("ArtifactStore: {} ({}개, {} bytes 복구)", dir, entries.size(), totalBytes);
+    }
+
+    /**
+     * 파일을 보관소로 옮기고 새 fileId를 돌려줍니다.
+     */
+    public String save(File file) throws IOException {
+        String id = UUID.randomUUID().toString();
+        String fileName = id + extensionOf(file.getName());
+        Path target = dir.resolve(fileName);
+        // 이동(다른 파일 시스템이면 복사)은 잠금 밖에서 하므로, 그동안 cleanup이 지우지 않도록 이름을 먼저 예약
+        synchronized (this) {
+            incoming.add(fileName);
+        }
+        try {
+            Files.move(file.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+
+            Entry entry = new Entry();
+            entry.setId(id);
+            entry.setFileName(fileName);
+            entry.setSize(Files.size(target));
+            long now = System.currentTimeMillis();
+            entry.setCreatedAt(now);
+            entry.setLastAccess(now);
+            entry.setExpiresAt(now + ttlMillis);
+
+            synchronized (this) {
+                entries.put(id, entry);
+                totalBytes += entry.getSize();
+                evictOverQuota(id);
+                writeManifest();
+            }
+        } finally {
+            synchronized (this) {
+                incoming.remove(fileName);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * @return 보관 중인 파일, 없거나 만료된 항목이면 null
+     */
+    public synchronized File get(String id) {
+        Entry entry = id != null ? entries.get(id) : null;
+        if (entry == null || entry.getExpiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+        entry.setLastAccess(System.currentTimeMillis());
+        File file = dir.resolve(entry.getFileName()).toFile();
+        return file.exists() ? file : null;
+    }
+
+    /**
+     * 다운로드된 항목은 artifact.download-grace 동안만 유지한 뒤 삭제합니다.
+     * 그동안은 끊긴 다운로드를 Range 요청으로 이어받을 수 있으며, 이어받을 때마다 유지 시간이 다시 계산됩니다.
+     */
+    public synchronized void release(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return;
+        }
+        entry.setDownloaded(true);
+        entry.setExpiresAt(System.currentTimeMillis() + downloadGraceMillis);
+        writeManifest();
+    }
+
+    /**
+     * 만료된 항목과 목록에 없는 파일을 삭제합니다.
+     */
+    @Scheduled(fixedDelayString = "${artifact.cleanup-interval-ms:60000}")
+    public synchronized void cleanup() {
+        long now = System.currentTimeMillis();
+        boolean changed = false;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.getExpiresAt() <= now) {
+                it.remove();
+                delete(entry);
+                (entry.isDownloaded() ? downloadedEvictions : ttlEvictions).increment();
+                changed = true;
+            }
+        }
+        deleteOrphans();
+        if (changed) {
+            writeManifest();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long sizeBytes() {
+        return totalBytes;
+    }
+
+    // 한도를 넘으면 오래 사용하지 않은 항목부터 삭제 (방금 저장한 항목 제외)
+    private void evictOverQuota(String keepId) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.getId().equals(keepId)) {
+                continue;
+            }
+            it.remove();
+            delete(entry);
+            quotaEvictions.increment();
+            logger.info("artifact 용량 초과로 삭제: {} ({} bytes)", entry.getId(), entry.getSize());
+        }
+    }
+
+    private void delete(Entry entry) {
+        totalBytes -= entry.getSize();
+        try {
+            Files.deleteIfExists(dir.resolve(entry.getFileName()));
+        } catch (IOException e) {
+            logger.warn("artifact 파일 삭제 실패: {} ({})", entry.getFileName(), e.getMessage());
+        }
+    }
+
+    // 목록에 없는 파일 삭제 (비정상 종료 등으로 남은 파일)
+    private void deleteOrphans() {
+        List<String> known = new ArrayList<>();
+        entries.values().forEach(e -> known.add(e.getFileName()));
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (!name.equals(MANIFEST) && !name.endsWith(".tmp") && !known.contains(name)
+                        && !incoming.contains(name)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("artifact 디렉터리 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    // 임시 파일에 쓴 뒤 교체하여 기록 중 종료되어도 manifest가 깨지지 않도록 합니다.
+    private void writeManifest() {
+        List<Entry> snapshot = new ArrayList<>(entries.values());
+        snapshot.sort(Comparator.comparingLong(Entry::getCreatedAt));
+        Path tmp = dir.resolve(MANIFEST + ".tmp");
+        try {
+            objectMapper.writeValue(tmp.toFile(), snapshot);
+            Files.move(tmp, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("artifact manifest 기록 실패: {}", e.getMessage());
+        }
+    }
+
+    private static String extensionOf(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot) : "";
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Entry {
+        private String id;
+        private String fileName;
+        private long size;
+        private long createdAt;
+        private long lastAccess;
+        private long expiresAt;
+        private boolean downloaded;
+    }
+}
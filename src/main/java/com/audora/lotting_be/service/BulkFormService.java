@@ -0,0 +1,277 @@
+package com.audora.lotting_be.service;
+
+import com.audora.lotting_be.model.customer.Customer;
+import com.audora.lotting_be.payload.request.BulkFormRequest;
+import com.audora.lotting_be.repository.CustomerRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 고객별 서식(format1/format2) 일괄 생성.
+ * 고객 단위 작업을 제한된 크기의 작업자 풀에서 병렬로 만들고, 완료되는 순서대로 ZIP 항목으로 바로 내보냅니다.
+ * 동시에 진행 중인 작업 수를 제한하므로 아카이브 전체를 메모리에 올리지 않으며,
+ * 실패한 고객은 건너뛰고 마지막에 failures.csv 에 사유를 기록합니다.
+ */
+@Service
+public class BulkFormService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkFormService.class);
+
+    public static final String FORMAT1 = ExcelService.FORMAT1;
+    public static final String FORMAT2 = ExcelService.FORMAT2;
+
+    private static final int PARALLELISM = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    // 요청 하나가 동시에 진행시키는 고객 수 (완료 후 아직 쓰지 않은 결과 포함)
+    private static final int IN_FLIGHT = PARALLELISM * 2;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final String FAILURE_MANIFEST = "failures.csv";
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ExcelService excelService;
+    @Autowired
+    private ProgressSender progressSender;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataVersion dataVersion;
+    @Autowired
+    private ExportResultCache exportResultCache;
+
+    // 모든 일괄 생성 요청이 공유하는 작업자 풀 (가득 차면 요청 스레드에서 직접 실행)
+    private final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            PARALLELISM, PARALLELISM, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            new NamedThreadFactory(),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 요청의 ids 또는 필터로 대상 고객 id 목록을 구합니다.
+     * ids에 같은 고객이 여러 번 있으면 처음 나온 순서로 한 번만 넣습니다. (같은 ZIP 항목이 두 번 만들어지지 않도록)
+     */
+    public List<Integer> resolveCustomerIds(BulkFormRequest request) {
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            return new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+        }
+        return customerRepository.findIdsByFilter(blankToNull(request.getGroupname()),
+                blankToNull(request.getBatch()),
+                blankToNull(request.getType()),
+                blankToNull(request.getCustomertype()));
+    }
+
+    /**
+     * 대상 고객의 서식을 병렬로 생성하여 out에 ZIP으로 기록합니다.
+     * progressKey가 있으면 해당 key의 SseProgressHub 구독자에게 progress(ProgressSnapshot)와 complete(요약) 이벤트를 보냅니다.
+     *
+     * @throws IOException 출력 스트림 기록 실패 (클라이언트 연결 끊김 등). 남은 작업은 취소됩니다.
+     */
+    public void writeZip(List<Integer> customerIds, List<String> formats, String progressKey,
+                         OutputStream out) throws IOException {
+        int total = customerIds.size();
+        ProgressPublisher progress = progressKey != null ? progressSender.open(progressKey) : null;
+        if (progress != null) {
+            progress.phase("render");
+        }
+        List<String[]> failures = new ArrayList<>();
+        int succeeded = 0;
+        // 이미 쓴 ZIP 항목 이름 (같은 이름을 다시 쓰면 ZipException으로 아카이브 전체가 중단됨)
+        Set<String> entryNames = new HashSet<>();
+        entryNames.add(FAILURE_MANIFEST);
+
+        CompletionService<FormResult> completion = new ExecutorCompletionService<>(pool);
+        List<Future<FormResult>> futures = new ArrayList<>();
+        int next = 0;
+        int done = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // xlsx는 이미 압축된 형식이므로 빠른 압축만 적용
+        zip.setLevel(Deflater.BEST_SPEED);
+        try {
+            while (next < total && next < IN_FLIGHT) {
+                futures.add(completion.submit(renderTask(customerIds.get(next++), formats)));
+            }
+            while (done < total) {
+                FormResult result = take(completion);
+                done++;
+                if (next < total) {
+                    futures.add(completion.submit(renderTask(customerIds.get(next++), formats)));
+                }
+
+                if (result.error == null && result.files.keySet().stream().anyMatch(entryNames::contains)) {
+                    result = FormResult.failed(result.customerId, "같은 이름의 파일이 이미 포함되어 건너뜁니다.");
+                }
+                if (result.error != null) {
+                    failures.add(new String[]{String.valueOf(result.customerId), result.error});
+                } else {
+                    entryNames.addAll(result.files.keySet());
+                    for (Map.Entry<String, byte[]> entry : result.files.entrySet()) {
+                        zip.putNextEntry(new ZipEntry(entry.getKey()));
+                        zip.write(entry.getValue());
+                        zip.closeEntry();
+                    }
+                    zip.flush();
+                    succeeded++;
+                }
+                if (progress != null) {
+                    progress.progress(done, total);
+                }
+            }
+
+            zip.putNextEntry(new ZipEntry(FAILURE_MANIFEST));
+            zip.write(failureManifest(failures));
+            zip.closeEntry();
+            zip.finish();
+            zip.flush();
+        } catch (IOException | RuntimeException e) {
+            futures.forEach(f -> f.cancel(true));
+            logger.warn("서식 일괄 생성 중 출력 실패 ({}/{} 완료): {}", done, total, e.getMessage());
+            completeProgress(progress, "error", e.getMessage());
+            throw e;
+        }
+
+        logger.info("서식 일괄 생성 완료: 전체 {}명, 성공 {}명, 실패 {}명", total, succeeded, failures.size());
+        Map<String, Integer> summary = new LinkedHashMap<>();
+        summary.put("total", total);
+        summary.put("succeeded", succeeded);
+        summary.put("failed", failures.size());
+        completeProgress(progress, "complete", summary);
+    }
+
+    // 고객 한 명의 서식 생성 작업. 지연 로딩 필드(phases 등)를 읽으므로 읽기 전용 트랜잭션 안에서 실행합니다.
+    private Callable<FormResult> renderTask(Integer customerId, List<String> formats) {
+        return () -> {
+            // 버전은 고객 조회 전에 읽음 (같은 버전의 결과는 ExportResultCache에서 재사용)
+            long version = dataVersion.customerVersion(customerId);
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setReadOnly(true);
+            try {
+                return tx.execute(status -> {
+                    Customer customer = customerRepository.findById(customerId).orElse(null);
+                    if (customer == null) {
+                        return FormResult.failed(customerId, "고객을 찾을 수 없습니다.");
+                    }
+                    Map<String, byte[]> files = new LinkedHashMap<>();
+                    String prefix = customerId + "_" + safeName(customer) + "_";
+                    try {
+                        for (String format : formats) {
+                            byte[] bytes = exportResultCache.get(ExportResultCache.formKey(format, customerId, version));
+                            if (bytes == null) {
+                                bytes = excelService.renderForm(format, customer, version);
+                            }
+                            files.put(prefix + (FORMAT2.equals(format) ? "일반 부속 서류.xlsx" : "일반 신청서.xlsx"), bytes);
+                        }
+                    } catch (IOException e) {
+                        return FormResult.failed(customerId, "서식 생성 실패: " + e.getMessage());
+                    }
+                    return FormResult.ok(customerId, files);
+                });
+            } catch (RuntimeException e) {
+                logger.warn("고객 {} 서식 생성 실패: {}", customerId, e.getMessage());
+                return FormResult.failed(customerId, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        };
+    }
+
+    private FormResult take(CompletionService<FormResult> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("서식 일괄 생성이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            // renderTask는 예외를 결과로 돌려주므로 여기까지 오지 않음
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private byte[] failureManifest(List<String[]> failures) {
+        // 엑셀에서 바로 열 수 있도록 BOM 포함
+        StringBuilder sb = new StringBuilder("\uFEFFcustomerId,reason\n");
+        for (String[] failure : failures) {
+            sb.append(failure[0]).append(",\"").append(failure[1].replace("\"", "\"\"")).append("\"\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void completeProgress(ProgressPublisher progress, String name, Object data) {
+        if (progress != null) {
+            progress.complete(name, data);
+        }
+    }
+
+    private static String safeName(Customer customer) {
+        String name = (customer.getCustomerData() != null && customer.getCustomerData().getName() != null)
+                ? customer.getCustomerData().getName() : "";
+        return name.replaceAll("[\\\\/:*?\"<>|\\s]+", "_");
+    }
+
+    private static String blankToNull(String s) {
+        return (s == null || s.isBlank()) ? null : s.trim();
+    }
+
+    private static class FormResult {
+        private final Integer customerId;
+        private final Map<String, byte[]> files;
+        private final String error;
+
+        private FormResult(Integer customerId, Map<String, byte[]> files, String error) {
+            this.customerId = customerId;
+            this.files = files;
+            this.error = error;
+        }
+
+        static FormResult ok(Integer customerId, Map<String, byte[]> files) {
+            return new FormResult(customerId, files, null);
+        }
+
+        static FormResult failed(Integer customerId, String error) {
+            return new FormResult(customerId, null, error);
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger seq = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "bulk-form-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.audora.lotting_be.service;
+
+import com.audora.lotting_be.model.file.StoredFile;
+import com.audora.lotting_be.model.file.UploadSession;
+import com.audora.lotting_be.payload.response.UploadSessionStatus;
+import com.audora.lotting_be.repository.UploadSessionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 청크 업로드 (대용량 스캔 파일용, 이어 올리기 지원).
+ * 1) start: 전체 크기로 부분 파일을 미리 만들고 세션 id와 청크 크기를 돌려줍니다.
+ * 2) writeChunk: 요청 본문을 멀티파트 없이 바로 읽어 FileChannel 위치 쓰기로 offset에 기록하고, 청크별 SHA-256을 확인합니다.
+ * 3) complete: 모든 청크를 받았으면 전체 해시를 계산하고 부분 파일을 복사 없이 ContentStore로 옮깁니다.
+ * 끊긴 업로드는 status의 missingChunks만 다시 보내면 되며, upload.chunked.ttl 동안 갱신되지 않은 세션은 정리됩니다.
+ * 청크 쓰기는 세션의 읽기 잠금으로 동시에 진행되고, complete/abort/정리는 쓰기 잠금으로 진행 중인 쓰기를 기다린 뒤
+ * 세션을 닫으므로, 해시를 계산한 뒤 파일 내용이 바뀌거나 쓰는 중인 부분 파일이 삭제되지 않습니다.
+ *
+ * 잘못된 요청은 IllegalArgumentException, 아직 완료할 수 없는 세션은 IllegalStateException,
+ * 없는 세션은 NoSuchElementException으로 알립니다.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HASH_BUFFER_SIZE = 1024 * 1024;
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+    private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private final Path partialDir;
+    private final int defaultChunkSize;
+    private final long maxBytes;
+    private final Duration ttl;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ContentStore contentStore;
+
+    // 진행 중인 세션 (같은 세션의 청크가 동시에 와도 비트맵 갱신이 겹치지 않도록 인스턴스를 공유)
+    private final Map<String, ActiveUpload> sessions = new ConcurrentHashMap<>();
+
+    public ChunkedUploadService(@Value("${file.upload-dir}") String uploadDir,
+                                @Value("${upload.chunked.chunk-size:8388608}") int defaultChunkSize,
+                                @Value("${upload.chunked.max-bytes:4294967296}") long maxBytes,
+                                @Value("${upload.chunked.ttl:PT24H}") Duration ttl,
+                                UploadSessionRepository uploadSessionRepository,
+                                ContentStore contentStore) {
+        // ContentStore로 옮길 때 복사가 일어나지 않도록 같은 디렉터리 아래에 둠
+        this.partialDir = Paths.get(uploadDir).resolve("sha256").resolve("partial");
+        this.defaultChunkSize = defaultChunkSize;
+        this.maxBytes = maxBytes;
+        this.ttl = ttl;
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.contentStore = contentStore;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(partialDir);
+    }
+
+    /**
+     * 업로드 세션을 만들고 전체 크기의 부분 파일을 미리 만듭니다.
+     *
+     * @param chunkSize 원하는 청크 크기 (null이면 upload.chunked.chunk-size)
+     */
+    public UploadSessionStatus start(String originalFilename, long size, String contentType, Integer customerId,
+                                     Integer chunkSize) throws IOException {
+        if (size <= 0 || size > maxBytes) {
+            throw new IllegalArgumentException("파일 크기는 1 ~ " + maxBytes + " bytes 여야 합니다: " + size);
+        }
+        int chunk = chunkSize != null ? chunkSize : defaultChunkSize;
+        if (chunk < MIN_CHUNK_SIZE || chunk > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("청크 크기는 " + MIN_CHUNK_SIZE + " ~ " + MAX_CHUNK_SIZE + " bytes 여야 합니다: " + chunk);
+        }
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setOriginalFilename(originalFilename);
+        session.setContentType(contentType);
+        session.setSize(size);
+        session.setChunkSize(chunk);
+        session.setCustomerId(customerId);
+        session.setReceivedChunks("");
+        session.setCreatedAt(LocalDateTime.now());
+        session.setUpdatedAt(session.getCreatedAt());
+
+        try (RandomAccessFile file = new RandomAccessFile(partPath(session.getId()).toFile(), "rw")) {
+            file.setLength(size);
+        }
+        uploadSessionRepository.save(session);
+        sessions.put(session.getId(), new ActiveUpload(session));
+        return statusOf(session);
+    }
+
+    public UploadSessionStatus status(String id) {
+        return statusOf(upload(id).session);
+    }
+
+    /**
+     * 청크 하나를 offset 위치에 기록합니다. 같은 청크를 다시 보내면 덮어씁니다.
+     *
+     * @param offset 청크 시작 위치 (chunkSize의 배수)
+     * @param body   청크 내용 (요청 본문)
+     * @param sha256 청크 내용의 SHA-256 (16진수)
+     */
+    public UploadSessionStatus writeChunk(String id, long offset, InputStream body, String sha256) throws IOException {
+        ActiveUpload upload = upload(id);
+        UploadSession session = upload.session;
+        int chunkSize = session.getChunkSize();
+        if (offset < 0 || offset >= session.getSize() || offset % chunkSize != 0) {
+            throw new IllegalArgumentException("잘못된 청크 위치: " + offset);
+        }
+        if (sha256 == null || sha256.isBlank()) {
+            throw new IllegalArgumentException("청크 SHA-256이 필요합니다.");
+        }
+        int index = (int) (offset / chunkSize);
+        long expected = Math.min(chunkSize, session.getSize() - offset);
+
+        upload.lock.readLock().lock();
+        try {
+            upload.ensureOpen();
+            return write(session, index, offset, expected, body, sha256);
+        } finally {
+            upload.lock.readLock().unlock();
+        }
+    }
+
+    // 읽기 잠금 안에서 실행 (다른 청크 쓰기와는 동시에, complete/abort와는 겹치지 않게)
+    private UploadSessionStatus write(UploadSession session, int index, long offset, long expected,
+                                      InputStream body, String sha256) throws IOException {
+        MessageDigest digest = sha256();
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(partPath(session.getId()), StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            byte[] array = buffer.array();
+            long position = offset;
+            int n;
+            while ((n = body.read(array)) > 0) {
+                if (written + n > expected) {
+                    throw new IllegalArgumentException("청크가 " + expected + " bytes 보다 큽니다.");
+                }
+                digest.update(array, 0, n);
+                buffer.clear().limit(n);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                written += n;
+            }
+        }
+        if (written != expected) {
+            throw new IllegalArgumentException("청크 크기가 맞지 않습니다. (기대 " + expected + ", 받음 " + written + ")");
+        }
+        String actual = HexFormat.of().formatHex(digest.digest());
+        if (!actual.equalsIgnoreCase(sha256.trim())) {
+            // 받은 것으로 표시하지 않으므로 클라이언트가 같은 청크를 다시 보내면 덮어씀
+            throw new IllegalArgumentException("청크 " + index + " 체크섬이 맞지 않습니다.");
+        }
+
+        synchronized (session) {
+            BitSet received = receivedOf(session);
+            received.set(index);
+            session.setReceivedChunks(Base64.getEncoder().encodeToString(received.toByteArray()));
+            session.setUpdatedAt(LocalDateTime.now());
+            uploadSessionRepository.save(session);
+            return statusOf(session);
+        }
+    }
+
+    /**
+     * 모든 청크를 받았으면 전체 SHA-256을 계산해 파일을 저장하고 세션을 삭제합니다.
+     *
+     * @param sha256 클라이언트가 계산한 전체 SHA-256 (선택, 있으면 비교)
+     */
+    public StoredFile complete(String id, String sha256) throws IOException {
+        ActiveUpload upload = upload(id);
+        UploadSession session = upload.session;
+        upload.lock.writeLock().lock();
+        try {
+            upload.ensureOpen();
+            List<Integer> missing = missingChunks(session);
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("받지 않은 청크가 " + missing.size() + "개 있습니다: " + missing);
+            }
+            Path part = partPath(id);
+            String actual = hash(part);
+            if (sha256 != null && !sha256.isBlank() && !actual.equalsIgnoreCase(sha256.trim())) {
+                throw new IllegalArgumentException("파일 체크섬이 맞지 않습니다.");
+            }
+            StoredFile stored = contentStore.adopt(part, actual, session.getOriginalFilename(), session.getSize(),
+                    session.getContentType(), session.getCustomerId());
+            remove(upload);
+            logger.info("청크 업로드 완료: {} ({} bytes, {})", session.getOriginalFilename(), session.getSize(), actual);
+            return stored;
+        } finally {
+            upload.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 업로드를 취소하고 부분 파일을 삭제합니다.
+     */
+    public void abort(String id) throws IOException {
+        ActiveUpload upload = upload(id);
+        upload.lock.writeLock().lock();
+        try {
+            upload.ensureOpen();
+            remove(upload);
+        } finally {
+            upload.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * upload.chunked.ttl 동안 청크가 오지 않은 세션과 세션 없는 부분 파일을 삭제합니다.
+     */
+    @Scheduled(fixedDelayString = "${upload.chunked.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        List<UploadSession> stale = uploadSessionRepository.findByUpdatedAtBefore(cutoff);
+        for (UploadSession session : stale) {
+            // 진행 중인 청크 쓰기가 끝난 뒤 삭제 (그 사이 청크가 도착해 갱신된 세션은 유지)
+            ActiveUpload upload = sessions.computeIfAbsent(session.getId(), key -> new ActiveUpload(session));
+            upload.lock.writeLock().lock();
+            try {
+                if (upload.closed || upload.session.getUpdatedAt().isAfter(cutoff)) {
+                    continue;
+                }
+                remove(upload);
+                logger.info("중단된 청크 업로드 정리: {} ({})", session.getId(), session.getOriginalFilename());
+            } catch (IOException e) {
+                logger.warn("청크 업로드 정리 실패: {} ({})", session.getId(), e.getMessage());
+            } finally {
+                upload.lock.writeLock().unlock();
+            }
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(partialDir, "*.part")) {
+            for (Path path : stream) {
+                String id = path.getFileName().toString().replace(".part", "");
+                if (!sessions.containsKey(id) && !uploadSessionRepository.existsById(id)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("부분 파일 디렉터리 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private ActiveUpload upload(String id) {
+        ActiveUpload upload = sessions.computeIfAbsent(id,
+                key -> uploadSessionRepository.findById(key).map(ActiveUpload::new).orElse(null));
+        if (upload == null) {
+            throw new NoSuchElementException("업로드 세션을 찾을 수 없습니다: " + id);
+        }
+        return upload;
+    }
+
+    // 쓰기 잠금 안에서 호출. 닫힌 뒤 도착한 청크는 거절됨
+    private void remove(ActiveUpload upload) throws IOException {
+        String id = upload.session.getId();
+        upload.closed = true;
+        sessions.remove(id, upload);
+        uploadSessionRepository.deleteById(id);
+        Files.deleteIfExists(partPath(id));
+    }
+
+    private Path partPath(String id) {
+        // id는 UUID이지만 외부 입력이므로 파일명으로 쓰기 전에 확인
+        UUID.fromString(id);
+        return partialDir.resolve(id + ".part");
+    }
+
+    private UploadSessionStatus statusOf(UploadSession session) {
+        UploadSessionStatus status = new UploadSessionStatus();
+        status.setId(session.getId());
+        status.setSize(session.getSize());
+        status.setChunkSize(session.getChunkSize());
+        status.setTotalChunks(totalChunks(session));
+        List<Integer> missing = missingChunks(session);
+        status.setMissingChunks(missing);
+        long missingBytes = 0;
+        for (int index : missing) {
+            missingBytes += Math.min(session.getChunkSize(), session.getSize() - (long) index * session.getChunkSize());
+        }
+        status.setReceivedBytes(session.getSize() - missingBytes);
+        return status;
+    }
+
+    private List<Integer> missingChunks(UploadSession session) {
+        BitSet received = receivedOf(session);
+        int total = totalChunks(session);
+        List<Integer> missing = new ArrayList<>();
+        for (int i = received.nextClearBit(0); i < total; i = received.nextClearBit(i + 1)) {
+            missing.add(i);
+        }
+        return missing;
+    }
+
+    private static int totalChunks(UploadSession session) {
+        return (int) ((session.getSize() + session.getChunkSize() - 1) / session.getChunkSize());
+    }
+
+    private static BitSet receivedOf(UploadSession session) {
+        String encoded = session.getReceivedChunks();
+        return encoded == null || encoded.isEmpty() ? new BitSet() : BitSet.valueOf(Base64.getDecoder().decode(encoded));
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 메모리에 올린 세션과 잠금. 청크 쓰기는 읽기 잠금, complete/abort/정리는 쓰기 잠금을 잡으며,
+     * 닫힌 뒤 도착한 청크는 없는 세션으로 처리합니다.
+     */
+    private static final class ActiveUpload {
+        private final UploadSession session;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile boolean closed;
+
+        private ActiveUpload(UploadSession session) {
+            this.session = session;
+        }
+
+        private void ensureOpen() {
+            if (closed) {
+                throw new NoSuchElementException("업로드 세션을 찾을 수 없습니다: " + session.getId());
+            }
+        }
+    }
+}
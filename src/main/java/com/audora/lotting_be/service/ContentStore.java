@@ -0,0 +1,190 @@
+package com.audora.lotting_be.service;
+
+import com.audora.lotting_be.model.file.StoredFile;
+import com.audora.lotting_be.repository.StoredFileRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * 업로드 파일 내용 보관소 (내용 주소 방식).
+ * 업로드를 임시 파일로 받으면서 SHA-256을 계산하고, 내용은 {file.upload-dir}/sha256/ab/cd/해시 에 한 번만 저장합니다.
+ * - 같은 내용은 다시 저장하지 않고 StoredFile 행만 추가합니다. (파일명이 같아도 서로 덮어쓰지 않음)
+ * - 2단계 256개 디렉터리로 나누므로 파일이 수억 개여도 한 디렉터리의 항목은 수천 개 이하입니다.
+ * - 파일 정보(원본 파일명, 크기, MIME 타입, 소유 고객)는 stored_file 테이블에 저장하고, id로 바로 찾습니다.
+ * - 마지막 StoredFile 행이 삭제되면 내용 파일도 삭제합니다.
+ */
+@Service
+public class ContentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentStore.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // 같은 해시의 저장/삭제가 겹치지 않도록 해시 앞 부분으로 고르는 잠금
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final Path tmpDir;
+    private final StoredFileRepository storedFileRepository;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public ContentStore(@Value("${file.upload-dir}") String uploadDir, StoredFileRepository storedFileRepository) {
+        this.root = Paths.get(uploadDir).resolve("sha256");
+        this.tmpDir = root.resolve("tmp");
+        this.storedFileRepository = storedFileRepository;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * 보관 디렉터리를 만들고, 비정상 종료로 남은 임시 파일을 삭제합니다.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(tmpDir);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tmpDir)) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * 업로드 파일을 저장하고 파일 정보를 기록합니다. 같은 내용이 이미 있으면 내용은 다시 쓰지 않습니다.
+     *
+     * @param customerId 소유 고객 (없으면 null)
+     */
+    public StoredFile store(MultipartFile file, Integer customerId) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".tmp");
+        long size = 0;
+        try {
+            // 한 번 읽으면서 임시 파일 기록과 해시 계산을 함께 수행
+            try (InputStream in = file.getInputStream(); OutputStream out = Files.newOutputStream(tmp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                    size += n;
+                }
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            return adopt(tmp, sha256, file.getOriginalFilename(), size, file.getContentType(), customerId);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 이미 디스크에 있는 파일(청크 업로드 결과 등)을 복사 없이 해시 경로로 옮겨 저장합니다.
+     * 같은 내용이 이미 있으면 file은 삭제합니다. file은 보관 디렉터리와 같은 파일 시스템에 있어야 합니다.
+     *
+     * @param sha256 file 내용의 SHA-256 (소문자 16진수)
+     */
+    public StoredFile adopt(Path file, String sha256, String originalFilename, long size, String contentType,
+                            Integer customerId) throws IOException {
+        StoredFile stored = new StoredFile();
+        stored.setSha256(sha256);
+        stored.setOriginalFilename(originalName(originalFilename));
+        stored.setSize(size);
+        stored.setContentType(contentType != null ? contentType : "application/octet-stream");
+        stored.setCustomerId(customerId);
+        stored.setCreatedAt(LocalDateTime.now());
+
+        synchronized (lockFor(sha256)) {
+            Path target = pathOf(sha256);
+            if (Files.exists(target)) {
+                logger.debug("중복 내용 업로드: {} ({})", stored.getOriginalFilename(), sha256);
+                Files.deleteIfExists(file);
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // 다른 서버 인스턴스가 같은 내용을 먼저 저장함
+                    Files.deleteIfExists(file);
+                }
+            }
+            return storedFileRepository.save(stored);
+        }
+    }
+
+    /**
+     * @return 파일 정보, 없으면 null
+     */
+    public StoredFile find(Long id) {
+        return id != null ? storedFileRepository.findById(id).orElse(null) : null;
+    }
+
+    /**
+     * @return 저장된 내용 파일 경로 (없으면 null)
+     */
+    public Path resolve(StoredFile stored) {
+        Path path = pathOf(stored.getSha256());
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /**
+     * 파일 정보를 삭제하고, 같은 내용을 참조하는 다른 파일이 없으면 내용 파일도 삭제합니다.
+     *
+     * @return 삭제했으면 true, 없는 id이면 false
+     */
+    public boolean delete(Long id) throws IOException {
+        StoredFile stored = find(id);
+        if (stored == null) {
+            return false;
+        }
+        String sha256 = stored.getSha256();
+        synchronized (lockFor(sha256)) {
+            storedFileRepository.delete(stored);
+            if (storedFileRepository.countBySha256(sha256) == 0) {
+                Files.deleteIfExists(pathOf(sha256));
+            }
+        }
+        return true;
+    }
+
+    // sha256/ab/cd/abcd...
+    private Path pathOf(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private Object lockFor(String sha256) {
+        return locks[Integer.parseInt(sha256.substring(0, 2), 16) % LOCK_STRIPES];
+    }
+
+    private static String originalName(String name) {
+        if (name == null || name.isBlank()) {
+            return "file";
+        }
+        // 브라우저에 따라 전체 경로가 오는 경우가 있어 파일명만 사용
+        return Paths.get(name.replace('\\', '/')).getFileName().toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
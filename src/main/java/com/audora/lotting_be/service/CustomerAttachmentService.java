@@ -0,0 +1,213 @@
+package com.audora.lotting_be.service;
+
+import com.audora.lotting_be.model.customer.Attachments;
+import com.audora.lotting_be.model.customer.CustomerAttachment;
+import com.audora.lotting_be.model.customer.DocumentType;
+import com.audora.lotting_be.model.file.StoredFile;
+import com.audora.lotting_be.payload.response.MissingDocumentCustomer;
+import com.audora.lotting_be.payload.response.MissingDocumentPage;
+import com.audora.lotting_be.repository.CustomerAttachmentRepository;
+import com.audora.lotting_be.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 고객별 부속서류 제출 내역 (customer_attachment).
+ * 서류 목록과 미제출 고객 조회는 이 테이블만 사용하고, 엑셀 서식 등 기존 기능이 읽는
+ * Customer.attachments 의 제출 여부 열은 등록/삭제 시 같은 값으로 맞춰 둡니다.
+ * 반대로 고객 수정 API, 고객 등록(엑셀 가져오기 포함)이 제출 여부 열을 바꾸면 호출 측에서
+ * syncLegacyFlags로 바뀐 서류만 내역에 반영합니다. (재계산 등 다른 고객 저장에는 비용이 들지 않도록 엔티티 리스너를 쓰지 않음)
+ */
+@Service
+public class CustomerAttachmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerAttachmentService.class);
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO customer_attachment (customer_id, document_type, stored_file_id, submitted_at)"
+                    + " VALUES (?, ?, ?, ?)"
+                    + " ON DUPLICATE KEY UPDATE stored_file_id = VALUES(stored_file_id), submitted_at = VALUES(submitted_at)";
+
+    // JPA 엔티티 리스너는 스프링 빈이 아니므로 정적 참조로 접근합니다.
+    private static volatile CustomerAttachmentService instance;
+
+    @Autowired
+    private CustomerAttachmentRepository customerAttachmentRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private DataVersion dataVersion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public CustomerAttachmentService() {
+        instance = this;
+    }
+
+    public static CustomerAttachmentService get() {
+        return instance;
+    }
+
+    /**
+     * 서버 시작 시 기존 제출 여부 열(Attachments)이 true인데 내역이 없는 서류를 내역으로 옮깁니다.
+     * 이미 있는 (고객, 서류) 행은 건너뛰므로 여러 번 실행해도 됩니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void importLegacyFlags() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (DocumentType type : DocumentType.values()) {
+            int inserted = jdbcTemplate.update(
+                    "INSERT IGNORE INTO customer_attachment (customer_id, document_type, submitted_at)"
+                            + " SELECT id, ?, ? FROM customer WHERE " + type.getLegacyColumn() + " = TRUE",
+                    type.name(), now);
+            if (inserted > 0) {
+                logger.info("부속서류 내역 이전: {} {}건", type.getLabel(), inserted);
+            }
+        }
+    }
+
+    public List<CustomerAttachment> list(Integer customerId) {
+        return customerAttachmentRepository.findByCustomerIdOrderByDocumentType(customerId);
+    }
+
+    /**
+     * 서류 제출을 기록합니다. 같은 서류가 이미 있으면 파일과 제출 시각을 바꿉니다.
+     *
+     * @param storedFileId 제출 파일 (/files/store 결과의 id, 없으면 제출 표시만)
+     * @return 제출 내역, 고객이 없으면 null
+     * @throws IllegalArgumentException 파일이 없거나 다른 고객의 파일
+     */
+    @Transactional
+    public CustomerAttachment attach(Integer customerId, DocumentType type, Long storedFileId) {
+        if (!customerRepository.existsById(customerId)) {
+            return null;
+        }
+        if (storedFileId != null) {
+            StoredFile stored = contentStore.find(storedFileId);
+            if (stored == null) {
+                throw new IllegalArgumentException("File not found: " + storedFileId);
+            }
+            if (stored.getCustomerId() != null && !Objects.equals(stored.getCustomerId(), customerId)) {
+                throw new IllegalArgumentException("File " + storedFileId + " belongs to another customer.");
+            }
+        }
+        // 같은 서류를 동시에 등록해도 유니크 키 위반으로 트랜잭션이 깨지지 않도록 한 문장으로 등록/갱신
+        jdbcTemplate.update(UPSERT_SQL, customerId, type.name(), storedFileId, Timestamp.valueOf(LocalDateTime.now()));
+        updateLegacyFlag(customerId, type, true);
+        return customerAttachmentRepository.findByCustomerIdAndDocumentType(customerId, type).orElse(null);
+    }
+
+    /**
+     * 서류 제출 내역을 삭제합니다. 연결된 파일은 삭제하지 않습니다. (/files/delete 로 따로 삭제)
+     *
+     * @return 삭제했으면 true, 내역이 없으면 false
+     */
+    @Transactional
+    public boolean detach(Integer customerId, DocumentType type) {
+        CustomerAttachment attachment = customerAttachmentRepository
+                .findByCustomerIdAndDocumentType(customerId, type).orElse(null);
+        if (attachment == null) {
+            return false;
+        }
+        customerAttachmentRepository.delete(attachment);
+        updateLegacyFlag(customerId, type, false);
+        return true;
+    }
+
+    /**
+     * type 서류를 내지 않은 고객을 id 순으로 size명까지 조회합니다.
+     *
+     * @param afterId 이전 페이지의 nextAfterId (첫 페이지는 0)
+     */
+    public MissingDocumentPage findMissing(DocumentType type, int afterId, int size, String groupname, String batch) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<MissingDocumentCustomer> customers = customerAttachmentRepository.findCustomersMissing(
+                type, afterId, groupname, batch, PageRequest.of(0, limit));
+        MissingDocumentPage page = new MissingDocumentPage();
+        page.setDocumentType(type.name());
+        page.setCustomers(customers);
+        page.setNextAfterId(customers.size() < limit ? null : customers.get(customers.size() - 1).getId());
+        return page;
+    }
+
+    /**
+     * 고객 수정 API, 고객 등록(엑셀 가져오기 포함)이 바꾼 제출 여부 열(Attachments)을 내역에 반영합니다.
+     * before와 비교해 바뀐 서류만 처리하며, 아무것도 바뀌지 않았으면 쿼리를 실행하지 않습니다.
+     * - 새로 제출로 표시된 서류: 내역이 없을 때만 추가 (이미 있으면 파일 연결 유지)
+     * - 미제출로 바뀐 서류: 파일이 연결되지 않은 내역만 삭제
+     *   (attach 이전에 읽은 고객 정보로 저장해 열 값이 뒤처진 경우 제출 파일 연결을 잃지 않도록 함)
+     *
+     * @param before 변경 전 제출로 표시된 서류 (신규 고객은 빈 집합, DocumentType.providedIn 참고)
+     */
+    @Transactional
+    public void syncLegacyFlags(Integer customerId, Set<DocumentType> before, Attachments after) {
+        if (customerId == null) {
+            return;
+        }
+        Set<DocumentType> provided = DocumentType.providedIn(after);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (DocumentType type : DocumentType.values()) {
+            boolean was = before.contains(type);
+            boolean is = provided.contains(type);
+            if (is && !was) {
+                added.add(new Object[]{customerId, type.name(), now});
+            } else if (was && !is) {
+                removed.add(type.name());
+            }
+        }
+        if (!removed.isEmpty()) {
+            List<Object> args = new ArrayList<>(removed.size() + 1);
+            args.add(customerId);
+            args.addAll(removed);
+            jdbcTemplate.update("DELETE FROM customer_attachment WHERE customer_id = ? AND stored_file_id IS NULL"
+                    + " AND document_type IN (" + String.join(", ", Collections.nCopies(removed.size(), "?")) + ")",
+                    args.toArray());
+        }
+        if (!added.isEmpty()) {
+            // 중복 키만 무시하고 기존 행(파일 연결, 제출 시각)은 그대로 둠
+            jdbcTemplate.batchUpdate("INSERT INTO customer_attachment (customer_id, document_type, submitted_at)"
+                    + " VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE customer_id = customer_id", added);
+        }
+    }
+
+    /**
+     * 삭제된 고객의 내역을 지웁니다. (CustomerService.deleteCustomer)
+     */
+    public void removeAll(Integer customerId) {
+        if (customerId != null) {
+            jdbcTemplate.update("DELETE FROM customer_attachment WHERE customer_id = ?", customerId);
+        }
+    }
+
+    // Customer 엔티티를 로딩하지 않고 제출 여부 열만 갱신 (엑셀 내보내기 캐시가 갱신되도록 커밋 후 버전도 올림)
+    private void updateLegacyFlag(Integer customerId, DocumentType type, boolean provided) {
+        jdbcTemplate.update("UPDATE customer SET " + type.getLegacyColumn() + " = ?, last_modified_at = ? WHERE id = ?",
+                provided, Timestamp.valueOf(LocalDateTime.now()), customerId);
+        dataVersion.bumpAfterCommit(customerId);
+    }
+}
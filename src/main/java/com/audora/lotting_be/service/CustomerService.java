@@ -20,11 +20,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.Comparator;
 
@@ -38,6 +43,10 @@ public class CustomerService {
     private FeeRepository feeRepository;
     @Autowired
     private DepositHistoryRepository depositHistoryRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CustomerAttachmentService customerAttachmentService;
 
     // ================================================
     // 1) 고객 생성 및 초기 Phase 설정
@@ -88,6 +97,8 @@ public class CustomerService {
         }
         // 고객 저장 후 전체 재계산
         customer = customerRepository.save(customer);
+        // 신규 고객이므로 제출로 표시된 서류만 부속서류 내역에 추가
+        customerAttachmentService.syncLegacyFlags(customer.getId(), Collections.emptySet(), customer.getAttachments());
         recalculateEverything(customer);
         return customer;
     }
@@ -233,6 +244,23 @@ public class CustomerService {
         customerRepository.save(customer);
     }
 
+    /**
+     * 고객 id로 고객을 새로 조회하여 전체 재계산을 수행합니다.
+     * 입금내역 일괄 업로드 후 영향받은 고객마다 한 번씩, 각자의 트랜잭션에서 호출됩니다.
+     *
+     * @return 재계산을 수행했으면 true, 고객이 없으면 false
+     */
+    @Transactional
+    public boolean recalculateCustomerById(Integer customerId) {
+        Customer customer = customerRepository.findById(customerId).orElse(null);
+        if (customer == null) {
+            logger.warn("recalculateCustomerById: 고객 id {}를 찾을 수 없습니다.", customerId);
+            return false;
+        }
+        recalculateEverything(customer);
+        return true;
+    }
+
     private Map<Integer, Long> distributeLoanDepositPaymentToPhasesAndCollectAllocation(Customer customer,
                                                                                         DepositHistory dh,
                                                                                         Map<Integer, Long> cumulativeDeposits,
@@ -518,12 +546,18 @@ public class CustomerService {
         return optionalCustomer.orElse(null);
     }
 
+    public boolean existsCustomer(Integer id) {
+        return customerRepository.existsById(id);
+    }
+
     public Customer saveCustomer(Customer customer) {
         return customerRepository.save(customer);
     }
 
+    @Transactional
     public void deleteCustomer(Integer id) {
         customerRepository.deleteById(id);
+        customerAttachmentService.removeAll(id);
     }
 
     // ================================================
@@ -805,5 +839,48 @@ public class CustomerService {
         return customers;
     }
 
+    /**
+     * 전체 고객을 id 순으로 pageSize명씩 읽어 consumer에 넘깁니다. (전체 목록을 한 번에 메모리에 올리지 않음)
+     * 페이지마다 별도의 읽기 전용 트랜잭션에서 phases를 함께 조회하고 consumer를 실행하므로,
+     * consumer 안에서는 지연 로딩 필드에 접근할 수 있고 트랜잭션이 끝나면 해당 페이지 엔티티는 해제됩니다.
+     */
+    public void forEachCustomerPage(int pageSize, Consumer<List<Customer>> consumer) {
+        forEachCustomerPage(pageSize, (LocalDateTime) null, consumer);
+    }
+
+    /**
+     * since가 있으면 그 이후 고객 또는 차수/상태가 변경된 고객만 읽습니다. (변경분 내보내기)
+     */
+    public void forEachCustomerPage(int pageSize, LocalDateTime since, Consumer<List<Customer>> consumer) {
+        forEachCustomerPage(pageSize, (lastId, page) -> since == null
+                ? customerRepository.findIdsAfter(lastId, page)
+                : customerRepository.findModifiedIdsAfter(lastId, since, page), consumer);
+    }
+
+    /**
+     * 필터(군, 가입차순, 타입, 분류, 변경 기준 since; null 조건은 무시)에 맞는 고객만 읽습니다. 기본 고객(id 1)은 제외합니다.
+     */
+    public void forEachCustomerPage(int pageSize, String groupname, String batch, String type, String customertype,
+                                    LocalDateTime since, Consumer<List<Customer>> consumer) {
+        forEachCustomerPage(pageSize, (lastId, page) -> customerRepository.findIdsByFilterAfter(
+                lastId, groupname, batch, type, customertype, since, page), consumer);
+    }
+
+    // idPage: (마지막 id, 페이지 크기) -> 다음 고객 id 목록 (id 순)
+    private void forEachCustomerPage(int pageSize, BiFunction<Integer, Pageable, List<Integer>> idPage,
+                                     Consumer<List<Customer>> consumer) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        Integer lastId = Integer.MIN_VALUE;
+        while (true) {
+            List<Integer> ids = idPage.apply(lastId, PageRequest.of(0, pageSize));
+            if (ids.isEmpty()) {
+                return;
+            }
+            tx.executeWithoutResult(status -> consumer.accept(customerRepository.findWithPhasesByIdIn(ids)));
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+
 
 }
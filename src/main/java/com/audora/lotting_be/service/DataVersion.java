@@ -0,0 +1,92 @@
+package com.audora.lotting_be.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 데이터 버전.
+ * 고객, 차수(Phase), 상태(Status), 입금내역이 저장/수정/삭제될 때마다 전체 버전을 1 올리고,
+ * 해당 고객의 버전을 그 값으로 기록합니다. 내보내기 결과 캐시(ExportResultCache)의 키로 사용하여
+ * 데이터가 바뀌지 않았으면 이전에 만든 파일을 그대로 돌려줍니다.
+ * 엔티티 변경은 DataVersionListener, JDBC 배치 저장은 저장소에서 직접 bumpAfterCommit을 호출합니다.
+ * 버전은 서버 메모리에만 있으므로, 재시작과 무관한 변경분 내보내기(since)는 각 엔티티의 lastModifiedAt 시각을 기준으로 합니다.
+ */
+@Component
+public class DataVersion {
+
+    // JPA 엔티티 리스너는 스프링 빈이 아니므로 정적 참조로 접근합니다.
+    private static volatile DataVersion instance;
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Integer, Long> customerVersions = new ConcurrentHashMap<>();
+
+    @Value("${export.delta.watermark-lag:PT5M}")
+    private Duration watermarkLag = Duration.ofMinutes(5);
+
+    public DataVersion() {
+        instance = this;
+    }
+
+    public static DataVersion get() {
+        return instance;
+    }
+
+    /**
+     * 전체 데이터 버전 (내보내기 시작 전에 읽어야 합니다)
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * 고객별 버전. 이 서버가 시작된 뒤 변경된 적이 없으면 0
+     */
+    public long customerVersion(Integer customerId) {
+        return customerId == null ? 0L : customerVersions.getOrDefault(customerId, 0L);
+    }
+
+    /**
+     * 이번 내보내기 이후의 변경분을 받으려면 다음 요청의 since로 넘길 시각 (내보내기 조회 전에 읽어야 합니다)
+     * lastModifiedAt은 커밋 전에 기록되므로, 조회 시점에 아직 커밋되지 않은 긴 트랜잭션의 변경을 놓치지 않도록
+     * export.delta.watermark-lag 만큼 앞당깁니다. (그 사이 변경분은 다음 내보내기에 한 번 더 포함될 수 있음)
+     */
+    public LocalDateTime watermark() {
+        return LocalDateTime.now().minus(watermarkLag);
+    }
+
+    /**
+     * 전체 버전을 올리고, customerId가 있으면 해당 고객의 버전도 갱신합니다.
+     */
+    public long bump(Integer customerId) {
+        long v = version.incrementAndGet();
+        if (customerId != null) {
+            customerVersions.put(customerId, v);
+        }
+        return v;
+    }
+
+    /**
+     * 진행 중인 트랜잭션이 있으면 커밋된 뒤에 bump합니다. (롤백되면 올리지 않음)
+     * 커밋 전에 올리면 그 사이 시작된 내보내기가 이전 데이터를 새 버전으로 캐시할 수 있기 때문입니다.
+     */
+    public void bumpAfterCommit(Integer customerId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(customerId);
+                }
+            });
+        } else {
+            bump(customerId);
+        }
+    }
+}
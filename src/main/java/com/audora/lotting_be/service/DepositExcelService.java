@@ -3,24 +3,37 @@ package com.audora.lotting_be.service;
 import com.audora.lotting_be.model.customer.Customer;
 import com.audora.lotting_be.model.customer.DepositHistory;
 import com.audora.lotting_be.model.customer.minor.Loan;
+import com.audora.lotting_be.payload.response.RowIssue;
+import com.audora.lotting_be.payload.response.ValidationReport;
 import com.audora.lotting_be.repository.CustomerRepository;
+import com.audora.lotting_be.repository.DepositHistoryBatchRepository;
 import com.audora.lotting_be.repository.DepositHistoryRepository;
-import jakarta.transaction.Transactional;
+import com.audora.lotting_be.util.DelimitedRecordReader;
+import com.audora.lotting_be.util.DepositFingerprint;
+import com.audora.lotting_be.util.ExcelValidationAnnotator;
+import com.audora.lotting_be.util.ExcelValueParser;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.*;
-import java.time.LocalDate;
+import java.nio.charset.Charset;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,438 +41,1026 @@ public class DepositExcelService {
 
     private static final Logger logger = LoggerFactory.getLogger(DepositExcelService.class);
 
+    // 지연 재계산 모드: JDBC 배치 크기와 고객별 재계산 동시 실행 수
+    private static final int BATCH_SIZE = 500;
+    private static final int RECALC_PARALLELISM = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    // CSV 인코딩/구분자 판별에 사용할 앞부분 크기와 읽기 버퍼 크기
+    private static final int CSV_SNIFF_SIZE = 8 * 1024;
+    private static final int CSV_BUFFER_SIZE = 64 * 1024;
+    // 입금내역 내보내기: 열 수, 메모리에 유지할 행 수
+    private static final int DEP_COLUMN_COUNT = 23;
+    private static final int DEP_WINDOW_SIZE = 500;
+
     private final DepositHistoryRepository depositHistoryRepository;
+    private final DepositHistoryBatchRepository depositHistoryBatchRepository;
     private final CustomerRepository customerRepository;
     private final DepositHistoryService depositHistoryService;
+    private final CustomerService customerService;
+    private final ExcelTemplateCache excelTemplateCache;
+    private final ArtifactStore artifactStore;
+    private final JobExecutors jobExecutors;
 
     public DepositExcelService(DepositHistoryRepository depositHistoryRepository,
+                               DepositHistoryBatchRepository depositHistoryBatchRepository,
                                CustomerRepository customerRepository,
-                               DepositHistoryService depositHistoryService) {
+                               DepositHistoryService depositHistoryService,
+                               CustomerService customerService,
+                               ExcelTemplateCache excelTemplateCache,
+                               ArtifactStore artifactStore,
+                               JobExecutors jobExecutors) {
         this.depositHistoryRepository = depositHistoryRepository;
+        this.depositHistoryBatchRepository = depositHistoryBatchRepository;
         this.customerRepository = customerRepository;
         this.depositHistoryService = depositHistoryService;
+        this.customerService = customerService;
+        this.excelTemplateCache = excelTemplateCache;
+        this.artifactStore = artifactStore;
+        this.jobExecutors = jobExecutors;
     }
 
-    public void processDepositExcelFileWithProgress(MultipartFile file, SseEmitter emitter) throws IOException {
-        DataFormatter formatter = new DataFormatter(Locale.getDefault());
-        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    public void processDepositExcelFileWithProgress(MultipartFile file, ProgressPublisher progress) throws IOException {
+        processWithProgress(file, false, progress);
+    }
 
-        try (InputStream is = file.getInputStream();
-             XSSFWorkbook workbook = new XSSFWorkbook(is)) {
+    /**
+     * [신규] 지연 재계산 모드의 입금내역 엑셀 업로드.
+     * 1단계: 모든 행을 파싱하여 BATCH_SIZE 단위로 JDBC 배치 저장하고, 재계산이 필요한 고객 id를 모읍니다.
+     * 2단계: 영향받은 고객마다 한 번씩만 전체 재계산을 병렬로 수행합니다.
+     * 행마다 recalculateEverything을 호출하던 기존 방식(고객 입금내역 수의 제곱에 비례)을 대체합니다.
+     *
+     * SSE 이벤트: phase(insert/recalculate), progress(ProgressSnapshot: 단계별 처리 건수/전체, 속도, 남은 시간),
+     * counts(저장/중복 건수), complete
+     */
+    public void processDepositExcelFileDeferred(MultipartFile file, ProgressPublisher progress) throws IOException {
+        processWithProgress(file, true, progress);
+    }
+
+    private void processWithProgress(MultipartFile file, boolean deferred, ProgressPublisher progress) throws IOException {
+        try (InputStream is = file.getInputStream()) {
+            importDepositWorkbook(is, deferred, -1, Collections.emptyList(), progress);
+            progress.complete("complete", "Deposit excel processing complete.");
+        } catch (IOException e) {
+            logger.error("엑셀 파일 처리 중 IOException 발생: {}", e.getMessage());
+            progress.complete("error", e.getMessage());
+        }
+    }
 
+    /**
+     * 입금내역 엑셀 가져오기 본체.
+     * 시트를 BATCH_SIZE 행 단위 청크로 읽어 중복을 걸러낸 뒤 저장하고, 청크마다 체크포인트를 남깁니다.
+     * 중복 행은 지문으로 걸러지므로 마지막 체크포인트 이후부터 다시 실행해도 안전합니다.
+     *
+     * @param deferred           true: 배치 저장 후 고객별 1회 재계산, false: 행마다 저장 및 재계산
+     * @param resumeAfterRow     이 시트 행 인덱스까지는 이미 처리된 것으로 보고 건너뜁니다. (-1: 처음부터)
+     * @param pendingCustomerIds 이전 실행에서 재계산하지 못한 고객 id (지연 재계산 모드 재개용)
+     * @throws CancellationException 리스너가 취소를 요청한 경우 (마지막 체크포인트까지는 반영됨)
+     * @throws IllegalStateException 저장하지 못한 행이 있는 경우 (나머지 행은 저장되며, 체크포인트는 첫 실패 청크 앞에 머묾)
+     */
+    public void importDepositWorkbook(InputStream is, boolean deferred, int resumeAfterRow,
+                                      Collection<Integer> pendingCustomerIds,
+                                      ImportProgressListener listener) throws IOException {
+        DataFormatter formatter = new DataFormatter(Locale.getDefault());
+        try (XSSFWorkbook workbook = new XSSFWorkbook(is)) {
             XSSFSheet sheet = workbook.getSheetAt(0);
-            int startRow = 1; // 첫 행은 헤더
             int lastRow = sheet.getLastRowNum();
-            int totalRows = lastRow - startRow + 1;
-            logger.info("총 {}건의 행을 처리합니다.", totalRows);
-
-            for (int i = startRow; i <= lastRow; i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) {
-                    logger.warn("행 {}가 null입니다. 건너뜁니다.", i);
-                    continue;
+            int firstRow = Math.max(1, resumeAfterRow + 1); // 첫 행은 헤더
+            // 시트 행을 순서대로 돌려주는 반복자 (비어 있는 행은 null)
+            Iterator<DepositRowSource> rows = new Iterator<>() {
+                private int i = firstRow;
+
+                @Override
+                public boolean hasNext() {
+                    return i <= lastRow;
                 }
 
-                try {
-                    DepositHistory dh = new DepositHistory();
+                @Override
+                public DepositRowSource next() {
+                    Row row = sheet.getRow(i++);
+                    if (row == null) {
+                        return null;
+                    }
+                    return col -> {
+                        Cell cell = row.getCell(col);
+                        return cell != null ? formatter.formatCellValue(cell) : null;
+                    };
+                }
+            };
+            importDepositRows(rows, firstRow, lastRow, deferred, pendingCustomerIds, listener);
+        }
+    }
 
-                    // A: 거래 id (인덱스 0)
-//                    String idStr = formatter.formatCellValue(row.getCell(0));
-//                    if (!idStr.isEmpty()) {
-//                        try {
-//                            dh.setId(Long.parseLong(idStr.replaceAll("[^0-9]", "")));
-//                        } catch (NumberFormatException e) {
-//                            logger.warn("행 {}: 거래 id 파싱 실패 - {}", i, e.getMessage());
-//                        }
-//                    }
+    /**
+     * [신규] CSV/TSV 입금내역 업로드. 열 구성은 입금내역 엑셀과 같습니다. (첫 줄은 헤더)
+     * 은행에서 내려받은 CSV를 xlsx로 변환하지 않고 바로 스트리밍으로 읽습니다.
+     */
+    public void processDepositCsvWithProgress(MultipartFile file, boolean deferred, ProgressPublisher progress) throws IOException {
+        try {
+            importDepositCsv(file, deferred, progress);
+            progress.complete("complete", "Deposit csv processing complete.");
+        } catch (IOException e) {
+            logger.error("CSV 파일 처리 중 IOException 발생: {}", e.getMessage());
+            progress.complete("error", e.getMessage());
+        }
+    }
 
-// 거래일시 처리 (셀 인덱스 1)
-                    Cell cellB = row.getCell(1);
-                    LocalDateTime transactionDateTime = null;
-                    if (cellB != null) {
-                        String dateStr = formatter.formatCellValue(cellB);
-                        if (!dateStr.isEmpty()) {
-                            String cleaned = dateStr.replaceAll("[\\r\\n]+", " ").trim();
-                            String[] patterns = {
-                                    "yyyy.MM.dd HH:mm:ss",
-                                    "yyyy-MM-dd HH:mm:ss",
-                                    "yyyy.MM.dd"  // 시간 정보 없음
-                            };
-                            for (String pattern : patterns) {
-                                try {
-                                    DateTimeFormatter dtf2 = DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH);
-                                    if (pattern.equals("yyyy.MM.dd")) {
-                                        LocalDate ld = LocalDate.parse(cleaned, dtf2);
-                                        transactionDateTime = ld.atStartOfDay();
-                                    } else {
-                                        transactionDateTime = LocalDateTime.parse(cleaned, dtf2);
-                                    }
-                                    break; // 성공하면 루프 탈출
-                                } catch (Exception ex) {
-                                    logger.warn("행 {}: 거래일시 '{}' 파싱 실패 with pattern {}: {}", i, cleaned, pattern, ex.getMessage());
-                                }
-                            }
-                            if (transactionDateTime == null) {
-                                logger.warn("행 {}: 거래일시 '{}' 파싱 실패 (시도한 패턴: {})", i, cleaned, String.join(", ", patterns));
+    /**
+     * CSV/TSV 가져오기 본체.
+     * 파일 앞부분으로 인코딩(UTF-8 / EUC-KR)과 구분자(쉼표 / 탭)를 판별하고, 레코드를 한 건씩 읽어
+     * 엑셀과 같은 청크 저장(중복 제거, 배치 저장, 체크포인트) 과정을 거칩니다.
+     * 진행률 계산을 위해 먼저 바이트 단위로 레코드 수를 셉니다.
+     */
+    public void importDepositCsv(MultipartFile file, boolean deferred, ImportProgressListener listener) throws IOException {
+        int records;
+        try (InputStream is = file.getInputStream()) {
+            records = DelimitedRecordReader.countRecords(is);
+        }
+        try (BufferedInputStream in = new BufferedInputStream(file.getInputStream(), CSV_BUFFER_SIZE)) {
+            byte[] sample = new byte[CSV_SNIFF_SIZE];
+            in.mark(CSV_SNIFF_SIZE);
+            int len = in.readNBytes(sample, 0, CSV_SNIFF_SIZE);
+            in.reset();
+
+            Charset charset = DelimitedRecordReader.detectCharset(sample, len);
+            String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+            char delimiter = filename.endsWith(".tsv") ? '\t' : DelimitedRecordReader.detectDelimiter(sample, len);
+            logger.info("CSV 가져오기: 인코딩 {}, 구분자 {}, 레코드 약 {}건", charset, delimiter == '\t' ? "TAB" : "','", records);
+
+            try (DelimitedRecordReader reader = new DelimitedRecordReader(new InputStreamReader(in, charset), delimiter)) {
+                if (!reader.next()) {
+                    return; // 빈 파일 (헤더 없음)
+                }
+                // 현재 레코드를 가리키는 반복자. 필드는 다음 레코드를 읽기 전에 파싱됩니다.
+                Iterator<DepositRowSource> rows = new Iterator<>() {
+                    private boolean ready;
+                    private boolean more;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (!ready) {
+                            try {
+                                more = reader.next();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
                             }
+                            ready = true;
                         }
+                        return more;
                     }
-                    dh.setTransactionDateTime(transactionDateTime);
 
-                    // C: 적요 (인덱스 2)
-                    dh.setDescription(formatter.formatCellValue(row.getCell(2)));
+                    @Override
+                    public DepositRowSource next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        ready = false;
+                        return reader::field;
+                    }
+                };
+                try {
+                    importDepositRows(rows, 1, Math.max(1, records - 1), deferred, Collections.emptyList(), listener);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+    }
 
-                    // D: 기재내용 (인덱스 3)
-                    dh.setDetails(formatter.formatCellValue(row.getCell(3)));
+    /**
+     * 입금내역 행들을 BATCH_SIZE 단위 청크로 저장합니다. (엑셀/CSV 공통)
+     *
+     * @param rows     firstRow부터 순서대로 행을 돌려주는 반복자 (빈 행은 null)
+     * @param firstRow 첫 행의 행 인덱스 (헤더는 0)
+     * @param lastRow  마지막 행 인덱스 (진행률 계산용)
+     */
+    private void importDepositRows(Iterator<DepositRowSource> rows, int firstRow, int lastRow, boolean deferred,
+                                   Collection<Integer> pendingCustomerIds,
+                                   ImportProgressListener listener) {
+        Map<String, Customer> contractorCache = new HashMap<>();
+        Set<Integer> affectedCustomerIds = new LinkedHashSet<>(pendingCustomerIds);
+
+        int startRow = 1; // 첫 행은 헤더
+        int totalRows = lastRow - startRow + 1;
+        logger.info("총 {}건의 행을 처리합니다. (시작 행: {}, 지연 재계산: {})", totalRows, firstRow, deferred);
+
+        if (deferred) {
+            listener.phase("insert");
+        }
+        List<DepositHistory> chunk = new ArrayList<>(BATCH_SIZE);
+        Set<String> seenFingerprints = new HashSet<>();
+        int inserted = 0;
+        int skipped = 0;
+        int failed = 0;
+        int i = firstRow - 1;
+        // 이 행까지는 모두 저장됨. 저장에 실패한 행이 생기면 그 앞에서 멈춰, 재개 시 실패한 행부터 다시 처리합니다.
+        int committedRow = firstRow - 1;
+        while (rows.hasNext()) {
+            DepositRowSource row = rows.next();
+            i++;
+            if (row == null) {
+                logger.warn("행 {}가 null입니다. 건너뜁니다.", i);
+            } else {
+                try {
+                    chunk.add(parseDepositRow(row, i, contractorCache));
+                } catch (Exception e) {
+                    logger.error("행 {} 처리 중 예외 발생: {}", i, e.getMessage());
+                    // 문제 발생한 행은 건너뛰고 계속 진행
+                }
+            }
 
-// E: 계약자 (인덱스 4) → 고객 식별자로 활용
-                    String contractor = formatter.formatCellValue(row.getCell(4)).trim();
-                    dh.setContractor(contractor);
-                    if (!contractor.isEmpty()) {
-                        // 기존의 Optional<Customer> 대신, 해당 이름과 일치하는 고객들을 리스트로 조회
-                        List<Customer> matchingCustomers = customerRepository.findByCustomerDataNameContaining(contractor)
-                                .stream()
-                                // 이름이 정확히 일치하는 고객만 필터링 (공백 제거 등 필요한 전처리 후 비교)
-                                .filter(c -> contractor.equals(c.getCustomerData().getName()))
-                                .collect(Collectors.toList());
-
-                        if (!matchingCustomers.isEmpty()) {
-                            // 여러 고객이 검색될 경우, 고객번호(id)가 가장 높은 고객 선택
-                            Customer selectedCustomer = matchingCustomers.stream()
-                                    .max(Comparator.comparing(Customer::getId))
-                                    .get();
-                            dh.setCustomer(selectedCustomer);
+            if (chunk.size() < BATCH_SIZE && rows.hasNext()) {
+                continue;
+            }
+            int chunkFirstRow = i - chunk.size() + 1;
+            List<DepositHistory> fresh = filterDuplicates(chunk, seenFingerprints);
+            skipped += chunk.size() - fresh.size();
+            chunk.clear();
+
+            List<DepositHistory> failedRows = new ArrayList<>();
+            if (deferred) {
+                // 저장 전에 재계산 대상 고객을 체크포인트에 먼저 남김
+                // (저장이 커밋된 뒤 체크포인트 전에 중단되면, 재개 시 그 행들은 중복으로 건너뛰어 고객을 다시 모을 수 없음)
+                if (collectAffectedCustomers(fresh, affectedCustomerIds)) {
+                    listener.checkpoint(committedRow, inserted, skipped, affectedCustomerIds);
+                }
+                List<DepositHistory> conflictRows = new ArrayList<>();
+                inserted += flushBatch(fresh, failedRows, conflictRows, listener);
+                // 미리 조회한 뒤 다른 업로드가 먼저 저장해 지문이 충돌한 행
+                skipped += conflictRows.size();
+            } else {
+                int saved = 0;
+                for (DepositHistory dh : fresh) {
+                    if (dh.getCustomer() == null) {
+                        logger.warn("계약자 '{}': 고객 정보가 없어 건너뜁니다.", dh.getContractor());
+                        continue;
+                    }
+                    try {
+                        // 저장 및 재계산 호출
+                        depositHistoryService.createDepositHistory(dh);
+                        inserted++;
+                    } catch (Exception e) {
+                        if (isFingerprintConflict(dh, e)) {
+                            logger.info("다른 업로드가 먼저 저장한 입금내역 건너뜀: 계약자 {}, 거래일시 {}",
+                                    dh.getContractor(), dh.getTransactionDateTime());
+                            skipped++;
                         } else {
-                            // 고객 이름과 일치하는 결과가 없으면 기본 고객(id:1)에 할당
-                            Optional<Customer> defaultCustomerOpt = customerRepository.findById(1);
-                            if (defaultCustomerOpt.isPresent()) {
-                                dh.setCustomer(defaultCustomerOpt.get());
-                            } else {
-                                logger.warn("행 {}: 기본 고객(id:1)을 찾을 수 없습니다.", i);
-                            }
+                            logger.error("입금내역 저장 중 예외 발생 (계약자 {}): {}", dh.getContractor(), e.getMessage());
+                            reportFailure(listener, dh, e);
+                            failedRows.add(dh);
                         }
                     }
+                    // 진행률 갱신 (청크 안에서의 대략적인 행 위치)
+                    int approxRow = Math.min(chunkFirstRow + ++saved, i);
+                    listener.progress(Math.min(approxRow, lastRow) - startRow + 1, totalRows);
+                }
+            }
+            failed += failedRows.size();
+            if (failed == 0) {
+                committedRow = i;
+            }
+            listener.progress(Math.min(i, lastRow) - startRow + 1, totalRows);
+            sendCounts(listener, inserted, skipped, failed);
+            // 재계산 대상 고객은 실패 여부와 관계없이 지금까지 저장된 행 기준으로 기록
+            listener.checkpoint(committedRow, inserted, skipped, affectedCustomerIds);
+
+            if (listener.isCancelled()) {
+                logger.info("입금내역 가져오기 취소 요청: 행 {}까지 반영 후 중단합니다.", i);
+                throw new CancellationException("행 " + i + "까지 반영 후 취소되었습니다.");
+            }
+        }
+        logger.info("입금내역 저장 {}건, 중복 {}건 건너뜀, 저장 실패 {}건", inserted, skipped, failed);
+
+        if (deferred) {
+            // 2단계: 고객별 1회 재계산 (병렬)
+            logger.info("[지연 재계산] 재계산 대상 고객 {}명", affectedCustomerIds.size());
+            listener.phase("recalculate");
+            recalculateCustomers(affectedCustomerIds, listener);
+            listener.checkpoint(committedRow, inserted, skipped, Collections.emptyList());
+        }
+        if (failed > 0) {
+            // 저장된 행은 그대로 두고 작업은 실패로 끝냄 (재개하면 committedRow 다음 행부터, 이미 저장된 행은 중복으로 건너뜀)
+            throw new IllegalStateException("입금내역 " + failed + "건을 저장하지 못했습니다. (저장 " + inserted
+                    + "건, 행 " + committedRow + "까지 모두 반영됨)");
+        }
+    }
 
+    /**
+     * 입금내역 엑셀을 저장 없이 검증합니다.
+     * 거래일시/금액 형식, 계약자 매칭 여부, 이미 등록된 거래(지문 중복)를 행마다 확인하고,
+     * annotate가 true이면 문제 셀을 표시한 엑셀을 ArtifactStore에 보관합니다.
+     * 고객 이름 목록은 시작 시 한 번만 조회하고, 지문 중복은 BATCH_SIZE 단위 IN 조회로 확인합니다.
+     */
+    public ValidationReport validateDepositWorkbook(InputStream is, boolean annotate) throws IOException {
+        long started = System.currentTimeMillis();
+        ValidationReport report = new ValidationReport();
+        report.setWorkbookType("deposit");
+
+        Set<String> customerNames = new HashSet<>(customerRepository.findAllNames());
+        DataFormatter formatter = new DataFormatter(Locale.getDefault());
 
-                    // F: 찾으신금액 (인덱스 5)
-                    String withdrawnStr = formatter.formatCellValue(row.getCell(5));
-                    if (!withdrawnStr.isEmpty()) {
-                        try {
-                            dh.setWithdrawnAmount(Long.parseLong(withdrawnStr.replaceAll("[^0-9]", "")));
-                        } catch (Exception ex) {
-                            logger.warn("행 {}: 찾으신금액 파싱 실패 - {}", i, ex.getMessage());
+        try (XSSFWorkbook workbook = new XSSFWorkbook(is)) {
+            XSSFSheet sheet = workbook.getSheetAt(0);
+            int lastRow = sheet.getLastRowNum();
+            Set<String> seenFingerprints = new HashSet<>();
+            Map<String, Integer> pendingFingerprints = new LinkedHashMap<>(); // 지문 -> 엑셀 행 번호
+            Set<Integer> errorRows = new HashSet<>();
+            int rows = 0;
+            for (int i = 1; i <= lastRow; i++) {
+                Row row = sheet.getRow(i);
+                if (row != null) {
+                    rows++;
+                    int excelRow = i + 1;
+                    int errorsBefore = report.getErrorCount();
+                    DepositHistory probe = new DepositHistory();
+
+                    String dateStr = formatter.formatCellValue(row.getCell(1));
+                    if (dateStr.isEmpty()) {
+                        report.add(new RowIssue(excelRow, "B", dateStr, RowIssue.ERROR, "거래일시가 비어 있습니다."));
+                    } else {
+                        probe.setTransactionDateTime(ExcelValueParser.parseTransactionDateTime(dateStr));
+                        if (probe.getTransactionDateTime() == null) {
+                            report.add(new RowIssue(excelRow, "B", dateStr, RowIssue.ERROR,
+                                    "거래일시 형식이 올바르지 않습니다. (yyyy.MM.dd HH:mm:ss, yyyy-MM-dd HH:mm:ss, yyyy.MM.dd)"));
                         }
                     }
 
-                    // 맡기신금액 처리 (셀 인덱스 6)
-                    String depositAmtStr = formatter.formatCellValue(row.getCell(6));
-                    long depositAmt = 0L;
-                    if (!depositAmtStr.isEmpty()) {
-                        try {
-                            depositAmt = Long.parseLong(depositAmtStr.replaceAll("[^0-9]", ""));
-                            dh.setDepositAmount(depositAmt);
-                        } catch (Exception ex) {
-                            logger.warn("행 {}: 맡기신금액 파싱 실패 - {}", i, ex.getMessage());
-                        }
+                    String contractor = formatter.formatCellValue(row.getCell(4)).trim();
+                    probe.setContractor(contractor);
+                    if (contractor.isEmpty()) {
+                        report.add(new RowIssue(excelRow, "E", contractor, RowIssue.ERROR, "계약자가 비어 있어 저장되지 않습니다."));
+                    } else if (!customerNames.contains(contractor)) {
+                        report.add(new RowIssue(excelRow, "E", contractor, RowIssue.WARNING,
+                                "일치하는 고객이 없어 기본 고객(id:1)에 배정됩니다."));
                     }
 
-                    // H: 거래후잔액 (인덱스 7)
-                    String balanceStr = formatter.formatCellValue(row.getCell(7));
-                    if (!balanceStr.isEmpty()) {
-                        try {
-                            dh.setBalanceAfter(Long.parseLong(balanceStr.replaceAll("[^0-9]", "")));
-                        } catch (Exception ex) {
-                            logger.warn("행 {}: 거래후잔액 파싱 실패 - {}", i, ex.getMessage());
-                        }
+                    probe.setWithdrawnAmount(validateAmount(report, row, 5, "F", "찾으신금액", formatter));
+                    probe.setDepositAmount(validateAmount(report, row, 6, "G", "맡기신금액", formatter));
+                    probe.setBalanceAfter(validateAmount(report, row, 7, "H", "거래후잔액", formatter));
+                    probe.setAccount(formatter.formatCellValue(row.getCell(9)));
+
+                    String fingerprint = DepositFingerprint.compute(probe);
+                    if (!seenFingerprints.add(fingerprint)) {
+                        report.add(new RowIssue(excelRow, "B", dateStr, RowIssue.WARNING, "파일 안에서 같은 거래가 반복되어 건너뜁니다."));
+                    } else {
+                        pendingFingerprints.put(fingerprint, excelRow);
+                    }
+                    if (report.getErrorCount() > errorsBefore) {
+                        errorRows.add(excelRow);
+                    }
+                }
+                if (pendingFingerprints.size() >= BATCH_SIZE || (i == lastRow && !pendingFingerprints.isEmpty())) {
+                    for (String existing : depositHistoryRepository.findExistingFingerprints(pendingFingerprints.keySet())) {
+                        Integer excelRow = pendingFingerprints.get(existing);
+                        Row dupRow = sheet.getRow(excelRow - 1);
+                        report.add(new RowIssue(excelRow, "B", formatter.formatCellValue(dupRow.getCell(1)),
+                                RowIssue.WARNING, "이미 등록된 입금내역이어서 건너뜁니다."));
                     }
+                    pendingFingerprints.clear();
+                }
+            }
+            // 지문 중복 경고는 청크 단위로 뒤늦게 추가되므로 행 순서로 정렬
+            report.getIssues().sort(Comparator.comparingInt(RowIssue::getRow));
+            report.setTotalRows(rows);
+            report.setErrorRows(errorRows.size());
+            if (annotate) {
+                report.setAnnotatedFileId(ExcelValidationAnnotator.annotate(workbook, sheet, report, artifactStore));
+            }
+        }
+        report.setElapsedMs(System.currentTimeMillis() - started);
+        return report;
+    }
 
-                    // I: 취급점 (인덱스 8)
-                    dh.setBranch(formatter.formatCellValue(row.getCell(8)));
+    // 가져오기와 같은 규칙(숫자 외 문자 제거)으로 금액을 읽고, 숫자가 하나도 없으면 ERROR로 기록합니다.
+    private Long validateAmount(ValidationReport report, Row row, int col, String colName, String label, DataFormatter formatter) {
+        String value = formatter.formatCellValue(row.getCell(col));
+        if (value.isEmpty()) {
+            return null;
+        }
+        long amount = ExcelValueParser.parseDigits(value, ExcelValueParser.NO_VALUE);
+        if (amount == ExcelValueParser.NO_VALUE) {
+            report.add(new RowIssue(row.getRowNum() + 1, colName, value, RowIssue.ERROR,
+                    label + "이 숫자가 아니어서 저장되지 않습니다."));
+            return null;
+        }
+        return amount;
+    }
 
-                    // J: 계좌 (인덱스 9)
-                    dh.setAccount(formatter.formatCellValue(row.getCell(9)));
+    /**
+     * 청크 단위 중복 제거.
+     * 청크 안의 모든 지문을 한 번의 IN 조회로 확인하여, 이미 저장된 행과
+     * 같은 업로드 안에서 반복된 행을 걸러낸 나머지를 반환합니다.
+     */
+    private List<DepositHistory> filterDuplicates(List<DepositHistory> chunk, Set<String> seenFingerprints) {
+        if (chunk.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> fingerprints = new ArrayList<>(chunk.size());
+        for (DepositHistory dh : chunk) {
+            dh.setFingerprint(DepositFingerprint.compute(dh));
+            fingerprints.add(dh.getFingerprint());
+        }
+        Set<String> existing = new HashSet<>(depositHistoryRepository.findExistingFingerprints(fingerprints));
 
+        List<DepositHistory> fresh = new ArrayList<>(chunk.size());
+        for (DepositHistory dh : chunk) {
+            if (existing.contains(dh.getFingerprint()) || !seenFingerprints.add(dh.getFingerprint())) {
+                logger.debug("중복 입금내역 건너뜀: 계약자 {}, 거래일시 {}", dh.getContractor(), dh.getTransactionDateTime());
+                continue;
+            }
+            fresh.add(dh);
+        }
+        return fresh;
+    }
 
-                    // V: selfRecord (인덱스 21)
-                    String selfRecord = formatter.formatCellValue(row.getCell(21)).trim();
-                    // W: loanRecord (인덱스 22)
-                    String loanRecord = formatter.formatCellValue(row.getCell(22)).trim();
+    /**
+     * 재계산이 필요한 행의 고객 id를 affectedCustomerIds에 더합니다.
+     * 저장에 실패하거나 지문 충돌로 건너뛴 행의 고객이 포함될 수 있으나, 재계산은 여러 번 해도 결과가 같습니다.
+     *
+     * @return 새로 더해진 고객이 있으면 true
+     */
+    private boolean collectAffectedCustomers(List<DepositHistory> batch, Set<Integer> affectedCustomerIds) {
+        boolean added = false;
+        for (DepositHistory dh : batch) {
+            if (depositHistoryService.requiresRecalculation(dh)) {
+                added |= affectedCustomerIds.add(dh.getCustomer().getId());
+            }
+        }
+        return added;
+    }
 
+    /**
+     * 모아둔 입금내역을 배치로 저장합니다. (재계산 대상 고객은 호출 전에 collectAffectedCustomers로 수집)
+     * 배치 저장이 실패하면 (배치 전체가 롤백됨) 한 행씩 다시 저장하여,
+     * 미리 조회한 뒤 다른 업로드가 같은 지문으로 먼저 저장한 행은 conflictRows에, 그 밖의 문제 행은 failedRows에 담고 알립니다.
+     * 고객 정보가 없는 행은 저장되지 않으며 실패로도 세지 않습니다.
+     *
+     * @return 저장된 행 수
+     */
+    private int flushBatch(List<DepositHistory> batch, List<DepositHistory> failedRows,
+                           List<DepositHistory> conflictRows, ImportProgressListener listener) {
+        batch.removeIf(dh -> {
+            if (dh.getCustomer() == null) {
+                logger.warn("계약자 '{}': 고객 정보가 없어 건너뜁니다.", dh.getContractor());
+                return true;
+            }
+            return false;
+        });
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<DepositHistory> saved = new ArrayList<>(batch.size());
+        try {
+            depositHistoryBatchRepository.insertAll(batch);
+            saved.addAll(batch);
+        } catch (Exception e) {
+            logger.error("입금내역 배치 저장 실패 ({}건), 한 행씩 다시 저장합니다: {}", batch.size(), e.getMessage());
+            for (DepositHistory dh : batch) {
+                try {
+                    depositHistoryBatchRepository.insertAll(Collections.singletonList(dh));
+                    saved.add(dh);
+                } catch (Exception rowError) {
+                    if (isFingerprintConflict(dh, rowError)) {
+                        logger.info("다른 업로드가 먼저 저장한 입금내역 건너뜀: 계약자 {}, 거래일시 {}",
+                                dh.getContractor(), dh.getTransactionDateTime());
+                        conflictRows.add(dh);
+                        continue;
+                    }
+                    logger.error("입금내역 저장 실패 (계약자 {}, 거래일시 {}): {}",
+                            dh.getContractor(), dh.getTransactionDateTime(), rowError.getMessage());
+                    reportFailure(listener, dh, rowError);
+                    failedRows.add(dh);
+                }
+            }
+        }
+        int count = saved.size();
+        batch.clear();
+        return count;
+    }
 
-                    // selfRecord 또는 loanRecord 값이 있다면 대출/자납 기록으로 처리
-                    if (!selfRecord.isEmpty() || !loanRecord.isEmpty()) {
-                        dh.setLoanStatus("o");
+    /**
+     * 저장 실패가 같은 지문의 행이 이미 있어서인지 확인합니다.
+     * 유니크 키 위반(배치 저장은 DuplicateKeyException, JPA 저장은 DataIntegrityViolationException)이면서
+     * 실제로 그 지문이 DB에 있을 때만 중복으로 보고, 다른 제약 위반은 실패로 남깁니다.
+     */
+    private boolean isFingerprintConflict(DepositHistory dh, Exception e) {
+        if (!(e instanceof DataIntegrityViolationException) || dh.getFingerprint() == null) {
+            return false;
+        }
+        return !depositHistoryRepository.findExistingFingerprints(Collections.singletonList(dh.getFingerprint())).isEmpty();
+    }
 
-                        // 만약 loanRecord 값이 있다면 우선 loanammount에 depositAmt 저장
-                        if (!loanRecord.isEmpty()) {
-                            dh.setLoanRecord(loanRecord);
-                            // loan_details 객체가 없으면 새로 생성
-                            if (dh.getLoanDetails() == null) {
-                                dh.setLoanDetails(new Loan());
-                            }
-                            dh.getLoanDetails().setLoanammount(depositAmt);
-                        } else if (!selfRecord.isEmpty()) {
-                            // loanRecord가 없고 selfRecord만 있으면 selfammount에 depositAmt 저장
-                            dh.setSelfRecord(selfRecord);
-                            if (dh.getLoanDetails() == null) {
-                                dh.setLoanDetails(new Loan());
-                            }
-                            dh.getLoanDetails().setSelfammount(depositAmt);
-                        }
-                        // loanStatus가 "o"인 경우 loanselfsum에는 depositAmt를 저장
-                        if (dh.getLoanDetails() == null) {
-                            dh.setLoanDetails(new Loan());
-                        }
-                        dh.getLoanDetails().setLoanselfsum(depositAmt);
-                    } else {
-                        dh.setLoanStatus("");
-                        dh.setSelfRecord("");
-                        dh.setLoanRecord("");
-                    }
+    // 저장하지 못한 행을 알림 (예: {"contractor":"홍길동","transactionDateTime":"2024-01-02T10:00","message":"..."})
+    private void reportFailure(ImportProgressListener listener, DepositHistory dh, Exception e) {
+        Map<String, Object> failure = new LinkedHashMap<>();
+        failure.put("contractor", dh.getContractor());
+        failure.put("transactionDateTime", dh.getTransactionDateTime() != null ? dh.getTransactionDateTime().toString() : null);
+        failure.put("message", e.getMessage());
+        listener.event("failed", failure);
+    }
 
-                    // loanStatus가 "o"라면, depositPhase1~10 중 값이 있는 항목의 Phase 번호를 targetPhases에 추가
-                    if ("o".equals(dh.getLoanStatus())) {
-                        ArrayList<Integer> targetPhases = new ArrayList<>();
-                        if (formatter.formatCellValue(row.getCell(11)) != null && !formatter.formatCellValue(row.getCell(11)).trim().isEmpty()) {
-                            targetPhases.add(1);
-                        }
-                        if (formatter.formatCellValue(row.getCell(12)) != null && !formatter.formatCellValue(row.getCell(12)).trim().isEmpty()) {
-                            targetPhases.add(2);
-                        }
-                        if (formatter.formatCellValue(row.getCell(13)) != null && !formatter.formatCellValue(row.getCell(13)).trim().isEmpty()) {
-                            targetPhases.add(3);
-                        }
-                        if (formatter.formatCellValue(row.getCell(14)) != null && !formatter.formatCellValue(row.getCell(14)).trim().isEmpty()) {
-                            targetPhases.add(4);
-                        }
-                        if (formatter.formatCellValue(row.getCell(15)) != null && !formatter.formatCellValue(row.getCell(15)).trim().isEmpty()) {
-                            targetPhases.add(5);
-                        }
-                        if (formatter.formatCellValue(row.getCell(16)) != null && !formatter.formatCellValue(row.getCell(16)).trim().isEmpty()) {
-                            targetPhases.add(6);
-                        }
-                        if (formatter.formatCellValue(row.getCell(17)) != null && !formatter.formatCellValue(row.getCell(17)).trim().isEmpty()) {
-                            targetPhases.add(7);
-                        }
-                        if (formatter.formatCellValue(row.getCell(18)) != null && !formatter.formatCellValue(row.getCell(18)).trim().isEmpty()) {
-                            targetPhases.add(8);
-                        }
-                        if (formatter.formatCellValue(row.getCell(19)) != null && !formatter.formatCellValue(row.getCell(19)).trim().isEmpty()) {
-                            targetPhases.add(9);
-                        }
-                        if (formatter.formatCellValue(row.getCell(20)) != null && !formatter.formatCellValue(row.getCell(20)).trim().isEmpty()) {
-                            targetPhases.add(10);
-                        }
-                        dh.setTargetPhases(targetPhases);
-                    }
-// 기존에 다른 셀들을 읽은 후, depositPhase1 셀을 추가로 읽습니다.
-                    Cell depositPhase1Cell = row.getCell(11);
-                    if (depositPhase1Cell != null) {
-                        String depositPhase1Value = formatter.formatCellValue(depositPhase1Cell).trim();
-                        dh.setDepositPhase1(depositPhase1Value);
-                        logger.info("Row {} depositPhase1 값: {}", i, depositPhase1Value);
-                    } else {
-                        logger.info("Row {} depositPhase1 셀이 비어 있습니다.", i);
+    /**
+     * 영향받은 고객들을 공용 재계산 실행기(JobExecutors.recalcJobs)에서 고객당 한 번씩 재계산합니다.
+     * 한 요청이 실행기를 독차지하지 않도록 동시에 맡기는 작업은 RECALC_PARALLELISM * 2 개로 제한하며,
+     * 실행기가 가득 차 거절되면 현재 스레드에서 직접 재계산합니다.
+     * 각 재계산은 CustomerService.recalculateCustomerById의 개별 트랜잭션에서 수행됩니다.
+     */
+    private void recalculateCustomers(Collection<Integer> customerIds, ImportProgressListener listener) {
+        int total = customerIds.size();
+        if (total == 0) {
+            listener.progress(0, 0);
+            return;
+        }
+        CompletionService<Integer> completionService = new ExecutorCompletionService<>(jobExecutors.recalcJobs());
+        Iterator<Integer> pending = customerIds.iterator();
+        int inFlight = 0;
+        int done = 0;
+        try {
+            while (done < total) {
+                while (inFlight < RECALC_PARALLELISM * 2 && pending.hasNext()) {
+                    Integer customerId = pending.next();
+                    try {
+                        completionService.submit(() -> recalculateQuietly(customerId));
+                        inFlight++;
+                    } catch (RejectedExecutionException e) {
+                        recalculateQuietly(customerId);
+                        listener.progress(++done, total);
                     }
-                    // 저장 및 재계산 호출
-                    depositHistoryService.createDepositHistory(dh);
-                    logger.info("행 {} 처리 완료.", i);
+                }
+                if (inFlight == 0) {
+                    continue;
+                }
+                try {
+                    completionService.take().get();
+                } catch (ExecutionException e) {
+                    logger.error("재계산 작업 실패: {}", e.getMessage());
+                }
+                inFlight--;
+                listener.progress(++done, total);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("재계산 대기 중 인터럽트가 발생했습니다.");
+        }
+    }
 
-                } catch (Exception e) {
-                    logger.error("행 {} 처리 중 예외 발생: {}", i, e.getMessage());
-                    // 문제 발생한 행은 건너뛰고 계속 진행
+    private Integer recalculateQuietly(Integer customerId) {
+        try {
+            customerService.recalculateCustomerById(customerId);
+        } catch (Exception e) {
+            logger.error("고객 id {} 재계산 실패: {}", customerId, e.getMessage());
+        }
+        return customerId;
+    }
+
+    /**
+     * 엑셀/CSV의 한 행을 DepositHistory로 변환합니다. (저장은 호출 측에서 수행)
+     */
+    private DepositHistory parseDepositRow(DepositRowSource row, int i, Map<String, Customer> contractorCache) {
+        DepositHistory dh = new DepositHistory();
+
+        // A: 거래 id (인덱스 0)
+//                    String idStr = formatter.formatCellValue(row.getCell(0));
+//                    if (!idStr.isEmpty()) {
+//                        try {
+//                            dh.setId(Long.parseLong(idStr.replaceAll("[^0-9]", "")));
+//                        } catch (NumberFormatException e) {
+//                            logger.warn("행 {}: 거래 id 파싱 실패 - {}", i, e.getMessage());
+//                        }
+//                    }
+
+// 거래일시 처리 (셀 인덱스 1)
+        String dateStr = row.get(1);
+        LocalDateTime transactionDateTime = null;
+        if (dateStr != null) {
+            if (!dateStr.isEmpty()) {
+                transactionDateTime = ExcelValueParser.parseTransactionDateTime(dateStr);
+                if (transactionDateTime == null) {
+                    logger.warn("행 {}: 거래일시 '{}' 파싱 실패 (지원 형식: yyyy.MM.dd HH:mm:ss, yyyy-MM-dd HH:mm:ss, yyyy.MM.dd)", i, dateStr.trim());
                 }
+            }
+        }
+        dh.setTransactionDateTime(transactionDateTime);
 
-                // 10건마다 또는 마지막 행에서 진행률 전송
-                if ((i - startRow + 1) % 10 == 0 || i == lastRow) {
-                    try {
-                        String progressMsg = (i - startRow + 1) + "/" + totalRows;
-                        emitter.send(SseEmitter.event().name("progress").data(progressMsg));
-                        logger.info("진행 상황: {}", progressMsg);
-                    } catch (Exception ex) {
-                        logger.warn("행 {}에서 진행 상황 전송 중 오류: {}", i, ex.getMessage());
-                    }
+        // C: 적요 (인덱스 2)
+        dh.setDescription(value(row, 2));
+
+        // D: 기재내용 (인덱스 3)
+        dh.setDetails(value(row, 3));
+
+// E: 계약자 (인덱스 4) → 고객 식별자로 활용
+        String contractor = value(row, 4).trim();
+        dh.setContractor(contractor);
+        if (!contractor.isEmpty()) {
+            dh.setCustomer(resolveContractor(contractor, i, contractorCache));
+        }
+
+
+        // F: 찾으신금액 (인덱스 5)
+        String withdrawnStr = value(row, 5);
+        if (!withdrawnStr.isEmpty()) {
+            long withdrawn = ExcelValueParser.parseDigits(withdrawnStr, ExcelValueParser.NO_VALUE);
+            if (withdrawn != ExcelValueParser.NO_VALUE) {
+                dh.setWithdrawnAmount(withdrawn);
+            } else {
+                logger.warn("행 {}: 찾으신금액 파싱 실패 - '{}'", i, withdrawnStr);
+            }
+        }
+
+        // 맡기신금액 처리 (셀 인덱스 6)
+        String depositAmtStr = value(row, 6);
+        long depositAmt = 0L;
+        if (!depositAmtStr.isEmpty()) {
+            long parsed = ExcelValueParser.parseDigits(depositAmtStr, ExcelValueParser.NO_VALUE);
+            if (parsed != ExcelValueParser.NO_VALUE) {
+                depositAmt = parsed;
+                dh.setDepositAmount(depositAmt);
+            } else {
+                logger.warn("행 {}: 맡기신금액 파싱 실패 - '{}'", i, depositAmtStr);
+            }
+        }
+
+        // H: 거래후잔액 (인덱스 7)
+        String balanceStr = value(row, 7);
+        if (!balanceStr.isEmpty()) {
+            long balance = ExcelValueParser.parseDigits(balanceStr, ExcelValueParser.NO_VALUE);
+            if (balance != ExcelValueParser.NO_VALUE) {
+                dh.setBalanceAfter(balance);
+            } else {
+                logger.warn("행 {}: 거래후잔액 파싱 실패 - '{}'", i, balanceStr);
+            }
+        }
+
+        // I: 취급점 (인덱스 8)
+        dh.setBranch(value(row, 8));
+
+        // J: 계좌 (인덱스 9)
+        dh.setAccount(value(row, 9));
+
+
+        // V: selfRecord (인덱스 21)
+        String selfRecord = value(row, 21).trim();
+        // W: loanRecord (인덱스 22)
+        String loanRecord = value(row, 22).trim();
+
+
+        // selfRecord 또는 loanRecord 값이 있다면 대출/자납 기록으로 처리
+        if (!selfRecord.isEmpty() || !loanRecord.isEmpty()) {
+            dh.setLoanStatus("o");
+
+            // 만약 loanRecord 값이 있다면 우선 loanammount에 depositAmt 저장
+            if (!loanRecord.isEmpty()) {
+                dh.setLoanRecord(loanRecord);
+                // loan_details 객체가 없으면 새로 생성
+                if (dh.getLoanDetails() == null) {
+                    dh.setLoanDetails(new Loan());
                 }
+                dh.getLoanDetails().setLoanammount(depositAmt);
+            } else if (!selfRecord.isEmpty()) {
+                // loanRecord가 없고 selfRecord만 있으면 selfammount에 depositAmt 저장
+                dh.setSelfRecord(selfRecord);
+                if (dh.getLoanDetails() == null) {
+                    dh.setLoanDetails(new Loan());
+                }
+                dh.getLoanDetails().setSelfammount(depositAmt);
+            }
+            // loanStatus가 "o"인 경우 loanselfsum에는 depositAmt를 저장
+            if (dh.getLoanDetails() == null) {
+                dh.setLoanDetails(new Loan());
             }
+            dh.getLoanDetails().setLoanselfsum(depositAmt);
+        } else {
+            dh.setLoanStatus("");
+            dh.setSelfRecord("");
+            dh.setLoanRecord("");
+        }
 
-            emitter.send(SseEmitter.event().name("complete").data("Deposit excel processing complete."));
-            emitter.complete();
-        } catch (IOException e) {
-            logger.error("엑셀 파일 처리 중 IOException 발생: {}", e.getMessage());
-            try {
-                emitter.send(SseEmitter.event().name("error").data(e.getMessage()));
-            } catch (Exception ex) {
-                logger.error("에러 이벤트 전송 중 예외 발생: {}", ex.getMessage());
+        // loanStatus가 "o"라면, depositPhase1~10 중 값이 있는 항목의 Phase 번호를 targetPhases에 추가
+        if ("o".equals(dh.getLoanStatus())) {
+            ArrayList<Integer> targetPhases = new ArrayList<>();
+            if (!value(row, 11).trim().isEmpty()) {
+                targetPhases.add(1);
+            }
+            if (!value(row, 12).trim().isEmpty()) {
+                targetPhases.add(2);
+            }
+            if (!value(row, 13).trim().isEmpty()) {
+                targetPhases.add(3);
+            }
+            if (!value(row, 14).trim().isEmpty()) {
+                targetPhases.add(4);
+            }
+            if (!value(row, 15).trim().isEmpty()) {
+                targetPhases.add(5);
+            }
+            if (!value(row, 16).trim().isEmpty()) {
+                targetPhases.add(6);
+            }
+            if (!value(row, 17).trim().isEmpty()) {
+                targetPhases.add(7);
+            }
+            if (!value(row, 18).trim().isEmpty()) {
+                targetPhases.add(8);
+            }
+            if (!value(row, 19).trim().isEmpty()) {
+                targetPhases.add(9);
+            }
+            if (!value(row, 20).trim().isEmpty()) {
+                targetPhases.add(10);
+            }
+            dh.setTargetPhases(targetPhases);
+        }
+// 기존에 다른 셀들을 읽은 후, depositPhase1 셀을 추가로 읽습니다.
+        String depositPhase1Raw = row.get(11);
+        if (depositPhase1Raw != null) {
+            String depositPhase1Value = depositPhase1Raw.trim();
+            dh.setDepositPhase1(depositPhase1Value);
+            logger.info("Row {} depositPhase1 값: {}", i, depositPhase1Value);
+        } else {
+            logger.info("Row {} depositPhase1 셀이 비어 있습니다.", i);
+        }
+        return dh;
+    }
+
+    // 셀/필드가 없으면 빈 문자열 (DataFormatter.formatCellValue(null)과 같음)
+    private static String value(DepositRowSource row, int column) {
+        String v = row.get(column);
+        return v != null ? v : "";
+    }
+
+    /**
+     * 입금내역 한 행의 열 값 접근자. (엑셀 행과 CSV 레코드 공통)
+     * 열 구성: B 거래일시, C 적요, D 기재내용, E 계약자, F 찾으신금액, G 맡기신금액, H 잔액, I 취급점, J 계좌, L~U 차수, V 본인부담, W 대출
+     */
+    @FunctionalInterface
+    private interface DepositRowSource {
+        /**
+         * @return column 인덱스(0부터)의 값, 셀/필드가 없으면 null
+         */
+        String get(int column);
+    }
+
+    /**
+     * 계약자 이름으로 고객을 찾습니다. 이름이 정확히 일치하는 고객 중 id가 가장 높은 고객을 선택하고,
+     * 없으면 기본 고객(id:1)에 할당합니다. 같은 업로드 안에서는 이름별 조회 결과를 재사용합니다.
+     */
+    private Customer resolveContractor(String contractor, int i, Map<String, Customer> contractorCache) {
+        Customer cached = contractorCache.get(contractor);
+        if (cached != null) {
+            return cached;
+        }
+        // 기존의 Optional<Customer> 대신, 해당 이름과 일치하는 고객들을 리스트로 조회
+        List<Customer> matchingCustomers = customerRepository.findByCustomerDataNameContaining(contractor)
+                .stream()
+                // 이름이 정확히 일치하는 고객만 필터링 (공백 제거 등 필요한 전처리 후 비교)
+                .filter(c -> contractor.equals(c.getCustomerData().getName()))
+                .collect(Collectors.toList());
+
+        Customer selected = null;
+        if (!matchingCustomers.isEmpty()) {
+            // 여러 고객이 검색될 경우, 고객번호(id)가 가장 높은 고객 선택
+            selected = matchingCustomers.stream()
+                    .max(Comparator.comparing(Customer::getId))
+                    .get();
+        } else {
+            // 고객 이름과 일치하는 결과가 없으면 기본 고객(id:1)에 할당
+            Optional<Customer> defaultCustomerOpt = customerRepository.findById(1);
+            if (defaultCustomerOpt.isPresent()) {
+                selected = defaultCustomerOpt.get();
+            } else {
+                logger.warn("행 {}: 기본 고객(id:1)을 찾을 수 없습니다.", i);
             }
-            emitter.completeWithError(e);
         }
+        if (selected != null) {
+            contractorCache.put(contractor, selected);
+        }
+        return selected;
     }
 
-    @Transactional
-    public void fillDepFormat(File tempFile, List<DepositHistory> depositHistories) throws IOException {
-        // 데이터 포매터 및 날짜 포맷터 준비
-        DataFormatter formatter = new DataFormatter(Locale.getDefault());
+    // 현재까지 저장/중복 건너뜀/저장 실패 건수를 JSON으로 전송 (예: {"inserted":120,"skipped":30,"failed":0})
+    private void sendCounts(ImportProgressListener listener, int inserted, int skipped, int failed) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("inserted", inserted);
+        counts.put("skipped", skipped);
+        counts.put("failed", failed);
+        listener.event("counts", counts);
+    }
+
+    /**
+     * 입금내역을 depformat.xlsx 템플릿(캐시된 복제본)에 채워 outputFile에 저장합니다.
+     * DB 커서에서 한 행씩 읽어 SXSSF 시트에 바로 쓰므로 전체 목록을 메모리에 올리지 않습니다.
+     * 진행 상황(처리 건수/전체 건수)은 행마다 갱신하고, 전송은 ProgressPublisher가 일정 간격으로 합쳐서 합니다.
+     * 템플릿의 헤더 행(0행)은 유지하고, 데이터 행에는 템플릿 1행의 열별 스타일을 적용합니다.
+     *
+     * 기간은 [from, to) 반열린 구간입니다. 종료일을 포함하려면 호출 측에서 종료일 다음 날 0시를 to로 넘깁니다.
+     * (DepositExcelController, RecordExportController는 요청의 종료일(포함)을 to.plusDays(1).atStartOfDay()로 변환)
+     *
+     * @param from    거래일시 하한 (이 시각 포함, null이면 제한 없음)
+     * @param to      거래일시 상한 (이 시각 미포함, null이면 제한 없음)
+     * @param account 계좌 (null이면 전체)
+     * @param since   이 시각 이후 저장/수정된 입금내역만 (변경분 내보내기, null이면 제한 없음)
+     * @return 기록한 행 수 (0이면 파일을 쓰지 않음)
+     */
+    public long fillDepFormat(File outputFile, LocalDateTime from, LocalDateTime to, String account,
+                              LocalDateTime since, ProgressPublisher progress) throws IOException {
+        long total = depositHistoryBatchRepository.countForExport(from, to, account, since);
+        if (total == 0) {
+            return 0;
+        }
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
 
-        try (FileInputStream fis = new FileInputStream(tempFile);
-             XSSFWorkbook workbook = new XSSFWorkbook(fis)) {
+        try (XSSFWorkbook template = excelTemplateCache.borrow(ExcelTemplateCache.DEPFORMAT)) {
 
-            XSSFSheet sheet = workbook.getSheetAt(0);
+            XSSFSheet templateSheet = template.getSheetAt(0);
             int startRow = 1; // 0번 행은 헤더
+            CellStyle[] columnStyles = new CellStyle[DEP_COLUMN_COUNT];
+            Row sampleRow = templateSheet.getRow(startRow);
+            if (sampleRow != null) {
+                for (Cell cell : sampleRow) {
+                    if (cell.getColumnIndex() < DEP_COLUMN_COUNT) {
+                        columnStyles[cell.getColumnIndex()] = cell.getCellStyle();
+                    }
+                }
+            }
+            // SXSSF는 기존 마지막 행 뒤에만 행을 추가할 수 있으므로 템플릿의 데이터 영역 행은 제거
+            for (int r = templateSheet.getLastRowNum(); r >= startRow; r--) {
+                Row row = templateSheet.getRow(r);
+                if (row != null) {
+                    templateSheet.removeRow(row);
+                }
+            }
 
-            for (int i = 0; i < depositHistories.size(); i++) {
-                DepositHistory dh = depositHistories.get(i);
-                Row row = sheet.getRow(startRow + i);
-                if (row == null) {
-                    row = sheet.createRow(startRow + i);
+            SXSSFWorkbook workbook = new SXSSFWorkbook(template, DEP_WINDOW_SIZE);
+            workbook.setCompressTempFiles(true);
+            try {
+                SXSSFSheet sheet = workbook.getSheetAt(0);
+                long[] written = {0};
+                progress.phase("export");
+                depositHistoryBatchRepository.streamForExport(from, to, account, since, dh -> {
+                    Row row = sheet.createRow(startRow + (int) written[0]);
+                    writeDepRow(row, dh, dtf);
+                    for (Cell cell : row) {
+                        CellStyle style = columnStyles[cell.getColumnIndex()];
+                        if (style != null) {
+                            cell.setCellStyle(style);
+                        }
+                    }
+                    progress.progress(++written[0], total);
+                });
+
+                workbook.setForceFormulaRecalculation(true);
+                try (FileOutputStream fos = new FileOutputStream(outputFile)) {
+                    workbook.write(fos);
                 }
-                int col = 0;
-                Cell cell;
-
-                // Column 0: DepositHistory ID
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getId() != null ? dh.getId() : 0);
-                col++;
-
-                // Column 1: 거래일시
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getTransactionDateTime() != null ? dh.getTransactionDateTime().format(dtf) : "");
-                col++;
-
-                // Column 2: 적요
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDescription() != null ? dh.getDescription() : "");
-                col++;
-
-                // Column 3: 기재내용
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDetails() != null ? dh.getDetails() : "");
-                col++;
-
-                // Column 4: 계약자
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getContractor() != null ? dh.getContractor() : "");
-                col++;
-
-                // Column 5: 찾으신금액
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getWithdrawnAmount() != null ? dh.getWithdrawnAmount() : 0);
-                col++;
-
-                // Column 6: 맡기신금액
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDepositAmount() != null ? dh.getDepositAmount() : 0);
-                col++;
-
-                // Column 7: 거래후 잔액
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getBalanceAfter() != null ? dh.getBalanceAfter() : 0);
-                col++;
-
-                // Column 8: 취급점
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getBranch() != null ? dh.getBranch() : "");
-                col++;
-
-                // Column 9: 계좌
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getAccount() != null ? dh.getAccount() : "");
-                col++;
-
-                col++;
-
-                // Column 10: depositPhase1
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDepositPhase1() != null ? dh.getDepositPhase1() : "");
-                col++;
-
-
-                // Column 11: depositPhase2
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDepositPhase2() != null ? dh.getDepositPhase2() : "");
-                col++;
-
-                // Column 12: depositPhase3
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDepositPhase3() != null ? dh.getDepositPhase3() : "");
-                col++;
-
-                // Column 13: depositPhase4
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDepositPhase4() != null ? dh.getDepositPhase4() : "");
-                col++;
-
-                // Column 14: depositPhase5
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDepositPhase5() != null ? dh.getDepositPhase5() : "");
-                col++;
-
-                // Column 15: depositPhase6
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDepositPhase6() != null ? dh.getDepositPhase6() : "");
-                col++;
-
-                // Column 16: depositPhase7
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDepositPhase7() != null ? dh.getDepositPhase7() : "");
-                col++;
-
-                // Column 17: depositPhase8
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDepositPhase8() != null ? dh.getDepositPhase8() : "");
-                col++;
-
-                // Column 18: depositPhase9
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDepositPhase9() != null ? dh.getDepositPhase9() : "");
-                col++;
-
-                // Column 19: depositPhase10
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getDepositPhase10() != null ? dh.getDepositPhase10() : "");
-                col++;
-
-                // Column 20: selfRec
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getSelfRecord() != null ? dh.getSelfRecord() : "");
-                col++;
-
-                // Column 21: loanRecord
-                cell = row.getCell(col);
-                if (cell == null) { cell = row.createCell(col); }
-                cell.setCellValue(dh.getLoanRecord() != null ? dh.getLoanRecord() : "");
-                col++;
-
-            } // for end
-
-            workbook.setForceFormulaRecalculation(true);
-            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                workbook.write(fos);
+                logger.info("입금내역 내보내기 {}건 (기간 {} ~ {}, 계좌 {}, 변경 기준 {})", written[0], from, to, account, since);
+                return written[0];
+            } finally {
+                workbook.dispose();
             }
         }
     }
 
+    /**
+     * depformat 한 행(0~22열, 10열은 비워 둠)에 입금내역을 기록합니다.
+     */
+    private void writeDepRow(Row row, DepositHistory dh, DateTimeFormatter dtf) {
+        int col = 0;
+        Cell cell;
+
+        // Column 0: DepositHistory ID
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getId() != null ? dh.getId() : 0);
+        col++;
+
+        // Column 1: 거래일시
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getTransactionDateTime() != null ? dh.getTransactionDateTime().format(dtf) : "");
+        col++;
+
+        // Column 2: 적요
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDescription() != null ? dh.getDescription() : "");
+        col++;
+
+        // Column 3: 기재내용
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDetails() != null ? dh.getDetails() : "");
+        col++;
+
+        // Column 4: 계약자
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getContractor() != null ? dh.getContractor() : "");
+        col++;
+
+        // Column 5: 찾으신금액
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getWithdrawnAmount() != null ? dh.getWithdrawnAmount() : 0);
+        col++;
+
+        // Column 6: 맡기신금액
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDepositAmount() != null ? dh.getDepositAmount() : 0);
+        col++;
+
+        // Column 7: 거래후 잔액
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getBalanceAfter() != null ? dh.getBalanceAfter() : 0);
+        col++;
+
+        // Column 8: 취급점
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getBranch() != null ? dh.getBranch() : "");
+        col++;
+
+        // Column 9: 계좌
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getAccount() != null ? dh.getAccount() : "");
+        col++;
+
+        col++;
+
+        // Column 10: depositPhase1
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDepositPhase1() != null ? dh.getDepositPhase1() : "");
+        col++;
+
+
+        // Column 11: depositPhase2
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDepositPhase2() != null ? dh.getDepositPhase2() : "");
+        col++;
+
+        // Column 12: depositPhase3
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDepositPhase3() != null ? dh.getDepositPhase3() : "");
+        col++;
+
+        // Column 13: depositPhase4
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDepositPhase4() != null ? dh.getDepositPhase4() : "");
+        col++;
+
+        // Column 14: depositPhase5
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDepositPhase5() != null ? dh.getDepositPhase5() : "");
+        col++;
+
+        // Column 15: depositPhase6
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDepositPhase6() != null ? dh.getDepositPhase6() : "");
+        col++;
+
+        // Column 16: depositPhase7
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDepositPhase7() != null ? dh.getDepositPhase7() : "");
+        col++;
+
+        // Column 17: depositPhase8
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDepositPhase8() != null ? dh.getDepositPhase8() : "");
+        col++;
+
+        // Column 18: depositPhase9
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDepositPhase9() != null ? dh.getDepositPhase9() : "");
+        col++;
+
+        // Column 19: depositPhase10
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getDepositPhase10() != null ? dh.getDepositPhase10() : "");
+        col++;
+
+        // Column 20: selfRec
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getSelfRecord() != null ? dh.getSelfRecord() : "");
+        col++;
+
+        // Column 21: loanRecord
+        cell = row.getCell(col);
+        if (cell == null) { cell = row.createCell(col); }
+        cell.setCellValue(dh.getLoanRecord() != null ? dh.getLoanRecord() : "");
+        col++;
+    }
+
 
 
 }
@@ -0,0 +1,111 @@
+package com.audora.lotting_be.service;
+
+import com.audora.lotting_be.model.customer.DepositHistory;
+import com.audora.lotting_be.repository.DepositHistoryBatchRepository;
+import com.audora.lotting_be.repository.DepositHistoryRepository;
+import com.audora.lotting_be.util.DepositFingerprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 지문(fingerprint) 도입 전에 저장된 입금내역에 지문을 채웁니다.
+ * 지문이 없으면 기간이 겹치는 거래내역을 다시 올렸을 때 이미 배분된 입금이 한 번 더 저장되므로,
+ * 서버 시작 시 fingerprint IS NULL 인 행을 id 순 키셋 페이지로 읽어 업로드와 같은 DepositFingerprint로 기록합니다.
+ *
+ * 기존 행끼리 지문이 겹치면 (이전에 같은 거래가 두 번 올라간 경우) id가 가장 작은 행에만 지문을 주고
+ * 나머지는 지문 없이 두어 유니크 키를 지킵니다. 입금 기록을 임의로 지우지 않도록 해당 id만 로그로 남깁니다.
+ * 지문이 있는 행은 다시 읽지 않으므로 여러 번 실행해도 됩니다.
+ */
+@Service
+public class DepositFingerprintBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepositFingerprintBackfill.class);
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_LOGGED_IDS = 100;
+
+    @Autowired
+    private DepositHistoryBatchRepository depositHistoryBatchRepository;
+
+    @Autowired
+    private DepositHistoryRepository depositHistoryRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long afterId = 0;
+        int updated = 0;
+        List<Long> collisions = new ArrayList<>();
+        List<DepositHistory> page;
+        do {
+            page = depositHistoryBatchRepository.findWithoutFingerprint(afterId, BATCH_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+
+            // 페이지 안에서 먼저 나온(id가 작은) 행만 남김
+            Map<String, DepositHistory> byFingerprint = new LinkedHashMap<>();
+            for (DepositHistory dh : page) {
+                dh.setFingerprint(DepositFingerprint.compute(dh));
+                if (byFingerprint.putIfAbsent(dh.getFingerprint(), dh) != null) {
+                    collisions.add(dh.getId());
+                }
+            }
+            // 이전 페이지나 업로드로 이미 지문이 있는 행과 겹치는 행 제외
+            Set<String> existing = new HashSet<>(depositHistoryRepository.findExistingFingerprints(byFingerprint.keySet()));
+            List<DepositHistory> fresh = new ArrayList<>(byFingerprint.size());
+            for (DepositHistory dh : byFingerprint.values()) {
+                if (existing.contains(dh.getFingerprint())) {
+                    collisions.add(dh.getId());
+                } else {
+                    fresh.add(dh);
+                }
+            }
+            updated += update(fresh, collisions);
+        } while (page.size() == BATCH_SIZE);
+
+        if (updated > 0) {
+            logger.info("입금내역 지문 채우기: {}건", updated);
+        }
+        if (!collisions.isEmpty()) {
+            Collections.sort(collisions);
+            logger.warn("같은 거래로 보이는 기존 입금내역 {}건은 지문 없이 둡니다. (중복 등록 여부 확인 필요, id: {})",
+                    collisions.size(), collisions.subList(0, Math.min(collisions.size(), MAX_LOGGED_IDS)));
+        }
+    }
+
+    // 조회 뒤 업로드가 같은 지문을 먼저 저장했으면 배치가 실패하므로, 한 행씩 다시 기록해 충돌한 행만 제외
+    private int update(List<DepositHistory> rows, List<Long> collisions) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            depositHistoryBatchRepository.updateFingerprints(rows);
+            return rows.size();
+        } catch (DataIntegrityViolationException e) {
+            int updated = 0;
+            for (DepositHistory dh : rows) {
+                try {
+                    depositHistoryBatchRepository.updateFingerprints(Collections.singletonList(dh));
+                    updated++;
+                } catch (DataIntegrityViolationException rowError) {
+                    collisions.add(dh.getId());
+                }
+            }
+            return updated;
+        }
+    }
+}
@@ -50,14 +50,9 @@ public class DepositHistoryService {
 
         try {
             // 재계산 유도 전 depositPhase1이 기록용(예상치 못한 값)인지 확인
-                        if(!customer.getId().equals(1)){
-                if (depositHistory.getDepositPhase1() == null || depositHistory.getDepositPhase1().equals("") ||
-                        ("0".equals(depositHistory.getDepositPhase1()) ||
-                                "1".equals(depositHistory.getDepositPhase1()) ||
-                                "2".equals(depositHistory.getDepositPhase1()))) {
-                    logger.info("createDepositHistory: 재계산 시작 for 고객 id: {}", customer.getId());
-                    customerService.recalculateEverything(customer);
-                }
+            if (requiresRecalculation(depositHistory)) {
+                logger.info("createDepositHistory: 재계산 시작 for 고객 id: {}", customer.getId());
+                customerService.recalculateEverything(customer);
             }
         } catch (Exception e) {
             logger.error("createDepositHistory 중 재계산 실패, 고객 id {}: {}", customer.getId(), e.getMessage());
@@ -68,6 +63,19 @@ public class DepositHistoryService {
         return saved;
     }
 
+    /**
+     * 입금내역 생성 후 고객 재계산이 필요한지 판단합니다.
+     * 기본 고객(id:1)이 아니고, depositPhase1이 비어 있거나 허용된 값("0", "1", "2")일 때만 재계산합니다.
+     */
+    public boolean requiresRecalculation(DepositHistory depositHistory) {
+        Customer customer = depositHistory.getCustomer();
+        if (customer == null || customer.getId() == null || customer.getId().equals(1)) {
+            return false;
+        }
+        String dp1 = depositHistory.getDepositPhase1();
+        return dp1 == null || dp1.isEmpty() || "0".equals(dp1) || "1".equals(dp1) || "2".equals(dp1);
+    }
+
     @Transactional
     public DepositHistory updateDepositHistory(Long id, DepositHistory updatedDepositHistory) {
         logger.info("updateDepositHistory 시작. 대상 DepositHistory id: {}", id);
@@ -18,40 +18,80 @@ import com.audora.lotting_be.model.customer.minor.Postreceive;
 import com.audora.lotting_be.model.customer.minor.Responsible;
 import com.audora.lotting_be.model.customer.minor.Secondemp;
 import com.audora.lotting_be.model.customer.Phase;
+import com.audora.lotting_be.payload.response.RowIssue;
+import com.audora.lotting_be.payload.response.ValidationReport;
+import com.audora.lotting_be.repository.CustomerRepository;
+import com.audora.lotting_be.repository.FeeRepository;
+import com.audora.lotting_be.util.ExcelValidationAnnotator;
+import com.audora.lotting_be.util.ExcelValueParser;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.FormulaEvaluator;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.*;
 import java.time.LocalDate;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 @Service
 public class ExcelService {
 
     @Autowired
     private CustomerService customerService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private FeeRepository feeRepository;
+    @Autowired
+    private ExcelTemplateCache excelTemplateCache;
+    @Autowired
+    private ExportResultCache exportResultCache;
+    @Autowired
+    private ArtifactStore artifactStore;
+
+    // 고객별 서식 종류 (ExportResultCache 키에 사용)
+    public static final String FORMAT1 = "format1";
+    public static final String FORMAT2 = "format2";
+
+    // 회원 명부 스트리밍 내보내기: 데이터 시작 행, 열 수, 메모리에 유지할 행 수, DB 페이지 크기
+    private static final int REG_FIRST_DATA_ROW = 2;
+    private static final int REG_COLUMN_COUNT = 171;
+    private static final int REG_WINDOW_SIZE = 200;
+    private static final int REG_PAGE_SIZE = 200;
 
-    public void fillRegFormat(File tempFile, List<Customer> customers, SseEmitter emitter) throws IOException {
-        try (FileInputStream fis = new FileInputStream(tempFile);
-             XSSFWorkbook workbook = new XSSFWorkbook(fis)) {
+    // 템플릿 머리글에서 만든 회원 명부 열 이름 (처음 요청 시 한 번 계산)
+    private volatile String[] regColumnNames;
+
+    /**
+     * 회원 명부(regformat) 템플릿 복제본에 고객 정보를 채워 outputFile에 저장합니다.
+     */
+    public void fillRegFormat(File outputFile, List<Customer> customers, ProgressPublisher progress) throws IOException {
+        try (XSSFWorkbook workbook = excelTemplateCache.borrow(ExcelTemplateCache.REGFORMAT)) {
 
             XSSFSheet sheet = workbook.getSheetAt(0);
             int rowIndex = 2;
             int total = customers.size();
+            progress.phase("export");
 
             for (int i = 0; i < total; i++) {
                 Customer customer = customers.get(i);
@@ -68,1269 +108,1432 @@ public class ExcelService {
                     row = sheet.createRow(rowIndex);
                 }
 
-                //고객정보 기입시작 code spread start
-                // ── 기본 정보 ──
-                // Column A (0): 관리번호
-                Cell cellA = row.getCell(0);
-                if (cellA == null) cellA = row.createCell(0);
-                cellA.setCellValue(customer.getId());
-
-                // Column B (1): 분류(회원)
-                Cell cellB = row.getCell(1);
-                if (cellB == null) cellB = row.createCell(1);
-                cellB.setCellValue(customer.getCustomertype() != null ? customer.getCustomertype() : "");
-
-                // Column C (2): 타입
-                Cell cellC = row.getCell(2);
-                if (cellC == null) cellC = row.createCell(2);
-                cellC.setCellValue(customer.getType() != null ? customer.getType() : "");
-
-                // Column D (3): 군
-                Cell cellD = row.getCell(3);
-                if (cellD == null) cellD = row.createCell(3);
-                cellD.setCellValue(customer.getGroupname() != null ? customer.getGroupname() : "");
-
-                // Column E (4): 순번
-                Cell cellE = row.getCell(4);
-                if (cellE == null) cellE = row.createCell(4);
-                cellE.setCellValue(customer.getTurn() != null ? customer.getTurn() : "");
-
-                // Column F (5): 7차면제
-                Cell cellF = row.getCell(5);
-                if (cellF == null) cellF = row.createCell(5);
-                cellF.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getExemption7())) ? "o" : "");
-
-                // Column G (6): 임시동호
-                Cell cellG = row.getCell(6);
-                if (cellG == null) cellG = row.createCell(6);
-                cellG.setCellValue(customer.getTemptype() != null ? customer.getTemptype() : "");
-
-                // Column H (7): 가입차순
-                Cell cellH = row.getCell(7);
-                if (cellH == null) cellH = row.createCell(7);
-                cellH.setCellValue(customer.getBatch() != null ? customer.getBatch() : "");
-
-                // Column I (8): 신탁사제출
-                Cell cellI = row.getCell(8);
-                if (cellI == null) cellI = row.createCell(8);
-                cellI.setCellValue((customer.getFinancial() != null && customer.getFinancial().getTrustcompanydate() != null)
-                        ? customer.getFinancial().getTrustcompanydate().toString() : "");
-
-                // Column J (9): 가입일자
-                Cell cellJ = row.getCell(9);
-                if (cellJ == null) cellJ = row.createCell(9);
-                cellJ.setCellValue(customer.getRegisterdate() != null ? customer.getRegisterdate().toString() : "");
-
-                // Column K (10): 가입가
-                Cell cellK = row.getCell(10);
-                if (cellK == null) cellK = row.createCell(10);
-                cellK.setCellValue(customer.getRegisterprice() != null ? customer.getRegisterprice() : 0);
-
-                // Column L (11): 지산A동계약서
-                Cell cellL = row.getCell(11);
-                if (cellL == null) cellL = row.createCell(11);
-                cellL.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getContract())) ? "1" : "");
-
-                // Column M (12): 동의서
-                Cell cellM = row.getCell(12);
-                if (cellM == null) cellM = row.createCell(12);
-                cellM.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getAgreement())) ? "1" : "");
-
-                // Column N (13): 성명
-                Cell cellN = row.getCell(13);
-                if (cellN == null) cellN = row.createCell(13);
-                cellN.setCellValue((customer.getCustomerData() != null && customer.getCustomerData().getName() != null)
-                        ? customer.getCustomerData().getName() : "");
-
-                // Column O (14): 주민번호 (resnumfront-resnumback)
-                Cell cellO = row.getCell(14);
-                if (cellO == null) cellO = row.createCell(14);
-                if (customer.getCustomerData() != null
-                        && customer.getCustomerData().getResnumfront() != null
-                        && customer.getCustomerData().getResnumback() != null) {
-                    cellO.setCellValue(customer.getCustomerData().getResnumfront() + "-" + customer.getCustomerData().getResnumback());
-                } else {
-                    cellO.setCellValue("");
-                }
+                writeRegRow(row, customer);
 
-                // Column P (15): 휴대전화
-                Cell cellP = row.getCell(15);
-                if (cellP == null) cellP = row.createCell(15);
-                cellP.setCellValue((customer.getCustomerData() != null && customer.getCustomerData().getPhone() != null)
-                        ? customer.getCustomerData().getPhone() : "");
-
-                // Column Q (16): 법정주소 우편번호
-                Cell cellQ2 = row.getCell(16);
-                if (cellQ2 == null) cellQ2 = row.createCell(16);
-                cellQ2.setCellValue((customer.getLegalAddress() != null && customer.getLegalAddress().getPostnumber() != null)
-                        ? customer.getLegalAddress().getPostnumber() : "");
-
-                // ── 법정주소 도/군 분리 ──
-                String legalPostFull = (customer.getLegalAddress() != null && customer.getLegalAddress().getPost() != null)
-                        ? customer.getLegalAddress().getPost() : "";
-                String[] legalParts = legalPostFull.split("\\s+");
-                String legalDo = legalParts.length >= 1 ? legalParts[0] : "";
-                String legalGun = legalParts.length >= 2 ? legalParts[1] : "";
-                // Column R (17): 법정주소 - 도
-                Cell cellR = row.getCell(17);
-                if (cellR == null) cellR = row.createCell(17);
-                cellR.setCellValue(legalDo);
-                // Column S (18): 법정주소 - 군
-                Cell cellS = row.getCell(18);
-                if (cellS == null) cellS = row.createCell(18);
-                cellS.setCellValue(legalGun);
-
-                // Column T (19): 법정주소 상세주소
-                Cell cellT = row.getCell(19);
-                if (cellT == null) cellT = row.createCell(19);
-                cellT.setCellValue((customer.getLegalAddress() != null && customer.getLegalAddress().getDetailaddress() != null)
-                        ? customer.getLegalAddress().getDetailaddress() : "");
-
-                // Column U (20): 금융기관 은행명
-                Cell cellU = row.getCell(20);
-                if (cellU == null) cellU = row.createCell(20);
-                cellU.setCellValue((customer.getFinancial() != null && customer.getFinancial().getBankname() != null)
-                        ? customer.getFinancial().getBankname() : "");
-
-                // Column V (21): 금융기관 계좌번호
-                Cell cellV = row.getCell(21);
-                if (cellV == null) cellV = row.createCell(21);
-                cellV.setCellValue((customer.getFinancial() != null && customer.getFinancial().getAccountnum() != null)
-                        ? customer.getFinancial().getAccountnum() : "");
-
-                // Column W (22): 금융기관 예금주
-                Cell cellW = row.getCell(22);
-                if (cellW == null) cellW = row.createCell(22);
-                cellW.setCellValue((customer.getFinancial() != null && customer.getFinancial().getAccountholder() != null)
-                        ? customer.getFinancial().getAccountholder() : "");
-
-                // Column X (23): 금융기관 신탁사
-                Cell cellX = row.getCell(23);
-                if (cellX == null) cellX = row.createCell(23);
-                cellX.setCellValue((customer.getFinancial() != null && customer.getFinancial().getTrustcompany() != null)
-                        ? customer.getFinancial().getTrustcompany() : "");
-
-                // Column Y (24): 예약금 납입일자
-                Cell cellY = row.getCell(24);
-                if (cellY == null) cellY = row.createCell(24);
-                cellY.setCellValue((customer.getDeposits() != null && customer.getDeposits().getDepositdate() != null)
-                        ? customer.getDeposits().getDepositdate().toString() : "");
-
-                // Column Z (25): 예약금 금액
-                Cell cellZ = row.getCell(25);
-                if (cellZ == null) cellZ = row.createCell(25);
-                cellZ.setCellValue((customer.getDeposits() != null && customer.getDeposits().getDepositammount() != null)
-                        ? customer.getDeposits().getDepositammount() : 0);
-
-                // ── Phase 데이터 ──
-                // Phase 1 (인덱스 0)
-                // Column AA (26): 1차 완납일자
-                Cell cellAA = row.getCell(26);
-                if (cellAA == null) cellAA = row.createCell(26);
-                cellAA.setCellValue((customer.getPhases() != null && customer.getPhases().size() > 0
-                        && customer.getPhases().get(0).getFullpaiddate() != null)
-                        ? customer.getPhases().get(0).getFullpaiddate().toString() : "");
-                // Column AB (27): 1차 부담금
-                Cell cellAB = row.getCell(27);
-                if (cellAB == null) cellAB = row.createCell(27);
-                cellAB.setCellValue((customer.getPhases() != null && customer.getPhases().size() > 0
-                        && customer.getPhases().get(0).getCharge() != null)
-                        ? customer.getPhases().get(0).getCharge() : 0);
-                // Column AC (28): 1차 업무대행비
-                Cell cellAC = row.getCell(28);
-                if (cellAC == null) cellAC = row.createCell(28);
-                cellAC.setCellValue((customer.getPhases() != null && customer.getPhases().size() > 0
-                        && customer.getPhases().get(0).getService() != null)
-                        ? customer.getPhases().get(0).getService() : 0);
-                // Column AD (29): 1차 이동
-                Cell cellAD = row.getCell(29);
-                if (cellAD == null) cellAD = row.createCell(29);
-                cellAD.setCellValue((customer.getPhases() != null && customer.getPhases().size() > 0
-                        && customer.getPhases().get(0).getMove() != null)
-                        ? customer.getPhases().get(0).getMove() : "");
-                // Column AE (30): 1차 합
-                Cell cellAE = row.getCell(30);
-                if (cellAE == null) cellAE = row.createCell(30);
-                cellAE.setCellValue((customer.getPhases() != null && customer.getPhases().size() > 0
-                        && customer.getPhases().get(0).getFeesum() != null)
-                        ? customer.getPhases().get(0).getFeesum() : 0);
-
-                // Phase 2 (인덱스 1) – 예정일자 조건 처리
-                // Column AF (31): 2차 예정일자
-                Cell cellAF = row.getCell(31);
-                if (cellAF == null) cellAF = row.createCell(31);
-                if (customer.getPhases() != null && customer.getPhases().size() > 1) {
-                    Phase phase2 = customer.getPhases().get(1);
-                    if (phase2.getPlanneddate() != null && !phase2.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
-                        cellAF.setCellValue(phase2.getPlanneddate().toString());
-                    } else {
-                        cellAF.setCellValue(phase2.getPlanneddateString() != null ? phase2.getPlanneddateString() : "");
-                    }
-                } else {
-                    cellAF.setCellValue("");
-                }
-                // Column AG (32): 2차 완납일자
-                Cell cellAG = row.getCell(32);
-                if (cellAG == null) cellAG = row.createCell(32);
-                if (customer.getPhases() != null && customer.getPhases().size() > 1) {
-                    Phase phase2 = customer.getPhases().get(1);
-                    cellAG.setCellValue(phase2.getFullpaiddate() != null ? phase2.getFullpaiddate().toString() : "");
-                } else {
-                    cellAG.setCellValue("");
-                }
-                // Column AH (33): 2차 부담금
-                Cell cellAH = row.getCell(33);
-                if (cellAH == null) cellAH = row.createCell(33);
-                if (customer.getPhases() != null && customer.getPhases().size() > 1) {
-                    Phase phase2 = customer.getPhases().get(1);
-                    cellAH.setCellValue(phase2.getCharge() != null ? phase2.getCharge() : 0);
-                } else {
-                    cellAH.setCellValue(0);
-                }
-                // Column AI (34): 2차 할인액
-                Cell cellAI = row.getCell(34);
-                if (cellAI == null) cellAI = row.createCell(34);
-                if (customer.getPhases() != null && customer.getPhases().size() > 1) {
-                    Phase phase2 = customer.getPhases().get(1);
-                    cellAI.setCellValue(phase2.getDiscount() != null ? Math.abs(phase2.getDiscount()) : 0);
-                } else {
-                    cellAI.setCellValue(0);
-                }
-                // Column AJ (35): 2차 업무대행비
-                Cell cellAJ = row.getCell(35);
-                if (cellAJ == null) cellAJ = row.createCell(35);
-                if (customer.getPhases() != null && customer.getPhases().size() > 1) {
-                    Phase phase2 = customer.getPhases().get(1);
-                    cellAJ.setCellValue(phase2.getService() != null ? phase2.getService() : 0);
-                } else {
-                    cellAJ.setCellValue(0);
-                }
-                // Column AK (36): 2차 이동
-                Cell cellAK = row.getCell(36);
-                if (cellAK == null) cellAK = row.createCell(36);
-                if (customer.getPhases() != null && customer.getPhases().size() > 1) {
-                    Phase phase2 = customer.getPhases().get(1);
-                    cellAK.setCellValue(phase2.getMove() != null ? phase2.getMove() : "");
-                } else {
-                    cellAK.setCellValue("");
-                }
-                // Column AL (37): 2차 합
-                Cell cellAL = row.getCell(37);
-                if (cellAL == null) cellAL = row.createCell(37);
-                if (customer.getPhases() != null && customer.getPhases().size() > 1) {
-                    Phase phase2 = customer.getPhases().get(1);
-                    cellAL.setCellValue(phase2.getFeesum() != null ? phase2.getFeesum() : 0);
-                } else {
-                    cellAL.setCellValue(0);
-                }
+                rowIndex++;
 
-                // Phase 3 (인덱스 2) – 예정일자 조건 처리
-                // Column AM (38): 3차 예정일자
-                Cell cellAM = row.getCell(38);
-                if (cellAM == null) cellAM = row.createCell(38);
-                if (customer.getPhases() != null && customer.getPhases().size() > 2) {
-                    Phase phase3 = customer.getPhases().get(2);
-                    if (phase3.getPlanneddate() != null && !phase3.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
-                        cellAM.setCellValue(phase3.getPlanneddate().toString());
-                    } else {
-                        cellAM.setCellValue(phase3.getPlanneddateString() != null ? phase3.getPlanneddateString() : "");
-                    }
-                } else {
-                    cellAM.setCellValue("");
-                }
-                // Column AN (39): 3차 완납일자
-                Cell cellAN = row.getCell(39);
-                if (cellAN == null) cellAN = row.createCell(39);
-                if (customer.getPhases() != null && customer.getPhases().size() > 2) {
-                    Phase phase3 = customer.getPhases().get(2);
-                    cellAN.setCellValue(phase3.getFullpaiddate() != null ? phase3.getFullpaiddate().toString() : "");
-                } else {
-                    cellAN.setCellValue("");
-                }
-                // Column AO (40): 3차 부담금
-                Cell cellAO = row.getCell(40);
-                if (cellAO == null) cellAO = row.createCell(40);
-                if (customer.getPhases() != null && customer.getPhases().size() > 2) {
-                    Phase phase3 = customer.getPhases().get(2);
-                    cellAO.setCellValue(phase3.getCharge() != null ? phase3.getCharge() : 0);
-                } else {
-                    cellAO.setCellValue(0);
-                }
-                // Column AP (41): 3차 할인액
-                Cell cellAP = row.getCell(41);
-                if (cellAP == null) cellAP = row.createCell(41);
-                if (customer.getPhases() != null && customer.getPhases().size() > 2) {
-                    Phase phase3 = customer.getPhases().get(2);
-                    cellAP.setCellValue(phase3.getDiscount() != null ? Math.abs(phase3.getDiscount()) : 0);
-                } else {
-                    cellAP.setCellValue(0);
-                }
-                // Column AQ (42): 3차 업무대행비
-                Cell cellAQ = row.getCell(42);
-                if (cellAQ == null) cellAQ = row.createCell(42);
-                if (customer.getPhases() != null && customer.getPhases().size() > 2) {
-                    Phase phase3 = customer.getPhases().get(2);
-                    cellAQ.setCellValue(phase3.getService() != null ? phase3.getService() : 0);
-                } else {
-                    cellAQ.setCellValue(0);
-                }
-                // Column AR (43): 3차 이동
-                Cell cellAR = row.getCell(43);
-                if (cellAR == null) cellAR = row.createCell(43);
-                if (customer.getPhases() != null && customer.getPhases().size() > 2) {
-                    Phase phase3 = customer.getPhases().get(2);
-                    cellAR.setCellValue(phase3.getMove() != null ? phase3.getMove() : "");
-                } else {
-                    cellAR.setCellValue("");
-                }
-                // Column AS (44): 3차 합
-                Cell cellAS = row.getCell(44);
-                if (cellAS == null) cellAS = row.createCell(44);
-                if (customer.getPhases() != null && customer.getPhases().size() > 2) {
-                    Phase phase3 = customer.getPhases().get(2);
-                    cellAS.setCellValue(phase3.getFeesum() != null ? phase3.getFeesum() : 0);
-                } else {
-                    cellAS.setCellValue(0);
-                }
+                // 진행 상황 업데이트 (처리된 고객 수 / 전체 고객 수, 전송은 ProgressPublisher가 일정 간격으로 합쳐서 보냄)
+                progress.progress(i + 1, total);
+            }
 
-                // Phase 4 (인덱스 3) – 예정일자 조건 처리
-                // Column AT (45): 4차 예정일자
-                Cell cellAT = row.getCell(45);
-                if (cellAT == null) cellAT = row.createCell(45);
-                if (customer.getPhases() != null && customer.getPhases().size() > 3) {
-                    Phase phase4 = customer.getPhases().get(3);
-                    if (phase4.getPlanneddate() != null && !phase4.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
-                        cellAT.setCellValue(phase4.getPlanneddate().toString());
-                    } else {
-                        cellAT.setCellValue(phase4.getPlanneddateString() != null ? phase4.getPlanneddateString() : "");
-                    }
-                } else {
-                    cellAT.setCellValue("");
-                }
-                // Column AU (46): 4차 완납일자
-                Cell cellAU = row.getCell(46);
-                if (cellAU == null) cellAU = row.createCell(46);
-                if (customer.getPhases() != null && customer.getPhases().size() > 3) {
-                    Phase phase4 = customer.getPhases().get(3);
-                    cellAU.setCellValue(phase4.getFullpaiddate() != null ? phase4.getFullpaiddate().toString() : "");
-                } else {
-                    cellAU.setCellValue("");
-                }
-                // Column AV (47): 4차 부담금
-                Cell cellAV = row.getCell(47);
-                if (cellAV == null) cellAV = row.createCell(47);
-                if (customer.getPhases() != null && customer.getPhases().size() > 3) {
-                    Phase phase4 = customer.getPhases().get(3);
-                    cellAV.setCellValue(phase4.getCharge() != null ? phase4.getCharge() : 0);
-                } else {
-                    cellAV.setCellValue(0);
-                }
-                // Column AW (48): 4차 할인액
-                Cell cellAW = row.getCell(48);
-                if (cellAW == null) cellAW = row.createCell(48);
-                if (customer.getPhases() != null && customer.getPhases().size() > 3) {
-                    Phase phase4 = customer.getPhases().get(3);
-                    cellAW.setCellValue(phase4.getDiscount() != null ? Math.abs(phase4.getDiscount()) : 0);
-                } else {
-                    cellAW.setCellValue(0);
-                }
-                // Column AX (49): 4차 업무대행비
-                Cell cellAX = row.getCell(49);
-                if (cellAX == null) cellAX = row.createCell(49);
-                if (customer.getPhases() != null && customer.getPhases().size() > 3) {
-                    Phase phase4 = customer.getPhases().get(3);
-                    cellAX.setCellValue(phase4.getService() != null ? phase4.getService() : 0);
-                } else {
-                    cellAX.setCellValue(0);
-                }
-                // Column AY (50): 4차 이동
-                Cell cellAY = row.getCell(50);
-                if (cellAY == null) cellAY = row.createCell(50);
-                if (customer.getPhases() != null && customer.getPhases().size() > 3) {
-                    Phase phase4 = customer.getPhases().get(3);
-                    cellAY.setCellValue(phase4.getMove() != null ? phase4.getMove() : "");
-                } else {
-                    cellAY.setCellValue("");
-                }
-                // Column AZ (51): 4차 합
-                Cell cellAZ = row.getCell(51);
-                if (cellAZ == null) cellAZ = row.createCell(51);
-                if (customer.getPhases() != null && customer.getPhases().size() > 3) {
-                    Phase phase4 = customer.getPhases().get(3);
-                    cellAZ.setCellValue(phase4.getFeesum() != null ? phase4.getFeesum() : 0);
-                } else {
-                    cellAZ.setCellValue(0);
-                }
+            workbook.setForceFormulaRecalculation(true);
+            try (FileOutputStream fos = new FileOutputStream(outputFile)) {
+                workbook.write(fos);
+            }
+        }
+    }
 
-                // Phase 5 (인덱스 4) – 예정일자 조건 처리
-                // Column BA (52): 5차 예정일자
-                Cell cellBA = row.getCell(52);
-                if (cellBA == null) cellBA = row.createCell(52);
-                if (customer.getPhases() != null && customer.getPhases().size() > 4) {
-                    Phase phase5 = customer.getPhases().get(4);
-                    if (phase5.getPlanneddate() != null && !phase5.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
-                        cellBA.setCellValue(phase5.getPlanneddate().toString());
-                    } else {
-                        cellBA.setCellValue(phase5.getPlanneddateString() != null ? phase5.getPlanneddateString() : "");
-                    }
-                } else {
-                    cellBA.setCellValue("");
-                }
-                // Column BB (53): 5차 완납일자
-                Cell cellBB = row.getCell(53);
-                if (cellBB == null) cellBB = row.createCell(53);
-                if (customer.getPhases() != null && customer.getPhases().size() > 4) {
-                    Phase phase5 = customer.getPhases().get(4);
-                    cellBB.setCellValue(phase5.getFullpaiddate() != null ? phase5.getFullpaiddate().toString() : "");
-                } else {
-                    cellBB.setCellValue("");
-                }
-                // Column BC (54): 5차 부담금
-                Cell cellBC = row.getCell(54);
-                if (cellBC == null) cellBC = row.createCell(54);
-                if (customer.getPhases() != null && customer.getPhases().size() > 4) {
-                    Phase phase5 = customer.getPhases().get(4);
-                    cellBC.setCellValue(phase5.getCharge() != null ? phase5.getCharge() : 0);
-                } else {
-                    cellBC.setCellValue(0);
-                }
-                // Column BD (55): 5차 할인액
-                Cell cellBD = row.getCell(55);
-                if (cellBD == null) cellBD = row.createCell(55);
-                if (customer.getPhases() != null && customer.getPhases().size() > 4) {
-                    Phase phase5 = customer.getPhases().get(4);
-                    cellBD.setCellValue(phase5.getDiscount() != null ? Math.abs(phase5.getDiscount()) : 0);
-                } else {
-                    cellBD.setCellValue(0);
-                }
-                // Column BE (56): 5차 면제금액
-                Cell cellBE = row.getCell(56);
-                if (cellBE == null) cellBE = row.createCell(56);
-                if (customer.getPhases() != null && customer.getPhases().size() > 4) {
-                    Phase phase5 = customer.getPhases().get(4);
-                    cellBE.setCellValue(phase5.getExemption() != null ? Math.abs(phase5.getExemption()) : 0);
-                } else {
-                    cellBE.setCellValue(0);
-                }
-                // Column BF (57): 5차 업무대행비
-                Cell cellBF = row.getCell(57);
-                if (cellBF == null) cellBF = row.createCell(57);
-                if (customer.getPhases() != null && customer.getPhases().size() > 4) {
-                    Phase phase5 = customer.getPhases().get(4);
-                    cellBF.setCellValue(phase5.getService() != null ? phase5.getService() : 0);
-                } else {
-                    cellBF.setCellValue(0);
-                }
-                // Column BG (58): 5차 이동
-                Cell cellBG = row.getCell(58);
-                if (cellBG == null) cellBG = row.createCell(58);
-                if (customer.getPhases() != null && customer.getPhases().size() > 4) {
-                    Phase phase5 = customer.getPhases().get(4);
-                    cellBG.setCellValue(phase5.getMove() != null ? phase5.getMove() : "");
-                } else {
-                    cellBG.setCellValue("");
-                }
-                // Column BH (59): 5차 합
-                Cell cellBH = row.getCell(59);
-                if (cellBH == null) cellBH = row.createCell(59);
-                if (customer.getPhases() != null && customer.getPhases().size() > 4) {
-                    Phase phase5 = customer.getPhases().get(4);
-                    cellBH.setCellValue(phase5.getFeesum() != null ? phase5.getFeesum() : 0);
-                } else {
-                    cellBH.setCellValue(0);
-                }
+    /**
+     * [스트리밍] 회원 명부 내보내기.
+     * 템플릿의 헤더 행(0~1행)과 스타일은 그대로 두고, 데이터 행은 SXSSF로 REG_WINDOW_SIZE 행씩만 메모리에 유지하며 씁니다.
+     * 고객은 CustomerService.forEachCustomerPage로 페이지 단위로 읽으므로 사용 메모리가 고객 수와 무관합니다.
+     * 데이터 행 서식은 템플릿의 첫 데이터 행(2행) 셀 스타일을 열별로 적용합니다.
+     */
+    public void fillRegFormatStreaming(File outputFile, ProgressPublisher progress) throws IOException {
+        fillRegFormatStreaming(outputFile, null, progress);
+    }
 
-                // Phase 6 (인덱스 5) – 예정일자 조건 처리
-                // Column BI (60): 6차 예정일자
-                Cell cellBI = row.getCell(60);
-                if (cellBI == null) cellBI = row.createCell(60);
-                if (customer.getPhases() != null && customer.getPhases().size() > 5) {
-                    Phase phase6 = customer.getPhases().get(5);
-                    if (phase6.getPlanneddate() != null && !phase6.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
-                        cellBI.setCellValue(phase6.getPlanneddate().toString());
-                    } else {
-                        cellBI.setCellValue(phase6.getPlanneddateString() != null ? phase6.getPlanneddateString() : "");
+    /**
+     * [변경분] since 이후 고객 또는 차수/상태가 변경된 고객만 기록합니다. (since가 null이면 전체)
+     */
+    public void fillRegFormatStreaming(File outputFile, LocalDateTime since, ProgressPublisher progress) throws IOException {
+        try (XSSFWorkbook template = excelTemplateCache.borrow(ExcelTemplateCache.REGFORMAT)) {
+
+            XSSFSheet templateSheet = template.getSheetAt(0);
+            CellStyle[] columnStyles = new CellStyle[REG_COLUMN_COUNT];
+            Row sampleRow = templateSheet.getRow(REG_FIRST_DATA_ROW);
+            if (sampleRow != null) {
+                for (Cell cell : sampleRow) {
+                    if (cell.getColumnIndex() < REG_COLUMN_COUNT) {
+                        columnStyles[cell.getColumnIndex()] = cell.getCellStyle();
                     }
-                } else {
-                    cellBI.setCellValue("");
-                }
-                // Column BJ (61): 6차 완납일자
-                Cell cellBJ = row.getCell(61);
-                if (cellBJ == null) cellBJ = row.createCell(61);
-                if (customer.getPhases() != null && customer.getPhases().size() > 5) {
-                    Phase phase6 = customer.getPhases().get(5);
-                    cellBJ.setCellValue(phase6.getFullpaiddate() != null ? phase6.getFullpaiddate().toString() : "");
-                } else {
-                    cellBJ.setCellValue("");
-                }
-                // Column BK (62): 6차 부담금
-                Cell cellBK = row.getCell(62);
-                if (cellBK == null) cellBK = row.createCell(62);
-                if (customer.getPhases() != null && customer.getPhases().size() > 5) {
-                    Phase phase6 = customer.getPhases().get(5);
-                    cellBK.setCellValue(phase6.getCharge() != null ? phase6.getCharge() : 0);
-                } else {
-                    cellBK.setCellValue(0);
-                }
-                // Column BL (63): 6차 할인액
-                Cell cellBL = row.getCell(63);
-                if (cellBL == null) cellBL = row.createCell(63);
-                if (customer.getPhases() != null && customer.getPhases().size() > 5) {
-                    Phase phase6 = customer.getPhases().get(5);
-                    cellBL.setCellValue(phase6.getDiscount() != null ? Math.abs(phase6.getDiscount()) : 0);
-                } else {
-                    cellBL.setCellValue(0);
                 }
-                // Column BM (64): 6차 면제금액
-                Cell cellBM = row.getCell(64);
-                if (cellBM == null) cellBM = row.createCell(64);
-                if (customer.getPhases() != null && customer.getPhases().size() > 5) {
-                    Phase phase6 = customer.getPhases().get(5);
-                    cellBM.setCellValue(phase6.getExemption() != null ? Math.abs(phase6.getExemption()) : 0);
-                } else {
-                    cellBM.setCellValue(0);
-                }
-                // Column BN (65): 6차 업무대행비
-                Cell cellBN = row.getCell(65);
-                if (cellBN == null) cellBN = row.createCell(65);
-                if (customer.getPhases() != null && customer.getPhases().size() > 5) {
-                    Phase phase6 = customer.getPhases().get(5);
-                    cellBN.setCellValue(phase6.getService() != null ? phase6.getService() : 0);
-                } else {
-                    cellBN.setCellValue(0);
-                }
-                // Column BO (66): 6차 이동
-                Cell cellBO = row.getCell(66);
-                if (cellBO == null) cellBO = row.createCell(66);
-                if (customer.getPhases() != null && customer.getPhases().size() > 5) {
-                    Phase phase6 = customer.getPhases().get(5);
-                    cellBO.setCellValue(phase6.getMove() != null ? phase6.getMove() : "");
-                } else {
-                    cellBO.setCellValue("");
-                }
-                // Column BP (67): 6차 합
-                Cell cellBP = row.getCell(67);
-                if (cellBP == null) cellBP = row.createCell(67);
-                if (customer.getPhases() != null && customer.getPhases().size() > 5) {
-                    Phase phase6 = customer.getPhases().get(5);
-                    cellBP.setCellValue(phase6.getFeesum() != null ? phase6.getFeesum() : 0);
-                } else {
-                    cellBP.setCellValue(0);
+            }
+            // SXSSF는 기존 마지막 행 뒤에만 행을 추가할 수 있으므로 템플릿의 데이터 영역 행은 제거
+            for (int r = templateSheet.getLastRowNum(); r >= REG_FIRST_DATA_ROW; r--) {
+                Row row = templateSheet.getRow(r);
+                if (row != null) {
+                    templateSheet.removeRow(row);
                 }
+            }
 
-                // Phase 7 (인덱스 6) – 예정일자 조건 처리
-                // Column BQ (68): 7차 예정일자
-                Cell cellBQ = row.getCell(68);
-                if (cellBQ == null) cellBQ = row.createCell(68);
-                if (customer.getPhases() != null && customer.getPhases().size() > 6) {
-                    Phase phase7 = customer.getPhases().get(6);
-                    if (phase7.getPlanneddate() != null && !phase7.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
-                        cellBQ.setCellValue(phase7.getPlanneddate().toString());
-                    } else {
-                        cellBQ.setCellValue(phase7.getPlanneddateString() != null ? phase7.getPlanneddateString() : "");
+            SXSSFWorkbook workbook = new SXSSFWorkbook(template, REG_WINDOW_SIZE);
+            workbook.setCompressTempFiles(true);
+            try {
+                SXSSFSheet sheet = workbook.getSheetAt(0);
+                long total = since == null ? customerRepository.count() : customerRepository.countModifiedAfter(since);
+                progress.phase("export");
+                int[] rowIndex = {REG_FIRST_DATA_ROW};
+                long[] processed = {0};
+
+                customerService.forEachCustomerPage(REG_PAGE_SIZE, since, customers -> {
+                    for (Customer customer : customers) {
+                        processed[0]++;
+                        // 고객 id가 1이면 건너뛰기
+                        if (customer.getId() == 1) {
+                            continue;
+                        }
+                        Row row = sheet.createRow(rowIndex[0]++);
+                        writeRegRow(row, customer);
+                        for (Cell cell : row) {
+                            CellStyle style = columnStyles[cell.getColumnIndex()];
+                            if (style != null) {
+                                cell.setCellStyle(style);
+                            }
+                        }
                     }
-                } else {
-                    cellBQ.setCellValue("");
-                }
-                // Column BR (69): 7차 완납일자
-                Cell cellBR = row.getCell(69);
-                if (cellBR == null) cellBR = row.createCell(69);
-                if (customer.getPhases() != null && customer.getPhases().size() > 6) {
-                    Phase phase7 = customer.getPhases().get(6);
-                    cellBR.setCellValue(phase7.getFullpaiddate() != null ? phase7.getFullpaiddate().toString() : "");
-                } else {
-                    cellBR.setCellValue("");
-                }
-                // Column BS (70): 7차 부담금
-                Cell cellBS = row.getCell(70);
-                if (cellBS == null) cellBS = row.createCell(70);
-                if (customer.getPhases() != null && customer.getPhases().size() > 6) {
-                    Phase phase7 = customer.getPhases().get(6);
-                    cellBS.setCellValue(phase7.getCharge() != null ? phase7.getCharge() : 0);
-                } else {
-                    cellBS.setCellValue(0);
-                }
-                // Column BT (71): 7차 할인액
-                Cell cellBT = row.getCell(71);
-                if (cellBT == null) cellBT = row.createCell(71);
-                if (customer.getPhases() != null && customer.getPhases().size() > 6) {
-                    Phase phase7 = customer.getPhases().get(6);
-                    cellBT.setCellValue(phase7.getDiscount() != null ? Math.abs(phase7.getDiscount()) : 0);
-                } else {
-                    cellBT.setCellValue(0);
-                }
-                // Column BU (72): 7차 면제금액
-                Cell cellBU = row.getCell(72);
-                if (cellBU == null) cellBU = row.createCell(72);
-                if (customer.getPhases() != null && customer.getPhases().size() > 6) {
-                    Phase phase7 = customer.getPhases().get(6);
-                    cellBU.setCellValue(phase7.getExemption() != null ? Math.abs(phase7.getExemption()) : 0);
-                } else {
-                    cellBU.setCellValue(0);
-                }
-                // Column BV (73): 7차 업무대행비
-                Cell cellBV = row.getCell(73);
-                if (cellBV == null) cellBV = row.createCell(73);
-                if (customer.getPhases() != null && customer.getPhases().size() > 6) {
-                    Phase phase7 = customer.getPhases().get(6);
-                    cellBV.setCellValue(phase7.getService() != null ? phase7.getService() : 0);
-                } else {
-                    cellBV.setCellValue(0);
-                }
-                // Column BW (74): 7차 이동
-                Cell cellBW = row.getCell(74);
-                if (cellBW == null) cellBW = row.createCell(74);
-                if (customer.getPhases() != null && customer.getPhases().size() > 6) {
-                    Phase phase7 = customer.getPhases().get(6);
-                    cellBW.setCellValue(phase7.getMove() != null ? phase7.getMove() : "");
-                } else {
-                    cellBW.setCellValue("");
-                }
-                // Column BX (75): 7차 합
-                Cell cellBX = row.getCell(75);
-                if (cellBX == null) cellBX = row.createCell(75);
-                if (customer.getPhases() != null && customer.getPhases().size() > 6) {
-                    Phase phase7 = customer.getPhases().get(6);
-                    cellBX.setCellValue(phase7.getFeesum() != null ? phase7.getFeesum() : 0);
-                } else {
-                    cellBX.setCellValue(0);
-                }
+                    progress.progress(processed[0], total);
+                });
 
-                // Phase 8 (인덱스 7) – 예정일자 조건 처리
-                // Column BY (76): 8차 예정일자
-                Cell cellBY = row.getCell(76);
-                if (cellBY == null) cellBY = row.createCell(76);
-                if (customer.getPhases() != null && customer.getPhases().size() > 7) {
-                    Phase phase8 = customer.getPhases().get(7);
-                    if (phase8.getPlanneddate() != null && !phase8.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
-                        cellBY.setCellValue(phase8.getPlanneddate().toString());
-                    } else {
-                        cellBY.setCellValue(phase8.getPlanneddateString() != null ? phase8.getPlanneddateString() : "");
-                    }
-                } else {
-                    cellBY.setCellValue("");
-                }
-                // Column BZ (77): 8차 완납일자
-                Cell cellBZ = row.getCell(77);
-                if (cellBZ == null) cellBZ = row.createCell(77);
-                if (customer.getPhases() != null && customer.getPhases().size() > 7) {
-                    Phase phase8 = customer.getPhases().get(7);
-                    cellBZ.setCellValue(phase8.getFullpaiddate() != null ? phase8.getFullpaiddate().toString() : "");
-                } else {
-                    cellBZ.setCellValue("");
-                }
-                // Column CA (78): 8차 부담금
-                Cell cellCA = row.getCell(78);
-                if (cellCA == null) cellCA = row.createCell(78);
-                if (customer.getPhases() != null && customer.getPhases().size() > 7) {
-                    Phase phase8 = customer.getPhases().get(7);
-                    cellCA.setCellValue(phase8.getCharge() != null ? phase8.getCharge() : 0);
-                } else {
-                    cellCA.setCellValue(0);
-                }
-                // Column CB (79): 8차 할인액
-                Cell cellCB = row.getCell(79);
-                if (cellCB == null) cellCB = row.createCell(79);
-                if (customer.getPhases() != null && customer.getPhases().size() > 7) {
-                    Phase phase8 = customer.getPhases().get(7);
-                    cellCB.setCellValue(phase8.getDiscount() != null ? Math.abs(phase8.getDiscount()) : 0);
-                } else {
-                    cellCB.setCellValue(0);
-                }
-                // Column CC (80): 8차 업무대행비
-                Cell cellCC = row.getCell(80);
-                if (cellCC == null) cellCC = row.createCell(80);
-                if (customer.getPhases() != null && customer.getPhases().size() > 7) {
-                    Phase phase8 = customer.getPhases().get(7);
-                    cellCC.setCellValue(phase8.getService() != null ? phase8.getService() : 0);
-                } else {
-                    cellCC.setCellValue(0);
-                }
-                // Column CD (81): 8차 이동
-                Cell cellCD = row.getCell(81);
-                if (cellCD == null) cellCD = row.createCell(81);
-                if (customer.getPhases() != null && customer.getPhases().size() > 7) {
-                    Phase phase8 = customer.getPhases().get(7);
-                    cellCD.setCellValue(phase8.getMove() != null ? phase8.getMove() : "");
-                } else {
-                    cellCD.setCellValue("");
-                }
-                // Column CE (82): 8차 합
-                Cell cellCE = row.getCell(82);
-                if (cellCE == null) cellCE = row.createCell(82);
-                if (customer.getPhases() != null && customer.getPhases().size() > 7) {
-                    Phase phase8 = customer.getPhases().get(7);
-                    cellCE.setCellValue(phase8.getFeesum() != null ? phase8.getFeesum() : 0);
-                } else {
-                    cellCE.setCellValue(0);
+                workbook.setForceFormulaRecalculation(true);
+                try (FileOutputStream fos = new FileOutputStream(outputFile)) {
+                    workbook.write(fos);
                 }
+            } finally {
+                workbook.dispose();
+            }
+        }
+    }
 
-                // Phase 9 (인덱스 8) – 예정일자 조건 처리
-                // Column CF (83): 9차 예정일자
-                Cell cellCF = row.getCell(83);
-                if (cellCF == null) cellCF = row.createCell(83);
-                if (customer.getPhases() != null && customer.getPhases().size() > 8) {
-                    Phase phase9 = customer.getPhases().get(8);
-                    if (phase9.getPlanneddate() != null && !phase9.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
-                        cellCF.setCellValue(phase9.getPlanneddate().toString());
-                    } else {
-                        cellCF.setCellValue(phase9.getPlanneddateString() != null ? phase9.getPlanneddateString() : "");
+    /**
+     * 회원 명부 열 이름 (CSV/NDJSON 내보내기용, 171개).
+     * 템플릿의 두 머리글 행(0행: 묶음, 1행: 세부)을 합쳐 "1차 부담금"처럼 만들고,
+     * 머리글이 없거나 이름이 겹치는 열은 열 문자(A, B, ...)를 붙입니다.
+     */
+    public String[] regColumnNames() throws IOException {
+        String[] names = regColumnNames;
+        if (names != null) {
+            return names;
+        }
+        try (XSSFWorkbook workbook = excelTemplateCache.borrow(ExcelTemplateCache.REGFORMAT)) {
+            XSSFSheet sheet = workbook.getSheetAt(0);
+            DataFormatter formatter = new DataFormatter();
+            String[] groups = new String[REG_COLUMN_COUNT];
+            Row groupRow = sheet.getRow(0);
+            Row subRow = sheet.getRow(1);
+            for (int c = 0; c < REG_COLUMN_COUNT; c++) {
+                groups[c] = headerText(formatter, groupRow, c);
+            }
+            // 가로로 병합된 묶음 머리글은 병합 범위의 모든 열에 적용
+            for (CellRangeAddress region : sheet.getMergedRegions()) {
+                if (region.getFirstRow() == 0) {
+                    for (int c = region.getFirstColumn() + 1; c <= region.getLastColumn() && c < REG_COLUMN_COUNT; c++) {
+                        groups[c] = groups[region.getFirstColumn()];
                     }
-                } else {
-                    cellCF.setCellValue("");
-                }
-                // Column CG (84): 9차 완납일자
-                Cell cellCG = row.getCell(84);
-                if (cellCG == null) cellCG = row.createCell(84);
-                if (customer.getPhases() != null && customer.getPhases().size() > 8) {
-                    Phase phase9 = customer.getPhases().get(8);
-                    cellCG.setCellValue(phase9.getFullpaiddate() != null ? phase9.getFullpaiddate().toString() : "");
-                } else {
-                    cellCG.setCellValue("");
-                }
-                // Column CH (85): 9차 부담금
-                Cell cellCH = row.getCell(85);
-                if (cellCH == null) cellCH = row.createCell(85);
-                if (customer.getPhases() != null && customer.getPhases().size() > 8) {
-                    Phase phase9 = customer.getPhases().get(8);
-                    cellCH.setCellValue(phase9.getCharge() != null ? phase9.getCharge() : 0);
-                } else {
-                    cellCH.setCellValue(0);
-                }
-                // Column CI (86): 9차 할인액
-                Cell cellCI = row.getCell(86);
-                if (cellCI == null) cellCI = row.createCell(86);
-                if (customer.getPhases() != null && customer.getPhases().size() > 8) {
-                    Phase phase9 = customer.getPhases().get(8);
-                    cellCI.setCellValue(phase9.getDiscount() != null ? Math.abs(phase9.getDiscount()) : 0);
-                } else {
-                    cellCI.setCellValue(0);
-                }
-                // Column CJ (87): 9차 업무대행비
-                Cell cellCJ = row.getCell(87);
-                if (cellCJ == null) cellCJ = row.createCell(87);
-                if (customer.getPhases() != null && customer.getPhases().size() > 8) {
-                    Phase phase9 = customer.getPhases().get(8);
-                    cellCJ.setCellValue(phase9.getService() != null ? phase9.getService() : 0);
-                } else {
-                    cellCJ.setCellValue(0);
-                }
-                // Column CK (88): 9차 이동
-                Cell cellCK = row.getCell(88);
-                if (cellCK == null) cellCK = row.createCell(88);
-                if (customer.getPhases() != null && customer.getPhases().size() > 8) {
-                    Phase phase9 = customer.getPhases().get(8);
-                    cellCK.setCellValue(phase9.getMove() != null ? phase9.getMove() : "");
-                } else {
-                    cellCK.setCellValue("");
-                }
-                // Column CL (89): 9차 합
-                Cell cellCL = row.getCell(89);
-                if (cellCL == null) cellCL = row.createCell(89);
-                if (customer.getPhases() != null && customer.getPhases().size() > 8) {
-                    Phase phase9 = customer.getPhases().get(8);
-                    cellCL.setCellValue(phase9.getFeesum() != null ? phase9.getFeesum() : 0);
-                } else {
-                    cellCL.setCellValue(0);
                 }
+            }
+            names = new String[REG_COLUMN_COUNT];
+            Set<String> used = new HashSet<>();
+            for (int c = 0; c < REG_COLUMN_COUNT; c++) {
+                String group = groups[c];
+                String sub = headerText(formatter, subRow, c);
+                String name = group.isEmpty() ? sub
+                        : (sub.isEmpty() || sub.equals(group)) ? group : group + " " + sub;
+                if (name.isEmpty() || !used.add(name)) {
+                    name = (name.isEmpty() ? "" : name + " ") + CellReference.convertNumToColString(c);
+                    used.add(name);
+                }
+                names[c] = name;
+            }
+        }
+        regColumnNames = names;
+        return names;
+    }
 
-                // Phase 10 (인덱스 9) – 예정일자 조건 처리
-                // Column CM (90): 10차 예정일자
-                Cell cellCM = row.getCell(90);
-                if (cellCM == null) cellCM = row.createCell(90);
-                if (customer.getPhases() != null && customer.getPhases().size() > 9) {
-                    Phase phase10 = customer.getPhases().get(9);
-                    if (phase10.getPlanneddate() != null && !phase10.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
-                        cellCM.setCellValue(phase10.getPlanneddate().toString());
-                    } else {
-                        cellCM.setCellValue(phase10.getPlanneddateString() != null ? phase10.getPlanneddateString() : "");
-                    }
-                } else {
-                    cellCM.setCellValue("");
-                }
-                // Column CN (91): 10차 완납일자
-                Cell cellCN = row.getCell(91);
-                if (cellCN == null) cellCN = row.createCell(91);
-                if (customer.getPhases() != null && customer.getPhases().size() > 9) {
-                    Phase phase10 = customer.getPhases().get(9);
-                    cellCN.setCellValue(phase10.getFullpaiddate() != null ? phase10.getFullpaiddate().toString() : "");
-                } else {
-                    cellCN.setCellValue("");
-                }
-                // Column CO (92): 10차 부담금
-                Cell cellCO = row.getCell(92);
-                if (cellCO == null) cellCO = row.createCell(92);
-                if (customer.getPhases() != null && customer.getPhases().size() > 9) {
-                    Phase phase10 = customer.getPhases().get(9);
-                    cellCO.setCellValue(phase10.getCharge() != null ? phase10.getCharge() : 0);
-                } else {
-                    cellCO.setCellValue(0);
-                }
-                // Column CP (93): 10차 할인액
-                Cell cellCP = row.getCell(93);
-                if (cellCP == null) cellCP = row.createCell(93);
-                if (customer.getPhases() != null && customer.getPhases().size() > 9) {
-                    Phase phase10 = customer.getPhases().get(9);
-                    cellCP.setCellValue(phase10.getDiscount() != null ? Math.abs(phase10.getDiscount()) : 0);
-                } else {
-                    cellCP.setCellValue(0);
-                }
-                // Column CQ (94): 10차 업무대행비
-                Cell cellCQ = row.getCell(94);
-                if (cellCQ == null) cellCQ = row.createCell(94);
-                if (customer.getPhases() != null && customer.getPhases().size() > 9) {
-                    Phase phase10 = customer.getPhases().get(9);
-                    cellCQ.setCellValue(phase10.getService() != null ? phase10.getService() : 0);
-                } else {
-                    cellCQ.setCellValue(0);
-                }
-                // Column CR (95): 10차 이동
-                Cell cellCR = row.getCell(95);
-                if (cellCR == null) cellCR = row.createCell(95);
-                if (customer.getPhases() != null && customer.getPhases().size() > 9) {
-                    Phase phase10 = customer.getPhases().get(9);
-                    cellCR.setCellValue(phase10.getMove() != null ? phase10.getMove() : "");
-                } else {
-                    cellCR.setCellValue("");
-                }
-                // Column CS (96): 10차 합
-                Cell cellCS = row.getCell(96);
-                if (cellCS == null) cellCS = row.createCell(96);
-                if (customer.getPhases() != null && customer.getPhases().size() > 9) {
-                    Phase phase10 = customer.getPhases().get(9);
-                    cellCS.setCellValue(phase10.getFeesum() != null ? phase10.getFeesum() : 0);
-                } else {
-                    cellCS.setCellValue(0);
-                }
+    private static String headerText(DataFormatter formatter, Row row, int column) {
+        Cell cell = row != null ? row.getCell(column) : null;
+        return cell == null ? "" : formatter.formatCellValue(cell).replaceAll("\\s+", " ").trim();
+    }
 
-                // ── 최종 섹션 ──
-                // Column DA (104): 총 면제금액
-                Cell cellDA = row.getCell(104);
-                if (cellDA == null) cellDA = row.createCell(104);
-                cellDA.setCellValue((customer.getStatus() != null && customer.getStatus().getExemptionsum() != null)
-                        ? customer.getStatus().getExemptionsum() : 0);
-
-                // Column DB (105): 해약 해지일자
-                Cell cellDB = row.getCell(105);
-                if (cellDB == null) cellDB = row.createCell(105);
-                cellDB.setCellValue((customer.getCancel() != null && customer.getCancel().getCanceldate() != null)
-                        ? customer.getCancel().getCanceldate().toString() : "");
-
-                // Column DC (106): 해약 환급일자
-                Cell cellDC = row.getCell(106);
-                if (cellDC == null) cellDC = row.createCell(106);
-                cellDC.setCellValue((customer.getCancel() != null && customer.getCancel().getRefunddate() != null)
-                        ? customer.getCancel().getRefunddate().toString() : "");
-
-                // Column DD (107): 해약 환급금
-                Cell cellDD = row.getCell(107);
-                if (cellDD == null) cellDD = row.createCell(107);
-                cellDD.setCellValue((customer.getCancel() != null && customer.getCancel().getRefundamount() != null)
-                        ? customer.getCancel().getRefundamount() : 0);
-
-                // Column DE (108): 납입총액
-                Cell cellDE = row.getCell(108);
-                if (cellDE == null) cellDE = row.createCell(108);
-                cellDE.setCellValue((customer.getStatus() != null && customer.getStatus().getAmmountsum() != null)
-                        ? customer.getStatus().getAmmountsum() : 0);
-
-                // Column DF (109): 건너뛰기
-                Cell cellDF = row.getCell(109);
-                if (cellDF == null) cellDF = row.createCell(109);
-                cellDF.setCellValue("");
-
-                // Column DG (110): 담당 총괄
-                Cell cellDG = row.getCell(110);
-                if (cellDG == null) cellDG = row.createCell(110);
-                cellDG.setCellValue((customer.getResponsible() != null && customer.getResponsible().getGeneralmanagement() != null)
-                        ? customer.getResponsible().getGeneralmanagement() : "");
-
-                // Column DH (111): 담당 본부
-                Cell cellDH = row.getCell(111);
-                if (cellDH == null) cellDH = row.createCell(111);
-                cellDH.setCellValue((customer.getResponsible() != null && customer.getResponsible().getDivision() != null)
-                        ? customer.getResponsible().getDivision() : "");
-
-                // Column DI (112): 담당 팀
-                Cell cellDI = row.getCell(112);
-                if (cellDI == null) cellDI = row.createCell(112);
-                cellDI.setCellValue((customer.getResponsible() != null && customer.getResponsible().getTeam() != null)
-                        ? customer.getResponsible().getTeam() : "");
-
-                // Column DJ (113): 담당 성명
-                Cell cellDJ = row.getCell(113);
-                if (cellDJ == null) cellDJ = row.createCell(113);
-                cellDJ.setCellValue((customer.getResponsible() != null && customer.getResponsible().getManagername() != null)
-                        ? customer.getResponsible().getManagername() : "");
-
-                // Column DK (114): 담당 수수료지급
-                Cell cellDK = row.getCell(114);
-                if (cellDK == null) cellDK = row.createCell(114);
-                cellDK.setCellValue((customer.getResponsible() != null && customer.getResponsible().getFeepaid() != null)
-                        ? customer.getResponsible().getFeepaid() : "");
-
-                // Column DL (115): 다힘 시상
-                Cell cellDL = row.getCell(115);
-                if (cellDL == null) cellDL = row.createCell(115);
-                cellDL.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimsisang() != null)
-                        ? customer.getDahim().getDahimsisang() : "");
-
-                // Column DM (116): 다힘 일자
-                Cell cellDM = row.getCell(116);
-                if (cellDM == null) cellDM = row.createCell(116);
-                cellDM.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimdate() != null)
-                        ? customer.getDahim().getDahimdate().toString() : "");
-
-                // Column DN (117): 다힘 6/30선지급
-                Cell cellDN = row.getCell(117);
-                if (cellDN == null) cellDN = row.createCell(117);
-                cellDN.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimprepaid() != null)
-                        ? customer.getDahim().getDahimprepaid() : "");
-
-                // Column DO (118): 다힘 1회차청구
-                Cell cellDO = row.getCell(118);
-                if (cellDO == null) cellDO = row.createCell(118);
-                cellDO.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimfirst() != null)
-                        ? customer.getDahim().getDahimfirst() : "");
-
-                // Column DP (119): 다힘 (1회차)금액
-                Cell cellDP = row.getCell(119);
-                if (cellDP == null) cellDP = row.createCell(119);
-                cellDP.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimfirstpay() != null)
-                        ? customer.getDahim().getDahimfirstpay() : "");
-
-                // Column DQ (120): 다힘 일자2 – 날짜형 우선, 없으면 문자열
-                Cell cellDQ = row.getCell(120);
-                if (cellDQ == null) cellDQ = row.createCell(120);
-                LocalDate dateDQ = getUnderlyingDate(cellDQ);
-                if (dateDQ != null) {
-                    cellDQ.setCellValue(dateDQ.toString());
-                } else {
-                    cellDQ.setCellValue(cellDQ.getStringCellValue());
-                }
+    /**
+     * 회원 명부 한 행의 값을 열 순서대로 values에 담습니다. (CSV/NDJSON 내보내기용)
+     * 엑셀 내보내기와 같은 writeRegRow로 시트에 붙지 않은 임시 행에 기록한 뒤 값만 읽으므로 두 형식의 열 구성이 항상 같습니다.
+     *
+     * @param scratch 임시 행을 만들 시트 (행은 시트에 추가되지 않음)
+     * @param values  REG_COLUMN_COUNT 크기 배열 (재사용)
+     */
+    public void readRegRow(SXSSFSheet scratch, Customer customer, Object[] values) {
+        SXSSFRow row = new SXSSFRow(scratch);
+        writeRegRow(row, customer);
+        Arrays.fill(values, null);
+        for (Cell cell : row) {
+            int c = cell.getColumnIndex();
+            if (c >= values.length) {
+                continue;
+            }
+            if (cell.getCellType() == CellType.NUMERIC) {
+                values[c] = cell.getNumericCellValue();
+            } else if (cell.getCellType() == CellType.STRING) {
+                String s = cell.getStringCellValue();
+                values[c] = s.isEmpty() ? null : s;
+            } else if (cell.getCellType() == CellType.BOOLEAN) {
+                values[c] = cell.getBooleanCellValue();
+            }
+        }
+    }
 
-                // Column DR (121): 다힘 출처
-                Cell cellDR = row.getCell(121);
-                if (cellDR == null) cellDR = row.createCell(121);
-                cellDR.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimsource() != null)
-                        ? customer.getDahim().getDahimsource() : "");
-
-                // Column DS (122): 다힘 2회차청구
-                Cell cellDS = row.getCell(122);
-                if (cellDS == null) cellDS = row.createCell(122);
-                cellDS.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimsecond() != null)
-                        ? customer.getDahim().getDahimsecond() : "");
-
-                // Column DT (123): 다힘 (2회차)금액
-                Cell cellDT = row.getCell(123);
-                if (cellDT == null) cellDT = row.createCell(123);
-                cellDT.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimsecondpay() != null)
-                        ? customer.getDahim().getDahimsecondpay() : "");
-
-                // Column DU (124): 다힘 일자3 – 날짜형 우선, 없으면 문자열
-                Cell cellDU = row.getCell(124);
-                if (cellDU == null) cellDU = row.createCell(124);
-                LocalDate dateDU = getUnderlyingDate(cellDU);
-                if (dateDU != null) {
-                    cellDU.setCellValue(dateDU.toString());
-                } else {
-                    cellDU.setCellValue(cellDU.getStringCellValue());
-                }
+    /**
+     * 회원 명부 한 행(A~FO, 171열)에 고객 정보를 기록합니다. (일반/스트리밍/CSV 내보내기 공통)
+     */
+    private void writeRegRow(Row row, Customer customer) {
+        //고객정보 기입시작 code spread start
+        // ── 기본 정보 ──
+        // Column A (0): 관리번호
+        Cell cellA = row.getCell(0);
+        if (cellA == null) cellA = row.createCell(0);
+        cellA.setCellValue(customer.getId());
+
+        // Column B (1): 분류(회원)
+        Cell cellB = row.getCell(1);
+        if (cellB == null) cellB = row.createCell(1);
+        cellB.setCellValue(customer.getCustomertype() != null ? customer.getCustomertype() : "");
+
+        // Column C (2): 타입
+        Cell cellC = row.getCell(2);
+        if (cellC == null) cellC = row.createCell(2);
+        cellC.setCellValue(customer.getType() != null ? customer.getType() : "");
+
+        // Column D (3): 군
+        Cell cellD = row.getCell(3);
+        if (cellD == null) cellD = row.createCell(3);
+        cellD.setCellValue(customer.getGroupname() != null ? customer.getGroupname() : "");
+
+        // Column E (4): 순번
+        Cell cellE = row.getCell(4);
+        if (cellE == null) cellE = row.createCell(4);
+        cellE.setCellValue(customer.getTurn() != null ? customer.getTurn() : "");
+
+        // Column F (5): 7차면제
+        Cell cellF = row.getCell(5);
+        if (cellF == null) cellF = row.createCell(5);
+        cellF.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getExemption7())) ? "o" : "");
+
+        // Column G (6): 임시동호
+        Cell cellG = row.getCell(6);
+        if (cellG == null) cellG = row.createCell(6);
+        cellG.setCellValue(customer.getTemptype() != null ? customer.getTemptype() : "");
+
+        // Column H (7): 가입차순
+        Cell cellH = row.getCell(7);
+        if (cellH == null) cellH = row.createCell(7);
+        cellH.setCellValue(customer.getBatch() != null ? customer.getBatch() : "");
+
+        // Column I (8): 신탁사제출
+        Cell cellI = row.getCell(8);
+        if (cellI == null) cellI = row.createCell(8);
+        cellI.setCellValue((customer.getFinancial() != null && customer.getFinancial().getTrustcompanydate() != null)
+                ? customer.getFinancial().getTrustcompanydate().toString() : "");
+
+        // Column J (9): 가입일자
+        Cell cellJ = row.getCell(9);
+        if (cellJ == null) cellJ = row.createCell(9);
+        cellJ.setCellValue(customer.getRegisterdate() != null ? customer.getRegisterdate().toString() : "");
+
+        // Column K (10): 가입가
+        Cell cellK = row.getCell(10);
+        if (cellK == null) cellK = row.createCell(10);
+        cellK.setCellValue(customer.getRegisterprice() != null ? customer.getRegisterprice() : 0);
+
+        // Column L (11): 지산A동계약서
+        Cell cellL = row.getCell(11);
+        if (cellL == null) cellL = row.createCell(11);
+        cellL.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getContract())) ? "1" : "");
+
+        // Column M (12): 동의서
+        Cell cellM = row.getCell(12);
+        if (cellM == null) cellM = row.createCell(12);
+        cellM.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getAgreement())) ? "1" : "");
+
+        // Column N (13): 성명
+        Cell cellN = row.getCell(13);
+        if (cellN == null) cellN = row.createCell(13);
+        cellN.setCellValue((customer.getCustomerData() != null && customer.getCustomerData().getName() != null)
+                ? customer.getCustomerData().getName() : "");
+
+        // Column O (14): 주민번호 (resnumfront-resnumback)
+        Cell cellO = row.getCell(14);
+        if (cellO == null) cellO = row.createCell(14);
+        if (customer.getCustomerData() != null
+                && customer.getCustomerData().getResnumfront() != null
+                && customer.getCustomerData().getResnumback() != null) {
+            cellO.setCellValue(customer.getCustomerData().getResnumfront() + "-" + customer.getCustomerData().getResnumback());
+        } else {
+            cellO.setCellValue("");
+        }
+
+        // Column P (15): 휴대전화
+        Cell cellP = row.getCell(15);
+        if (cellP == null) cellP = row.createCell(15);
+        cellP.setCellValue((customer.getCustomerData() != null && customer.getCustomerData().getPhone() != null)
+                ? customer.getCustomerData().getPhone() : "");
+
+        // Column Q (16): 법정주소 우편번호
+        Cell cellQ2 = row.getCell(16);
+        if (cellQ2 == null) cellQ2 = row.createCell(16);
+        cellQ2.setCellValue((customer.getLegalAddress() != null && customer.getLegalAddress().getPostnumber() != null)
+                ? customer.getLegalAddress().getPostnumber() : "");
+
+        // ── 법정주소 도/군 분리 ──
+        String legalPostFull = (customer.getLegalAddress() != null && customer.getLegalAddress().getPost() != null)
+                ? customer.getLegalAddress().getPost() : "";
+        String[] legalParts = legalPostFull.split("\\s+");
+        String legalDo = legalParts.length >= 1 ? legalParts[0] : "";
+        String legalGun = legalParts.length >= 2 ? legalParts[1] : "";
+        // Column R (17): 법정주소 - 도
+        Cell cellR = row.getCell(17);
+        if (cellR == null) cellR = row.createCell(17);
+        cellR.setCellValue(legalDo);
+        // Column S (18): 법정주소 - 군
+        Cell cellS = row.getCell(18);
+        if (cellS == null) cellS = row.createCell(18);
+        cellS.setCellValue(legalGun);
+
+        // Column T (19): 법정주소 상세주소
+        Cell cellT = row.getCell(19);
+        if (cellT == null) cellT = row.createCell(19);
+        cellT.setCellValue((customer.getLegalAddress() != null && customer.getLegalAddress().getDetailaddress() != null)
+                ? customer.getLegalAddress().getDetailaddress() : "");
+
+        // Column U (20): 금융기관 은행명
+        Cell cellU = row.getCell(20);
+        if (cellU == null) cellU = row.createCell(20);
+        cellU.setCellValue((customer.getFinancial() != null && customer.getFinancial().getBankname() != null)
+                ? customer.getFinancial().getBankname() : "");
+
+        // Column V (21): 금융기관 계좌번호
+        Cell cellV = row.getCell(21);
+        if (cellV == null) cellV = row.createCell(21);
+        cellV.setCellValue((customer.getFinancial() != null && customer.getFinancial().getAccountnum() != null)
+                ? customer.getFinancial().getAccountnum() : "");
+
+        // Column W (22): 금융기관 예금주
+        Cell cellW = row.getCell(22);
+        if (cellW == null) cellW = row.createCell(22);
+        cellW.setCellValue((customer.getFinancial() != null && customer.getFinancial().getAccountholder() != null)
+                ? customer.getFinancial().getAccountholder() : "");
+
+        // Column X (23): 금융기관 신탁사
+        Cell cellX = row.getCell(23);
+        if (cellX == null) cellX = row.createCell(23);
+        cellX.setCellValue((customer.getFinancial() != null && customer.getFinancial().getTrustcompany() != null)
+                ? customer.getFinancial().getTrustcompany() : "");
+
+        // Column Y (24): 예약금 납입일자
+        Cell cellY = row.getCell(24);
+        if (cellY == null) cellY = row.createCell(24);
+        cellY.setCellValue((customer.getDeposits() != null && customer.getDeposits().getDepositdate() != null)
+                ? customer.getDeposits().getDepositdate().toString() : "");
+
+        // Column Z (25): 예약금 금액
+        Cell cellZ = row.getCell(25);
+        if (cellZ == null) cellZ = row.createCell(25);
+        cellZ.setCellValue((customer.getDeposits() != null && customer.getDeposits().getDepositammount() != null)
+                ? customer.getDeposits().getDepositammount() : 0);
+
+        // ── Phase 데이터 ──
+        // Phase 1 (인덱스 0)
+        // Column AA (26): 1차 완납일자
+        Cell cellAA = row.getCell(26);
+        if (cellAA == null) cellAA = row.createCell(26);
+        cellAA.setCellValue((customer.getPhases() != null && customer.getPhases().size() > 0
+                && customer.getPhases().get(0).getFullpaiddate() != null)
+                ? customer.getPhases().get(0).getFullpaiddate().toString() : "");
+        // Column AB (27): 1차 부담금
+        Cell cellAB = row.getCell(27);
+        if (cellAB == null) cellAB = row.createCell(27);
+        cellAB.setCellValue((customer.getPhases() != null && customer.getPhases().size() > 0
+                && customer.getPhases().get(0).getCharge() != null)
+                ? customer.getPhases().get(0).getCharge() : 0);
+        // Column AC (28): 1차 업무대행비
+        Cell cellAC = row.getCell(28);
+        if (cellAC == null) cellAC = row.createCell(28);
+        cellAC.setCellValue((customer.getPhases() != null && customer.getPhases().size() > 0
+                && customer.getPhases().get(0).getService() != null)
+                ? customer.getPhases().get(0).getService() : 0);
+        // Column AD (29): 1차 이동
+        Cell cellAD = row.getCell(29);
+        if (cellAD == null) cellAD = row.createCell(29);
+        cellAD.setCellValue((customer.getPhases() != null && customer.getPhases().size() > 0
+                && customer.getPhases().get(0).getMove() != null)
+                ? customer.getPhases().get(0).getMove() : "");
+        // Column AE (30): 1차 합
+        Cell cellAE = row.getCell(30);
+        if (cellAE == null) cellAE = row.createCell(30);
+        cellAE.setCellValue((customer.getPhases() != null && customer.getPhases().size() > 0
+                && customer.getPhases().get(0).getFeesum() != null)
+                ? customer.getPhases().get(0).getFeesum() : 0);
+
+        // Phase 2 (인덱스 1) – 예정일자 조건 처리
+        // Column AF (31): 2차 예정일자
+        Cell cellAF = row.getCell(31);
+        if (cellAF == null) cellAF = row.createCell(31);
+        if (customer.getPhases() != null && customer.getPhases().size() > 1) {
+            Phase phase2 = customer.getPhases().get(1);
+            if (phase2.getPlanneddate() != null && !phase2.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
+                cellAF.setCellValue(phase2.getPlanneddate().toString());
+            } else {
+                cellAF.setCellValue(phase2.getPlanneddateString() != null ? phase2.getPlanneddateString() : "");
+            }
+        } else {
+            cellAF.setCellValue("");
+        }
+        // Column AG (32): 2차 완납일자
+        Cell cellAG = row.getCell(32);
+        if (cellAG == null) cellAG = row.createCell(32);
+        if (customer.getPhases() != null && customer.getPhases().size() > 1) {
+            Phase phase2 = customer.getPhases().get(1);
+            cellAG.setCellValue(phase2.getFullpaiddate() != null ? phase2.getFullpaiddate().toString() : "");
+        } else {
+            cellAG.setCellValue("");
+        }
+        // Column AH (33): 2차 부담금
+        Cell cellAH = row.getCell(33);
+        if (cellAH == null) cellAH = row.createCell(33);
+        if (customer.getPhases() != null && customer.getPhases().size() > 1) {
+            Phase phase2 = customer.getPhases().get(1);
+            cellAH.setCellValue(phase2.getCharge() != null ? phase2.getCharge() : 0);
+        } else {
+            cellAH.setCellValue(0);
+        }
+        // Column AI (34): 2차 할인액
+        Cell cellAI = row.getCell(34);
+        if (cellAI == null) cellAI = row.createCell(34);
+        if (customer.getPhases() != null && customer.getPhases().size() > 1) {
+            Phase phase2 = customer.getPhases().get(1);
+            cellAI.setCellValue(phase2.getDiscount() != null ? Math.abs(phase2.getDiscount()) : 0);
+        } else {
+            cellAI.setCellValue(0);
+        }
+        // Column AJ (35): 2차 업무대행비
+        Cell cellAJ = row.getCell(35);
+        if (cellAJ == null) cellAJ = row.createCell(35);
+        if (customer.getPhases() != null && customer.getPhases().size() > 1) {
+            Phase phase2 = customer.getPhases().get(1);
+            cellAJ.setCellValue(phase2.getService() != null ? phase2.getService() : 0);
+        } else {
+            cellAJ.setCellValue(0);
+        }
+        // Column AK (36): 2차 이동
+        Cell cellAK = row.getCell(36);
+        if (cellAK == null) cellAK = row.createCell(36);
+        if (customer.getPhases() != null && customer.getPhases().size() > 1) {
+            Phase phase2 = customer.getPhases().get(1);
+            cellAK.setCellValue(phase2.getMove() != null ? phase2.getMove() : "");
+        } else {
+            cellAK.setCellValue("");
+        }
+        // Column AL (37): 2차 합
+        Cell cellAL = row.getCell(37);
+        if (cellAL == null) cellAL = row.createCell(37);
+        if (customer.getPhases() != null && customer.getPhases().size() > 1) {
+            Phase phase2 = customer.getPhases().get(1);
+            cellAL.setCellValue(phase2.getFeesum() != null ? phase2.getFeesum() : 0);
+        } else {
+            cellAL.setCellValue(0);
+        }
 
-                // Column DV (125): 다힘 합계
-                Cell cellDV = row.getCell(125);
-                if (cellDV == null) cellDV = row.createCell(125);
-                cellDV.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimsum() != null)
-                        ? customer.getDahim().getDahimsum() : "");
+        // Phase 3 (인덱스 2) – 예정일자 조건 처리
+        // Column AM (38): 3차 예정일자
+        Cell cellAM = row.getCell(38);
+        if (cellAM == null) cellAM = row.createCell(38);
+        if (customer.getPhases() != null && customer.getPhases().size() > 2) {
+            Phase phase3 = customer.getPhases().get(2);
+            if (phase3.getPlanneddate() != null && !phase3.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
+                cellAM.setCellValue(phase3.getPlanneddate().toString());
+            } else {
+                cellAM.setCellValue(phase3.getPlanneddateString() != null ? phase3.getPlanneddateString() : "");
+            }
+        } else {
+            cellAM.setCellValue("");
+        }
+        // Column AN (39): 3차 완납일자
+        Cell cellAN = row.getCell(39);
+        if (cellAN == null) cellAN = row.createCell(39);
+        if (customer.getPhases() != null && customer.getPhases().size() > 2) {
+            Phase phase3 = customer.getPhases().get(2);
+            cellAN.setCellValue(phase3.getFullpaiddate() != null ? phase3.getFullpaiddate().toString() : "");
+        } else {
+            cellAN.setCellValue("");
+        }
+        // Column AO (40): 3차 부담금
+        Cell cellAO = row.getCell(40);
+        if (cellAO == null) cellAO = row.createCell(40);
+        if (customer.getPhases() != null && customer.getPhases().size() > 2) {
+            Phase phase3 = customer.getPhases().get(2);
+            cellAO.setCellValue(phase3.getCharge() != null ? phase3.getCharge() : 0);
+        } else {
+            cellAO.setCellValue(0);
+        }
+        // Column AP (41): 3차 할인액
+        Cell cellAP = row.getCell(41);
+        if (cellAP == null) cellAP = row.createCell(41);
+        if (customer.getPhases() != null && customer.getPhases().size() > 2) {
+            Phase phase3 = customer.getPhases().get(2);
+            cellAP.setCellValue(phase3.getDiscount() != null ? Math.abs(phase3.getDiscount()) : 0);
+        } else {
+            cellAP.setCellValue(0);
+        }
+        // Column AQ (42): 3차 업무대행비
+        Cell cellAQ = row.getCell(42);
+        if (cellAQ == null) cellAQ = row.createCell(42);
+        if (customer.getPhases() != null && customer.getPhases().size() > 2) {
+            Phase phase3 = customer.getPhases().get(2);
+            cellAQ.setCellValue(phase3.getService() != null ? phase3.getService() : 0);
+        } else {
+            cellAQ.setCellValue(0);
+        }
+        // Column AR (43): 3차 이동
+        Cell cellAR = row.getCell(43);
+        if (cellAR == null) cellAR = row.createCell(43);
+        if (customer.getPhases() != null && customer.getPhases().size() > 2) {
+            Phase phase3 = customer.getPhases().get(2);
+            cellAR.setCellValue(phase3.getMove() != null ? phase3.getMove() : "");
+        } else {
+            cellAR.setCellValue("");
+        }
+        // Column AS (44): 3차 합
+        Cell cellAS = row.getCell(44);
+        if (cellAS == null) cellAS = row.createCell(44);
+        if (customer.getPhases() != null && customer.getPhases().size() > 2) {
+            Phase phase3 = customer.getPhases().get(2);
+            cellAS.setCellValue(phase3.getFeesum() != null ? phase3.getFeesum() : 0);
+        } else {
+            cellAS.setCellValue(0);
+        }
 
-                // Column DW (126): MGM 수수료 (문자 그대로)
-                Cell cellDW = row.getCell(126);
-                if (cellDW == null) {
-                    cellDW = row.createCell(126);
-                }
-                String mgmfeeStr = (customer.getMgm() != null && customer.getMgm().getMgmfee() != null)
-                        ? customer.getMgm().getMgmfee() : "";
-                cellDW.setCellValue(mgmfeeStr);
-
-                // Column DX (127): MGM 업체명
-                Cell cellDX = row.getCell(127);
-                if (cellDX == null) cellDX = row.createCell(127);
-                cellDX.setCellValue((customer.getMgm() != null && customer.getMgm().getMgmcompanyname() != null)
-                        ? customer.getMgm().getMgmcompanyname() : "");
-
-                // Column DY (128): MGM 이름
-                Cell cellDY = row.getCell(128);
-                if (cellDY == null) cellDY = row.createCell(128);
-                cellDY.setCellValue((customer.getMgm() != null && customer.getMgm().getMgmname() != null)
-                        ? customer.getMgm().getMgmname() : "");
-
-                // Column DZ (129): MGM 기관
-                Cell cellDZ = row.getCell(129);
-                if (cellDZ == null) cellDZ = row.createCell(129);
-                cellDZ.setCellValue((customer.getMgm() != null && customer.getMgm().getMgminstitution() != null)
-                        ? customer.getMgm().getMgminstitution() : "");
-
-                // Column EA (130): MGM 계좌
-                Cell cellEA = row.getCell(130);
-                if (cellEA == null) cellEA = row.createCell(130);
-                cellEA.setCellValue((customer.getMgm() != null && customer.getMgm().getMgmaccount() != null)
-                        ? customer.getMgm().getMgmaccount() : "");
-
-                // Column EB (131): 1차(직원) 차순
-                Cell cellEB = row.getCell(131);
-                if (cellEB == null) cellEB = row.createCell(131);
-                cellEB.setCellValue((customer.getFirstemp() != null && customer.getFirstemp().getFirstemptimes() != null)
-                        ? customer.getFirstemp().getFirstemptimes() : "");
-
-                // Column EC (132): 1차 지급일자
-                Cell cellEC = row.getCell(132);
-                if (cellEC == null) cellEC = row.createCell(132);
-                cellEC.setCellValue((customer.getFirstemp() != null && customer.getFirstemp().getFirstempdate() != null)
-                        ? customer.getFirstemp().getFirstempdate().toString() : "");
-
-                // Column ED (133): 2차(직원) 차순
-                Cell cellED = row.getCell(133);
-                if (cellED == null) cellED = row.createCell(133);
-                cellED.setCellValue((customer.getSecondemp() != null && customer.getSecondemp().getSecondemptimes() != null)
-                        ? customer.getSecondemp().getSecondemptimes() : "");
-
-                // Column EE (134): 2차 지급일자
-                Cell cellEE = row.getCell(134);
-                if (cellEE == null) cellEE = row.createCell(134);
-                cellEE.setCellValue((customer.getSecondemp() != null && customer.getSecondemp().getSecondempdate() != null)
-                        ? customer.getSecondemp().getSecondempdate().toString() : "");
-
-                // Column EF (135): 부속서류 인감증명서
-                Cell cellEF = row.getCell(135);
-                if (cellEF == null) cellEF = row.createCell(135);
-                cellEF.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getSealcertificateprovided())) ? "o" : "");
-
-                // Column EG (136): 부속서류 본인서명확인서
-                Cell cellEG = row.getCell(136);
-                if (cellEG == null) cellEG = row.createCell(136);
-                cellEG.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getSelfsignatureconfirmationprovided())) ? "o" : "");
-
-                // Column EH (137): 부속서류 신분증
-                Cell cellEH = row.getCell(137);
-                if (cellEH == null) cellEH = row.createCell(137);
-                cellEH.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getIdcopyprovided())) ? "o" : "");
-
-                // Column EI (138): 부속서류 확약서
-                Cell cellEI = row.getCell(138);
-                if (cellEI == null) cellEI = row.createCell(138);
-                cellEI.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getCommitmentletterprovided())) ? "o" : "");
-
-                // Column EJ (139): 부속서류 창준위용
-                Cell cellEJ = row.getCell(139);
-                if (cellEJ == null) cellEJ = row.createCell(139);
-                cellEJ.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getForfounding())) ? "o" : "");
-
-                // Column EK (140): 부속서류 무상옵션
-                Cell cellEK = row.getCell(140);
-                if (cellEK == null) cellEK = row.createCell(140);
-                cellEK.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getFreeoption())) ? "o" : "");
-
-                // Column EL (141): 부속서류 선호도조사
-                Cell cellEL = row.getCell(141);
-                if (cellEL == null) cellEL = row.createCell(141);
-                cellEL.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getPreferenceattachment())) ? "o" : "");
-
-                // Column EM (142): 부속서류 총회동의서
-                Cell cellEM = row.getCell(142);
-                if (cellEM == null) cellEM = row.createCell(142);
-                cellEM.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getPrizeattachment())) ? "o" : "");
-
-                // Column EN (143): 부속서류 사은품 지급일자
-                Cell cellEN = row.getCell(143);
-                if (cellEN == null) cellEN = row.createCell(143);
-                cellEN.setCellValue((customer.getAttachments() != null
-                        && customer.getAttachments().getPrizedate() != null)
-                        ? customer.getAttachments().getPrizedate().toString() : "");
-
-                // Column EO (144): 이메일
-                Cell cellEO = row.getCell(144);
-                if (cellEO == null) cellEO = row.createCell(144);
-                cellEO.setCellValue((customer.getCustomerData() != null
-                        && customer.getCustomerData().getEmail() != null)
-                        ? customer.getCustomerData().getEmail() : "");
-
-                // Column EP (145): 우편물수령주소 우편번호 (이미 처리됨)
-
-                // Column EQ (146) & ER (147) – 우편물수령주소 도/군는 이미 분리하여 처리함
-                // Column ES (148): 우편물수령주소 상세주소
-                Cell cellES = row.getCell(148);
-                if (cellES == null) cellES = row.createCell(148);
-                cellES.setCellValue((customer.getPostreceive() != null
-                        && customer.getPostreceive().getDetailaddressreceive() != null)
-                        ? customer.getPostreceive().getDetailaddressreceive() : "");
-
-                // Column ET (149): 비고
-                Cell cellET = row.getCell(149);
-                if (cellET == null) cellET = row.createCell(149);
-                cellET.setCellValue(customer.getAdditional() != null ? customer.getAdditional() : "");
-
-                // Column EU (150): 가입경로
-                Cell cellEU = row.getCell(150);
-                if (cellEU == null) cellEU = row.createCell(150);
-                cellEU.setCellValue(customer.getRegisterpath() != null ? customer.getRegisterpath() : "");
-
-                // Column EV (151): 총회참석 서면
-                Cell cellEV = row.getCell(151);
-                if (cellEV == null) cellEV = row.createCell(151);
-                cellEV.setCellValue((customer.getMeetingattend() != null
-                        && customer.getMeetingattend().getFtofattend() != null)
-                        ? customer.getMeetingattend().getFtofattend() : "");
-
-                // Column EW (152): 총회참석 직접
-                Cell cellEW = row.getCell(152);
-                if (cellEW == null) cellEW = row.createCell(152);
-                cellEW.setCellValue((customer.getMeetingattend() != null
-                        && customer.getMeetingattend().getSelfattend() != null)
-                        ? customer.getMeetingattend().getSelfattend() : "");
-
-                // Column EX (153): 총회참석 대리
-                Cell cellEX = row.getCell(153);
-                if (cellEX == null) cellEX = row.createCell(153);
-                cellEX.setCellValue((customer.getMeetingattend() != null
-                        && customer.getMeetingattend().getBehalfattend() != null)
-                        ? customer.getMeetingattend().getBehalfattend() : "");
-
-                // Column EY (154): 특이사항
-                Cell cellEY = row.getCell(154);
-                if (cellEY == null) cellEY = row.createCell(154);
-                cellEY.setCellValue(customer.getSpecialnote() != null ? customer.getSpecialnote() : "");
-
-                // Column EZ (155): 투표기기
-                Cell cellEZ = row.getCell(155);
-                if (cellEZ == null) cellEZ = row.createCell(155);
-                cellEZ.setCellValue(customer.getVotemachine() != null ? customer.getVotemachine() : "");
-
-                // Column FA (156): 안건 제1호
-                Cell cellFA = row.getCell(156);
-                if (cellFA == null) cellFA = row.createCell(156);
-                cellFA.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda1() != null)
-                        ? customer.getAgenda().getAgenda1() : "");
-
-                // Column FB (157): 안건 제2-1호
-                Cell cellFB = row.getCell(157);
-                if (cellFB == null) cellFB = row.createCell(157);
-                cellFB.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda2_1() != null)
-                        ? customer.getAgenda().getAgenda2_1() : "");
-
-                // Column FC (158): 안건 제2-2호
-                Cell cellFC = row.getCell(158);
-                if (cellFC == null) cellFC = row.createCell(158);
-                cellFC.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda2_2() != null)
-                        ? customer.getAgenda().getAgenda2_2() : "");
-
-                // Column FD (159): 안건 제2-3호
-                Cell cellFD = row.getCell(159);
-                if (cellFD == null) cellFD = row.createCell(159);
-                cellFD.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda2_3() != null)
-                        ? customer.getAgenda().getAgenda2_3() : "");
-
-                // Column FE (160): 안건 제2-4호
-                Cell cellFE = row.getCell(160);
-                if (cellFE == null) cellFE = row.createCell(160);
-                cellFE.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda2_4() != null)
-                        ? customer.getAgenda().getAgenda2_4() : "");
-
-                // Column FF (161): 안건 제3호
-                Cell cellFF = row.getCell(161);
-                if (cellFF == null) cellFF = row.createCell(161);
-                cellFF.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda3() != null)
-                        ? customer.getAgenda().getAgenda3() : "");
-
-                // Column FG (162): 안건 제4호
-                Cell cellFG = row.getCell(162);
-                if (cellFG == null) cellFG = row.createCell(162);
-                cellFG.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda4() != null)
-                        ? customer.getAgenda().getAgenda4() : "");
-
-                // Column FH (163): 안건 제5호
-                Cell cellFH = row.getCell(163);
-                if (cellFH == null) cellFH = row.createCell(163);
-                cellFH.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda5() != null)
-                        ? customer.getAgenda().getAgenda5() : "");
-
-                // Column FI (164): 안건 제6호
-                Cell cellFI = row.getCell(164);
-                if (cellFI == null) cellFI = row.createCell(164);
-                cellFI.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda6() != null)
-                        ? customer.getAgenda().getAgenda6() : "");
-
-                // Column FJ (165): 안건 제7호
-                Cell cellFJ = row.getCell(165);
-                if (cellFJ == null) cellFJ = row.createCell(165);
-                cellFJ.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda7() != null)
-                        ? customer.getAgenda().getAgenda7() : "");
-
-                // Column FK (166): 안건 제8호
-                Cell cellFK = row.getCell(166);
-                if (cellFK == null) cellFK = row.createCell(166);
-                cellFK.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda8() != null)
-                        ? customer.getAgenda().getAgenda8() : "");
-
-                // Column FL (167): 안건 제9호
-                Cell cellFL = row.getCell(167);
-                if (cellFL == null) cellFL = row.createCell(167);
-                cellFL.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda9() != null)
-                        ? customer.getAgenda().getAgenda9() : "");
-
-                // Column FM (168): 안건 제10호
-                Cell cellFM = row.getCell(168);
-                if (cellFM == null) cellFM = row.createCell(168);
-                cellFM.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda10() != null)
-                        ? customer.getAgenda().getAgenda10() : "");
-
-                // Column FN (169): 부속서류 사은품명
-                Cell cellFN = row.getCell(169);
-                if (cellFN == null) cellFN = row.createCell(169);
-                cellFN.setCellValue((customer.getAttachments() != null && customer.getAttachments().getPrizename() != null)
-                        ? customer.getAttachments().getPrizename() : "");
-
-                // Column FO (170): 부속서류 출자금 (flag "o")
-                Cell cellFO = row.getCell(170);
-                if (cellFO == null) cellFO = row.createCell(170);
-                cellFO.setCellValue((customer.getAttachments() != null
-                        && Boolean.TRUE.equals(customer.getAttachments().getInvestmentfile())) ? "o" : "");
-                //엑셀에 고객정보 기입끝 : code spread complete
+        // Phase 4 (인덱스 3) – 예정일자 조건 처리
+        // Column AT (45): 4차 예정일자
+        Cell cellAT = row.getCell(45);
+        if (cellAT == null) cellAT = row.createCell(45);
+        if (customer.getPhases() != null && customer.getPhases().size() > 3) {
+            Phase phase4 = customer.getPhases().get(3);
+            if (phase4.getPlanneddate() != null && !phase4.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
+                cellAT.setCellValue(phase4.getPlanneddate().toString());
+            } else {
+                cellAT.setCellValue(phase4.getPlanneddateString() != null ? phase4.getPlanneddateString() : "");
+            }
+        } else {
+            cellAT.setCellValue("");
+        }
+        // Column AU (46): 4차 완납일자
+        Cell cellAU = row.getCell(46);
+        if (cellAU == null) cellAU = row.createCell(46);
+        if (customer.getPhases() != null && customer.getPhases().size() > 3) {
+            Phase phase4 = customer.getPhases().get(3);
+            cellAU.setCellValue(phase4.getFullpaiddate() != null ? phase4.getFullpaiddate().toString() : "");
+        } else {
+            cellAU.setCellValue("");
+        }
+        // Column AV (47): 4차 부담금
+        Cell cellAV = row.getCell(47);
+        if (cellAV == null) cellAV = row.createCell(47);
+        if (customer.getPhases() != null && customer.getPhases().size() > 3) {
+            Phase phase4 = customer.getPhases().get(3);
+            cellAV.setCellValue(phase4.getCharge() != null ? phase4.getCharge() : 0);
+        } else {
+            cellAV.setCellValue(0);
+        }
+        // Column AW (48): 4차 할인액
+        Cell cellAW = row.getCell(48);
+        if (cellAW == null) cellAW = row.createCell(48);
+        if (customer.getPhases() != null && customer.getPhases().size() > 3) {
+            Phase phase4 = customer.getPhases().get(3);
+            cellAW.setCellValue(phase4.getDiscount() != null ? Math.abs(phase4.getDiscount()) : 0);
+        } else {
+            cellAW.setCellValue(0);
+        }
+        // Column AX (49): 4차 업무대행비
+        Cell cellAX = row.getCell(49);
+        if (cellAX == null) cellAX = row.createCell(49);
+        if (customer.getPhases() != null && customer.getPhases().size() > 3) {
+            Phase phase4 = customer.getPhases().get(3);
+            cellAX.setCellValue(phase4.getService() != null ? phase4.getService() : 0);
+        } else {
+            cellAX.setCellValue(0);
+        }
+        // Column AY (50): 4차 이동
+        Cell cellAY = row.getCell(50);
+        if (cellAY == null) cellAY = row.createCell(50);
+        if (customer.getPhases() != null && customer.getPhases().size() > 3) {
+            Phase phase4 = customer.getPhases().get(3);
+            cellAY.setCellValue(phase4.getMove() != null ? phase4.getMove() : "");
+        } else {
+            cellAY.setCellValue("");
+        }
+        // Column AZ (51): 4차 합
+        Cell cellAZ = row.getCell(51);
+        if (cellAZ == null) cellAZ = row.createCell(51);
+        if (customer.getPhases() != null && customer.getPhases().size() > 3) {
+            Phase phase4 = customer.getPhases().get(3);
+            cellAZ.setCellValue(phase4.getFeesum() != null ? phase4.getFeesum() : 0);
+        } else {
+            cellAZ.setCellValue(0);
+        }
 
-                rowIndex++;
+        // Phase 5 (인덱스 4) – 예정일자 조건 처리
+        // Column BA (52): 5차 예정일자
+        Cell cellBA = row.getCell(52);
+        if (cellBA == null) cellBA = row.createCell(52);
+        if (customer.getPhases() != null && customer.getPhases().size() > 4) {
+            Phase phase5 = customer.getPhases().get(4);
+            if (phase5.getPlanneddate() != null && !phase5.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
+                cellBA.setCellValue(phase5.getPlanneddate().toString());
+            } else {
+                cellBA.setCellValue(phase5.getPlanneddateString() != null ? phase5.getPlanneddateString() : "");
+            }
+        } else {
+            cellBA.setCellValue("");
+        }
+        // Column BB (53): 5차 완납일자
+        Cell cellBB = row.getCell(53);
+        if (cellBB == null) cellBB = row.createCell(53);
+        if (customer.getPhases() != null && customer.getPhases().size() > 4) {
+            Phase phase5 = customer.getPhases().get(4);
+            cellBB.setCellValue(phase5.getFullpaiddate() != null ? phase5.getFullpaiddate().toString() : "");
+        } else {
+            cellBB.setCellValue("");
+        }
+        // Column BC (54): 5차 부담금
+        Cell cellBC = row.getCell(54);
+        if (cellBC == null) cellBC = row.createCell(54);
+        if (customer.getPhases() != null && customer.getPhases().size() > 4) {
+            Phase phase5 = customer.getPhases().get(4);
+            cellBC.setCellValue(phase5.getCharge() != null ? phase5.getCharge() : 0);
+        } else {
+            cellBC.setCellValue(0);
+        }
+        // Column BD (55): 5차 할인액
+        Cell cellBD = row.getCell(55);
+        if (cellBD == null) cellBD = row.createCell(55);
+        if (customer.getPhases() != null && customer.getPhases().size() > 4) {
+            Phase phase5 = customer.getPhases().get(4);
+            cellBD.setCellValue(phase5.getDiscount() != null ? Math.abs(phase5.getDiscount()) : 0);
+        } else {
+            cellBD.setCellValue(0);
+        }
+        // Column BE (56): 5차 면제금액
+        Cell cellBE = row.getCell(56);
+        if (cellBE == null) cellBE = row.createCell(56);
+        if (customer.getPhases() != null && customer.getPhases().size() > 4) {
+            Phase phase5 = customer.getPhases().get(4);
+            cellBE.setCellValue(phase5.getExemption() != null ? Math.abs(phase5.getExemption()) : 0);
+        } else {
+            cellBE.setCellValue(0);
+        }
+        // Column BF (57): 5차 업무대행비
+        Cell cellBF = row.getCell(57);
+        if (cellBF == null) cellBF = row.createCell(57);
+        if (customer.getPhases() != null && customer.getPhases().size() > 4) {
+            Phase phase5 = customer.getPhases().get(4);
+            cellBF.setCellValue(phase5.getService() != null ? phase5.getService() : 0);
+        } else {
+            cellBF.setCellValue(0);
+        }
+        // Column BG (58): 5차 이동
+        Cell cellBG = row.getCell(58);
+        if (cellBG == null) cellBG = row.createCell(58);
+        if (customer.getPhases() != null && customer.getPhases().size() > 4) {
+            Phase phase5 = customer.getPhases().get(4);
+            cellBG.setCellValue(phase5.getMove() != null ? phase5.getMove() : "");
+        } else {
+            cellBG.setCellValue("");
+        }
+        // Column BH (59): 5차 합
+        Cell cellBH = row.getCell(59);
+        if (cellBH == null) cellBH = row.createCell(59);
+        if (customer.getPhases() != null && customer.getPhases().size() > 4) {
+            Phase phase5 = customer.getPhases().get(4);
+            cellBH.setCellValue(phase5.getFeesum() != null ? phase5.getFeesum() : 0);
+        } else {
+            cellBH.setCellValue(0);
+        }
 
-                // 진행 상황 업데이트 (예: "현재 처리된 고객번호 / 전체 고객 수")
-                try {
-                    emitter.send(SseEmitter.event().name("progress").data((i + 1) + "/" + total));
-                } catch (Exception ex) {
-                    // 진행 상황 전송 실패시 무시
-                }
+        // Phase 6 (인덱스 5) – 예정일자 조건 처리
+        // Column BI (60): 6차 예정일자
+        Cell cellBI = row.getCell(60);
+        if (cellBI == null) cellBI = row.createCell(60);
+        if (customer.getPhases() != null && customer.getPhases().size() > 5) {
+            Phase phase6 = customer.getPhases().get(5);
+            if (phase6.getPlanneddate() != null && !phase6.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
+                cellBI.setCellValue(phase6.getPlanneddate().toString());
+            } else {
+                cellBI.setCellValue(phase6.getPlanneddateString() != null ? phase6.getPlanneddateString() : "");
+            }
+        } else {
+            cellBI.setCellValue("");
+        }
+        // Column BJ (61): 6차 완납일자
+        Cell cellBJ = row.getCell(61);
+        if (cellBJ == null) cellBJ = row.createCell(61);
+        if (customer.getPhases() != null && customer.getPhases().size() > 5) {
+            Phase phase6 = customer.getPhases().get(5);
+            cellBJ.setCellValue(phase6.getFullpaiddate() != null ? phase6.getFullpaiddate().toString() : "");
+        } else {
+            cellBJ.setCellValue("");
+        }
+        // Column BK (62): 6차 부담금
+        Cell cellBK = row.getCell(62);
+        if (cellBK == null) cellBK = row.createCell(62);
+        if (customer.getPhases() != null && customer.getPhases().size() > 5) {
+            Phase phase6 = customer.getPhases().get(5);
+            cellBK.setCellValue(phase6.getCharge() != null ? phase6.getCharge() : 0);
+        } else {
+            cellBK.setCellValue(0);
+        }
+        // Column BL (63): 6차 할인액
+        Cell cellBL = row.getCell(63);
+        if (cellBL == null) cellBL = row.createCell(63);
+        if (customer.getPhases() != null && customer.getPhases().size() > 5) {
+            Phase phase6 = customer.getPhases().get(5);
+            cellBL.setCellValue(phase6.getDiscount() != null ? Math.abs(phase6.getDiscount()) : 0);
+        } else {
+            cellBL.setCellValue(0);
+        }
+        // Column BM (64): 6차 면제금액
+        Cell cellBM = row.getCell(64);
+        if (cellBM == null) cellBM = row.createCell(64);
+        if (customer.getPhases() != null && customer.getPhases().size() > 5) {
+            Phase phase6 = customer.getPhases().get(5);
+            cellBM.setCellValue(phase6.getExemption() != null ? Math.abs(phase6.getExemption()) : 0);
+        } else {
+            cellBM.setCellValue(0);
+        }
+        // Column BN (65): 6차 업무대행비
+        Cell cellBN = row.getCell(65);
+        if (cellBN == null) cellBN = row.createCell(65);
+        if (customer.getPhases() != null && customer.getPhases().size() > 5) {
+            Phase phase6 = customer.getPhases().get(5);
+            cellBN.setCellValue(phase6.getService() != null ? phase6.getService() : 0);
+        } else {
+            cellBN.setCellValue(0);
+        }
+        // Column BO (66): 6차 이동
+        Cell cellBO = row.getCell(66);
+        if (cellBO == null) cellBO = row.createCell(66);
+        if (customer.getPhases() != null && customer.getPhases().size() > 5) {
+            Phase phase6 = customer.getPhases().get(5);
+            cellBO.setCellValue(phase6.getMove() != null ? phase6.getMove() : "");
+        } else {
+            cellBO.setCellValue("");
+        }
+        // Column BP (67): 6차 합
+        Cell cellBP = row.getCell(67);
+        if (cellBP == null) cellBP = row.createCell(67);
+        if (customer.getPhases() != null && customer.getPhases().size() > 5) {
+            Phase phase6 = customer.getPhases().get(5);
+            cellBP.setCellValue(phase6.getFeesum() != null ? phase6.getFeesum() : 0);
+        } else {
+            cellBP.setCellValue(0);
+        }
+
+        // Phase 7 (인덱스 6) – 예정일자 조건 처리
+        // Column BQ (68): 7차 예정일자
+        Cell cellBQ = row.getCell(68);
+        if (cellBQ == null) cellBQ = row.createCell(68);
+        if (customer.getPhases() != null && customer.getPhases().size() > 6) {
+            Phase phase7 = customer.getPhases().get(6);
+            if (phase7.getPlanneddate() != null && !phase7.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
+                cellBQ.setCellValue(phase7.getPlanneddate().toString());
+            } else {
+                cellBQ.setCellValue(phase7.getPlanneddateString() != null ? phase7.getPlanneddateString() : "");
             }
+        } else {
+            cellBQ.setCellValue("");
+        }
+        // Column BR (69): 7차 완납일자
+        Cell cellBR = row.getCell(69);
+        if (cellBR == null) cellBR = row.createCell(69);
+        if (customer.getPhases() != null && customer.getPhases().size() > 6) {
+            Phase phase7 = customer.getPhases().get(6);
+            cellBR.setCellValue(phase7.getFullpaiddate() != null ? phase7.getFullpaiddate().toString() : "");
+        } else {
+            cellBR.setCellValue("");
+        }
+        // Column BS (70): 7차 부담금
+        Cell cellBS = row.getCell(70);
+        if (cellBS == null) cellBS = row.createCell(70);
+        if (customer.getPhases() != null && customer.getPhases().size() > 6) {
+            Phase phase7 = customer.getPhases().get(6);
+            cellBS.setCellValue(phase7.getCharge() != null ? phase7.getCharge() : 0);
+        } else {
+            cellBS.setCellValue(0);
+        }
+        // Column BT (71): 7차 할인액
+        Cell cellBT = row.getCell(71);
+        if (cellBT == null) cellBT = row.createCell(71);
+        if (customer.getPhases() != null && customer.getPhases().size() > 6) {
+            Phase phase7 = customer.getPhases().get(6);
+            cellBT.setCellValue(phase7.getDiscount() != null ? Math.abs(phase7.getDiscount()) : 0);
+        } else {
+            cellBT.setCellValue(0);
+        }
+        // Column BU (72): 7차 면제금액
+        Cell cellBU = row.getCell(72);
+        if (cellBU == null) cellBU = row.createCell(72);
+        if (customer.getPhases() != null && customer.getPhases().size() > 6) {
+            Phase phase7 = customer.getPhases().get(6);
+            cellBU.setCellValue(phase7.getExemption() != null ? Math.abs(phase7.getExemption()) : 0);
+        } else {
+            cellBU.setCellValue(0);
+        }
+        // Column BV (73): 7차 업무대행비
+        Cell cellBV = row.getCell(73);
+        if (cellBV == null) cellBV = row.createCell(73);
+        if (customer.getPhases() != null && customer.getPhases().size() > 6) {
+            Phase phase7 = customer.getPhases().get(6);
+            cellBV.setCellValue(phase7.getService() != null ? phase7.getService() : 0);
+        } else {
+            cellBV.setCellValue(0);
+        }
+        // Column BW (74): 7차 이동
+        Cell cellBW = row.getCell(74);
+        if (cellBW == null) cellBW = row.createCell(74);
+        if (customer.getPhases() != null && customer.getPhases().size() > 6) {
+            Phase phase7 = customer.getPhases().get(6);
+            cellBW.setCellValue(phase7.getMove() != null ? phase7.getMove() : "");
+        } else {
+            cellBW.setCellValue("");
+        }
+        // Column BX (75): 7차 합
+        Cell cellBX = row.getCell(75);
+        if (cellBX == null) cellBX = row.createCell(75);
+        if (customer.getPhases() != null && customer.getPhases().size() > 6) {
+            Phase phase7 = customer.getPhases().get(6);
+            cellBX.setCellValue(phase7.getFeesum() != null ? phase7.getFeesum() : 0);
+        } else {
+            cellBX.setCellValue(0);
+        }
 
-            workbook.setForceFormulaRecalculation(true);
-            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                workbook.write(fos);
+        // Phase 8 (인덱스 7) – 예정일자 조건 처리
+        // Column BY (76): 8차 예정일자
+        Cell cellBY = row.getCell(76);
+        if (cellBY == null) cellBY = row.createCell(76);
+        if (customer.getPhases() != null && customer.getPhases().size() > 7) {
+            Phase phase8 = customer.getPhases().get(7);
+            if (phase8.getPlanneddate() != null && !phase8.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
+                cellBY.setCellValue(phase8.getPlanneddate().toString());
+            } else {
+                cellBY.setCellValue(phase8.getPlanneddateString() != null ? phase8.getPlanneddateString() : "");
             }
+        } else {
+            cellBY.setCellValue("");
+        }
+        // Column BZ (77): 8차 완납일자
+        Cell cellBZ = row.getCell(77);
+        if (cellBZ == null) cellBZ = row.createCell(77);
+        if (customer.getPhases() != null && customer.getPhases().size() > 7) {
+            Phase phase8 = customer.getPhases().get(7);
+            cellBZ.setCellValue(phase8.getFullpaiddate() != null ? phase8.getFullpaiddate().toString() : "");
+        } else {
+            cellBZ.setCellValue("");
+        }
+        // Column CA (78): 8차 부담금
+        Cell cellCA = row.getCell(78);
+        if (cellCA == null) cellCA = row.createCell(78);
+        if (customer.getPhases() != null && customer.getPhases().size() > 7) {
+            Phase phase8 = customer.getPhases().get(7);
+            cellCA.setCellValue(phase8.getCharge() != null ? phase8.getCharge() : 0);
+        } else {
+            cellCA.setCellValue(0);
+        }
+        // Column CB (79): 8차 할인액
+        Cell cellCB = row.getCell(79);
+        if (cellCB == null) cellCB = row.createCell(79);
+        if (customer.getPhases() != null && customer.getPhases().size() > 7) {
+            Phase phase8 = customer.getPhases().get(7);
+            cellCB.setCellValue(phase8.getDiscount() != null ? Math.abs(phase8.getDiscount()) : 0);
+        } else {
+            cellCB.setCellValue(0);
+        }
+        // Column CC (80): 8차 업무대행비
+        Cell cellCC = row.getCell(80);
+        if (cellCC == null) cellCC = row.createCell(80);
+        if (customer.getPhases() != null && customer.getPhases().size() > 7) {
+            Phase phase8 = customer.getPhases().get(7);
+            cellCC.setCellValue(phase8.getService() != null ? phase8.getService() : 0);
+        } else {
+            cellCC.setCellValue(0);
+        }
+        // Column CD (81): 8차 이동
+        Cell cellCD = row.getCell(81);
+        if (cellCD == null) cellCD = row.createCell(81);
+        if (customer.getPhases() != null && customer.getPhases().size() > 7) {
+            Phase phase8 = customer.getPhases().get(7);
+            cellCD.setCellValue(phase8.getMove() != null ? phase8.getMove() : "");
+        } else {
+            cellCD.setCellValue("");
+        }
+        // Column CE (82): 8차 합
+        Cell cellCE = row.getCell(82);
+        if (cellCE == null) cellCE = row.createCell(82);
+        if (customer.getPhases() != null && customer.getPhases().size() > 7) {
+            Phase phase8 = customer.getPhases().get(7);
+            cellCE.setCellValue(phase8.getFeesum() != null ? phase8.getFeesum() : 0);
+        } else {
+            cellCE.setCellValue(0);
+        }
+
+        // Phase 9 (인덱스 8) – 예정일자 조건 처리
+        // Column CF (83): 9차 예정일자
+        Cell cellCF = row.getCell(83);
+        if (cellCF == null) cellCF = row.createCell(83);
+        if (customer.getPhases() != null && customer.getPhases().size() > 8) {
+            Phase phase9 = customer.getPhases().get(8);
+            if (phase9.getPlanneddate() != null && !phase9.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
+                cellCF.setCellValue(phase9.getPlanneddate().toString());
+            } else {
+                cellCF.setCellValue(phase9.getPlanneddateString() != null ? phase9.getPlanneddateString() : "");
+            }
+        } else {
+            cellCF.setCellValue("");
+        }
+        // Column CG (84): 9차 완납일자
+        Cell cellCG = row.getCell(84);
+        if (cellCG == null) cellCG = row.createCell(84);
+        if (customer.getPhases() != null && customer.getPhases().size() > 8) {
+            Phase phase9 = customer.getPhases().get(8);
+            cellCG.setCellValue(phase9.getFullpaiddate() != null ? phase9.getFullpaiddate().toString() : "");
+        } else {
+            cellCG.setCellValue("");
+        }
+        // Column CH (85): 9차 부담금
+        Cell cellCH = row.getCell(85);
+        if (cellCH == null) cellCH = row.createCell(85);
+        if (customer.getPhases() != null && customer.getPhases().size() > 8) {
+            Phase phase9 = customer.getPhases().get(8);
+            cellCH.setCellValue(phase9.getCharge() != null ? phase9.getCharge() : 0);
+        } else {
+            cellCH.setCellValue(0);
+        }
+        // Column CI (86): 9차 할인액
+        Cell cellCI = row.getCell(86);
+        if (cellCI == null) cellCI = row.createCell(86);
+        if (customer.getPhases() != null && customer.getPhases().size() > 8) {
+            Phase phase9 = customer.getPhases().get(8);
+            cellCI.setCellValue(phase9.getDiscount() != null ? Math.abs(phase9.getDiscount()) : 0);
+        } else {
+            cellCI.setCellValue(0);
+        }
+        // Column CJ (87): 9차 업무대행비
+        Cell cellCJ = row.getCell(87);
+        if (cellCJ == null) cellCJ = row.createCell(87);
+        if (customer.getPhases() != null && customer.getPhases().size() > 8) {
+            Phase phase9 = customer.getPhases().get(8);
+            cellCJ.setCellValue(phase9.getService() != null ? phase9.getService() : 0);
+        } else {
+            cellCJ.setCellValue(0);
+        }
+        // Column CK (88): 9차 이동
+        Cell cellCK = row.getCell(88);
+        if (cellCK == null) cellCK = row.createCell(88);
+        if (customer.getPhases() != null && customer.getPhases().size() > 8) {
+            Phase phase9 = customer.getPhases().get(8);
+            cellCK.setCellValue(phase9.getMove() != null ? phase9.getMove() : "");
+        } else {
+            cellCK.setCellValue("");
+        }
+        // Column CL (89): 9차 합
+        Cell cellCL = row.getCell(89);
+        if (cellCL == null) cellCL = row.createCell(89);
+        if (customer.getPhases() != null && customer.getPhases().size() > 8) {
+            Phase phase9 = customer.getPhases().get(8);
+            cellCL.setCellValue(phase9.getFeesum() != null ? phase9.getFeesum() : 0);
+        } else {
+            cellCL.setCellValue(0);
+        }
+
+        // Phase 10 (인덱스 9) – 예정일자 조건 처리
+        // Column CM (90): 10차 예정일자
+        Cell cellCM = row.getCell(90);
+        if (cellCM == null) cellCM = row.createCell(90);
+        if (customer.getPhases() != null && customer.getPhases().size() > 9) {
+            Phase phase10 = customer.getPhases().get(9);
+            if (phase10.getPlanneddate() != null && !phase10.getPlanneddate().equals(LocalDate.of(2100, 1, 1))) {
+                cellCM.setCellValue(phase10.getPlanneddate().toString());
+            } else {
+                cellCM.setCellValue(phase10.getPlanneddateString() != null ? phase10.getPlanneddateString() : "");
+            }
+        } else {
+            cellCM.setCellValue("");
+        }
+        // Column CN (91): 10차 완납일자
+        Cell cellCN = row.getCell(91);
+        if (cellCN == null) cellCN = row.createCell(91);
+        if (customer.getPhases() != null && customer.getPhases().size() > 9) {
+            Phase phase10 = customer.getPhases().get(9);
+            cellCN.setCellValue(phase10.getFullpaiddate() != null ? phase10.getFullpaiddate().toString() : "");
+        } else {
+            cellCN.setCellValue("");
+        }
+        // Column CO (92): 10차 부담금
+        Cell cellCO = row.getCell(92);
+        if (cellCO == null) cellCO = row.createCell(92);
+        if (customer.getPhases() != null && customer.getPhases().size() > 9) {
+            Phase phase10 = customer.getPhases().get(9);
+            cellCO.setCellValue(phase10.getCharge() != null ? phase10.getCharge() : 0);
+        } else {
+            cellCO.setCellValue(0);
+        }
+        // Column CP (93): 10차 할인액
+        Cell cellCP = row.getCell(93);
+        if (cellCP == null) cellCP = row.createCell(93);
+        if (customer.getPhases() != null && customer.getPhases().size() > 9) {
+            Phase phase10 = customer.getPhases().get(9);
+            cellCP.setCellValue(phase10.getDiscount() != null ? Math.abs(phase10.getDiscount()) : 0);
+        } else {
+            cellCP.setCellValue(0);
+        }
+        // Column CQ (94): 10차 업무대행비
+        Cell cellCQ = row.getCell(94);
+        if (cellCQ == null) cellCQ = row.createCell(94);
+        if (customer.getPhases() != null && customer.getPhases().size() > 9) {
+            Phase phase10 = customer.getPhases().get(9);
+            cellCQ.setCellValue(phase10.getService() != null ? phase10.getService() : 0);
+        } else {
+            cellCQ.setCellValue(0);
+        }
+        // Column CR (95): 10차 이동
+        Cell cellCR = row.getCell(95);
+        if (cellCR == null) cellCR = row.createCell(95);
+        if (customer.getPhases() != null && customer.getPhases().size() > 9) {
+            Phase phase10 = customer.getPhases().get(9);
+            cellCR.setCellValue(phase10.getMove() != null ? phase10.getMove() : "");
+        } else {
+            cellCR.setCellValue("");
+        }
+        // Column CS (96): 10차 합
+        Cell cellCS = row.getCell(96);
+        if (cellCS == null) cellCS = row.createCell(96);
+        if (customer.getPhases() != null && customer.getPhases().size() > 9) {
+            Phase phase10 = customer.getPhases().get(9);
+            cellCS.setCellValue(phase10.getFeesum() != null ? phase10.getFeesum() : 0);
+        } else {
+            cellCS.setCellValue(0);
+        }
+
+        // ── 최종 섹션 ──
+        // Column DA (104): 총 면제금액
+        Cell cellDA = row.getCell(104);
+        if (cellDA == null) cellDA = row.createCell(104);
+        cellDA.setCellValue((customer.getStatus() != null && customer.getStatus().getExemptionsum() != null)
+                ? customer.getStatus().getExemptionsum() : 0);
+
+        // Column DB (105): 해약 해지일자
+        Cell cellDB = row.getCell(105);
+        if (cellDB == null) cellDB = row.createCell(105);
+        cellDB.setCellValue((customer.getCancel() != null && customer.getCancel().getCanceldate() != null)
+                ? customer.getCancel().getCanceldate().toString() : "");
+
+        // Column DC (106): 해약 환급일자
+        Cell cellDC = row.getCell(106);
+        if (cellDC == null) cellDC = row.createCell(106);
+        cellDC.setCellValue((customer.getCancel() != null && customer.getCancel().getRefunddate() != null)
+                ? customer.getCancel().getRefunddate().toString() : "");
+
+        // Column DD (107): 해약 환급금
+        Cell cellDD = row.getCell(107);
+        if (cellDD == null) cellDD = row.createCell(107);
+        cellDD.setCellValue((customer.getCancel() != null && customer.getCancel().getRefundamount() != null)
+                ? customer.getCancel().getRefundamount() : 0);
+
+        // Column DE (108): 납입총액
+        Cell cellDE = row.getCell(108);
+        if (cellDE == null) cellDE = row.createCell(108);
+        cellDE.setCellValue((customer.getStatus() != null && customer.getStatus().getAmmountsum() != null)
+                ? customer.getStatus().getAmmountsum() : 0);
+
+        // Column DF (109): 건너뛰기
+        Cell cellDF = row.getCell(109);
+        if (cellDF == null) cellDF = row.createCell(109);
+        cellDF.setCellValue("");
+
+        // Column DG (110): 담당 총괄
+        Cell cellDG = row.getCell(110);
+        if (cellDG == null) cellDG = row.createCell(110);
+        cellDG.setCellValue((customer.getResponsible() != null && customer.getResponsible().getGeneralmanagement() != null)
+                ? customer.getResponsible().getGeneralmanagement() : "");
+
+        // Column DH (111): 담당 본부
+        Cell cellDH = row.getCell(111);
+        if (cellDH == null) cellDH = row.createCell(111);
+        cellDH.setCellValue((customer.getResponsible() != null && customer.getResponsible().getDivision() != null)
+                ? customer.getResponsible().getDivision() : "");
+
+        // Column DI (112): 담당 팀
+        Cell cellDI = row.getCell(112);
+        if (cellDI == null) cellDI = row.createCell(112);
+        cellDI.setCellValue((customer.getResponsible() != null && customer.getResponsible().getTeam() != null)
+                ? customer.getResponsible().getTeam() : "");
+
+        // Column DJ (113): 담당 성명
+        Cell cellDJ = row.getCell(113);
+        if (cellDJ == null) cellDJ = row.createCell(113);
+        cellDJ.setCellValue((customer.getResponsible() != null && customer.getResponsible().getManagername() != null)
+                ? customer.getResponsible().getManagername() : "");
+
+        // Column DK (114): 담당 수수료지급
+        Cell cellDK = row.getCell(114);
+        if (cellDK == null) cellDK = row.createCell(114);
+        cellDK.setCellValue((customer.getResponsible() != null && customer.getResponsible().getFeepaid() != null)
+                ? customer.getResponsible().getFeepaid() : "");
+
+        // Column DL (115): 다힘 시상
+        Cell cellDL = row.getCell(115);
+        if (cellDL == null) cellDL = row.createCell(115);
+        cellDL.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimsisang() != null)
+                ? customer.getDahim().getDahimsisang() : "");
+
+        // Column DM (116): 다힘 일자
+        Cell cellDM = row.getCell(116);
+        if (cellDM == null) cellDM = row.createCell(116);
+        cellDM.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimdate() != null)
+                ? customer.getDahim().getDahimdate().toString() : "");
+
+        // Column DN (117): 다힘 6/30선지급
+        Cell cellDN = row.getCell(117);
+        if (cellDN == null) cellDN = row.createCell(117);
+        cellDN.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimprepaid() != null)
+                ? customer.getDahim().getDahimprepaid() : "");
+
+        // Column DO (118): 다힘 1회차청구
+        Cell cellDO = row.getCell(118);
+        if (cellDO == null) cellDO = row.createCell(118);
+        cellDO.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimfirst() != null)
+                ? customer.getDahim().getDahimfirst() : "");
+
+        // Column DP (119): 다힘 (1회차)금액
+        Cell cellDP = row.getCell(119);
+        if (cellDP == null) cellDP = row.createCell(119);
+        cellDP.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimfirstpay() != null)
+                ? customer.getDahim().getDahimfirstpay() : "");
+
+        // Column DQ (120): 다힘 일자2 – 날짜형 우선, 없으면 문자열
+        Cell cellDQ = row.getCell(120);
+        if (cellDQ == null) cellDQ = row.createCell(120);
+        LocalDate dateDQ = getUnderlyingDate(cellDQ);
+        if (dateDQ != null) {
+            cellDQ.setCellValue(dateDQ.toString());
+        } else {
+            cellDQ.setCellValue(cellDQ.getStringCellValue());
+        }
+
+        // Column DR (121): 다힘 출처
+        Cell cellDR = row.getCell(121);
+        if (cellDR == null) cellDR = row.createCell(121);
+        cellDR.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimsource() != null)
+                ? customer.getDahim().getDahimsource() : "");
+
+        // Column DS (122): 다힘 2회차청구
+        Cell cellDS = row.getCell(122);
+        if (cellDS == null) cellDS = row.createCell(122);
+        cellDS.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimsecond() != null)
+                ? customer.getDahim().getDahimsecond() : "");
+
+        // Column DT (123): 다힘 (2회차)금액
+        Cell cellDT = row.getCell(123);
+        if (cellDT == null) cellDT = row.createCell(123);
+        cellDT.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimsecondpay() != null)
+                ? customer.getDahim().getDahimsecondpay() : "");
+
+        // Column DU (124): 다힘 일자3 – 날짜형 우선, 없으면 문자열
+        Cell cellDU = row.getCell(124);
+        if (cellDU == null) cellDU = row.createCell(124);
+        LocalDate dateDU = getUnderlyingDate(cellDU);
+        if (dateDU != null) {
+            cellDU.setCellValue(dateDU.toString());
+        } else {
+            cellDU.setCellValue(cellDU.getStringCellValue());
+        }
+
+        // Column DV (125): 다힘 합계
+        Cell cellDV = row.getCell(125);
+        if (cellDV == null) cellDV = row.createCell(125);
+        cellDV.setCellValue((customer.getDahim() != null && customer.getDahim().getDahimsum() != null)
+                ? customer.getDahim().getDahimsum() : "");
+
+        // Column DW (126): MGM 수수료 (문자 그대로)
+        Cell cellDW = row.getCell(126);
+        if (cellDW == null) {
+            cellDW = row.createCell(126);
+        }
+        String mgmfeeStr = (customer.getMgm() != null && customer.getMgm().getMgmfee() != null)
+                ? customer.getMgm().getMgmfee() : "";
+        cellDW.setCellValue(mgmfeeStr);
+
+        // Column DX (127): MGM 업체명
+        Cell cellDX = row.getCell(127);
+        if (cellDX == null) cellDX = row.createCell(127);
+        cellDX.setCellValue((customer.getMgm() != null && customer.getMgm().getMgmcompanyname() != null)
+                ? customer.getMgm().getMgmcompanyname() : "");
+
+        // Column DY (128): MGM 이름
+        Cell cellDY = row.getCell(128);
+        if (cellDY == null) cellDY = row.createCell(128);
+        cellDY.setCellValue((customer.getMgm() != null && customer.getMgm().getMgmname() != null)
+                ? customer.getMgm().getMgmname() : "");
+
+        // Column DZ (129): MGM 기관
+        Cell cellDZ = row.getCell(129);
+        if (cellDZ == null) cellDZ = row.createCell(129);
+        cellDZ.setCellValue((customer.getMgm() != null && customer.getMgm().getMgminstitution() != null)
+                ? customer.getMgm().getMgminstitution() : "");
+
+        // Column EA (130): MGM 계좌
+        Cell cellEA = row.getCell(130);
+        if (cellEA == null) cellEA = row.createCell(130);
+        cellEA.setCellValue((customer.getMgm() != null && customer.getMgm().getMgmaccount() != null)
+                ? customer.getMgm().getMgmaccount() : "");
+
+        // Column EB (131): 1차(직원) 차순
+        Cell cellEB = row.getCell(131);
+        if (cellEB == null) cellEB = row.createCell(131);
+        cellEB.setCellValue((customer.getFirstemp() != null && customer.getFirstemp().getFirstemptimes() != null)
+                ? customer.getFirstemp().getFirstemptimes() : "");
+
+        // Column EC (132): 1차 지급일자
+        Cell cellEC = row.getCell(132);
+        if (cellEC == null) cellEC = row.createCell(132);
+        cellEC.setCellValue((customer.getFirstemp() != null && customer.getFirstemp().getFirstempdate() != null)
+                ? customer.getFirstemp().getFirstempdate().toString() : "");
+
+        // Column ED (133): 2차(직원) 차순
+        Cell cellED = row.getCell(133);
+        if (cellED == null) cellED = row.createCell(133);
+        cellED.setCellValue((customer.getSecondemp() != null && customer.getSecondemp().getSecondemptimes() != null)
+                ? customer.getSecondemp().getSecondemptimes() : "");
+
+        // Column EE (134): 2차 지급일자
+        Cell cellEE = row.getCell(134);
+        if (cellEE == null) cellEE = row.createCell(134);
+        cellEE.setCellValue((customer.getSecondemp() != null && customer.getSecondemp().getSecondempdate() != null)
+                ? customer.getSecondemp().getSecondempdate().toString() : "");
+
+        // Column EF (135): 부속서류 인감증명서
+        Cell cellEF = row.getCell(135);
+        if (cellEF == null) cellEF = row.createCell(135);
+        cellEF.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getSealcertificateprovided())) ? "o" : "");
+
+        // Column EG (136): 부속서류 본인서명확인서
+        Cell cellEG = row.getCell(136);
+        if (cellEG == null) cellEG = row.createCell(136);
+        cellEG.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getSelfsignatureconfirmationprovided())) ? "o" : "");
+
+        // Column EH (137): 부속서류 신분증
+        Cell cellEH = row.getCell(137);
+        if (cellEH == null) cellEH = row.createCell(137);
+        cellEH.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getIdcopyprovided())) ? "o" : "");
+
+        // Column EI (138): 부속서류 확약서
+        Cell cellEI = row.getCell(138);
+        if (cellEI == null) cellEI = row.createCell(138);
+        cellEI.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getCommitmentletterprovided())) ? "o" : "");
+
+        // Column EJ (139): 부속서류 창준위용
+        Cell cellEJ = row.getCell(139);
+        if (cellEJ == null) cellEJ = row.createCell(139);
+        cellEJ.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getForfounding())) ? "o" : "");
+
+        // Column EK (140): 부속서류 무상옵션
+        Cell cellEK = row.getCell(140);
+        if (cellEK == null) cellEK = row.createCell(140);
+        cellEK.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getFreeoption())) ? "o" : "");
+
+        // Column EL (141): 부속서류 선호도조사
+        Cell cellEL = row.getCell(141);
+        if (cellEL == null) cellEL = row.createCell(141);
+        cellEL.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getPreferenceattachment())) ? "o" : "");
+
+        // Column EM (142): 부속서류 총회동의서
+        Cell cellEM = row.getCell(142);
+        if (cellEM == null) cellEM = row.createCell(142);
+        cellEM.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getPrizeattachment())) ? "o" : "");
+
+        // Column EN (143): 부속서류 사은품 지급일자
+        Cell cellEN = row.getCell(143);
+        if (cellEN == null) cellEN = row.createCell(143);
+        cellEN.setCellValue((customer.getAttachments() != null
+                && customer.getAttachments().getPrizedate() != null)
+                ? customer.getAttachments().getPrizedate().toString() : "");
+
+        // Column EO (144): 이메일
+        Cell cellEO = row.getCell(144);
+        if (cellEO == null) cellEO = row.createCell(144);
+        cellEO.setCellValue((customer.getCustomerData() != null
+                && customer.getCustomerData().getEmail() != null)
+                ? customer.getCustomerData().getEmail() : "");
+
+        // Column EP (145): 우편물수령주소 우편번호 (이미 처리됨)
+
+        // Column EQ (146) & ER (147) – 우편물수령주소 도/군는 이미 분리하여 처리함
+        // Column ES (148): 우편물수령주소 상세주소
+        Cell cellES = row.getCell(148);
+        if (cellES == null) cellES = row.createCell(148);
+        cellES.setCellValue((customer.getPostreceive() != null
+                && customer.getPostreceive().getDetailaddressreceive() != null)
+                ? customer.getPostreceive().getDetailaddressreceive() : "");
+
+        // Column ET (149): 비고
+        Cell cellET = row.getCell(149);
+        if (cellET == null) cellET = row.createCell(149);
+        cellET.setCellValue(customer.getAdditional() != null ? customer.getAdditional() : "");
+
+        // Column EU (150): 가입경로
+        Cell cellEU = row.getCell(150);
+        if (cellEU == null) cellEU = row.createCell(150);
+        cellEU.setCellValue(customer.getRegisterpath() != null ? customer.getRegisterpath() : "");
+
+        // Column EV (151): 총회참석 서면
+        Cell cellEV = row.getCell(151);
+        if (cellEV == null) cellEV = row.createCell(151);
+        cellEV.setCellValue((customer.getMeetingattend() != null
+                && customer.getMeetingattend().getFtofattend() != null)
+                ? customer.getMeetingattend().getFtofattend() : "");
+
+        // Column EW (152): 총회참석 직접
+        Cell cellEW = row.getCell(152);
+        if (cellEW == null) cellEW = row.createCell(152);
+        cellEW.setCellValue((customer.getMeetingattend() != null
+                && customer.getMeetingattend().getSelfattend() != null)
+                ? customer.getMeetingattend().getSelfattend() : "");
+
+        // Column EX (153): 총회참석 대리
+        Cell cellEX = row.getCell(153);
+        if (cellEX == null) cellEX = row.createCell(153);
+        cellEX.setCellValue((customer.getMeetingattend() != null
+                && customer.getMeetingattend().getBehalfattend() != null)
+                ? customer.getMeetingattend().getBehalfattend() : "");
+
+        // Column EY (154): 특이사항
+        Cell cellEY = row.getCell(154);
+        if (cellEY == null) cellEY = row.createCell(154);
+        cellEY.setCellValue(customer.getSpecialnote() != null ? customer.getSpecialnote() : "");
+
+        // Column EZ (155): 투표기기
+        Cell cellEZ = row.getCell(155);
+        if (cellEZ == null) cellEZ = row.createCell(155);
+        cellEZ.setCellValue(customer.getVotemachine() != null ? customer.getVotemachine() : "");
+
+        // Column FA (156): 안건 제1호
+        Cell cellFA = row.getCell(156);
+        if (cellFA == null) cellFA = row.createCell(156);
+        cellFA.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda1() != null)
+                ? customer.getAgenda().getAgenda1() : "");
+
+        // Column FB (157): 안건 제2-1호
+        Cell cellFB = row.getCell(157);
+        if (cellFB == null) cellFB = row.createCell(157);
+        cellFB.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda2_1() != null)
+                ? customer.getAgenda().getAgenda2_1() : "");
+
+        // Column FC (158): 안건 제2-2호
+        Cell cellFC = row.getCell(158);
+        if (cellFC == null) cellFC = row.createCell(158);
+        cellFC.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda2_2() != null)
+                ? customer.getAgenda().getAgenda2_2() : "");
+
+        // Column FD (159): 안건 제2-3호
+        Cell cellFD = row.getCell(159);
+        if (cellFD == null) cellFD = row.createCell(159);
+        cellFD.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda2_3() != null)
+                ? customer.getAgenda().getAgenda2_3() : "");
+
+        // Column FE (160): 안건 제2-4호
+        Cell cellFE = row.getCell(160);
+        if (cellFE == null) cellFE = row.createCell(160);
+        cellFE.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda2_4() != null)
+                ? customer.getAgenda().getAgenda2_4() : "");
+
+        // Column FF (161): 안건 제3호
+        Cell cellFF = row.getCell(161);
+        if (cellFF == null) cellFF = row.createCell(161);
+        cellFF.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda3() != null)
+                ? customer.getAgenda().getAgenda3() : "");
+
+        // Column FG (162): 안건 제4호
+        Cell cellFG = row.getCell(162);
+        if (cellFG == null) cellFG = row.createCell(162);
+        cellFG.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda4() != null)
+                ? customer.getAgenda().getAgenda4() : "");
+
+        // Column FH (163): 안건 제5호
+        Cell cellFH = row.getCell(163);
+        if (cellFH == null) cellFH = row.createCell(163);
+        cellFH.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda5() != null)
+                ? customer.getAgenda().getAgenda5() : "");
+
+        // Column FI (164): 안건 제6호
+        Cell cellFI = row.getCell(164);
+        if (cellFI == null) cellFI = row.createCell(164);
+        cellFI.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda6() != null)
+                ? customer.getAgenda().getAgenda6() : "");
+
+        // Column FJ (165): 안건 제7호
+        Cell cellFJ = row.getCell(165);
+        if (cellFJ == null) cellFJ = row.createCell(165);
+        cellFJ.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda7() != null)
+                ? customer.getAgenda().getAgenda7() : "");
+
+        // Column FK (166): 안건 제8호
+        Cell cellFK = row.getCell(166);
+        if (cellFK == null) cellFK = row.createCell(166);
+        cellFK.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda8() != null)
+                ? customer.getAgenda().getAgenda8() : "");
+
+        // Column FL (167): 안건 제9호
+        Cell cellFL = row.getCell(167);
+        if (cellFL == null) cellFL = row.createCell(167);
+        cellFL.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda9() != null)
+                ? customer.getAgenda().getAgenda9() : "");
+
+        // Column FM (168): 안건 제10호
+        Cell cellFM = row.getCell(168);
+        if (cellFM == null) cellFM = row.createCell(168);
+        cellFM.setCellValue((customer.getAgenda() != null && customer.getAgenda().getAgenda10() != null)
+                ? customer.getAgenda().getAgenda10() : "");
+
+        // Column FN (169): 부속서류 사은품명
+        Cell cellFN = row.getCell(169);
+        if (cellFN == null) cellFN = row.createCell(169);
+        cellFN.setCellValue((customer.getAttachments() != null && customer.getAttachments().getPrizename() != null)
+                ? customer.getAttachments().getPrizename() : "");
+
+        // Column FO (170): 부속서류 출자금 (flag "o")
+        Cell cellFO = row.getCell(170);
+        if (cellFO == null) cellFO = row.createCell(170);
+        cellFO.setCellValue((customer.getAttachments() != null
+                && Boolean.TRUE.equals(customer.getAttachments().getInvestmentfile())) ? "o" : "");
+        //엑셀에 고객정보 기입끝 : code spread complete
+    }
+
+    public void processExcelFileWithProgress(MultipartFile file, ProgressPublisher progress) throws IOException {
+        try (InputStream is = file.getInputStream()) {
+            importCustomerWorkbook(is, -1, false, progress);
         }
     }
 
-    public void processExcelFileWithProgress(MultipartFile file, SseEmitter emitter) throws IOException {
+    /**
+     * 고객 등록 엑셀 가져오기 본체. 행마다 고객을 저장(개별 트랜잭션)하고 체크포인트를 남깁니다.
+     *
+     * @param resumeAfterRow 이 시트 행 인덱스까지는 이미 처리된 것으로 보고 건너뜁니다. (-1: 처음부터)
+     * @param skipExisting   true면 이미 존재하는 관리번호는 건너뛰고 계속 진행합니다. (재개/재실행용)
+     * @throws CancellationException 리스너가 취소를 요청한 경우 (마지막 체크포인트까지는 반영됨)
+     */
+    public void importCustomerWorkbook(InputStream is, int resumeAfterRow, boolean skipExisting,
+                                       ImportProgressListener listener) throws IOException {
         DataFormatter formatter = new DataFormatter(Locale.getDefault());
-        // 날짜 파싱 포맷 (예: "yy-M-d")
-        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yy-M-d");
 
-        try (InputStream is = file.getInputStream();
-             XSSFWorkbook workbook = new XSSFWorkbook(is)) {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(is)) {
 
             FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
 
@@ -1362,35 +1565,204 @@ public class ExcelService {
             // 따라서 totalCustomers = (realLastRow - startRow + 1)
             int totalCustomers = realLastRow >= startRow ? (realLastRow - startRow + 1) : 0;
 
+            int inserted = 0;
+            int skipped = 0;
             // 각 행(고객)에 대해 처리
-            for (int i = startRow; i <= realLastRow; i++) {
+            for (int i = Math.max(startRow, resumeAfterRow + 1); i <= realLastRow; i++) {
                 org.apache.poi.ss.usermodel.Row row = sheet.getRow(i);
                 if (row == null) {
                     // 비어있는 행은 건너뜁니다.
                     continue;
                 }
                 // 각 행을 Customer 객체로 파싱 (필요한 모든 컬럼 매핑 구현)
-                Customer customer = parseCustomerFromRow(row, dtf, formatter, evaluator);
-                // DB에 저장 (여기서는 createCustomer 내부에서 Phase 등 추가 로직이 수행될 수 있음)
-                customerService.createCustomer(customer, false);
+                Customer customer = parseCustomerFromRow(row, formatter, evaluator);
+                if (skipExisting && customer.getId() != null && customerService.existsCustomer(customer.getId())) {
+                    skipped++;
+                } else {
+                    // DB에 저장 (여기서는 createCustomer 내부에서 Phase 등 추가 로직이 수행될 수 있음)
+                    customerService.createCustomer(customer, false);
+                    inserted++;
+                }
 
                 // 진행 상황 전송: 처리한 고객 수/전체 고객 수
                 int current = i - startRow + 1;
-                emitter.send(SseEmitter.event().name("progress").data(current + "/" + totalCustomers));
+                listener.progress(current, totalCustomers);
+                listener.checkpoint(i, inserted, skipped, Collections.emptyList());
+
+                if (listener.isCancelled()) {
+                    throw new CancellationException("행 " + i + "까지 반영 후 취소되었습니다.");
+                }
             }
         }
     }
 
+    // ------------------------------------------------------------------
+    // 검증 전용 드라이런 (DB 저장 없음)
+    // 아래 열 목록은 parseCustomerFromRow의 파싱 규칙과 일치해야 합니다.
+    // ------------------------------------------------------------------
+    // parseDate("yy-M-d")로 읽는 날짜 열: 실패하면 값이 저장되지 않음
+    private static final int[] DATE_COLUMNS = {8, 9, 24, 26, 32, 39, 46, 53, 61, 69, 77, 84, 91, 116};
+    // 셀이 날짜 서식이면 원본 날짜를 쓰고, 아니면 parseDate로 읽는 열 (DQ, DU, EC, EE, EN)
+    private static final int[] CELL_DATE_COLUMNS = {120, 124, 132, 134, 143};
+    // 해약 해지일자/환급일자 (DB, DC): "x"는 빈 값으로 취급
+    private static final int[] CANCEL_DATE_COLUMNS = {105, 106};
+    // 차수별 예정일자: 실패하면 2100-01-01로 대체
+    private static final int[] PLANNED_DATE_COLUMNS = {31, 38, 45, 52, 60, 68, 76, 83, 90};
+    // 숫자 변환에 실패하면 가져오기 전체가 중단되는 금액 열
+    private static final int[] STRICT_AMOUNT_COLUMNS = {10, 25, 27, 28, 33, 34, 35, 40, 41, 42, 47, 48, 49,
+            54, 55, 56, 57, 62, 63, 64, 65, 70, 71, 72, 73, 78, 79, 80, 85, 86, 87, 92, 93, 94, 104, 119, 123};
+    // 숫자가 아니면 0으로 처리되는 금액 열
+    private static final int[] LENIENT_AMOUNT_COLUMNS = {30, 37, 44, 51, 59, 67, 75, 82, 89, 96,
+            98, 99, 101, 102, 107, 108};
+
+    /**
+     * 고객 등록 엑셀을 저장 없이 검증합니다.
+     * 관리번호 중복/기존 여부, 날짜/금액 형식, 차수(Fee) 정보 존재 여부를 행마다 확인하고,
+     * annotate가 true이면 문제 셀을 표시한 엑셀을 ArtifactStore에 보관합니다.
+     * 기존 고객 id와 Fee 목록은 시작 시 한 번만 조회하고, 검증 대상 열만 읽어서 빠르게 처리합니다.
+     */
+    public ValidationReport validateCustomerWorkbook(InputStream is, boolean annotate) throws IOException {
+        long started = System.currentTimeMillis();
+        ValidationReport report = new ValidationReport();
+        report.setWorkbookType("customer");
+
+        Set<Integer> existingIds = new HashSet<>(customerRepository.findAllIds());
+        Set<String> feeKeys = new HashSet<>();
+        for (Object[] fee : feeRepository.findAllGroupnameAndBatch()) {
+            feeKeys.add(fee[0] + "|" + fee[1]);
+        }
+
+        DataFormatter formatter = new DataFormatter(Locale.getDefault());
+        // 수식 셀은 재계산하지 않고 저장된 결과값을 사용합니다. (검증 속도 우선)
+        formatter.setUseCachedValuesForFormulaCells(true);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(is)) {
+            XSSFSheet sheet = workbook.getSheetAt(0);
+            int startRow = 3;
+            Set<Integer> idsInFile = new HashSet<>();
+            int rows = 0;
+            int errorRows = 0;
+            for (int i = startRow; i <= sheet.getLastRowNum(); i++) {
+                Row row = sheet.getRow(i);
+                String colA = (row != null) ? formatter.formatCellValue(row.getCell(0)).trim() : "";
+                if (colA.isEmpty()) {
+                    // 가져오기와 동일하게 A열이 비면 데이터 끝으로 판단
+                    break;
+                }
+                rows++;
+                int errorsBefore = report.getErrorCount();
+                int excelRow = i + 1;
+
+                Integer id = null;
+                try {
+                    id = Integer.parseInt(colA.replaceAll("[^0-9-]+", ""));
+                } catch (NumberFormatException e) {
+                    report.add(new RowIssue(excelRow, "A", colA, RowIssue.ERROR, "관리번호가 숫자가 아닙니다."));
+                }
+                if (id != null) {
+                    if (existingIds.contains(id)) {
+                        report.add(new RowIssue(excelRow, "A", colA, RowIssue.ERROR, "이미 존재하는 관리번호입니다."));
+                    } else if (!idsInFile.add(id)) {
+                        report.add(new RowIssue(excelRow, "A", colA, RowIssue.ERROR, "파일 안에서 관리번호가 중복됩니다."));
+                    }
+                }
+
+                String resnum = formatter.formatCellValue(row.getCell(14));
+                if (resnum.contains("-")) {
+                    String[] parts = resnum.split("-");
+                    if (parts.length == 2 && (!isInt(parts[0].replaceAll("[^0-9]+", ""))
+                            || !isInt(parts[1].replaceAll("[^0-9]+", "")))) {
+                        report.add(new RowIssue(excelRow, "O", resnum, RowIssue.ERROR, "주민번호 형식이 올바르지 않습니다."));
+                    }
+                }
+
+                String type = formatter.formatCellValue(row.getCell(2));
+                String group = formatter.formatCellValue(row.getCell(3));
+                String batch = formatter.formatCellValue(row.getCell(7));
+                if (!feeKeys.contains(type + group + "|" + batch)) {
+                    report.add(new RowIssue(excelRow, "H", batch, RowIssue.WARNING,
+                            "차수 정보(Fee)가 없습니다: 타입+군 '" + type + group + "', 가입차순 '" + batch + "'. 엑셀의 차수 값이 그대로 사용됩니다."));
+                }
+
+                for (int col : DATE_COLUMNS) {
+                    String value = formatter.formatCellValue(row.getCell(col));
+                    if (!value.isEmpty() && parseDate(value) == null) {
+                        addIssue(report, excelRow, col, value, RowIssue.ERROR, "날짜 형식(yy-M-d)이 아니어서 저장되지 않습니다.");
+                    }
+                }
+                for (int col : CELL_DATE_COLUMNS) {
+                    Cell cell = row.getCell(col);
+                    if (getUnderlyingDate(cell) != null) {
+                        continue;
+                    }
+                    String value = formatter.formatCellValue(cell);
+                    if (!value.isEmpty() && parseDate(value) == null) {
+                        addIssue(report, excelRow, col, value, RowIssue.ERROR, "날짜 형식(yy-M-d)이 아니어서 저장되지 않습니다.");
+                    }
+                }
+                for (int col : CANCEL_DATE_COLUMNS) {
+                    String value = formatter.formatCellValue(row.getCell(col)).trim();
+                    if (!value.isEmpty() && !value.equalsIgnoreCase("x")) {
+                        if (ExcelValueParser.parseShortDate(value) == null) {
+                            addIssue(report, excelRow, col, value, RowIssue.ERROR, "날짜 형식(yy-M-d)이 아니어서 저장되지 않습니다.");
+                        }
+                    }
+                }
+                for (int col : PLANNED_DATE_COLUMNS) {
+                    String value = formatter.formatCellValue(row.getCell(col));
+                    if (!value.trim().isEmpty() && LocalDate.of(2100, 1, 1).equals(parsePlannedDate(value))) {
+                        addIssue(report, excelRow, col, value, RowIssue.WARNING, "예정일자 형식이 아니어서 2100-01-01로 저장됩니다.");
+                    }
+                }
+                for (int col : STRICT_AMOUNT_COLUMNS) {
+                    String value = formatter.formatCellValue(row.getCell(col));
+                    if (!value.isEmpty() && ExcelValueParser.parseSignedDigits(value, ExcelValueParser.NO_VALUE) == ExcelValueParser.NO_VALUE) {
+                        addIssue(report, excelRow, col, value, RowIssue.ERROR, "금액이 숫자가 아니어서 가져오기가 중단됩니다.");
+                    }
+                }
+                for (int col : LENIENT_AMOUNT_COLUMNS) {
+                    String value = formatter.formatCellValue(row.getCell(col)).trim();
+                    if (!value.isEmpty() && !value.equals("-") && ExcelValueParser.parseSignedDigits(value, ExcelValueParser.NO_VALUE) == ExcelValueParser.NO_VALUE) {
+                        addIssue(report, excelRow, col, value, RowIssue.WARNING, "금액이 숫자가 아니어서 0으로 저장됩니다.");
+                    }
+                }
+
+                if (report.getErrorCount() > errorsBefore) {
+                    errorRows++;
+                }
+            }
+            report.setTotalRows(rows);
+            report.setErrorRows(errorRows);
+            if (annotate) {
+                report.setAnnotatedFileId(ExcelValidationAnnotator.annotate(workbook, sheet, report, artifactStore));
+            }
+        }
+        report.setElapsedMs(System.currentTimeMillis() - started);
+        return report;
+    }
+
+    private void addIssue(ValidationReport report, int excelRow, int col, String value, String level, String message) {
+        report.add(new RowIssue(excelRow, CellReference.convertNumToColString(col), value, level, message));
+    }
+
+    private boolean isInt(String s) {
+        try {
+            Integer.parseInt(s);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     /**
      * 엑셀의 한 행(Row)을 읽어 Customer 객체로 매핑하는 예시 메서드
      * 실제 구현에서는 모든 필요한 컬럼에 대해 값을 매핑하세요.
      *
      * @param row       엑셀의 한 행
-     * @param dtf       날짜 파싱 포맷
      * @param formatter DataFormatter
      * @return 매핑된 Customer 객체
      */
-    private Customer parseCustomerFromRow(org.apache.poi.ss.usermodel.Row row, DateTimeFormatter dtf, DataFormatter formatter,FormulaEvaluator evaluator) {
+    private Customer parseCustomerFromRow(org.apache.poi.ss.usermodel.Row row, DataFormatter formatter,FormulaEvaluator evaluator) {
         Customer customer = new Customer();
         // 하위 임베디드 객체 초기화
         customer.setCustomerData(new CustomerData());
@@ -1455,19 +1827,19 @@ public class ExcelService {
         String colI = formatter.formatCellValue(row.getCell(8), evaluator);
         System.out.println("Column I (신탁사제출): " + colI);
         if (!colI.isEmpty()) {
-            customer.getFinancial().setTrustcompanydate(parseDate(colI, dtf));
+            customer.getFinancial().setTrustcompanydate(parseDate(colI));
         }
 
 
         String colJ = formatter.formatCellValue(row.getCell(9), evaluator);
         System.out.println("Column J (가입일자): " + colJ);
         if (!colJ.isEmpty()) {
-            customer.setRegisterdate(parseDate(colJ, dtf));
+            customer.setRegisterdate(parseDate(colJ));
         }
         String colK = formatter.formatCellValue(row.getCell(10), evaluator);
         System.out.println("Column K (가입가): " + colK);
         if (!colK.isEmpty()) {
-            customer.setRegisterprice(Long.parseLong(colK.replaceAll("[^0-9-]+", "")));
+            customer.setRegisterprice(ExcelValueParser.signedDigits(colK));
         }
         String colL = formatter.formatCellValue(row.getCell(11), evaluator);
         System.out.println("Column L (지산A동계약서): " + colL);
@@ -1516,28 +1888,28 @@ public class ExcelService {
         String colY = formatter.formatCellValue(row.getCell(24), evaluator);
         System.out.println("Column Y (예약금 납입일자): " + colY);
         if (!colY.isEmpty()) {
-            customer.getDeposits().setDepositdate(parseDate(colY, dtf));
+            customer.getDeposits().setDepositdate(parseDate(colY));
         }
         String colZ = formatter.formatCellValue(row.getCell(25), evaluator);
         System.out.println("Column Z (예약금 금액): " + colZ);
         if (!colZ.isEmpty()) {
-            customer.getDeposits().setDepositammount(Long.parseLong(colZ.replaceAll("[^0-9-]+", "")));
+            customer.getDeposits().setDepositammount(ExcelValueParser.signedDigits(colZ));
         }
         String colAA = formatter.formatCellValue(row.getCell(26), evaluator);
         System.out.println("Column AA (1차 완납일자): " + colAA);
         Phase phase1 = new Phase();
         if (!colAA.isEmpty()) {
-            phase1.setFullpaiddate(parseDate(colAA, dtf));
+            phase1.setFullpaiddate(parseDate(colAA));
         }
         String colAB = formatter.formatCellValue(row.getCell(27), evaluator);
         System.out.println("Column AB (1차 부담금): " + colAB);
         if (!colAB.isEmpty()) {
-            phase1.setCharge(Long.parseLong(colAB.replaceAll("[^0-9-]+", "")));
+            phase1.setCharge(ExcelValueParser.signedDigits(colAB));
         }
         String colAC = formatter.formatCellValue(row.getCell(28), evaluator);
         System.out.println("Column AC (1차 업무대행비): " + colAC);
         if (!colAC.isEmpty()) {
-            phase1.setService(Long.parseLong(colAC.replaceAll("[^0-9-]+", "")));
+            phase1.setService(ExcelValueParser.signedDigits(colAC));
         }
         String colAD = formatter.formatCellValue(row.getCell(29), evaluator);
         System.out.println("Column AD (1차 이동): " + colAD);
@@ -1547,11 +1919,7 @@ public class ExcelService {
         System.out.println("Column AE (1차 합): " + colAE_final);
         long aeValue = 0L;
         if (!colAE_final.isEmpty()) {
-            try {
-                aeValue = Long.parseLong(colAE_final.replaceAll("[^0-9-]+", ""));
-            } catch (NumberFormatException e) {
-                aeValue = 0L;
-            }
+            aeValue = ExcelValueParser.parseSignedDigits(colAE_final, 0L);
         } else {
             aeValue = 0L;
         }
@@ -1574,22 +1942,22 @@ public class ExcelService {
         String colAG = formatter.formatCellValue(row.getCell(32), evaluator);
         System.out.println("Column AG (2차 완납일자): " + colAG);
         if (!colAG.isEmpty()) {
-            phase2.setFullpaiddate(parseDate(colAG, dtf));
+            phase2.setFullpaiddate(parseDate(colAG));
         }
         String colAH = formatter.formatCellValue(row.getCell(33), evaluator);
         System.out.println("Column AH (2차 부담금): " + colAH);
         if (!colAH.isEmpty()) {
-            phase2.setCharge(Long.parseLong(colAH.replaceAll("[^0-9-]+", "")));
+            phase2.setCharge(ExcelValueParser.signedDigits(colAH));
         }
         String colAI = formatter.formatCellValue(row.getCell(34), evaluator);
         System.out.println("Column AI (2차 할인액): " + colAI);
         if (!colAI.isEmpty()) {
-            phase2.setDiscount(Math.abs(Long.parseLong(colAI.replaceAll("[^0-9-]+", ""))));
+            phase2.setDiscount(Math.abs(ExcelValueParser.signedDigits(colAI)));
         }
         String colAJ = formatter.formatCellValue(row.getCell(35), evaluator);
         System.out.println("Column AJ (2차 업무대행비): " + colAJ);
         if (!colAJ.isEmpty()) {
-            phase2.setService(Long.parseLong(colAJ.replaceAll("[^0-9-]+", "")));
+            phase2.setService(ExcelValueParser.signedDigits(colAJ));
         }
         String colAK = formatter.formatCellValue(row.getCell(36), evaluator);
         System.out.println("Column AK (2차 이동): " + colAK);
@@ -1599,11 +1967,7 @@ public class ExcelService {
         System.out.println("Column AL (2차 합): " + colAL_final);
         long alValue = 0L;
         if (!colAL_final.isEmpty()) {
-            try {
-                alValue = Long.parseLong(colAL_final.replaceAll("[^0-9-]+", ""));
-            } catch (NumberFormatException e) {
-                alValue = 0L;
-            }
+            alValue = ExcelValueParser.parseSignedDigits(colAL_final, 0L);
         } else {
             alValue = 0L;
         }
@@ -1623,22 +1987,22 @@ public class ExcelService {
         String colAN = formatter.formatCellValue(row.getCell(39), evaluator);
         System.out.println("Column AN (3차 완납일자): " + colAN);
         if (!colAN.isEmpty()) {
-            phase3.setFullpaiddate(parseDate(colAN, dtf));
+            phase3.setFullpaiddate(parseDate(colAN));
         }
         String colAO = formatter.formatCellValue(row.getCell(40), evaluator);
         System.out.println("Column AO (3차 부담금): " + colAO);
         if (!colAO.isEmpty()) {
-            phase3.setCharge(Long.parseLong(colAO.replaceAll("[^0-9-]+", "")));
+            phase3.setCharge(ExcelValueParser.signedDigits(colAO));
         }
         String colAP = formatter.formatCellValue(row.getCell(41), evaluator);
         System.out.println("Column AP (3차 할인액): " + colAP);
         if (!colAP.isEmpty()) {
-            phase3.setDiscount(Math.abs(Long.parseLong(colAP.replaceAll("[^0-9-]+", ""))));
+            phase3.setDiscount(Math.abs(ExcelValueParser.signedDigits(colAP)));
         }
         String colAQ = formatter.formatCellValue(row.getCell(42), evaluator);
         System.out.println("Column AQ (3차 업무대행비): " + colAQ);
         if (!colAQ.isEmpty()) {
-            phase3.setService(Long.parseLong(colAQ.replaceAll("[^0-9-]+", "")));
+            phase3.setService(ExcelValueParser.signedDigits(colAQ));
         }
         String colAR = formatter.formatCellValue(row.getCell(43), evaluator);
         System.out.println("Column AR (3차 이동): " + colAR);
@@ -1648,11 +2012,7 @@ public class ExcelService {
         System.out.println("Column AS (3차 합): " + colAS_final);
         long asValue = 0L;
         if (!colAS_final.isEmpty()) {
-            try {
-                asValue = Long.parseLong(colAS_final.replaceAll("[^0-9-]+", ""));
-            } catch (NumberFormatException e) {
-                asValue = 0L;
-            }
+            asValue = ExcelValueParser.parseSignedDigits(colAS_final, 0L);
         } else {
             asValue = 0L;
         }
@@ -1672,22 +2032,22 @@ public class ExcelService {
         String colAU = formatter.formatCellValue(row.getCell(46), evaluator);
         System.out.println("Column AU (4차 완납일자): " + colAU);
         if (!colAU.isEmpty()) {
-            phase4.setFullpaiddate(parseDate(colAU, dtf));
+            phase4.setFullpaiddate(parseDate(colAU));
         }
         String colAV = formatter.formatCellValue(row.getCell(47), evaluator);
         System.out.println("Column AV (4차 부담금): " + colAV);
         if (!colAV.isEmpty()) {
-            phase4.setCharge(Long.parseLong(colAV.replaceAll("[^0-9-]+", "")));
+            phase4.setCharge(ExcelValueParser.signedDigits(colAV));
         }
         String colAW = formatter.formatCellValue(row.getCell(48), evaluator);
         System.out.println("Column AW (4차 할인액): " + colAW);
         if (!colAW.isEmpty()) {
-            phase4.setDiscount(Math.abs(Long.parseLong(colAW.replaceAll("[^0-9-]+", ""))));
+            phase4.setDiscount(Math.abs(ExcelValueParser.signedDigits(colAW)));
         }
         String colAX = formatter.formatCellValue(row.getCell(49), evaluator);
         System.out.println("Column AX (4차 업무대행비): " + colAX);
         if (!colAX.isEmpty()) {
-            phase4.setService(Long.parseLong(colAX.replaceAll("[^0-9-]+", "")));
+            phase4.setService(ExcelValueParser.signedDigits(colAX));
         }
         String colAY = formatter.formatCellValue(row.getCell(50), evaluator);
         System.out.println("Column AY (4차 이동): " + colAY);
@@ -1697,11 +2057,7 @@ public class ExcelService {
         System.out.println("Column AZ (4차 합): " + colAZ_final);
         long azValue = 0L;
         if (!colAZ_final.isEmpty()) {
-            try {
-                azValue = Long.parseLong(colAZ_final.replaceAll("[^0-9-]+", ""));
-            } catch (NumberFormatException e) {
-                azValue = 0L;
-            }
+            azValue = ExcelValueParser.parseSignedDigits(colAZ_final, 0L);
         } else {
             azValue = 0L;
         }
@@ -1721,27 +2077,27 @@ public class ExcelService {
         String colBB = formatter.formatCellValue(row.getCell(53), evaluator);
         System.out.println("Column BB (5차 완납일자): " + colBB);
         if (!colBB.isEmpty()) {
-            phase5.setFullpaiddate(parseDate(colBB, dtf));
+            phase5.setFullpaiddate(parseDate(colBB));
         }
         String colBC = formatter.formatCellValue(row.getCell(54), evaluator);
         System.out.println("Column BC (5차 부담금): " + colBC);
         if (!colBC.isEmpty()) {
-            phase5.setCharge(Long.parseLong(colBC.replaceAll("[^0-9-]+", "")));
+            phase5.setCharge(ExcelValueParser.signedDigits(colBC));
         }
         String colBD = formatter.formatCellValue(row.getCell(55), evaluator);
         System.out.println("Column BD (5차 할인액): " + colBD);
         if (!colBD.isEmpty()) {
-            phase5.setDiscount(Math.abs(Long.parseLong(colBD.replaceAll("[^0-9-]+", ""))));
+            phase5.setDiscount(Math.abs(ExcelValueParser.signedDigits(colBD)));
         }
         String colBE = formatter.formatCellValue(row.getCell(56), evaluator);
         System.out.println("Column BE (5차 면제금액): " + colBE);
         if (!colBE.isEmpty()) {
-            phase5.setExemption(Math.abs(Long.parseLong(colBE.replaceAll("[^0-9-]+", ""))));
+            phase5.setExemption(Math.abs(ExcelValueParser.signedDigits(colBE)));
         }
         String colBF = formatter.formatCellValue(row.getCell(57), evaluator);
         System.out.println("Column BF (5차 업무대행비): " + colBF);
         if (!colBF.isEmpty()) {
-            phase5.setService(Long.parseLong(colBF.replaceAll("[^0-9-]+", "")));
+            phase5.setService(ExcelValueParser.signedDigits(colBF));
         }
         String colBG = formatter.formatCellValue(row.getCell(58), evaluator);
         System.out.println("Column BG (5차 이동): " + colBG);
@@ -1751,11 +2107,7 @@ public class ExcelService {
         System.out.println("Column BH (5차 합): " + colBH_final);
         long bhValue = 0L;
         if (!colBH_final.isEmpty()) {
-            try {
-                bhValue = Long.parseLong(colBH_final.replaceAll("[^0-9-]+", ""));
-            } catch (NumberFormatException e) {
-                bhValue = 0L;
-            }
+            bhValue = ExcelValueParser.parseSignedDigits(colBH_final, 0L);
         } else {
             bhValue = 0L;
         }
@@ -1775,27 +2127,27 @@ public class ExcelService {
         String colBJ = formatter.formatCellValue(row.getCell(61), evaluator);
         System.out.println("Column BJ (6차 완납일자): " + colBJ);
         if (!colBJ.isEmpty()) {
-            phase6.setFullpaiddate(parseDate(colBJ, dtf));
+            phase6.setFullpaiddate(parseDate(colBJ));
         }
         String colBK = formatter.formatCellValue(row.getCell(62), evaluator);
         System.out.println("Column BK (6차 부담금): " + colBK);
         if (!colBK.isEmpty()) {
-            phase6.setCharge(Long.parseLong(colBK.replaceAll("[^0-9-]+", "")));
+            phase6.setCharge(ExcelValueParser.signedDigits(colBK));
         }
         String colBL = formatter.formatCellValue(row.getCell(63), evaluator);
         System.out.println("Column BL (6차 할인액): " + colBL);
         if (!colBL.isEmpty()) {
-            phase6.setDiscount(Math.abs(Long.parseLong(colBL.replaceAll("[^0-9-]+", ""))));
+            phase6.setDiscount(Math.abs(ExcelValueParser.signedDigits(colBL)));
         }
         String colBM = formatter.formatCellValue(row.getCell(64), evaluator);
         System.out.println("Column BM (6차 면제금액): " + colBM);
         if (!colBM.isEmpty()) {
-            phase6.setExemption(Math.abs(Long.parseLong(colBM.replaceAll("[^0-9-]+", ""))));
+            phase6.setExemption(Math.abs(ExcelValueParser.signedDigits(colBM)));
         }
         String colBN = formatter.formatCellValue(row.getCell(65), evaluator);
         System.out.println("Column BN (6차 업무대행비): " + colBN);
         if (!colBN.isEmpty()) {
-            phase6.setService(Long.parseLong(colBN.replaceAll("[^0-9-]+", "")));
+            phase6.setService(ExcelValueParser.signedDigits(colBN));
         }
         String colBO = formatter.formatCellValue(row.getCell(66), evaluator);
         System.out.println("Column BO (6차 이동): " + colBO);
@@ -1805,11 +2157,7 @@ public class ExcelService {
         System.out.println("Column BP (6차 합): " + colBP_final);
         long bpValue = 0L;
         if (!colBP_final.isEmpty()) {
-            try {
-                bpValue = Long.parseLong(colBP_final.replaceAll("[^0-9-]+", ""));
-            } catch (NumberFormatException e) {
-                bpValue = 0L;
-            }
+            bpValue = ExcelValueParser.parseSignedDigits(colBP_final, 0L);
         } else {
             bpValue = 0L;
         }
@@ -1829,27 +2177,27 @@ public class ExcelService {
         String colBR = formatter.formatCellValue(row.getCell(69), evaluator);
         System.out.println("Column BR (7차 완납일자): " + colBR);
         if (!colBR.isEmpty()) {
-            phase7.setFullpaiddate(parseDate(colBR, dtf));
+            phase7.setFullpaiddate(parseDate(colBR));
         }
         String colBS = formatter.formatCellValue(row.getCell(70), evaluator);
         System.out.println("Column BS (7차 부담금): " + colBS);
         if (!colBS.isEmpty()) {
-            phase7.setCharge(Long.parseLong(colBS.replaceAll("[^0-9-]+", "")));
+            phase7.setCharge(ExcelValueParser.signedDigits(colBS));
         }
         String colBT = formatter.formatCellValue(row.getCell(71), evaluator);
         System.out.println("Column BT (7차 할인액): " + colBT);
         if (!colBT.isEmpty()) {
-            phase7.setDiscount(Math.abs(Long.parseLong(colBT.replaceAll("[^0-9-]+", ""))));
+            phase7.setDiscount(Math.abs(ExcelValueParser.signedDigits(colBT)));
         }
         String colBU = formatter.formatCellValue(row.getCell(72), evaluator);
         System.out.println("Column BU (7차 면제금액): " + colBU);
         if (!colBU.isEmpty()) {
-            phase7.setExemption(Math.abs(Long.parseLong(colBU.replaceAll("[^0-9-]+", ""))));
+            phase7.setExemption(Math.abs(ExcelValueParser.signedDigits(colBU)));
         }
         String colBV = formatter.formatCellValue(row.getCell(73), evaluator);
         System.out.println("Column BV (7차 업무대행비): " + colBV);
         if (!colBV.isEmpty()) {
-            phase7.setService(Long.parseLong(colBV.replaceAll("[^0-9-]+", "")));
+            phase7.setService(ExcelValueParser.signedDigits(colBV));
         }
         String colBW = formatter.formatCellValue(row.getCell(74), evaluator);
         System.out.println("Column BW (7차 이동): " + colBW);
@@ -1859,11 +2207,7 @@ public class ExcelService {
         System.out.println("Column BX (7차 합): " + colBX_final);
         long bxValue = 0L;
         if (!colBX_final.isEmpty()) {
-            try {
-                bxValue = Long.parseLong(colBX_final.replaceAll("[^0-9-]+", ""));
-            } catch (NumberFormatException e) {
-                bxValue = 0L;
-            }
+            bxValue = ExcelValueParser.parseSignedDigits(colBX_final, 0L);
         } else {
             bxValue = 0L;
         }
@@ -1883,22 +2227,22 @@ public class ExcelService {
         String colBZ = formatter.formatCellValue(row.getCell(77), evaluator);
         System.out.println("Column BZ (8차 완납일자): " + colBZ);
         if (!colBZ.isEmpty()) {
-            phase8.setFullpaiddate(parseDate(colBZ, dtf));
+            phase8.setFullpaiddate(parseDate(colBZ));
         }
         String colCA = formatter.formatCellValue(row.getCell(78), evaluator);
         System.out.println("Column CA (8차 부담금): " + colCA);
         if (!colCA.isEmpty()) {
-            phase8.setCharge(Long.parseLong(colCA.replaceAll("[^0-9-]+", "")));
+            phase8.setCharge(ExcelValueParser.signedDigits(colCA));
         }
         String colCB = formatter.formatCellValue(row.getCell(79), evaluator);
         System.out.println("Column CB (8차 할인액): " + colCB);
         if (!colCB.isEmpty()) {
-            phase8.setDiscount(Math.abs(Long.parseLong(colCB.replaceAll("[^0-9-]+", ""))));
+            phase8.setDiscount(Math.abs(ExcelValueParser.signedDigits(colCB)));
         }
         String colCC = formatter.formatCellValue(row.getCell(80), evaluator);
         System.out.println("Column CC (8차 업무대행비): " + colCC);
         if (!colCC.isEmpty()) {
-            phase8.setService(Long.parseLong(colCC.replaceAll("[^0-9-]+", "")));
+            phase8.setService(ExcelValueParser.signedDigits(colCC));
         }
         String colCD = formatter.formatCellValue(row.getCell(81), evaluator);
         System.out.println("Column CD (8차 이동): " + colCD);
@@ -1908,11 +2252,7 @@ public class ExcelService {
         System.out.println("Column CE (8차 합): " + colCE_final);
         long ceValue = 0L;
         if (!colCE_final.isEmpty()) {
-            try {
-                ceValue = Long.parseLong(colCE_final.replaceAll("[^0-9-]+", ""));
-            } catch (NumberFormatException e) {
-                ceValue = 0L;
-            }
+            ceValue = ExcelValueParser.parseSignedDigits(colCE_final, 0L);
         } else {
             ceValue = 0L;
         }
@@ -1932,22 +2272,22 @@ public class ExcelService {
         String colCG = formatter.formatCellValue(row.getCell(84), evaluator);
         System.out.println("Column CG (9차 완납일자): " + colCG);
         if (!colCG.isEmpty()) {
-            phase9.setFullpaiddate(parseDate(colCG, dtf));
+            phase9.setFullpaiddate(parseDate(colCG));
         }
         String colCH = formatter.formatCellValue(row.getCell(85), evaluator);
         System.out.println("Column CH (9차 부담금): " + colCH);
         if (!colCH.isEmpty()) {
-            phase9.setCharge(Long.parseLong(colCH.replaceAll("[^0-9-]+", "")));
+            phase9.setCharge(ExcelValueParser.signedDigits(colCH));
         }
         String colCI = formatter.formatCellValue(row.getCell(86), evaluator);
         System.out.println("Column CI (9차 할인액): " + colCI);
         if (!colCI.isEmpty()) {
-            phase9.setDiscount(Math.abs(Long.parseLong(colCI.replaceAll("[^0-9-]+", ""))));
+            phase9.setDiscount(Math.abs(ExcelValueParser.signedDigits(colCI)));
         }
         String colCJ = formatter.formatCellValue(row.getCell(87), evaluator);
         System.out.println("Column CJ (9차 업무대행비): " + colCJ);
         if (!colCJ.isEmpty()) {
-            phase9.setService(Long.parseLong(colCJ.replaceAll("[^0-9-]+", "")));
+            phase9.setService(ExcelValueParser.signedDigits(colCJ));
         }
         String colCK = formatter.formatCellValue(row.getCell(88), evaluator);
         System.out.println("Column CK (9차 이동): " + colCK);
@@ -1957,11 +2297,7 @@ public class ExcelService {
         System.out.println("Column CL (9차 합): " + colCL_final);
         long clValue = 0L;
         if (!colCL_final.isEmpty()) {
-            try {
-                clValue = Long.parseLong(colCL_final.replaceAll("[^0-9-]+", ""));
-            } catch (NumberFormatException e) {
-                clValue = 0L;
-            }
+            clValue = ExcelValueParser.parseSignedDigits(colCL_final, 0L);
         } else {
             clValue = 0L;
         }
@@ -1981,22 +2317,22 @@ public class ExcelService {
         String colCN = formatter.formatCellValue(row.getCell(91), evaluator);
         System.out.println("Column CN (10차 완납일자): " + colCN);
         if (!colCN.isEmpty()) {
-            phase10.setFullpaiddate(parseDate(colCN, dtf));
+            phase10.setFullpaiddate(parseDate(colCN));
         }
         String colCO = formatter.formatCellValue(row.getCell(92), evaluator);
         System.out.println("Column CO (10차 부담금): " + colCO);
         if (!colCO.isEmpty()) {
-            phase10.setCharge(Long.parseLong(colCO.replaceAll("[^0-9-]+", "")));
+            phase10.setCharge(ExcelValueParser.signedDigits(colCO));
         }
         String colCP = formatter.formatCellValue(row.getCell(93), evaluator);
         System.out.println("Column CP (10차 할인액): " + colCP);
         if (!colCP.isEmpty()) {
-            phase10.setDiscount(Math.abs(Long.parseLong(colCP.replaceAll("[^0-9-]+", ""))));
+            phase10.setDiscount(Math.abs(ExcelValueParser.signedDigits(colCP)));
         }
         String colCQ = formatter.formatCellValue(row.getCell(94), evaluator);
         System.out.println("Column CQ (10차 업무대행비): " + colCQ);
         if (!colCQ.isEmpty()) {
-            phase10.setService(Long.parseLong(colCQ.replaceAll("[^0-9-]+", "")));
+            phase10.setService(ExcelValueParser.signedDigits(colCQ));
         }
         String colCR = formatter.formatCellValue(row.getCell(95), evaluator);
         System.out.println("Column CR (10차 이동): " + colCR);
@@ -2006,11 +2342,7 @@ public class ExcelService {
         System.out.println("Column CS (10차 합): " + colCS_final);
         long csValue = 0L;
         if (!colCS_final.isEmpty()) {
-            try {
-                csValue = Long.parseLong(colCS_final.replaceAll("[^0-9-]+", ""));
-            } catch (NumberFormatException e) {
-                csValue = 0L;
-            }
+            csValue = ExcelValueParser.parseSignedDigits(colCS_final, 0L);
         } else {
             csValue = 0L;
         }
@@ -2054,19 +2386,14 @@ public class ExcelService {
         String colDA_final = formatter.formatCellValue(row.getCell(104), evaluator);
         System.out.println("Column DA (총 면제금액): " + colDA_final);
         if (!colDA_final.isEmpty()) {
-            customer.getStatus().setExemptionsum(Long.parseLong(colDA_final.replaceAll("[^0-9-]+", "")));
+            customer.getStatus().setExemptionsum(ExcelValueParser.signedDigits(colDA_final));
         }
 // DB: 해약 해지일자 (0-based index 105)
         String colDB_final = formatter.formatCellValue(row.getCell(105), evaluator).trim();
         System.out.println("Column DB (해약 해지일자): " + colDB_final);
         LocalDate cancelDate = null;
         if (!colDB_final.isEmpty() && !colDB_final.equalsIgnoreCase("x")) {
-            try {
-                cancelDate = LocalDate.parse(colDB_final, dtf);
-            } catch (Exception e) {
-                // 날짜 파싱 실패 시 null 처리
-                cancelDate = null;
-            }
+            cancelDate = ExcelValueParser.parseShortDate(colDB_final);
         }
         customer.getCancel().setCanceldate(cancelDate);
 
@@ -2075,11 +2402,7 @@ public class ExcelService {
         System.out.println("Column DC (해약 환급일자): " + colDC_final);
         LocalDate refundDate = null;
         if (!colDC_final.isEmpty() && !colDC_final.equalsIgnoreCase("x")) {
-            try {
-                refundDate = LocalDate.parse(colDC_final, dtf);
-            } catch (Exception e) {
-                refundDate = null;
-            }
+            refundDate = ExcelValueParser.parseShortDate(colDC_final);
         }
         customer.getCancel().setRefunddate(refundDate);
 
@@ -2101,12 +2424,7 @@ public class ExcelService {
         System.out.println("Column DE (납입총액): " + colDE_final);
         long amountSum = 0L;
         if (!colDE_final.isEmpty()) {
-            String numeric = colDE_final.replaceAll("[^0-9-]+", "");
-            try {
-                amountSum = Long.parseLong(numeric);
-            } catch (NumberFormatException e) {
-                amountSum = 0L;
-            }
+            amountSum = ExcelValueParser.parseSignedDigits(colDE_final, 0L);
         }
         customer.getStatus().setAmmountsum(amountSum);
         System.out.println("Column DF (건너뛰기)");
@@ -2131,7 +2449,7 @@ public class ExcelService {
         String colDM_final = formatter.formatCellValue(row.getCell(116), evaluator);
         System.out.println("Column DM (다힘 일자): " + colDM_final);
         if (!colDM_final.isEmpty()) {
-            customer.getDahim().setDahimdate(parseDate(colDM_final, dtf));
+            customer.getDahim().setDahimdate(parseDate(colDM_final));
         }
         String colDN_final = formatter.formatCellValue(row.getCell(117), evaluator);
         System.out.println("Column DN (다힘 6/30선지급): " + colDN_final);
@@ -2142,7 +2460,7 @@ public class ExcelService {
         String colDP_final = formatter.formatCellValue(row.getCell(119), evaluator);
         System.out.println("Column DP (다힘 (1회차)금액): " + colDP_final);
         if (!colDP_final.isEmpty()) {
-            customer.getDahim().setDahimfirstpay(String.valueOf(Long.parseLong(colDP_final.replaceAll("[^0-9-]+", ""))));
+            customer.getDahim().setDahimfirstpay(String.valueOf(ExcelValueParser.signedDigits(colDP_final)));
         }
         Cell cellDQ = row.getCell(120);
         LocalDate dateDQ = getUnderlyingDate(cellDQ);
@@ -2153,7 +2471,7 @@ public class ExcelService {
             String colDQ_final = formatter.formatCellValue(cellDQ, evaluator);
             System.out.println("Column DQ (다힘 일자2, fallback): " + colDQ_final);
             if (!colDQ_final.isEmpty()) {
-                customer.getDahim().setDahimdate2(parseDate(colDQ_final, dtf));
+                customer.getDahim().setDahimdate2(parseDate(colDQ_final));
             }
         }
         String colDR_final = formatter.formatCellValue(row.getCell(121), evaluator);
@@ -2165,7 +2483,7 @@ public class ExcelService {
         String colDT_final = formatter.formatCellValue(row.getCell(123), evaluator);
         System.out.println("Column DT (다힘 (2회차)금액): " + colDT_final);
         if (!colDT_final.isEmpty()) {
-            customer.getDahim().setDahimsecondpay(String.valueOf(Long.parseLong(colDT_final.replaceAll("[^0-9-]+", ""))));
+            customer.getDahim().setDahimsecondpay(String.valueOf(ExcelValueParser.signedDigits(colDT_final)));
         }
         Cell cellDU = row.getCell(124);
         LocalDate dateDU = getUnderlyingDate(cellDU);
@@ -2176,7 +2494,7 @@ public class ExcelService {
             String colDU_final = formatter.formatCellValue(cellDU, evaluator);
             System.out.println("Column DU (다힘 일자3, fallback): " + colDU_final);
             if (!colDU_final.isEmpty()) {
-                customer.getDahim().setDahimdate3(parseDate(colDU_final, dtf));
+                customer.getDahim().setDahimdate3(parseDate(colDU_final));
             }
         }
         String colDV_final = formatter.formatCellValue(row.getCell(125), evaluator);
@@ -2213,7 +2531,7 @@ public class ExcelService {
             String colEC_final = formatter.formatCellValue(cellEC, evaluator);
             System.out.println("Column EC (1차 지급일자, fallback): " + colEC_final);
             if (!colEC_final.isEmpty()) {
-                customer.getFirstemp().setFirstempdate(parseDate(colEC_final, dtf));
+                customer.getFirstemp().setFirstempdate(parseDate(colEC_final));
             }
         }
         // ED: 0-based 133 (2차(직원) 차순)
@@ -2230,7 +2548,7 @@ public class ExcelService {
             String colEE_final = formatter.formatCellValue(cellEE, evaluator);
             System.out.println("Column EE (2차 지급일자, fallback): " + colEE_final);
             if (!colEE_final.isEmpty()) {
-                customer.getSecondemp().setSecondempdate(parseDate(colEE_final, dtf));
+                customer.getSecondemp().setSecondempdate(parseDate(colEE_final));
             }
         }
         // EF: 0-based 135
@@ -2276,7 +2594,7 @@ public class ExcelService {
             String colEN_final = formatter.formatCellValue(cellEN, evaluator);
             System.out.println("Column EN (부속서류 사은품 지급일자, fallback): " + colEN_final);
             if (!colEN_final.isEmpty()) {
-                customer.getAttachments().setPrizedate(parseDate(colEN_final, dtf));
+                customer.getAttachments().setPrizedate(parseDate(colEN_final));
                 customer.getAttachments().setPrizeattachment(true);
             } else {
                 customer.getAttachments().setPrizeattachment(false);
@@ -2394,23 +2712,10 @@ public class ExcelService {
     }
 
 
-    // 날짜 파싱 헬퍼: "yy-M-d" 형식을 우선 사용, 실패하면 "yyyy" 형식으로 파싱
-    private LocalDate parseDate(String s, DateTimeFormatter dtf) {
-        String text = s.replace("\"", "").trim();
-        if (text.isEmpty()) {
-            return null;
-        }
-        try {
-            return LocalDate.parse(text, dtf);
-        } catch (DateTimeParseException e) {
-            try {
-                DateTimeFormatter dtf2 = DateTimeFormatter.ofPattern("yyyy");
-                return LocalDate.parse(text, dtf2);
-            } catch (DateTimeParseException ex) {
-                // 날짜 형식이 아니면 null 반환하여 아무 값도 넣지 않음.
-                return null;
-            }
-        }
+    // 날짜 파싱 헬퍼: "yy-M-d" 형식, 날짜 형식이 아니면 null 반환하여 아무 값도 넣지 않음.
+    // (이전의 "yyyy" 재시도는 연도만으로는 LocalDate를 만들 수 없어 항상 실패했으므로 제거)
+    private LocalDate parseDate(String s) {
+        return ExcelValueParser.parseShortDate(s);
     }
 
     // planneddateString 처리 헬퍼:
@@ -2419,27 +2724,41 @@ public class ExcelService {
         if (s == null || s.trim().isEmpty()) {
             return null;
         }
-        String cleaned = s.replaceAll("\"", "").trim();
-        try {
-            DateTimeFormatter plannedDtf = DateTimeFormatter.ofPattern("yy-M-d");
-            return LocalDate.parse(cleaned, plannedDtf);
-        } catch (Exception e) {
-            return LocalDate.of(2100, 1, 1);
-        }
+        LocalDate parsed = ExcelValueParser.parseShortDate(s);
+        return parsed != null ? parsed : LocalDate.of(2100, 1, 1);
     }
 
     // 셀에서 원본 날짜값(YYYY-MM-DD)을 추출하는 헬퍼
     private LocalDate getUnderlyingDate(Cell cell) {
         if (cell != null && cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-            return cell.getDateCellValue().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            boolean date1904 = cell.getSheet().getWorkbook() instanceof XSSFWorkbook
+                    && ((XSSFWorkbook) cell.getSheet().getWorkbook()).isDate1904();
+            LocalDateTime dateTime = ExcelValueParser.fromExcelSerial(cell.getNumericCellValue(), date1904);
+            return dateTime != null ? dateTime.toLocalDate() : null;
         }
         return null;
     }
 
-    // --- fillFormat1 메서드 (원본 로직 유지) ---
-    public void fillFormat1(File tempFile, Customer customer) throws IOException {
-        try (FileInputStream fis = new FileInputStream(tempFile);
-             XSSFWorkbook workbook = new XSSFWorkbook(fis)) {
+    /**
+     * format1/format2 서식을 만들어 바이트로 돌려주고, 고객 버전 키로 ExportResultCache에 보관합니다.
+     *
+     * @param customerVersion 고객을 조회하기 전에 읽은 DataVersion.customerVersion 값
+     */
+    public byte[] renderForm(String format, Customer customer, long customerVersion) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        if (FORMAT2.equals(format)) {
+            fillFormat2(customer, buffer);
+        } else {
+            fillFormat1(customer, buffer);
+        }
+        byte[] bytes = buffer.toByteArray();
+        exportResultCache.put(ExportResultCache.formKey(format, customer.getId(), customerVersion), bytes);
+        return bytes;
+    }
+
+    // --- fillFormat1 메서드 (원본 로직 유지, 템플릿 복제본에 채워 out에 바로 씀) ---
+    public void fillFormat1(Customer customer, OutputStream out) throws IOException {
+        try (XSSFWorkbook workbook = excelTemplateCache.borrow(ExcelTemplateCache.FORMAT1)) {
 
             XSSFSheet sheet = workbook.getSheetAt(0);
 
@@ -2482,16 +2801,13 @@ public class ExcelService {
                 getCell(sheet, 81, 52).setCellValue(customer.getStatus().getAmmountsum());
             }
             workbook.setForceFormulaRecalculation(true);
-            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                workbook.write(fos);
-            }
+            workbook.write(out);
         }
     }
 
-    // --- fillFormat2 메서드 (원본 로직 유지) ---
-    public void fillFormat2(File tempFile, Customer customer) throws IOException {
-        try (FileInputStream fis = new FileInputStream(tempFile);
-             XSSFWorkbook workbook = new XSSFWorkbook(fis)) {
+    // --- fillFormat2 메서드 (원본 로직 유지, 템플릿 복제본에 채워 out에 바로 씀) ---
+    public void fillFormat2(Customer customer, OutputStream out) throws IOException {
+        try (XSSFWorkbook workbook = excelTemplateCache.borrow(ExcelTemplateCache.FORMAT2)) {
 
             XSSFSheet sheet = workbook.getSheetAt(0);
 
@@ -2526,9 +2842,7 @@ public class ExcelService {
                 getCell(sheet, 150, 12).setCellValue(rrn);
             }
             workbook.setForceFormulaRecalculation(true);
-            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                workbook.write(fos);
-            }
+            workbook.write(out);
         }
     }
 
@@ -2546,15 +2860,7 @@ public class ExcelService {
     }
 
     private long parseLongOrZero(String numericStr) {
-        if (numericStr == null || numericStr.isEmpty()) {
-            return 0L;
-        }
-        try {
-            // 숫자 이외 문자 제거
-            String cleaned = numericStr.replaceAll("[^0-9\\-]", "");
-            return Long.parseLong(cleaned);
-        } catch (NumberFormatException e) {
-            return 0L;
-        }
+        // 숫자와 '-' 이외 문자는 무시
+        return ExcelValueParser.parseSignedDigits(numericStr, 0L);
     }
 }
@@ -0,0 +1,160 @@
+package com.audora.lotting_be.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * excel_templates 템플릿 캐시.
+ * 시작 시 템플릿 파일을 한 번만 읽어 바이트로 보관하고, 템플릿별로 미리 파싱한 통합문서를 POOL_SIZE개씩 준비해 둡니다.
+ * 요청은 준비된 통합문서를 꺼내 값을 채운 뒤 그대로 출력하며(재사용하지 않음), 빈자리는 백그라운드 스레드가 보관한 바이트로 다시 파싱해 채웁니다.
+ * 임시 파일 복사/재파싱 없이 서식, 병합 셀, 수식이 그대로 유지된 복제본을 얻을 수 있습니다.
+ */
+@Component
+public class ExcelTemplateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExcelTemplateCache.class);
+
+    public static final String FORMAT1 = "format1.xlsx";
+    public static final String FORMAT2 = "format2.xlsx";
+    public static final String REGFORMAT = "regformat.xlsx";
+    public static final String DEPFORMAT = "depformat.xlsx";
+
+    private static final String TEMPLATE_DIR = "excel_templates/";
+    private static final String[] TEMPLATES = {FORMAT1, FORMAT2, REGFORMAT, DEPFORMAT};
+    private static final int POOL_SIZE = 2;
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "excel-template-refill");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    public void init() {
+        for (String name : TEMPLATES) {
+            try {
+                Template template = load(name);
+                templates.put(name, template);
+                logger.info("엑셀 템플릿 캐시: {} ({} bytes, 시트 {}, 스타일 {}, 병합 셀 {}, 수식 셀 {})",
+                        name, template.bytes.length, template.sheets, template.styles,
+                        template.mergedRegions, template.formulaCells);
+            } catch (IOException e) {
+                logger.warn("엑셀 템플릿 {}을(를) 불러오지 못했습니다: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refiller.shutdownNow();
+    }
+
+    public boolean isAvailable(String name) {
+        return templates.containsKey(name);
+    }
+
+    /**
+     * 템플릿의 새 복제본을 돌려줍니다. 호출 측에서 값을 채우고 출력한 뒤 닫아야 하며, 풀로 돌려주지 않습니다.
+     */
+    public XSSFWorkbook borrow(String name) throws IOException {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new FileNotFoundException("Template file not found: " + name);
+        }
+        XSSFWorkbook workbook = template.pool.poll();
+        try {
+            refiller.execute(() -> refill(template));
+        } catch (RejectedExecutionException e) {
+            // 종료 중에는 채우지 않음
+        }
+        return workbook != null ? workbook : template.parse();
+    }
+
+    /**
+     * 템플릿 원본 바이트 스트림
+     */
+    public InputStream openStream(String name) throws IOException {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new FileNotFoundException("Template file not found: " + name);
+        }
+        return new ByteArrayInputStream(template.bytes);
+    }
+
+    private void refill(Template template) {
+        while (template.pool.size() < POOL_SIZE) {
+            try {
+                template.pool.offer(template.parse());
+            } catch (IOException e) {
+                logger.warn("엑셀 템플릿 {} 미리 파싱 실패: {}", template.name, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private Template load(String name) throws IOException {
+        ClassPathResource resource = new ClassPathResource(TEMPLATE_DIR + name);
+        byte[] bytes;
+        try (InputStream is = resource.getInputStream()) {
+            bytes = is.readAllBytes();
+        }
+        Template template = new Template(name, bytes);
+        XSSFWorkbook workbook = template.parse();
+        template.sheets = workbook.getNumberOfSheets();
+        template.styles = workbook.getNumCellStyles();
+        for (Sheet sheet : workbook) {
+            template.mergedRegions += sheet.getNumMergedRegions();
+            for (Row row : sheet) {
+                for (Cell cell : row) {
+                    if (cell.getCellType() == CellType.FORMULA) {
+                        template.formulaCells++;
+                    }
+                }
+            }
+        }
+        template.pool.offer(workbook);
+        refill(template);
+        return template;
+    }
+
+    private static class Template {
+        private final String name;
+        private final byte[] bytes;
+        private final BlockingQueue<XSSFWorkbook> pool = new LinkedBlockingQueue<>(POOL_SIZE);
+        private int sheets;
+        private int styles;
+        private int mergedRegions;
+        private int formulaCells;
+
+        private Template(String name, byte[] bytes) {
+            this.name = name;
+            this.bytes = bytes;
+        }
+
+        private XSSFWorkbook parse() throws IOException {
+            return new XSSFWorkbook(new ByteArrayInputStream(bytes));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.audora.lotting_be.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 내보내기 결과 캐시.
+ * 회원 명부/입금내역은 전체 데이터 버전, format1/format2는 고객 버전을 키에 넣어 생성된 결과를 보관합니다.
+ * - 고객 한 명 서식(format1/format2)은 작으므로 바이트로 메모리에 보관합니다. (export.cache.max-bytes)
+ * - 회원 명부/입금내역은 고객 수에 비례해 커지므로 힙에 올리지 않고 export.cache.dir 에 파일로 보관하며,
+ *   보관/꺼내기는 하드 링크(지원하지 않는 파일 시스템에서는 복사)로 합니다. (export.cache.max-file-bytes)
+ * 데이터가 바뀌면 버전이 달라져 자연히 새로 생성되며, 이전 버전 항목은 총 크기 한도를 넘을 때
+ * 가장 오래 사용하지 않은 것부터 제거됩니다. 버전은 서버 메모리에만 있으므로 파일 항목은 시작 시 모두 삭제합니다.
+ * 지표: export.cache.requests{result=hit|miss}, export.cache.evictions, export.cache.size.bytes,
+ * export.cache.file.bytes, export.cache.hit.ratio
+ */
+@Component
+public class ExportResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportResultCache.class);
+
+    private final long maxBytes;
+    private final Map<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final Path fileDir;
+    private final long maxFileBytes;
+    private final Map<String, FileEntry> files = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalFileBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ExportResultCache(MeterRegistry meterRegistry,
+                             @Value("${export.cache.max-bytes:67108864}") long maxBytes,
+                             @Value("${export.cache.dir:${java.io.tmpdir}/lotting-export-cache}") String fileDir,
+                             @Value("${export.cache.max-file-bytes:1073741824}") long maxFileBytes) {
+        this.maxBytes = maxBytes;
+        this.fileDir = Paths.get(fileDir);
+        this.maxFileBytes = maxFileBytes;
+        this.hits = Counter.builder("export.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("export.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("export.cache.evictions").register(meterRegistry);
+        Gauge.builder("export.cache.size.bytes", this, ExportResultCache::sizeBytes).register(meterRegistry);
+        Gauge.builder("export.cache.file.bytes", this, ExportResultCache::fileBytes).register(meterRegistry);
+        Gauge.builder("export.cache.hit.ratio", this, ExportResultCache::hitRatio).register(meterRegistry);
+    }
+
+    /**
+     * 파일 보관 디렉터리를 만들고 이전 실행에서 남은 파일을 삭제합니다.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(fileDir);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(fileDir)) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    public static String regformatKey(long version, Object since) {
+        return "regformat:" + version + ":" + since;
+    }
+
+    public static String depformatKey(long version, Object from, Object to, String account, Object since) {
+        return "depformat:" + version + ":" + from + ":" + to + ":" + account + ":" + since;
+    }
+
+    public static String formKey(String format, Integer customerId, long customerVersion) {
+        return format + ":" + customerId + ":" + customerVersion;
+    }
+
+    /**
+     * @return 캐시된 파일 바이트, 없으면 null
+     */
+    public synchronized byte[] get(String key) {
+        byte[] value = entries.get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 결과를 보관합니다. 한도를 넘으면 오래 사용하지 않은 항목부터 제거하며, 한도보다 큰 결과는 보관하지 않습니다.
+     */
+    public synchronized void put(String key, byte[] value) {
+        if (value == null || value.length > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(key, value);
+        totalBytes += value.length - (previous != null ? previous.length : 0);
+        Iterator<Map.Entry<String, byte[]>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, byte[]> eldest = it.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            totalBytes -= eldest.getValue().length;
+            it.remove();
+            evictions.increment();
+            logger.debug("내보내기 캐시 제거: {}", eldest.getKey());
+        }
+    }
+
+    public synchronized long sizeBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 캐시된 결과 파일을 target 위치에 만듭니다. (target이 있으면 바꿈)
+     * target은 이후 옮기거나 삭제해도 캐시 항목에 영향이 없습니다.
+     *
+     * @return 캐시에 있었으면 true
+     */
+    public synchronized boolean copyTo(String key, File target) throws IOException {
+        FileEntry entry = files.get(key);
+        if (entry == null) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        // 제거와 겹치지 않도록 잠금 안에서 링크 (복사로 대체되는 경우에만 시간이 걸림)
+        linkOrCopy(entry.path, target.toPath());
+        return true;
+    }
+
+    /**
+     * 결과 파일을 보관합니다. source는 그대로 두므로 호출한 쪽에서 계속 사용(보관소로 이동 등)할 수 있습니다.
+     * 파일을 메모리로 읽지 않으며, 한도보다 큰 파일은 보관하지 않습니다.
+     */
+    public void putFile(String key, File source) throws IOException {
+        long size = Files.size(source.toPath());
+        if (size > maxFileBytes) {
+            return;
+        }
+        Path target = fileDir.resolve(UUID.randomUUID() + extensionOf(source.getName()));
+        linkOrCopy(source.toPath(), target);
+        synchronized (this) {
+            FileEntry previous = files.put(key, new FileEntry(target, size));
+            totalFileBytes += size;
+            if (previous != null) {
+                deleteFile(previous);
+            }
+            Iterator<Map.Entry<String, FileEntry>> it = files.entrySet().iterator();
+            while (totalFileBytes > maxFileBytes && it.hasNext()) {
+                Map.Entry<String, FileEntry> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                it.remove();
+                deleteFile(eldest.getValue());
+                evictions.increment();
+                logger.debug("내보내기 캐시 파일 제거: {}", eldest.getKey());
+            }
+        }
+    }
+
+    public synchronized long fileBytes() {
+        return totalFileBytes;
+    }
+
+    private void deleteFile(FileEntry entry) {
+        totalFileBytes -= entry.size;
+        try {
+            Files.deleteIfExists(entry.path);
+        } catch (IOException e) {
+            logger.warn("내보내기 캐시 파일 삭제 실패: {} ({})", entry.path, e.getMessage());
+        }
+    }
+
+    // 같은 파일 시스템이면 하드 링크 (내용을 다시 쓰지 않음), 아니면 복사
+    private static void linkOrCopy(Path source, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String extensionOf(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot) : "";
+    }
+
+    private static final class FileEntry {
+        private final Path path;
+        private final long size;
+
+        private FileEntry(Path path, long size) {
+            this.path = path;
+            this.size = size;
+        }
+    }
+
+    public double hitRatio() {
+        double h = hits.count();
+        double total = h + misses.count();
+        return total == 0 ? 0 : h / total;
+    }
+}
@@ -0,0 +1,420 @@
+package com.audora.lotting_be.service;
+
+import com.audora.lotting_be.model.job.ImportJob;
+import com.audora.lotting_be.model.job.ImportJobStatus;
+import com.audora.lotting_be.model.job.ImportJobType;
+import com.audora.lotting_be.repository.ImportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * 엑셀 가져오기 작업(ImportJob) 관리.
+ * 업로드 파일을 디스크에 보관한 뒤 백그라운드에서 처리하고, 청크/행 단위 체크포인트를 DB에 남깁니다.
+ * 클라이언트 연결과 작업 실행이 분리되어 있어 연결이 끊겨도 작업은 계속되며,
+ * 서버가 재시작되면 진행 중이던 작업을 마지막 체크포인트부터 자동으로 재개합니다.
+ * 보관한 업로드 파일은 작업이 완료되면 바로 삭제하고, 실패/취소된 작업의 파일은 재개할 수 있도록
+ * import.job-file-retention 동안 유지한 뒤 정리합니다. (시작 시와 주기적으로)
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private static final long SSE_TIMEOUT_MS = 3000000L; // 기존 업로드와 동일 (50분)
+
+    @Value("${import.job-dir:import-jobs}")
+    private String jobDir;
+
+    @Value("${import.job-file-retention:P1D}")
+    private Duration jobFileRetention = Duration.ofDays(1);
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+    @Autowired
+    private ExcelService excelService;
+    @Autowired
+    private DepositExcelService depositExcelService;
+    @Autowired
+    private SseProgressHub progressHub;
+    @Autowired
+    private JobExecutors jobExecutors;
+    @Autowired
+    private ProgressSender progressSender;
+
+    // 이 서버에서 실행 중인 작업 id (중복 실행 방지)
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    // 취소 요청된 작업 id
+    private final Set<String> cancelRequested = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 업로드 파일을 보관하고 작업을 등록한 뒤 바로 실행을 시작합니다.
+     */
+    public ImportJob submit(ImportJobType type, MultipartFile file, boolean deferred) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path dir = Paths.get(jobDir).toAbsolutePath().normalize();
+        Files.createDirectories(dir);
+        Path target = dir.resolve(id + ".xlsx");
+        try (InputStream is = file.getInputStream()) {
+            Files.copy(is, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        ImportJob job = new ImportJob();
+        job.setId(id);
+        job.setType(type);
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setOriginalFilename(file.getOriginalFilename());
+        job.setStoredPath(target.toString());
+        job.setDeferred(deferred);
+        job.setLastCommittedRow(-1);
+        job.setInsertedCount(0);
+        job.setSkippedCount(0);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        job = importJobRepository.save(job);
+        logger.info("가져오기 작업 등록: {} ({}, {})", id, type, file.getOriginalFilename());
+
+        start(job);
+        return job;
+    }
+
+    public Optional<ImportJob> getJob(String id) {
+        return importJobRepository.findById(id);
+    }
+
+    public List<ImportJob> getRecentJobs() {
+        return importJobRepository.findTop20ByOrderByCreatedAtDesc();
+    }
+
+    /**
+     * 작업 진행 상황을 구독합니다. 먼저 현재 상태(status)를 보내고,
+     * 이미 끝난 작업이면 바로 연결을 종료합니다.
+     */
+    public SseEmitter subscribe(String id) {
+        ImportJob job = importJobRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("가져오기 작업을 찾을 수 없습니다: " + id));
+        SseEmitter emitter = progressHub.attach(id, SSE_TIMEOUT_MS);
+        try {
+            emitter.send(SseEmitter.event().name("status").data(job));
+            if (job.getStatus().isFinished()) {
+                emitter.complete();
+            }
+        } catch (Exception e) {
+            logger.warn("작업 {} 상태 전송 중 오류: {}", id, e.getMessage());
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * 취소를 요청합니다. 실행 중이면 다음 체크포인트에서 멈추고, 대기 중이면 바로 취소 처리합니다.
+     */
+    public ImportJob cancel(String id) {
+        ImportJob job = importJobRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("가져오기 작업을 찾을 수 없습니다: " + id));
+        if (job.getStatus().isFinished()) {
+            return job;
+        }
+        if (running.contains(id)) {
+            cancelRequested.add(id);
+            return job;
+        }
+        return finish(job, ImportJobStatus.CANCELLED, "사용자 요청으로 취소되었습니다.");
+    }
+
+    /**
+     * 실패/취소된 작업을 마지막 체크포인트부터 다시 실행합니다.
+     */
+    public ImportJob resume(String id) {
+        ImportJob job = importJobRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("가져오기 작업을 찾을 수 없습니다: " + id));
+        if (job.getStatus() == ImportJobStatus.COMPLETED) {
+            throw new IllegalStateException("이미 완료된 작업입니다.");
+        }
+        if (running.contains(id)) {
+            return job;
+        }
+        requireStoredFile(job);
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setErrorMessage(null);
+        job.setFinishedAt(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        job = importJobRepository.save(job);
+        start(job);
+        return job;
+    }
+
+    /**
+     * 같은 파일로 처음부터 다시 실행합니다.
+     * 이미 반영된 행은 중복 검사(입금내역: 지문, 고객: 관리번호)로 건너뛰므로 두 번 저장되지 않습니다.
+     */
+    public ImportJob rerun(String id) {
+        ImportJob job = importJobRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("가져오기 작업을 찾을 수 없습니다: " + id));
+        if (running.contains(id)) {
+            throw new IllegalStateException("실행 중인 작업입니다.");
+        }
+        requireStoredFile(job);
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setLastCommittedRow(-1);
+        job.setInsertedCount(0);
+        job.setSkippedCount(0);
+        job.setPendingCustomerIds(null);
+        job.setPhase(null);
+        job.setErrorMessage(null);
+        job.setFinishedAt(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        job = importJobRepository.save(job);
+        start(job);
+        return job;
+    }
+
+    /**
+     * 서버 시작 시 대기/진행 중이던 작업을 체크포인트부터 재개합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        cleanupJobFiles();
+        List<ImportJob> jobs = importJobRepository.findByStatusIn(
+                Arrays.asList(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING));
+        for (ImportJob job : jobs) {
+            logger.info("중단된 가져오기 작업 재개: {} (마지막 커밋 행: {})", job.getId(), job.getLastCommittedRow());
+            start(job);
+        }
+    }
+
+    /**
+     * 더 이상 필요 없는 업로드 파일을 삭제합니다.
+     * 작업 기록이 없거나 완료된 작업의 파일, 끝난 지 import.job-file-retention이 지난 실패/취소 작업의 파일이 대상입니다.
+     */
+    @Scheduled(fixedDelayString = "${import.job-file-cleanup-interval-ms:3600000}")
+    public void cleanupJobFiles() {
+        Path dir = Paths.get(jobDir).toAbsolutePath().normalize();
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(jobFileRetention);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.xlsx")) {
+            for (Path path : stream) {
+                String id = path.getFileName().toString().replace(".xlsx", "");
+                if (running.contains(id)) {
+                    continue;
+                }
+                ImportJob job = importJobRepository.findById(id).orElse(null);
+                boolean expired = job == null
+                        || job.getStatus() == ImportJobStatus.COMPLETED
+                        || (job.getStatus().isFinished() && job.getFinishedAt() != null
+                        && job.getFinishedAt().isBefore(expiredBefore));
+                if (expired) {
+                    Files.deleteIfExists(path);
+                    logger.info("가져오기 작업 파일 정리: {}", path.getFileName());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("가져오기 작업 디렉터리 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    // 재개/재실행 전에 업로드 파일이 남아 있는지 확인 (완료 후 또는 보관 기간이 지나면 삭제됨)
+    private void requireStoredFile(ImportJob job) {
+        if (job.getStoredPath() == null || !Files.exists(Paths.get(job.getStoredPath()))) {
+            throw new IllegalStateException("업로드 파일이 삭제되어 다시 실행할 수 없습니다. 파일을 다시 업로드해 주세요.");
+        }
+    }
+
+    private void deleteStoredFile(ImportJob job) {
+        if (job.getStoredPath() == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(job.getStoredPath()));
+        } catch (IOException e) {
+            logger.warn("가져오기 작업 파일 삭제 실패: {} ({})", job.getStoredPath(), e.getMessage());
+        }
+    }
+
+    private void start(ImportJob job) {
+        if (!running.add(job.getId())) {
+            logger.info("작업 {}은(는) 이미 실행 중입니다.", job.getId());
+            return;
+        }
+        cancelRequested.remove(job.getId());
+        try {
+            jobExecutors.importJobs().execute(() -> run(job.getId()));
+        } catch (RejectedExecutionException e) {
+            running.remove(job.getId());
+            finish(job, ImportJobStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private void run(String id) {
+        ImportJob job = null;
+        // 진행 이벤트는 ProgressPublisher가 합쳐서 전송 스레드에서 구독자에게 보냄
+        ProgressPublisher progress = progressSender.open(id);
+        try {
+            job = importJobRepository.findById(id).orElse(null);
+            if (job == null) {
+                return;
+            }
+            Path path = Paths.get(job.getStoredPath());
+            if (!Files.exists(path)) {
+                finish(job, ImportJobStatus.FAILED, "업로드 파일을 찾을 수 없습니다: " + path, progress);
+                return;
+            }
+            job.setStatus(ImportJobStatus.RUNNING);
+            job.setUpdatedAt(LocalDateTime.now());
+            importJobRepository.save(job);
+            progress.event("status", job);
+
+            int resumeAfterRow = job.getLastCommittedRow() != null ? job.getLastCommittedRow() : -1;
+            JobListener listener = new JobListener(job, progress);
+            try (InputStream is = Files.newInputStream(path)) {
+                if (job.getType() == ImportJobType.CUSTOMER_EXCEL) {
+                    excelService.importCustomerWorkbook(is, resumeAfterRow, true, listener);
+                } else {
+                    depositExcelService.importDepositWorkbook(is, Boolean.TRUE.equals(job.getDeferred()),
+                            resumeAfterRow, parseIds(job.getPendingCustomerIds()), listener);
+                }
+            }
+            finish(job, ImportJobStatus.COMPLETED, null, progress);
+        } catch (CancellationException e) {
+            logger.info("가져오기 작업 {} 취소: {}", id, e.getMessage());
+            finish(job, ImportJobStatus.CANCELLED, e.getMessage(), progress);
+        } catch (Exception e) {
+            logger.error("가져오기 작업 {} 실패: {}", id, e.getMessage(), e);
+            if (job != null) {
+                finish(job, ImportJobStatus.FAILED, e.getMessage(), progress);
+            }
+        } finally {
+            running.remove(id);
+            cancelRequested.remove(id);
+            // 작업 레코드를 찾지 못한 경우 등 finish를 거치지 않았으면 구독 종료
+            progress.close();
+        }
+    }
+
+    private ImportJob finish(ImportJob job, ImportJobStatus status, String message) {
+        return finish(job, status, message, null);
+    }
+
+    private ImportJob finish(ImportJob job, ImportJobStatus status, String message, ProgressPublisher progress) {
+        job.setStatus(status);
+        if (message != null && message.length() > 1000) {
+            message = message.substring(0, 1000);
+        }
+        job.setErrorMessage(message);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getFinishedAt());
+        ImportJob saved = importJobRepository.save(job);
+        if (status == ImportJobStatus.COMPLETED) {
+            // 완료된 작업은 재개할 일이 없으므로 바로 삭제 (실패/취소는 cleanupJobFiles가 보관 기간 후 삭제)
+            deleteStoredFile(job);
+        }
+
+        String eventName = status == ImportJobStatus.COMPLETED ? "complete"
+                : status == ImportJobStatus.CANCELLED ? "cancelled" : "error";
+        if (progress != null) {
+            // 앞서 쌓인 진행 이벤트를 보낸 뒤 종료
+            progress.complete(eventName, saved);
+        } else {
+            progressHub.complete(job.getId(), eventName, saved);
+        }
+        return saved;
+    }
+
+    private List<Integer> parseIds(String csv) {
+        List<Integer> ids = new ArrayList<>();
+        if (csv == null || csv.isEmpty()) {
+            return ids;
+        }
+        for (String token : csv.split(",")) {
+            String t = token.trim();
+            if (!t.isEmpty()) {
+                ids.add(Integer.parseInt(t));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 진행 이벤트는 구독자에게 중계하고, 체크포인트는 작업 레코드에 저장합니다.
+     * 건수는 이전 실행(재개 전)까지의 누적값에 더해 기록합니다.
+     */
+    private class JobListener implements ImportProgressListener {
+        private final ImportJob job;
+        private final ProgressPublisher progress;
+        private final int baseInserted;
+        private final int baseSkipped;
+
+        JobListener(ImportJob job, ProgressPublisher progress) {
+            this.job = job;
+            this.progress = progress;
+            this.baseInserted = job.getInsertedCount() != null ? job.getInsertedCount() : 0;
+            this.baseSkipped = job.getSkippedCount() != null ? job.getSkippedCount() : 0;
+        }
+
+        @Override
+        public void event(String name, Object data) {
+            progress.event(name, data);
+        }
+
+        @Override
+        public void phase(String phase) {
+            job.setPhase(phase);
+            progress.phase(phase);
+        }
+
+        @Override
+        public void progress(long processed, long total) {
+            // 재계산 단계의 전체 건수는 고객 수이므로 전체 행 수로 기록하지 않음
+            if (!"recalculate".equals(job.getPhase())) {
+                job.setTotalRows((int) total);
+            }
+            progress.progress(processed, total);
+        }
+
+        @Override
+        public void checkpoint(int lastCommittedRow, int inserted, int skipped, Collection<Integer> pendingCustomerIds) {
+            job.setLastCommittedRow(lastCommittedRow);
+            job.setInsertedCount(baseInserted + inserted);
+            job.setSkippedCount(baseSkipped + skipped);
+            job.setPendingCustomerIds(pendingCustomerIds.isEmpty() ? null
+                    : pendingCustomerIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            job.setUpdatedAt(LocalDateTime.now());
+            importJobRepository.save(job);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelRequested.contains(job.getId());
+        }
+    }
+}
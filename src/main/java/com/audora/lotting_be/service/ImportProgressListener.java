@@ -0,0 +1,44 @@
+package com.audora.lotting_be.service;
+
+import java.util.Collection;
+
+/**
+ * 엑셀 업로드(고객/입금내역) 처리 중 진행 상황과 체크포인트를 전달받는 리스너.
+ * SSE 업로드(ProgressPublisher)와, 진행 상태를 DB에 남기는 가져오기 작업(ImportJob)이 함께 사용합니다.
+ */
+public interface ImportProgressListener {
+
+    /**
+     * 진행 이벤트 (progress, phase, counts 등)
+     */
+    void event(String name, Object data);
+
+    /**
+     * 작업 단계 변경 (insert, recalculate 등)
+     */
+    default void phase(String phase) {
+        event("phase", phase);
+    }
+
+    /**
+     * 처리 건수 갱신. 자주 호출해도 되며, ProgressPublisher는 합쳐서 일정 간격으로만 보냅니다.
+     */
+    default void progress(long processed, long total) {
+        event("progress", processed + "/" + total);
+    }
+
+    /**
+     * lastCommittedRow(시트 행 인덱스)까지의 행이 모두 DB에 반영되었음을 알립니다.
+     * pendingCustomerIds는 아직 재계산되지 않은 고객 id 목록입니다. (지연 재계산 모드)
+     */
+    default void checkpoint(int lastCommittedRow, int inserted, int skipped, Collection<Integer> pendingCustomerIds) {
+    }
+
+    /**
+     * 취소 요청 여부. true이면 처리 루프는 다음 체크포인트에서 중단합니다.
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+
+}
@@ -0,0 +1,219 @@
+package com.audora.lotting_be.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 작업 종류별 실행기.
+ * 가져오기(import), 내보내기(export), 재계산(recalc), 미리보기 생성(thumbnail) 작업을 공용 ForkJoinPool 대신 각각 크기와 대기열이 제한된 실행기에서 실행합니다.
+ * 대기열까지 가득 차면 RejectedExecutionException 으로 거절하며, SSE 작업은 runAsync 가 error 이벤트로 클라이언트에 알립니다.
+ * jobs.virtual-threads=true 이고 JDK가 가상 스레드를 지원하면 작업마다 가상 스레드를 쓰되 동시 실행 수와 대기 수는 같게 제한합니다.
+ * 지표: jobs.executor.active{pool}, jobs.executor.queued{pool}, jobs.executor.rejected{pool}
+ */
+@Component
+public class JobExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobExecutors.class);
+
+    public static final String REJECTED_MESSAGE = "처리 중인 작업이 많아 요청을 받을 수 없습니다. 잠시 후 다시 시도해 주세요.";
+
+    private final Pool importPool;
+    private final Pool exportPool;
+    private final Pool recalcPool;
+    private final Pool thumbnailPool;
+
+    public JobExecutors(MeterRegistry meterRegistry,
+                        @Value("${jobs.virtual-threads:false}") boolean virtualThreads,
+                        @Value("${jobs.import.threads:2}") int importThreads,
+                        @Value("${jobs.import.queue:8}") int importQueue,
+                        @Value("${jobs.export.threads:2}") int exportThreads,
+                        @Value("${jobs.export.queue:8}") int exportQueue,
+                        @Value("${jobs.recalc.threads:4}") int recalcThreads,
+                        @Value("${jobs.recalc.queue:64}") int recalcQueue,
+                        @Value("${jobs.thumbnail.threads:2}") int thumbnailThreads,
+                        @Value("${jobs.thumbnail.queue:256}") int thumbnailQueue) {
+        ExecutorService virtual = virtualThreads ? virtualThreadExecutor() : null;
+        this.importPool = new Pool("import", importThreads, importQueue, virtual, meterRegistry);
+        this.exportPool = new Pool("export", exportThreads, exportQueue, virtual, meterRegistry);
+        this.recalcPool = new Pool("recalc", recalcThreads, recalcQueue, virtual, meterRegistry);
+        this.thumbnailPool = new Pool("thumbnail", thumbnailThreads, thumbnailQueue, virtual, meterRegistry);
+    }
+
+    public Pool importJobs() {
+        return importPool;
+    }
+
+    public Pool exportJobs() {
+        return exportPool;
+    }
+
+    public Pool recalcJobs() {
+        return recalcPool;
+    }
+
+    public Pool thumbnailJobs() {
+        return thumbnailPool;
+    }
+
+    /**
+     * SSE 작업을 pool에서 실행합니다. 거절되면 emitter로 error 이벤트를 보내고 닫습니다.
+     *
+     * @return 실행 대기열에 들어갔으면 true
+     */
+    public boolean runAsync(Pool pool, SseEmitter emitter, Runnable task) {
+        try {
+            pool.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            try {
+                emitter.send(SseEmitter.event().name("error").data(REJECTED_MESSAGE));
+            } catch (Exception ex) {
+                // 무시
+            }
+            emitter.complete();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importPool.shutdown();
+        exportPool.shutdown();
+        recalcPool.shutdown();
+        thumbnailPool.shutdown();
+    }
+
+    // JDK 21 이상에서만 존재하는 API이므로 리플렉션으로 생성 (빌드는 17 기준)
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.info("작업 실행기: 가상 스레드 사용");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            logger.warn("이 JDK는 가상 스레드를 지원하지 않아 플랫폼 스레드 풀을 사용합니다. ({})", Runtime.version());
+            return null;
+        }
+    }
+
+    /**
+     * 동시 실행 threads개, 대기 queue개로 제한된 실행기
+     */
+    public static class Pool implements Executor {
+        private final String name;
+        private final Counter rejected;
+        private final ThreadPoolExecutor platform;
+        private final ExecutorService virtual;
+        private final Semaphore admitted;
+        private final Semaphore running;
+        private final int threads;
+
+        private Pool(String name, int threads, int queue, ExecutorService virtual, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.threads = threads;
+            this.virtual = virtual;
+            if (virtual != null) {
+                this.platform = null;
+                this.admitted = new Semaphore(threads + queue);
+                this.running = new Semaphore(threads);
+            } else {
+                AtomicInteger seq = new AtomicInteger();
+                this.platform = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(Math.max(1, queue)),
+                        r -> {
+                            Thread t = new Thread(r, "job-" + name + "-" + seq.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        },
+                        new ThreadPoolExecutor.AbortPolicy());
+                this.platform.allowCoreThreadTimeOut(true);
+                this.admitted = null;
+                this.running = null;
+            }
+            this.rejected = Counter.builder("jobs.executor.rejected").tag("pool", name).register(meterRegistry);
+            Gauge.builder("jobs.executor.active", this, Pool::active).tag("pool", name).register(meterRegistry);
+            Gauge.builder("jobs.executor.queued", this, Pool::queued).tag("pool", name).register(meterRegistry);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (platform != null) {
+                try {
+                    platform.execute(task);
+                } catch (RejectedExecutionException e) {
+                    reject();
+                }
+                return;
+            }
+            if (!admitted.tryAcquire()) {
+                reject();
+            }
+            try {
+                virtual.execute(() -> runVirtual(task));
+            } catch (RejectedExecutionException e) {
+                admitted.release();
+                throw e;
+            }
+        }
+
+        private void runVirtual(Runnable task) {
+            try {
+                running.acquire();
+                try {
+                    task.run();
+                } finally {
+                    running.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                admitted.release();
+            }
+        }
+
+        private void reject() {
+            rejected.increment();
+            logger.warn("{} 작업 대기열이 가득 차 요청을 거절했습니다. (실행 {}, 대기 {})", name, active(), queued());
+            throw new RejectedExecutionException(REJECTED_MESSAGE);
+        }
+
+        public int active() {
+            if (platform != null) {
+                return platform.getActiveCount();
+            }
+            return threads - running.availablePermits();
+        }
+
+        public int queued() {
+            if (platform != null) {
+                return platform.getQueue().size();
+            }
+            return Math.max(0, running.getQueueLength());
+        }
+
+        private void shutdown() {
+            if (platform != null) {
+                platform.shutdownNow();
+            } else {
+                virtual.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.audora.lotting_be.service;
+
+import com.audora.lotting_be.payload.response.ProgressSnapshot;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 작업 하나의 진행 상황 발행기. ProgressSender.open(...)으로 만듭니다.
+ * 작업 스레드는 값만 갱신하고, 실제 전송은 ProgressSender의 전송 스레드가 합니다. (느린 클라이언트가 작업을 막지 않음)
+ * - progress(...)는 합쳐서 초당 최대 progress.max-events-per-second 번 ProgressSnapshot(JSON)으로 보냅니다.
+ * - event(...)는 합치지 않고 순서대로 보내며, 그 전에 쌓인 진행 상황을 먼저 보냅니다.
+ * - complete(...)는 마지막 이벤트를 보낸 뒤 연결을 종료합니다.
+ */
+public class ProgressPublisher implements ImportProgressListener {
+
+    /**
+     * 이벤트를 실제로 전송하는 대상 (SseEmitter 또는 SseProgressHub 구독자)
+     */
+    interface Sink {
+        void send(String name, Object data) throws Exception;
+
+        void complete();
+    }
+
+    private static final Object COMPLETE = new Object();
+
+    private final ProgressSender sender;
+    private final Sink sink;
+    private final Queue<Object[]> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private volatile String phase;
+    private volatile long processed;
+    private volatile long total;
+    private volatile long phaseStartedAt = System.currentTimeMillis();
+    private volatile long lastProgressAt;
+    private volatile boolean closed;
+    private volatile boolean broken;
+
+    ProgressPublisher(ProgressSender sender, Sink sink) {
+        this.sender = sender;
+        this.sink = sink;
+    }
+
+    /**
+     * 작업 단계를 바꾸고 처리 건수와 경과 시간을 새로 셉니다. phase 이벤트도 함께 보냅니다.
+     */
+    @Override
+    public void phase(String phase) {
+        // 이전 단계의 마지막 진행 상황을 먼저 보냄
+        flushProgress();
+        this.phase = phase;
+        this.processed = 0;
+        this.total = 0;
+        this.phaseStartedAt = System.currentTimeMillis();
+        event("phase", phase);
+    }
+
+    @Override
+    public void progress(long processed, long total) {
+        this.processed = processed;
+        this.total = total;
+        dirty.set(true);
+    }
+
+    @Override
+    public void event(String name, Object data) {
+        if (closed) {
+            return;
+        }
+        flushProgress();
+        queue.add(new Object[]{name, data});
+        sender.schedule(this);
+    }
+
+    /**
+     * 마지막 이벤트를 보내고 연결을 종료합니다.
+     */
+    public synchronized void complete(String name, Object data) {
+        if (closed) {
+            return;
+        }
+        flushProgress();
+        queue.add(new Object[]{name, data});
+        queue.add(new Object[]{COMPLETE, null});
+        closed = true;
+        sender.schedule(this);
+    }
+
+    /**
+     * 마지막 이벤트 없이 연결을 종료합니다. (이미 종료했으면 아무것도 하지 않음)
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        flushProgress();
+        queue.add(new Object[]{COMPLETE, null});
+        closed = true;
+        sender.schedule(this);
+    }
+
+    public ProgressSnapshot snapshot() {
+        long now = System.currentTimeMillis();
+        long elapsed = Math.max(1, now - phaseStartedAt);
+        long done = processed;
+        long all = total;
+        ProgressSnapshot s = new ProgressSnapshot();
+        s.setPhase(phase);
+        s.setProcessed(done);
+        s.setTotal(all);
+        s.setPercent(all > 0 ? Math.round(done * 1000.0 / all) / 10.0 : 0);
+        double rate = done * 1000.0 / elapsed;
+        s.setRate(Math.round(rate * 10) / 10.0);
+        s.setEtaSeconds(rate > 0 && all >= done ? (long) Math.ceil((all - done) / rate) : null);
+        s.setElapsedMs(elapsed);
+        return s;
+    }
+
+    // 간격이 지났으면 쌓인 진행 상황을 보냄 (ProgressSender 틱에서 호출)
+    void tick(long intervalMs) {
+        if (dirty.get() && System.currentTimeMillis() - lastProgressAt >= intervalMs) {
+            flushProgress();
+            sender.schedule(this);
+        }
+    }
+
+    boolean hasPending() {
+        return !queue.isEmpty();
+    }
+
+    boolean isFinished() {
+        return closed && queue.isEmpty();
+    }
+
+    boolean tryStartDrain() {
+        return draining.compareAndSet(false, true);
+    }
+
+    /**
+     * 쌓인 이벤트를 순서대로 전송합니다. (한 번에 하나의 전송 스레드만 실행)
+     */
+    void drain() {
+        try {
+            Object[] next;
+            while ((next = queue.poll()) != null) {
+                if (next[0] == COMPLETE) {
+                    try {
+                        sink.complete();
+                    } catch (Exception e) {
+                        // 이미 종료된 연결
+                    }
+                    continue;
+                }
+                if (broken) {
+                    continue;
+                }
+                try {
+                    sink.send((String) next[0], next[1]);
+                } catch (Exception e) {
+                    // 클라이언트 연결이 끊긴 경우: 이후 이벤트는 버리고 작업은 계속 진행
+                    broken = true;
+                    ProgressSender.logger.warn("진행 상황 전송 실패 ({}), 이후 이벤트는 보내지 않습니다: {}",
+                            next[0], e.getMessage());
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+        if (!queue.isEmpty()) {
+            sender.schedule(this);
+        }
+    }
+
+    // 종료 후에는 보내지 않음 (전송 틱이 종료 이벤트 뒤에 진행 상황을 끼워 넣지 않도록 complete/close와 같은 잠금 사용)
+    private synchronized void flushProgress() {
+        if (closed) {
+            return;
+        }
+        if (dirty.getAndSet(false)) {
+            lastProgressAt = System.currentTimeMillis();
+            queue.add(new Object[]{"progress", snapshot()});
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.audora.lotting_be.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 진행 상황 전송기.
+ * 장시간 작업(가져오기, 내보내기, 일괄 생성)은 ProgressPublisher로 진행 상황을 알리고,
+ * 이 클래스의 전송 스레드가 발행기별로 순서를 지켜 SSE로 보냅니다.
+ * progress 이벤트는 발행기마다 초당 최대 progress.max-events-per-second 번으로 합쳐집니다.
+ */
+@Component
+public class ProgressSender {
+
+    static final Logger logger = LoggerFactory.getLogger(ProgressSender.class);
+
+    private static final int SENDER_THREADS = 4;
+
+    @Autowired
+    private SseProgressHub progressHub;
+
+    private final long intervalMs;
+    private final Set<ProgressPublisher> publishers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker;
+    private final ThreadPoolExecutor senders;
+
+    public ProgressSender(@Value("${progress.max-events-per-second:4}") int maxEventsPerSecond) {
+        this.intervalMs = 1000L / Math.max(1, maxEventsPerSecond);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(daemon("sse-progress-tick", new AtomicInteger()));
+        AtomicInteger seq = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemon("sse-progress-send", seq));
+        this.senders.allowCoreThreadTimeOut(true);
+        this.ticker.scheduleWithFixedDelay(this::tick, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * emitter로 보내는 발행기. complete(...) 시 emitter를 닫습니다.
+     */
+    public ProgressPublisher open(SseEmitter emitter) {
+        return register(new ProgressPublisher(this, new ProgressPublisher.Sink() {
+            @Override
+            public void send(String name, Object data) throws Exception {
+                emitter.send(SseEmitter.event().name(name).data(data));
+            }
+
+            @Override
+            public void complete() {
+                emitter.complete();
+            }
+        }));
+    }
+
+    /**
+     * SseProgressHub의 key 구독자들에게 보내는 발행기. complete(...) 시 구독을 모두 종료합니다.
+     */
+    public ProgressPublisher open(String hubKey) {
+        return register(new ProgressPublisher(this, new ProgressPublisher.Sink() {
+            @Override
+            public void send(String name, Object data) {
+                progressHub.send(hubKey, name, data);
+            }
+
+            @Override
+            public void complete() {
+                progressHub.close(hubKey);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        senders.shutdown();
+    }
+
+    // 발행기의 대기 이벤트 전송을 예약 (이미 전송 중이면 그 스레드가 이어서 보냄)
+    void schedule(ProgressPublisher publisher) {
+        if (!publisher.hasPending() || !publisher.tryStartDrain()) {
+            return;
+        }
+        try {
+            senders.execute(publisher::drain);
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+        }
+    }
+
+    private ProgressPublisher register(ProgressPublisher publisher) {
+        publishers.add(publisher);
+        return publisher;
+    }
+
+    private void tick() {
+        for (ProgressPublisher publisher : publishers) {
+            try {
+                if (publisher.isFinished()) {
+                    publishers.remove(publisher);
+                } else {
+                    publisher.tick(intervalMs);
+                }
+            } catch (Exception e) {
+                logger.warn("진행 상황 전송 예약 실패: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String prefix, AtomicInteger seq) {
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package com.audora.lotting_be.service;
+
+import com.audora.lotting_be.model.customer.Customer;
+import com.audora.lotting_be.repository.DepositHistoryBatchRepository;
+import com.audora.lotting_be.repository.PhaseExportRepository;
+import com.audora.lotting_be.util.RecordWriter;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+/**
+ * 외부 시스템 연동용 CSV/NDJSON 내보내기 (고객, 입금내역, 차수).
+ * 엑셀(POI) 파일을 만들지 않고 DB에서 읽는 대로 응답 스트림에 바로 씁니다.
+ * - 고객: 회원 명부(regformat)와 같은 열, id 순 페이지 단위 조회
+ * - 입금내역/차수: 엔티티 없이 DB 커서(MySQL 스트리밍)에서 한 행씩
+ * 모든 형식에서 사용하는 메모리는 행 수와 무관합니다.
+ */
+@Service
+public class RecordExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordExportService.class);
+
+    // 고객은 phases를 함께 읽어야 하므로 커서 대신 키셋 페이지 단위로 조회
+    private static final int CUSTOMER_PAGE_SIZE = 500;
+
+    @Autowired
+    private ExcelService excelService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private DepositHistoryBatchRepository depositHistoryBatchRepository;
+    @Autowired
+    private PhaseExportRepository phaseExportRepository;
+
+    /**
+     * 고객을 회원 명부 열로 씁니다. (기본 고객 id 1 제외, null 조건은 무시)
+     *
+     * @return 기록한 행 수
+     */
+    public long writeCustomers(String format, OutputStream out, String groupname, String batch, String type,
+                               String customertype, LocalDateTime since) throws IOException {
+        String[] columns = excelService.regColumnNames();
+        long started = System.nanoTime();
+        long[] count = {0};
+        // writeRegRow를 그대로 쓰기 위한 임시 시트 (행은 시트에 추가하지 않음)
+        SXSSFWorkbook scratch = new SXSSFWorkbook(1);
+        try (RecordWriter writer = RecordWriter.open(format, out, columns)) {
+            SXSSFSheet sheet = scratch.createSheet();
+            Object[] values = new Object[columns.length];
+            customerService.forEachCustomerPage(CUSTOMER_PAGE_SIZE, groupname, batch, type, customertype, since,
+                    customers -> {
+                        for (Customer customer : customers) {
+                            excelService.readRegRow(sheet, customer, values);
+                            write(writer, values);
+                            count[0]++;
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            scratch.dispose();
+        }
+        log("고객", format, count[0], started);
+        return count[0];
+    }
+
+    /**
+     * 입금내역을 씁니다. 조건은 엑셀 내보내기(fillDepFormat)와 같습니다. (to는 미포함 상한)
+     *
+     * @return 기록한 행 수
+     */
+    public long writeDepositHistories(String format, OutputStream out, LocalDateTime from, LocalDateTime to,
+                                      String account, LocalDateTime since) throws IOException {
+        long started = System.nanoTime();
+        long[] count = {0};
+        try (RecordWriter writer = RecordWriter.open(format, out, DepositHistoryBatchRepository.RECORD_COLUMNS)) {
+            depositHistoryBatchRepository.streamRecordsForExport(from, to, account, since, values -> {
+                write(writer, values);
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log("입금내역", format, count[0], started);
+        return count[0];
+    }
+
+    /**
+     * 차수를 씁니다. (고객 id, 차수 순)
+     *
+     * @return 기록한 행 수
+     */
+    public long writePhases(String format, OutputStream out, Integer customerId, Integer phaseNumber,
+                            LocalDateTime since) throws IOException {
+        long started = System.nanoTime();
+        long[] count = {0};
+        try (RecordWriter writer = RecordWriter.open(format, out, PhaseExportRepository.RECORD_COLUMNS)) {
+            phaseExportRepository.streamRecords(customerId, phaseNumber, since, values -> {
+                write(writer, values);
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log("차수", format, count[0], started);
+        return count[0];
+    }
+
+    // 조회 콜백 안에서는 IOException을 던질 수 없으므로 감싸서 전달
+    private static void write(RecordWriter writer, Object[] values) {
+        try {
+            writer.write(values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void log(String target, String format, long rows, long startedNanos) {
+        long elapsedMs = Math.max(1, (System.nanoTime() - startedNanos) / 1_000_000);
+        logger.info("{} {} 내보내기 {}건, {}ms ({}건/초)", target, format, rows, elapsedMs, rows * 1000 / elapsedMs);
+    }
+}
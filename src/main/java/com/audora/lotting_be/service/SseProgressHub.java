@@ -0,0 +1,91 @@
+package com.audora.lotting_be.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 작업 id별 SSE 구독자 관리.
+ * 작업 실행과 클라이언트 연결을 분리하여, 연결이 끊겨도 작업은 계속되고
+ * 클라이언트는 같은 id로 다시 구독해 진행 상황을 이어서 받을 수 있습니다.
+ */
+@Component
+public class SseProgressHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseProgressHub.class);
+
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    /**
+     * 새 구독자를 등록합니다. 완료/타임아웃/오류 시 자동으로 제거됩니다.
+     */
+    public SseEmitter attach(String key, long timeoutMs) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitters.compute(key, (k, list) -> {
+            List<SseEmitter> target = (list != null) ? list : new CopyOnWriteArrayList<>();
+            target.add(emitter);
+            return target;
+        });
+        Runnable remove = () -> detach(key, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(ex -> remove.run());
+        return emitter;
+    }
+
+    /**
+     * 해당 key의 모든 구독자에게 이벤트를 전송합니다. 전송에 실패한 구독자는 제거합니다.
+     */
+    public void send(String key, String name, Object data) {
+        List<SseEmitter> list = emitters.get(key);
+        if (list == null) {
+            return;
+        }
+        for (SseEmitter emitter : list) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data));
+            } catch (Exception ex) {
+                logger.debug("SSE 구독자 전송 실패 (key {}): {}", key, ex.getMessage());
+                detach(key, emitter);
+            }
+        }
+    }
+
+    /**
+     * 마지막 이벤트를 보낸 뒤 해당 key의 모든 구독을 종료합니다.
+     */
+    public void complete(String key, String name, Object data) {
+        send(key, name, data);
+        close(key);
+    }
+
+    /**
+     * 해당 key의 모든 구독을 종료합니다.
+     */
+    public void close(String key) {
+        List<SseEmitter> list = emitters.remove(key);
+        if (list == null) {
+            return;
+        }
+        for (SseEmitter emitter : list) {
+            try {
+                emitter.complete();
+            } catch (Exception ex) {
+                // 이미 종료된 연결
+            }
+        }
+    }
+
+    private void detach(String key, SseEmitter emitter) {
+        emitters.computeIfPresent(key, (k, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
@@ -0,0 +1,294 @@
+package com.audora.lotting_be.service;
+
+import com.audora.lotting_be.model.file.StoredFile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 업로드 파일(이미지, PDF) 미리보기 썸네일.
+ * 처음 요청될 때 만들어 {file.upload-dir}/thumbnails/크기/ab/해시.jpg 에 보관하고, 이후에는 파일만 전송합니다.
+ * - 내용 해시로 저장하므로 같은 내용을 여러 번 올려도 썸네일은 한 번만 만듭니다.
+ * - 생성은 JobExecutors의 thumbnail 실행기에서만 하므로 목록 화면이 썸네일 수백 개를 한꺼번에 요청해도
+ *   동시에 렌더링하는 수는 jobs.thumbnail.threads 개이고, 같은 썸네일을 동시에 요청하면 한 번만 만듭니다.
+ * - 이미지는 ImageIO로 읽되 목표 크기의 2배 이상이면 디코딩 단계에서 건너뛰며 읽고(subsampling),
+ *   PDF는 첫 페이지를 목표 크기에 맞는 배율로 렌더링합니다. (PDFBox)
+ * 지표: thumbnail.generate{kind} (생성 시간)
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+    // 허용하는 긴 변 크기 (요청 크기는 이 중 하나로 맞춰 캐시 종류를 제한)
+    private static final int[] SIZES = {128, 256, 512};
+    public static final int DEFAULT_SIZE = 256;
+
+    private static final String IMAGE = "image";
+    private static final String PDF = "pdf";
+    private static final float JPEG_QUALITY = 0.8f;
+    // PDF 페이지가 아주 작을 때 과도하게 확대하지 않도록 제한
+    private static final float MAX_PDF_SCALE = 4f;
+
+    private final Path root;
+    private final Path tmpDir;
+    private final ContentStore contentStore;
+    private final JobExecutors jobExecutors;
+    private final MeterRegistry meterRegistry;
+    private final long waitMs;
+
+    // 생성 중인 썸네일 (키: 크기/해시), 같은 썸네일 요청은 이 작업 결과를 함께 기다림
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public ThumbnailService(@Value("${file.upload-dir}") String uploadDir,
+                            @Value("${thumbnail.wait-ms:30000}") long waitMs,
+                            ContentStore contentStore,
+                            JobExecutors jobExecutors,
+                            MeterRegistry meterRegistry) {
+        this.root = Paths.get(uploadDir).resolve("thumbnails");
+        this.tmpDir = root.resolve("tmp");
+        this.waitMs = waitMs;
+        this.contentStore = contentStore;
+        this.jobExecutors = jobExecutors;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 보관 디렉터리를 만들고, 비정상 종료로 남은 임시 파일을 삭제합니다.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(tmpDir);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tmpDir)) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * 썸네일(JPEG) 파일을 반환합니다. 없으면 thumbnail 실행기에서 만들고 끝날 때까지 기다립니다.
+     *
+     * @param size 긴 변 크기 (128, 256, 512 중 요청 크기 이상인 가장 작은 값으로 맞춤)
+     * @return 썸네일 경로, 원본 내용 파일이 없으면 null
+     * @throws IllegalArgumentException    미리보기를 지원하지 않는 형식
+     * @throws RejectedExecutionException  생성 대기열이 가득 찼거나 제한 시간 안에 끝나지 않음 (잠시 후 다시 요청)
+     * @throws IOException                 파일을 읽거나 렌더링하지 못함
+     */
+    public Path thumbnail(StoredFile stored, int size) throws IOException {
+        String kind = kindOf(stored);
+        if (kind == null) {
+            throw new IllegalArgumentException("미리보기를 지원하지 않는 파일 형식입니다: " + stored.getContentType());
+        }
+        int edge = normalizeSize(size);
+        String sha256 = stored.getSha256();
+        Path target = root.resolve(String.valueOf(edge)).resolve(sha256.substring(0, 2)).resolve(sha256 + ".jpg");
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        Path content = contentStore.resolve(stored);
+        if (content == null) {
+            return null;
+        }
+
+        String key = edge + "/" + sha256;
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(key, created);
+        if (running == null) {
+            running = created;
+            try {
+                jobExecutors.thumbnailJobs().execute(() -> {
+                    try {
+                        created.complete(generate(kind, content, target, edge));
+                    } catch (Throwable e) {
+                        created.completeExceptionally(e);
+                    } finally {
+                        inFlight.remove(key, created);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key, created);
+                throw e;
+            }
+        }
+        return await(running);
+    }
+
+    private Path await(CompletableFuture<Path> future) throws IOException {
+        try {
+            return future.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 생성은 계속 진행되어 다음 요청에서 바로 사용됨
+            throw new RejectedExecutionException("미리보기를 생성하는 중입니다. 잠시 후 다시 시도해 주세요.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("미리보기 생성 대기 중 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("미리보기 생성 실패", cause);
+        }
+    }
+
+    // 썸네일을 임시 파일로 만든 뒤 최종 경로로 옮김 (읽는 쪽에 만들다 만 파일이 보이지 않도록)
+    private Path generate(String kind, Path content, Path target, int edge) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Path tmp = Files.createTempFile(tmpDir, "thumb-", ".jpg");
+        try {
+            BufferedImage source = PDF.equals(kind) ? renderPdf(content, edge) : readImage(content, edge);
+            writeJpeg(scale(source, edge), tmp);
+            Files.createDirectories(target.getParent());
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return target;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("미리보기 생성 실패: {} ({})", content.getFileName(), e.getMessage());
+            throw e;
+        } finally {
+            Files.deleteIfExists(tmp);
+            sample.stop(Timer.builder("thumbnail.generate")
+                    .description("미리보기 썸네일 생성 시간")
+                    .tag("kind", kind)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static BufferedImage readImage(Path file, int edge) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("읽을 수 없는 이미지 형식입니다.");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                // 원본이 목표 크기의 2배 이상이면 픽셀을 건너뛰며 디코딩 (메모리와 시간 절약, 축소 품질은 유지)
+                int step = Math.max(1, longest / (edge * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage renderPdf(Path file, int edge) throws IOException {
+        // 큰 PDF도 힙에 모두 올리지 않도록 임시 파일 버퍼 사용
+        try (PDDocument document = PDDocument.load(file.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
+            if (document.getNumberOfPages() == 0) {
+                throw new IOException("페이지가 없는 PDF입니다.");
+            }
+            PDRectangle box = document.getPage(0).getCropBox();
+            float longest = Math.max(box.getWidth(), box.getHeight());
+            float scale = Math.min(MAX_PDF_SCALE, edge / Math.max(1f, longest));
+            return new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+        }
+    }
+
+    // 긴 변이 edge가 되도록 축소 (투명 배경은 흰색으로)
+    private static BufferedImage scale(BufferedImage source, int edge) {
+        double ratio = Math.min(1.0, (double) edge / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static int normalizeSize(int size) {
+        for (int allowed : SIZES) {
+            if (size <= allowed) {
+                return allowed;
+            }
+        }
+        return SIZES[SIZES.length - 1];
+    }
+
+    // MIME 타입, 없거나 일반 바이너리이면 확장자로 판단
+    private static String kindOf(StoredFile stored) {
+        String contentType = stored.getContentType() != null ? stored.getContentType().toLowerCase() : "";
+        if (contentType.equals("application/pdf")) {
+            return PDF;
+        }
+        if (contentType.startsWith("image/")) {
+            return IMAGE;
+        }
+        String name = stored.getOriginalFilename() != null ? stored.getOriginalFilename() : "";
+        String extension = com.google.common.io.Files.getFileExtension(name).toLowerCase();
+        switch (extension) {
+            case "pdf":
+                return PDF;
+            case "jpg":
+            case "jpeg":
+            case "png":
+            case "gif":
+            case "bmp":
+                return IMAGE;
+            default:
+                return null;
+        }
+    }
+}
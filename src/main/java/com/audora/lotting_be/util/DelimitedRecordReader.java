@@ -0,0 +1,260 @@
+package com.audora.lotting_be.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * CSV/TSV 스트리밍 리더.
+ * 한 레코드씩 읽으며, 필드 문자는 재사용 버퍼에 모아 두고 실제로 조회한 필드만 String으로 만듭니다.
+ * 큰따옴표로 감싼 필드(구분자/줄바꿈 포함, "" 이스케이프)를 지원하고, 줄 끝은 \n, \r\n, \r 모두 허용합니다.
+ */
+public class DelimitedRecordReader implements Closeable {
+
+    // 은행 CSV 중 UTF-8이 아닌 파일은 EUC-KR이며, MS949는 그 상위 집합입니다.
+    public static final Charset MS949 = Charset.forName("MS949");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private boolean first = true;
+
+    // 현재 레코드: 필드 문자는 chars에 이어 붙이고, 각 필드의 끝 위치를 ends에 기록
+    private char[] chars = new char[1024];
+    private int length;
+    private int[] ends = new int[32];
+    private int fieldCount;
+    private final String[] cache = new String[64];
+
+    public DelimitedRecordReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * 다음 레코드를 읽습니다. 빈 줄은 건너뜁니다.
+     *
+     * @return 레코드가 있으면 true, 파일 끝이면 false
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            if (!readRecord()) {
+                return false;
+            }
+            if (fieldCount > 1 || length > 0) {
+                return true;
+            }
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return index번째 필드 값, 레코드에 해당 필드가 없으면 null
+     */
+    public String field(int index) {
+        if (index < 0 || index >= fieldCount) {
+            return null;
+        }
+        if (index < cache.length && cache[index] != null) {
+            return cache[index];
+        }
+        int start = index == 0 ? 0 : ends[index - 1];
+        String value = new String(chars, start, ends[index] - start);
+        if (index < cache.length) {
+            cache[index] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private boolean readRecord() throws IOException {
+        length = 0;
+        fieldCount = 0;
+        Arrays.fill(cache, null);
+        if (!fill()) {
+            return false;
+        }
+        if (first) {
+            first = false;
+            if (buf[pos] == '\uFEFF') {
+                // UTF-8 BOM
+                pos++;
+                if (!fill()) {
+                    return false;
+                }
+            }
+        }
+
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (fill()) {
+            char c = buf[pos++];
+            if (quoted) {
+                if (c == '"') {
+                    if (fill() && buf[pos] == '"') {
+                        pos++;
+                        append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    append(c);
+                }
+                continue;
+            }
+            if (fieldStart && c == '"') {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == delimiter) {
+                endField();
+                fieldStart = true;
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                if (fill() && buf[pos] == '\n') {
+                    pos++;
+                }
+                break;
+            } else {
+                append(c);
+                fieldStart = false;
+            }
+        }
+        endField();
+        return true;
+    }
+
+    private boolean fill() throws IOException {
+        if (pos < limit) {
+            return true;
+        }
+        if (eof) {
+            return false;
+        }
+        int n;
+        do {
+            n = reader.read(buf, 0, buf.length);
+        } while (n == 0);
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private void append(char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, chars.length * 2);
+        }
+        chars[length++] = c;
+    }
+
+    private void endField() {
+        if (fieldCount == ends.length) {
+            ends = Arrays.copyOf(ends, ends.length * 2);
+        }
+        ends[fieldCount++] = length;
+    }
+
+    // ================================================
+    // 파일 형식 감지
+    // ================================================
+
+    /**
+     * 앞부분 바이트로 인코딩을 판별합니다. BOM이 있거나 올바른 UTF-8이면 UTF-8, 아니면 MS949(EUC-KR).
+     * 샘플 끝에서 잘린 멀티바이트 문자는 허용합니다.
+     */
+    public static Charset detectCharset(byte[] sample, int len) {
+        if (len >= 3 && (sample[0] & 0xFF) == 0xEF && (sample[1] & 0xFF) == 0xBB && (sample[2] & 0xFF) == 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        int i = 0;
+        while (i < len) {
+            int b = sample[i] & 0xFF;
+            int follow;
+            if (b < 0x80) {
+                i++;
+                continue;
+            } else if (b >= 0xC2 && b <= 0xDF) {
+                follow = 1;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                follow = 2;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                follow = 3;
+            } else {
+                return MS949;
+            }
+            for (int k = 1; k <= follow; k++) {
+                if (i + k >= len) {
+                    return StandardCharsets.UTF_8; // 샘플 끝에서 잘림
+                }
+                if ((sample[i + k] & 0xC0) != 0x80) {
+                    return MS949;
+                }
+            }
+            i += follow + 1;
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 첫 줄에서 탭이 쉼표보다 많으면 TSV로 판단합니다.
+     */
+    public static char detectDelimiter(byte[] sample, int len) {
+        int tabs = 0;
+        int commas = 0;
+        for (int i = 0; i < len && sample[i] != '\n'; i++) {
+            if (sample[i] == '\t') {
+                tabs++;
+            } else if (sample[i] == ',') {
+                commas++;
+            }
+        }
+        return tabs > commas ? '\t' : ',';
+    }
+
+    /**
+     * 따옴표 밖의 줄바꿈 수로 레코드 수를 셉니다. (진행률 계산용, 빈 줄 포함)
+     * UTF-8과 EUC-KR 모두 멀티바이트 문자 안에 '"'와 '\n' 바이트가 나타나지 않으므로 바이트 단위로 셀 수 있습니다.
+     */
+    public static int countRecords(InputStream in) throws IOException {
+        byte[] bytes = new byte[BUFFER_SIZE];
+        int records = 0;
+        boolean quoted = false;
+        int last = '\n';
+        int n;
+        while ((n = in.read(bytes)) > 0) {
+            for (int i = 0; i < n; i++) {
+                byte b = bytes[i];
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    records++;
+                }
+            }
+            last = bytes[n - 1];
+        }
+        if (last != '\n') {
+            records++;
+        }
+        return records;
+    }
+}
@@ -0,0 +1,54 @@
+package com.audora.lotting_be.util;
+
+import com.audora.lotting_be.model.customer.DepositHistory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+
+/**
+ * 은행 거래내역 한 행의 지문(SHA-256, 16진수 64자)을 계산합니다.
+ * 같은 거래가 기간이 겹치는 엑셀로 다시 업로드되어도 같은 지문이 나오도록
+ * 거래일시, 맡기신금액, 찾으신금액, 거래후잔액, 계좌, 계약자만 사용합니다.
+ */
+public final class DepositFingerprint {
+
+    private static final char FIELD_SEPARATOR = '\u001F';
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private DepositFingerprint() {
+    }
+
+    public static String compute(DepositHistory dh) {
+        StringBuilder sb = new StringBuilder(96);
+        LocalDateTime dt = dh.getTransactionDateTime();
+        sb.append(dt != null ? dt.toString() : "").append(FIELD_SEPARATOR);
+        sb.append(dh.getDepositAmount() != null ? dh.getDepositAmount() : 0L).append(FIELD_SEPARATOR);
+        sb.append(dh.getWithdrawnAmount() != null ? dh.getWithdrawnAmount() : 0L).append(FIELD_SEPARATOR);
+        sb.append(dh.getBalanceAfter() != null ? dh.getBalanceAfter() : 0L).append(FIELD_SEPARATOR);
+        sb.append(normalize(dh.getAccount())).append(FIELD_SEPARATOR);
+        sb.append(normalize(dh.getContractor()));
+        return sha256Hex(sb.toString());
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.trim() : "";
+    }
+
+    private static String sha256Hex(String value) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // 모든 JRE에 SHA-256이 포함되어 있으므로 발생하지 않음
+            throw new IllegalStateException(e);
+        }
+        char[] out = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            out[i * 2] = HEX[(digest[i] >> 4) & 0x0F];
+            out[i * 2 + 1] = HEX[digest[i] & 0x0F];
+        }
+        return new String(out);
+    }
+}
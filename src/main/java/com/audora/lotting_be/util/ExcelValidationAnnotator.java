@@ -0,0 +1,90 @@
+package com.audora.lotting_be.util;
+
+import com.audora.lotting_be.payload.response.RowIssue;
+import com.audora.lotting_be.payload.response.ValidationReport;
+import com.audora.lotting_be.service.ArtifactStore;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 검증 결과를 원본 엑셀에 표시합니다.
+ * 문제 셀에 배경색(ERROR: 빨강, WARNING: 노랑)과 메모를 달아 임시 파일로 저장하고 ArtifactStore에 보관합니다.
+ */
+public final class ExcelValidationAnnotator {
+
+    private ExcelValidationAnnotator() {
+    }
+
+    /**
+     * @return ArtifactStore에 보관된 파일 id (문제가 없으면 null)
+     */
+    public static String annotate(Workbook workbook, Sheet sheet, ValidationReport report,
+                                  ArtifactStore artifactStore) throws IOException {
+        if (report.getIssues().isEmpty()) {
+            return null;
+        }
+        // 같은 셀의 문제는 메모 하나로 합칩니다. (ERROR가 하나라도 있으면 ERROR 색)
+        Map<String, String> messages = new LinkedHashMap<>();
+        Map<String, Boolean> hasError = new HashMap<>();
+        for (RowIssue issue : report.getIssues()) {
+            String ref = issue.getColumn() + issue.getRow();
+            messages.merge(ref, "[" + issue.getLevel() + "] " + issue.getMessage(), (a, b) -> a + "\n" + b);
+            hasError.merge(ref, RowIssue.ERROR.equals(issue.getLevel()), Boolean::logicalOr);
+        }
+
+        CreationHelper helper = workbook.getCreationHelper();
+        Drawing<?> drawing = sheet.createDrawingPatriarch();
+        // 원본 셀 서식(날짜/숫자 형식)을 유지하도록 (원본 스타일, 수준)별로 복제한 스타일을 재사용합니다.
+        Map<String, CellStyle> styleCache = new HashMap<>();
+
+        for (Map.Entry<String, String> entry : messages.entrySet()) {
+            CellReference ref = new CellReference(entry.getKey());
+            Row row = sheet.getRow(ref.getRow());
+            if (row == null) {
+                row = sheet.createRow(ref.getRow());
+            }
+            Cell cell = row.getCell(ref.getCol());
+            if (cell == null) {
+                cell = row.createCell(ref.getCol());
+            }
+            boolean error = hasError.get(entry.getKey());
+            CellStyle original = cell.getCellStyle();
+            String styleKey = original.getIndex() + (error ? "E" : "W");
+            CellStyle style = styleCache.computeIfAbsent(styleKey, k -> {
+                CellStyle s = workbook.createCellStyle();
+                s.cloneStyleFrom(original);
+                s.setFillForegroundColor(error ? IndexedColors.CORAL.getIndex() : IndexedColors.LIGHT_YELLOW.getIndex());
+                s.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+                return s;
+            });
+            cell.setCellStyle(style);
+
+            if (cell.getCellComment() != null) {
+                cell.removeCellComment();
+            }
+            ClientAnchor anchor = helper.createClientAnchor();
+            anchor.setCol1(ref.getCol() + 1);
+            anchor.setCol2(ref.getCol() + 5);
+            anchor.setRow1(ref.getRow());
+            anchor.setRow2(ref.getRow() + 4);
+            Comment comment = drawing.createCellComment(anchor);
+            comment.setString(helper.createRichTextString(entry.getValue()));
+            cell.setCellComment(comment);
+        }
+
+        File tempFile = Files.createTempFile("validation-", ".xlsx").toFile();
+        try (OutputStream os = new FileOutputStream(tempFile)) {
+            workbook.write(os);
+        }
+        return artifactStore.save(tempFile);
+    }
+}
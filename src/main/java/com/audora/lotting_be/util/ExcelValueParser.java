@@ -0,0 +1,284 @@
+package com.audora.lotting_be.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * 엑셀 가져오기용 날짜/금액 파서.
+ * 업로드 파일에 나오는 고정 형식만 직접 스캔하므로 DateTimeFormatter 생성, 정규식, 예외 발생 없이 동작합니다.
+ * 실패는 null 또는 {@link #NO_VALUE}로 돌려주며, 결과는 기존 DateTimeFormatter(SMART) 파싱과 같습니다.
+ * (월별 일수를 넘는 일자는 해당 월의 마지막 날로 보정)
+ */
+public final class ExcelValueParser {
+
+    /**
+     * 금액 파싱 실패를 나타내는 값
+     */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    // 1900 날짜 체계에서 Excel이 1900-02-29(존재하지 않는 날)를 60번으로 세는 문제 보정용 기준일
+    private static final LocalDate EXCEL_EPOCH_BEFORE_LEAP_BUG = LocalDate.of(1899, 12, 31);
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+    private static final LocalDate EXCEL_EPOCH_1904 = LocalDate.of(1904, 1, 1);
+    private static final double EXCEL_MAX_SERIAL = 2958465d; // 9999-12-31
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private ExcelValueParser() {
+    }
+
+    // ================================================
+    // 날짜
+    // ================================================
+
+    /**
+     * 입금내역 거래일시: "yyyy.MM.dd HH:mm:ss", "yyyy-MM-dd HH:mm:ss", "yyyy.MM.dd"
+     * 날짜와 시간 사이의 줄바꿈(셀 안 줄바꿈)은 공백으로 취급합니다.
+     *
+     * @return 파싱 결과, 형식이 맞지 않으면 null
+     */
+    public static LocalDateTime parseTransactionDateTime(String s) {
+        if (s == null) {
+            return null;
+        }
+        int end = trimEnd(s);
+        int p = trimStart(s, end);
+        if (end - p < 10) {
+            return null;
+        }
+        int year = digits(s, p, 4);
+        char sep = s.charAt(p + 4);
+        if (year < 0 || (sep != '.' && sep != '-')) {
+            return null;
+        }
+        int month = digits(s, p + 5, 2);
+        int day = (s.charAt(p + 7) == sep) ? digits(s, p + 8, 2) : -1;
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        p += 10;
+        if (p == end) {
+            // 시간 없는 형식은 "yyyy.MM.dd"만 지원
+            return sep == '.' ? smartDate(year, month, day).atStartOfDay() : null;
+        }
+
+        // 날짜-시간 구분: 공백 한 칸 또는 줄바꿈 문자들
+        if (s.charAt(p) == ' ') {
+            p++;
+        } else if (s.charAt(p) == '\r' || s.charAt(p) == '\n') {
+            while (p < end && (s.charAt(p) == '\r' || s.charAt(p) == '\n')) {
+                p++;
+            }
+        } else {
+            return null;
+        }
+        if (end - p != 8 || s.charAt(p + 2) != ':' || s.charAt(p + 5) != ':') {
+            return null;
+        }
+        int hour = digits(s, p, 2);
+        int minute = digits(s, p + 3, 2);
+        int second = digits(s, p + 6, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return smartDate(year, month, day).atTime(hour, minute, second);
+    }
+
+    /**
+     * 고객 등록 엑셀 날짜: "yy-M-d" (예: 24-3-5, 24-03-05 → 2024-03-05)
+     * 큰따옴표와 앞뒤 공백은 무시합니다.
+     *
+     * @return 파싱 결과, 형식이 맞지 않으면 null
+     */
+    public static LocalDate parseShortDate(String s) {
+        if (s == null) {
+            return null;
+        }
+        if (s.indexOf('"') >= 0) {
+            s = s.replace("\"", "");
+        }
+        int end = trimEnd(s);
+        int p = trimStart(s, end);
+        if (end - p < 6) {
+            return null;
+        }
+        int yy = digits(s, p, 2);
+        if (yy < 0 || s.charAt(p + 2) != '-') {
+            return null;
+        }
+        p += 3;
+        int monthStart = p;
+        int month = 0;
+        while (p < end && isDigit(s.charAt(p)) && p - monthStart < 9) {
+            month = month * 10 + (s.charAt(p++) - '0');
+        }
+        if (p == monthStart || p >= end || s.charAt(p) != '-') {
+            return null;
+        }
+        p++;
+        int dayStart = p;
+        int day = 0;
+        while (p < end && isDigit(s.charAt(p)) && p - dayStart < 9) {
+            day = day * 10 + (s.charAt(p++) - '0');
+        }
+        if (p == dayStart || p != end || month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        return smartDate(2000 + yy, month, day);
+    }
+
+    /**
+     * Excel 일련번호(숫자 날짜)를 날짜/시간으로 변환합니다. (밀리초 단위 반올림)
+     *
+     * @param date1904 통합문서가 1904 날짜 체계를 사용하는지 여부
+     * @return 변환 결과, 범위를 벗어나면 null
+     */
+    public static LocalDateTime fromExcelSerial(double serial, boolean date1904) {
+        if (!(serial >= 0) || serial > EXCEL_MAX_SERIAL) {
+            return null;
+        }
+        long wholeDays = (long) serial;
+        long millis = Math.round((serial - wholeDays) * MILLIS_PER_DAY);
+        if (millis >= MILLIS_PER_DAY) {
+            wholeDays++;
+            millis = 0;
+        }
+        LocalDate date;
+        if (date1904) {
+            date = EXCEL_EPOCH_1904.plusDays(wholeDays);
+        } else if (wholeDays < 61) {
+            date = EXCEL_EPOCH_BEFORE_LEAP_BUG.plusDays(wholeDays);
+        } else {
+            date = EXCEL_EPOCH.plusDays(wholeDays);
+        }
+        return date.atStartOfDay().plusNanos(millis * 1_000_000L);
+    }
+
+    // ================================================
+    // 금액
+    // ================================================
+
+    /**
+     * 숫자 이외의 문자를 모두 무시하고 남은 숫자를 읽습니다.
+     * {@code Long.parseLong(s.replaceAll("[^0-9]", ""))}와 같은 결과입니다. (부호 무시)
+     *
+     * @return 파싱 결과, 숫자가 없거나 범위를 넘으면 defaultValue
+     */
+    public static long parseDigits(String s, long defaultValue) {
+        if (s == null) {
+            return defaultValue;
+        }
+        long value = 0;
+        boolean any = false;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (isDigit(c)) {
+                if (value > (Long.MAX_VALUE - (c - '0')) / 10) {
+                    return defaultValue;
+                }
+                value = value * 10 + (c - '0');
+                any = true;
+            }
+        }
+        return any ? value : defaultValue;
+    }
+
+    /**
+     * 숫자와 '-' 이외의 문자를 무시하고 부호 있는 정수를 읽습니다.
+     * {@code Long.parseLong(s.replaceAll("[^0-9-]+", ""))}와 같은 결과입니다.
+     * (남은 문자열이 "-숫자" 또는 "숫자" 형태일 때만 성공)
+     *
+     * @return 파싱 결과, 실패하면 defaultValue
+     */
+    public static long parseSignedDigits(String s, long defaultValue) {
+        if (s == null) {
+            return defaultValue;
+        }
+        long value = 0; // 음수로 누적하여 Long.MIN_VALUE까지 표현
+        boolean negative = false;
+        boolean any = false;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '-') {
+                if (any || negative) {
+                    return defaultValue;
+                }
+                negative = true;
+            } else if (isDigit(c)) {
+                int d = c - '0';
+                if (value < (Long.MIN_VALUE + d) / 10) {
+                    return defaultValue;
+                }
+                value = value * 10 - d;
+                any = true;
+            }
+        }
+        if (!any) {
+            return defaultValue;
+        }
+        if (negative) {
+            return value;
+        }
+        return value == Long.MIN_VALUE ? defaultValue : -value;
+    }
+
+    /**
+     * {@link #parseSignedDigits(String, long)}와 같지만 실패 시 기존 코드처럼 NumberFormatException을 던집니다.
+     * 정상 값에서는 예외 비용이 없습니다.
+     */
+    public static long signedDigits(String s) {
+        long value = parseSignedDigits(s, NO_VALUE);
+        if (value == NO_VALUE) {
+            throw new NumberFormatException("For input string: \"" + s + "\"");
+        }
+        return value;
+    }
+
+    // ================================================
+    // 내부 헬퍼
+    // ================================================
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // s[p, p+count)가 모두 숫자이면 그 값을, 아니면 -1
+    private static int digits(String s, int p, int count) {
+        if (p + count > s.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = p; i < p + count; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int trimEnd(String s) {
+        int end = s.length();
+        while (end > 0 && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static int trimStart(String s, int end) {
+        int p = 0;
+        while (p < end && s.charAt(p) <= ' ') {
+            p++;
+        }
+        return p;
+    }
+
+    // DateTimeFormatter SMART 모드와 같이 월의 일수를 넘는 일자는 말일로 보정
+    private static LocalDate smartDate(int year, int month, int day) {
+        if (day > 28) {
+            day = Math.min(day, YearMonth.of(year, month).lengthOfMonth());
+        }
+        return LocalDate.of(year, month, day);
+    }
+}
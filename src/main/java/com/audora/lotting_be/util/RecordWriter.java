@@ -0,0 +1,219 @@
+package com.audora.lotting_be.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * CSV/NDJSON 스트리밍 라이터 (외부 시스템 연동용 내보내기).
+ * 레코드를 하나씩 버퍼(64KB)에 바로 써 넣으므로 레코드 수와 무관하게 메모리를 거의 쓰지 않습니다.
+ * - csv: 첫 줄은 열 이름, 구분자(,) 큰따옴표 줄바꿈이 있는 값만 큰따옴표로 감쌉니다. (RFC 4180)
+ * - ndjson: 한 줄에 하나의 JSON 객체 {"열 이름": 값, ...}, 숫자는 숫자로 빈 값은 null로 씁니다.
+ * 날짜/시각은 ISO-8601 문자열, 정수인 실수는 소수점 없이 씁니다.
+ */
+public abstract class RecordWriter implements Closeable {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final Writer out;
+    protected final String[] columns;
+
+    protected RecordWriter(OutputStream out, String[] columns) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.columns = columns;
+    }
+
+    /**
+     * @param format csv 또는 ndjson
+     * @return 지원하지 않는 형식이면 null
+     */
+    public static RecordWriter open(String format, OutputStream out, String[] columns) throws IOException {
+        if (CSV.equalsIgnoreCase(format)) {
+            return new Csv(out, columns);
+        }
+        if (NDJSON.equalsIgnoreCase(format)) {
+            return new NdJson(out, columns);
+        }
+        return null;
+    }
+
+    public static boolean isSupported(String format) {
+        return CSV.equalsIgnoreCase(format) || NDJSON.equalsIgnoreCase(format);
+    }
+
+    /**
+     * 레코드 하나를 씁니다. values[i]는 columns[i]의 값이며, 모자란 열은 빈 값으로 씁니다.
+     */
+    public abstract void write(Object[] values) throws IOException;
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // 숫자는 그대로, 날짜/시각은 ISO 문자열로 (null이면 null)
+    protected static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Double d) {
+            double v = d;
+            if (v == Math.rint(v) && !Double.isInfinite(v) && Math.abs(v) < 1e15) {
+                return Long.toString((long) v);
+            }
+            return Double.toString(v);
+        }
+        if (value instanceof Timestamp ts) {
+            return ts.toLocalDateTime().toString();
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().toString();
+        }
+        return value.toString();
+    }
+
+    private static final class Csv extends RecordWriter {
+
+        Csv(OutputStream out, String[] columns) throws IOException {
+            super(out, columns);
+            writeLine(columns);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            writeLine(values);
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                String s = i < values.length ? text(values[i]) : null;
+                if (s != null) {
+                    writeField(s);
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private void writeField(String s) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < s.length() && !quote; i++) {
+                char c = s.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(s);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        }
+    }
+
+    private static final class NdJson extends RecordWriter {
+
+        // 열 이름은 매번 이스케이프하지 않도록 "이름": 형태로 미리 만들어 둠
+        private final String[] keys;
+
+        NdJson(OutputStream out, String[] columns) {
+            super(out, columns);
+            this.keys = new String[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                StringBuilder sb = new StringBuilder(columns[i].length() + 4);
+                appendString(sb, columns[i]);
+                keys[i] = sb.append(':').toString();
+            }
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            out.write('{');
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(keys[i]);
+                Object value = i < values.length ? values[i] : null;
+                if (value == null || value instanceof Double d && (d.isNaN() || d.isInfinite())) {
+                    out.write("null");
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    out.write(text(value));
+                } else if (value instanceof TemporalAccessor || value instanceof java.util.Date) {
+                    out.write('"');
+                    out.write(text(value));
+                    out.write('"');
+                } else {
+                    writeString(value.toString());
+                }
+            }
+            out.write("}\n");
+        }
+
+        private void writeString(String s) throws IOException {
+            out.write('"');
+            int start = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"' || c == '\\' || c < 0x20) {
+                    out.write(s, start, i - start);
+                    out.write(escape(c));
+                    start = i + 1;
+                }
+            }
+            out.write(s, start, s.length() - start);
+            out.write('"');
+        }
+
+        private static void appendString(StringBuilder sb, String s) {
+            sb.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"' || c == '\\' || c < 0x20) {
+                    sb.append(escape(c));
+                } else {
+                    sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+
+        private static String escape(char c) {
+            switch (c) {
+                case '"':
+                    return "\\\"";
+                case '\\':
+                    return "\\\\";
+                case '\n':
+                    return "\\n";
+                case '\r':
+                    return "\\r";
+                case '\t':
+                    return "\\t";
+                default:
+                    return String.format("\\u%04x", (int) c);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.audora.lotting_be.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoginRateLimiter limiter(int ipCapacity, int ipRefillPerMinute, int userCapacity, int userRefillPerMinute) {
+        return new LoginRateLimiter(meterRegistry, ipCapacity, ipRefillPerMinute, userCapacity, userRefillPerMinute,
+                Duration.ofMinutes(15), 1000);
+    }
+
+    @Test
+    void allowsBurstUpToCapacityThenAsksToWaitOneInterval() {
+        // 사용자명 버킷: 최대 3회 연속, 분당 6회 (10초마다 1회) 충전
+        LoginRateLimiter limiter = limiter(100, 600, 3, 6);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1", "admin"), "attempt " + (i + 1));
+        }
+        long retryAfter = limiter.tryAcquire("10.0.0.1", "admin");
+        // 다음 토큰은 한 간격(10초) 뒤에 채워짐, 올림이므로 테스트 실행 시간과 관계없이 10초
+        assertEquals(10, retryAfter);
+        // 제한된 시도는 토큰을 쓰지 않으므로 기다리는 시간이 늘어나지 않음
+        assertEquals(10, limiter.tryAcquire("10.0.0.1", "admin"));
+        assertEquals(2.0, meterRegistry.get("auth.signin.throttled").tag("scope", "username").counter().count());
+    }
+
+    @Test
+    void capacityOfOneAllowsSingleAttemptPerInterval() {
+        LoginRateLimiter limiter = limiter(100, 600, 1, 1);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", "admin"));
+        long retryAfter = limiter.tryAcquire("10.0.0.1", "admin");
+        assertTrue(retryAfter >= 59 && retryAfter <= 60, "retryAfter=" + retryAfter);
+    }
+
+    @Test
+    void usernameBucketsAreCaseAndWhitespaceInsensitive() {
+        LoginRateLimiter limiter = limiter(100, 600, 2, 1);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", "Admin"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", " admin "));
+        assertTrue(limiter.tryAcquire("10.0.0.3", "ADMIN") > 0);
+        // 다른 사용자명은 영향 없음
+        assertEquals(0, limiter.tryAcquire("10.0.0.3", "manager"));
+    }
+
+    @Test
+    void ipBucketLimitsAcrossUsernames() {
+        LoginRateLimiter limiter = limiter(2, 1, 100, 600);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", "a"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", "b"));
+        assertTrue(limiter.tryAcquire("10.0.0.1", "c") > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", "c"));
+        assertEquals(1.0, meterRegistry.get("auth.signin.throttled").tag("scope", "ip").counter().count());
+    }
+
+    @Test
+    void throttledIpDoesNotConsumeUsernameTokens() {
+        LoginRateLimiter limiter = limiter(1, 1, 2, 1);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", "admin"));
+        // IP에서 막힌 시도는 사용자명 버킷까지 가지 않음
+        assertTrue(limiter.tryAcquire("10.0.0.1", "admin") > 0);
+        assertTrue(limiter.tryAcquire("10.0.0.1", "admin") > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", "admin"));
+    }
+
+    @Test
+    void nullInputsShareAnEmptyKey() {
+        LoginRateLimiter limiter = limiter(1, 1, 100, 600);
+        assertEquals(0, limiter.tryAcquire(null, null));
+        assertTrue(limiter.tryAcquire(null, "x") > 0);
+    }
+}
@@ -0,0 +1,277 @@
+package com.audora.lotting_be.service;
+
+import com.audora.lotting_be.model.file.StoredFile;
+import com.audora.lotting_be.model.file.UploadSession;
+import com.audora.lotting_be.payload.response.UploadSessionStatus;
+import com.audora.lotting_be.repository.UploadSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChunkedUploadServiceTest {
+
+    private static final int CHUNK = 256 * 1024; // 허용되는 최소 청크 크기
+
+    @TempDir
+    Path uploadDir;
+
+    // DB 대신 세션을 복사해서 보관 (서버 재시작 후에는 저장된 값만 남도록)
+    private final Map<String, UploadSession> table = new HashMap<>();
+    private final UploadSessionRepository repository = mock(UploadSessionRepository.class);
+    private final ContentStore contentStore = mock(ContentStore.class);
+    private final AtomicReference<byte[]> adopted = new AtomicReference<>();
+
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(repository.save(any(UploadSession.class))).thenAnswer(inv -> {
+            UploadSession session = inv.getArgument(0);
+            table.put(session.getId(), copy(session));
+            return session;
+        });
+        when(repository.findById(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(table.get(inv.<String>getArgument(0))).map(ChunkedUploadServiceTest::copy));
+        when(repository.existsById(anyString())).thenAnswer(inv -> table.containsKey(inv.<String>getArgument(0)));
+        doAnswer(inv -> table.remove(inv.<String>getArgument(0))).when(repository).deleteById(anyString());
+        when(contentStore.adopt(any(Path.class), anyString(), any(), anyLong(), any(), any())).thenAnswer(inv -> {
+            adopted.set(Files.readAllBytes(inv.<Path>getArgument(0)));
+            StoredFile stored = new StoredFile();
+            stored.setSha256(inv.getArgument(1));
+            return stored;
+        });
+
+        // 청크 2개 + 마지막 짧은 청크
+        content = new byte[2 * CHUNK + 1000];
+        new Random(42).nextBytes(content);
+    }
+
+    private ChunkedUploadService newService() throws IOException {
+        ChunkedUploadService service = new ChunkedUploadService(uploadDir.toString(), CHUNK, 10L * 1024 * 1024,
+                Duration.ofHours(24), repository, contentStore);
+        service.init();
+        return service;
+    }
+
+    @Test
+    void resumesAfterRestartWithOnlyMissingChunks() throws IOException {
+        ChunkedUploadService first = newService();
+        UploadSessionStatus status = first.start("scan.pdf", content.length, "application/pdf", 7, null);
+        assertEquals(3, status.getTotalChunks());
+        assertEquals(List.of(0, 1, 2), status.getMissingChunks());
+
+        // 순서와 관계없이 받은 청크만 표시
+        status = first.writeChunk(status.getId(), 2L * CHUNK, chunkBody(2), chunkHash(2));
+        assertEquals(List.of(0, 1), status.getMissingChunks());
+        assertEquals(1000, status.getReceivedBytes());
+        String id = status.getId();
+
+        // 서버 재시작: 메모리 상태 없이 DB에 남은 비트맵으로 이어 올리기
+        ChunkedUploadService restarted = newService();
+        status = restarted.status(id);
+        assertEquals(List.of(0, 1), status.getMissingChunks());
+
+        restarted.writeChunk(id, 0, chunkBody(0), chunkHash(0));
+        status = restarted.writeChunk(id, CHUNK, chunkBody(1), chunkHash(1));
+        assertEquals(List.of(), status.getMissingChunks());
+        assertEquals(content.length, status.getReceivedBytes());
+
+        StoredFile stored = restarted.complete(id, hex(sha256(content)));
+        assertEquals(hex(sha256(content)), stored.getSha256());
+        assertArrayEquals(content, adopted.get());
+        verify(contentStore).adopt(any(Path.class), eq(hex(sha256(content))), eq("scan.pdf"),
+                eq((long) content.length), eq("application/pdf"), eq(7));
+        assertFalse(table.containsKey(id));
+        assertFalse(Files.exists(uploadDir.resolve("sha256").resolve("partial").resolve(id + ".part")));
+        assertThrows(NoSuchElementException.class, () -> restarted.status(id));
+        // 완료된 뒤 도착한 재전송 청크는 거절
+        assertThrows(NoSuchElementException.class, () -> restarted.writeChunk(id, 0, chunkBody(0), chunkHash(0)));
+    }
+
+    @Test
+    void resendingAChunkOverwritesIt() throws IOException {
+        ChunkedUploadService service = newService();
+        String id = service.start("scan.pdf", content.length, null, null, null).getId();
+
+        byte[] garbage = new byte[CHUNK];
+        service.writeChunk(id, 0, new ByteArrayInputStream(garbage), hex(sha256(garbage)));
+        service.writeChunk(id, 0, chunkBody(0), chunkHash(0));
+        service.writeChunk(id, CHUNK, chunkBody(1), chunkHash(1));
+        service.writeChunk(id, 2L * CHUNK, chunkBody(2), chunkHash(2));
+
+        service.complete(id, null);
+        assertArrayEquals(content, adopted.get());
+    }
+
+    @Test
+    void chunkRetriedDuringCompleteWaitsAndIsRejected() throws Exception {
+        ChunkedUploadService service = newService();
+        String id = service.start("scan.pdf", content.length, null, null, null).getId();
+        service.writeChunk(id, 0, chunkBody(0), chunkHash(0));
+        service.writeChunk(id, CHUNK, chunkBody(1), chunkHash(1));
+        service.writeChunk(id, 2L * CHUNK, chunkBody(2), chunkHash(2));
+
+        AtomicReference<Throwable> retryError = new AtomicReference<>();
+        AtomicReference<Thread> retry = new AtomicReference<>();
+        doAnswer(inv -> {
+            // 해시 계산 뒤 같은 청크를 다른 내용으로 재전송
+            byte[] other = new byte[CHUNK];
+            Thread thread = new Thread(() -> {
+                try {
+                    service.writeChunk(id, 0, new ByteArrayInputStream(other), hex(sha256(other)));
+                } catch (Throwable t) {
+                    retryError.set(t);
+                }
+            });
+            retry.set(thread);
+            thread.start();
+            thread.join(200);
+            assertTrue(thread.isAlive(), "complete 중에는 청크 쓰기가 대기해야 합니다.");
+            adopted.set(Files.readAllBytes(inv.<Path>getArgument(0)));
+            return new StoredFile();
+        }).when(contentStore).adopt(any(Path.class), anyString(), any(), anyLong(), any(), any());
+
+        service.complete(id, null);
+        retry.get().join(5000);
+        assertArrayEquals(content, adopted.get());
+        assertInstanceOf(NoSuchElementException.class, retryError.get());
+    }
+
+    @Test
+    void checksumMismatchLeavesChunkMissing() throws IOException {
+        ChunkedUploadService service = newService();
+        String id = service.start("scan.pdf", content.length, null, null, null).getId();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.writeChunk(id, 0, chunkBody(0), chunkHash(1)));
+        assertEquals(List.of(0, 1, 2), service.status(id).getMissingChunks());
+    }
+
+    @Test
+    void rejectsMisalignedOrWrongSizedChunks() throws IOException {
+        ChunkedUploadService service = newService();
+        String id = service.start("scan.pdf", content.length, null, null, null).getId();
+
+        assertThrows(IllegalArgumentException.class, () -> service.writeChunk(id, 1, chunkBody(0), chunkHash(0)));
+        assertThrows(IllegalArgumentException.class, () -> service.writeChunk(id, content.length, chunkBody(2), chunkHash(2)));
+        assertThrows(IllegalArgumentException.class, () -> service.writeChunk(id, 0, chunkBody(0), " "));
+        // 마지막 청크 자리에 전체 크기 청크
+        assertThrows(IllegalArgumentException.class, () -> service.writeChunk(id, 2L * CHUNK, chunkBody(0), chunkHash(0)));
+        // 짧은 청크
+        assertThrows(IllegalArgumentException.class, () -> service.writeChunk(id, 0, chunkBody(2), chunkHash(2)));
+        assertEquals(List.of(0, 1, 2), service.status(id).getMissingChunks());
+    }
+
+    @Test
+    void completeRequiresAllChunksAndMatchingFileHash() throws IOException {
+        ChunkedUploadService service = newService();
+        String id = service.start("scan.pdf", content.length, null, null, null).getId();
+        service.writeChunk(id, 0, chunkBody(0), chunkHash(0));
+
+        assertThrows(IllegalStateException.class, () -> service.complete(id, null));
+
+        service.writeChunk(id, CHUNK, chunkBody(1), chunkHash(1));
+        service.writeChunk(id, 2L * CHUNK, chunkBody(2), chunkHash(2));
+        assertThrows(IllegalArgumentException.class, () -> service.complete(id, hex(sha256(new byte[1]))));
+        verify(contentStore, never()).adopt(any(), any(), any(), anyLong(), any(), any());
+
+        // 해시가 틀려도 세션은 남아 있으므로 다시 완료할 수 있음
+        service.complete(id, null);
+        assertArrayEquals(content, adopted.get());
+    }
+
+    @Test
+    void abortDeletesSessionAndPartialFile() throws IOException {
+        ChunkedUploadService service = newService();
+        String id = service.start("scan.pdf", content.length, null, null, null).getId();
+        Path part = uploadDir.resolve("sha256").resolve("partial").resolve(id + ".part");
+        assertEquals(content.length, Files.size(part));
+
+        service.abort(id);
+        assertFalse(Files.exists(part));
+        assertFalse(table.containsKey(id));
+        assertThrows(NoSuchElementException.class, () -> service.writeChunk(id, 0, chunkBody(0), chunkHash(0)));
+    }
+
+    @Test
+    void rejectsInvalidSessionParameters() throws IOException {
+        ChunkedUploadService service = newService();
+        assertThrows(IllegalArgumentException.class, () -> service.start("a", 0, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.start("a", 11L * 1024 * 1024, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.start("a", 100, null, null, 1024));
+        assertThrows(NoSuchElementException.class, () -> service.status(UUID.randomUUID().toString()));
+    }
+
+    private ByteArrayInputStream chunkBody(int index) {
+        return new ByteArrayInputStream(chunk(index));
+    }
+
+    private String chunkHash(int index) {
+        return hex(sha256(chunk(index)));
+    }
+
+    private byte[] chunk(int index) {
+        int from = index * CHUNK;
+        return Arrays.copyOfRange(content, from, Math.min(from + CHUNK, content.length));
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private static UploadSession copy(UploadSession source) {
+        UploadSession session = new UploadSession();
+        session.setId(source.getId());
+        session.setOriginalFilename(source.getOriginalFilename());
+        session.setContentType(source.getContentType());
+        session.setSize(source.getSize());
+        session.setChunkSize(source.getChunkSize());
+        session.setCustomerId(source.getCustomerId());
+        session.setReceivedChunks(source.getReceivedChunks());
+        session.setCreatedAt(source.getCreatedAt());
+        session.setUpdatedAt(source.getUpdatedAt());
+        return session;
+    }
+}
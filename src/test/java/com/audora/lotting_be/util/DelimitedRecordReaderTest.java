@@ -0,0 +1,118 @@
+package com.audora.lotting_be.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DelimitedRecordReaderTest {
+
+    @Test
+    void readsQuotedFieldsWithDelimitersNewlinesAndEscapedQuotes() throws IOException {
+        String csv = "a,\"b,c\",\"line1\nline2\",\"say \"\"hi\"\"\"\n";
+        List<List<String>> records = readAll(csv, ',');
+        assertEquals(1, records.size());
+        assertEquals(List.of("a", "b,c", "line1\nline2", "say \"hi\""), records.get(0));
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        assertEquals(List.of(List.of("12\"34", "x")), readAll("12\"34,x", ','));
+    }
+
+    @Test
+    void keepsEmptyFieldsAndMissingFieldsAreNull() throws IOException {
+        try (DelimitedRecordReader reader = new DelimitedRecordReader(new StringReader("a,,\"\",d\n"), ',')) {
+            assertTrue(reader.next());
+            assertEquals(4, reader.fieldCount());
+            assertEquals("", reader.field(1));
+            assertEquals("", reader.field(2));
+            assertEquals("d", reader.field(3));
+            assertNull(reader.field(4));
+            assertNull(reader.field(-1));
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void acceptsAllLineEndingsAndSkipsBlankLines() throws IOException {
+        List<List<String>> records = readAll("1,a\r\n2,b\r3,c\n\n\r\n4,d", ',');
+        assertEquals(List.of(List.of("1", "a"), List.of("2", "b"), List.of("3", "c"), List.of("4", "d")), records);
+    }
+
+    @Test
+    void stripsUtf8BomFromFirstRecordOnly() throws IOException {
+        List<List<String>> records = readAll("\uFEFF거래일시\t계약자\n2024.03.05\t\uFEFF홍길동\n", '\t');
+        assertEquals(List.of("거래일시", "계약자"), records.get(0));
+        assertEquals(List.of("2024.03.05", "\uFEFF홍길동"), records.get(1));
+    }
+
+    @Test
+    void bomOnlyFileHasNoRecords() throws IOException {
+        assertTrue(readAll("\uFEFF", ',').isEmpty());
+    }
+
+    @Test
+    void readsRecordsLongerThanTheReadBuffer() throws IOException {
+        String big = "x".repeat(200_000);
+        List<List<String>> records = readAll("\"" + big + "\",y\nz", ',');
+        assertEquals(List.of(big, "y"), records.get(0));
+        assertEquals(List.of("z"), records.get(1));
+    }
+
+    @Test
+    void detectsCharset() {
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'a'};
+        assertEquals(StandardCharsets.UTF_8, DelimitedRecordReader.detectCharset(bom, bom.length));
+
+        byte[] utf8 = "계약자,금액".getBytes(StandardCharsets.UTF_8);
+        assertEquals(StandardCharsets.UTF_8, DelimitedRecordReader.detectCharset(utf8, utf8.length));
+        // 샘플 끝에서 잘린 멀티바이트 문자는 UTF-8로 봄
+        assertEquals(StandardCharsets.UTF_8, DelimitedRecordReader.detectCharset(utf8, 2));
+
+        byte[] euckr = "계약자,금액".getBytes(DelimitedRecordReader.MS949);
+        assertEquals(DelimitedRecordReader.MS949, DelimitedRecordReader.detectCharset(euckr, euckr.length));
+    }
+
+    @Test
+    void detectsDelimiterFromFirstLine() {
+        byte[] tsv = "a\tb\tc\nx,y,z,w,v\n".getBytes(StandardCharsets.UTF_8);
+        assertEquals('\t', DelimitedRecordReader.detectDelimiter(tsv, tsv.length));
+        byte[] csv = "a,b\t,c\n".getBytes(StandardCharsets.UTF_8);
+        assertEquals(',', DelimitedRecordReader.detectDelimiter(csv, csv.length));
+    }
+
+    @Test
+    void countsRecordsIgnoringQuotedNewlines() throws IOException {
+        assertEquals(3, count("h1,h2\n\"a\nb\",c\nd,e\n"));
+        assertEquals(2, count("h1,h2\nd,e"));
+        assertEquals(0, count(""));
+    }
+
+    private static int count(String content) throws IOException {
+        return DelimitedRecordReader.countRecords(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<List<String>> readAll(String content, char delimiter) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (DelimitedRecordReader reader = new DelimitedRecordReader(new StringReader(content), delimiter)) {
+            while (reader.next()) {
+                List<String> fields = new ArrayList<>();
+                for (int i = 0; i < reader.fieldCount(); i++) {
+                    fields.add(reader.field(i));
+                }
+                records.add(fields);
+            }
+        }
+        return records;
+    }
+}
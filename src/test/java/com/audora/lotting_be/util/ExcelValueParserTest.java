@@ -0,0 +1,106 @@
+package com.audora.lotting_be.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExcelValueParserTest {
+
+    @Test
+    void parsesTransactionDateTimeFormats() {
+        LocalDateTime expected = LocalDateTime.of(2024, 3, 5, 14, 30, 7);
+        assertEquals(expected, ExcelValueParser.parseTransactionDateTime("2024.03.05 14:30:07"));
+        assertEquals(expected, ExcelValueParser.parseTransactionDateTime("2024-03-05 14:30:07"));
+        assertEquals(expected, ExcelValueParser.parseTransactionDateTime("  2024.03.05 14:30:07 "));
+        // 셀 안 줄바꿈
+        assertEquals(expected, ExcelValueParser.parseTransactionDateTime("2024.03.05\n14:30:07"));
+        assertEquals(expected, ExcelValueParser.parseTransactionDateTime("2024.03.05\r\n14:30:07"));
+        // 시간 없는 형식은 점 구분만
+        assertEquals(LocalDate.of(2024, 3, 5).atStartOfDay(), ExcelValueParser.parseTransactionDateTime("2024.03.05"));
+        assertNull(ExcelValueParser.parseTransactionDateTime("2024-03-05"));
+    }
+
+    @Test
+    void clampsDayToEndOfMonthLikeSmartResolver() {
+        assertEquals(LocalDateTime.of(2024, 2, 29, 10, 0), ExcelValueParser.parseTransactionDateTime("2024.02.31 10:00:00"));
+        assertEquals(LocalDateTime.of(2023, 4, 30, 0, 0), ExcelValueParser.parseTransactionDateTime("2023.04.31"));
+    }
+
+    @Test
+    void rejectsMalformedTransactionDateTime() {
+        assertNull(ExcelValueParser.parseTransactionDateTime(null));
+        assertNull(ExcelValueParser.parseTransactionDateTime(""));
+        assertNull(ExcelValueParser.parseTransactionDateTime("abc"));
+        assertNull(ExcelValueParser.parseTransactionDateTime("2024.13.01"));
+        assertNull(ExcelValueParser.parseTransactionDateTime("2024.00.01"));
+        assertNull(ExcelValueParser.parseTransactionDateTime("2024.03.32"));
+        assertNull(ExcelValueParser.parseTransactionDateTime("2024.03-05"));
+        assertNull(ExcelValueParser.parseTransactionDateTime("2024.03.05 24:00:00"));
+        assertNull(ExcelValueParser.parseTransactionDateTime("2024.03.05 14:60:00"));
+        assertNull(ExcelValueParser.parseTransactionDateTime("2024.03.05 14:30"));
+        assertNull(ExcelValueParser.parseTransactionDateTime("2024.03.05T14:30:07"));
+    }
+
+    @Test
+    void parsesShortDate() {
+        LocalDate expected = LocalDate.of(2024, 3, 5);
+        assertEquals(expected, ExcelValueParser.parseShortDate("24-3-5"));
+        assertEquals(expected, ExcelValueParser.parseShortDate("24-03-05"));
+        assertEquals(expected, ExcelValueParser.parseShortDate(" \"24-3-5\" "));
+        assertEquals(LocalDate.of(2023, 2, 28), ExcelValueParser.parseShortDate("23-2-31"));
+        assertNull(ExcelValueParser.parseShortDate(null));
+        assertNull(ExcelValueParser.parseShortDate("24/3/5"));
+        assertNull(ExcelValueParser.parseShortDate("24-13-5"));
+        assertNull(ExcelValueParser.parseShortDate("24-3-"));
+        assertNull(ExcelValueParser.parseShortDate("2024-3-5"));
+    }
+
+    @Test
+    void convertsExcelSerials() {
+        assertEquals(LocalDate.of(1900, 1, 1).atStartOfDay(), ExcelValueParser.fromExcelSerial(1, false));
+        // 60 = Excel의 1900-02-29 (존재하지 않는 날), 61부터는 실제 날짜와 맞음
+        assertEquals(LocalDate.of(1900, 3, 1).atStartOfDay(), ExcelValueParser.fromExcelSerial(61, false));
+        assertEquals(LocalDate.of(2024, 3, 5).atStartOfDay(), ExcelValueParser.fromExcelSerial(45356, false));
+        assertEquals(LocalDateTime.of(2024, 3, 5, 12, 0), ExcelValueParser.fromExcelSerial(45356.5, false));
+        assertEquals(LocalDate.of(1904, 1, 2).atStartOfDay(), ExcelValueParser.fromExcelSerial(1, true));
+        // 반올림해서 하루가 되면 다음 날 0시
+        assertEquals(LocalDate.of(2024, 3, 6).atStartOfDay(), ExcelValueParser.fromExcelSerial(45356.9999999999, false));
+        assertNull(ExcelValueParser.fromExcelSerial(-1, false));
+        assertNull(ExcelValueParser.fromExcelSerial(Double.NaN, false));
+        assertNull(ExcelValueParser.fromExcelSerial(3_000_000, false));
+    }
+
+    @Test
+    void parseDigitsIgnoresEverythingButDigits() {
+        assertEquals(1234000L, ExcelValueParser.parseDigits("1,234,000원", ExcelValueParser.NO_VALUE));
+        assertEquals(500L, ExcelValueParser.parseDigits("-500", ExcelValueParser.NO_VALUE));
+        assertEquals(ExcelValueParser.NO_VALUE, ExcelValueParser.parseDigits("없음", ExcelValueParser.NO_VALUE));
+        assertEquals(-1L, ExcelValueParser.parseDigits(null, -1L));
+        assertEquals(Long.MAX_VALUE, ExcelValueParser.parseDigits("9223372036854775807", -1L));
+        assertEquals(-1L, ExcelValueParser.parseDigits("9223372036854775808", -1L));
+    }
+
+    @Test
+    void parseSignedDigitsMatchesLegacyReplaceAllParse() {
+        assertEquals(-1500L, ExcelValueParser.parseSignedDigits("-1,500", 0L));
+        assertEquals(1500L, ExcelValueParser.parseSignedDigits(" 1,500 원", 0L));
+        assertEquals(Long.MIN_VALUE, ExcelValueParser.parseSignedDigits("-9223372036854775808", 0L));
+        assertEquals(7L, ExcelValueParser.parseSignedDigits("9223372036854775808", 7L));
+        // 남은 문자열이 "-숫자" 형태가 아니면 실패 (Long.parseLong과 같음)
+        assertEquals(7L, ExcelValueParser.parseSignedDigits("1-2", 7L));
+        assertEquals(7L, ExcelValueParser.parseSignedDigits("--1", 7L));
+        assertEquals(7L, ExcelValueParser.parseSignedDigits("-", 7L));
+        assertEquals(7L, ExcelValueParser.parseSignedDigits("", 7L));
+    }
+
+    @Test
+    void signedDigitsThrowsLikeLongParseLong() {
+        assertEquals(-42L, ExcelValueParser.signedDigits("-42"));
+        assertThrows(NumberFormatException.class, () -> ExcelValueParser.signedDigits("abc"));
+    }
+}
@@ -0,0 +1,193 @@
+package com.audora.lotting_be.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RangeFileSenderTest {
+
+    private static final String CONTENT = "0123456789";
+    private static final String CONTENT_TYPE = "application/octet-stream";
+
+    @TempDir
+    Path dir;
+
+    private File file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = dir.resolve("data.bin").toFile();
+        Files.writeString(file.toPath(), CONTENT, StandardCharsets.US_ASCII);
+        // 초 단위로 맞춰 두어 Last-Modified / If-Range 날짜 비교가 정확히 일치하도록 함
+        file.setLastModified(1_700_000_000_000L);
+    }
+
+    @Test
+    void sendsWholeFileWithValidators() throws IOException {
+        MockHttpServletResponse response = send(new MockHttpServletRequest("GET", "/files/download"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertEquals("attachment; filename*=UTF-8''%EC%9E%90%EB%A3%8C.bin",
+                response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+    }
+
+    @Test
+    void sendsSingleRangeAsPartialContent() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(4, response.getContentLengthLong());
+        assertEquals("2345", response.getContentAsString());
+    }
+
+    @Test
+    void supportsOpenEndedAndSuffixRanges() throws IOException {
+        MockHttpServletRequest openEnded = new MockHttpServletRequest("GET", "/files/download");
+        openEnded.addHeader(HttpHeaders.RANGE, "bytes=7-");
+        MockHttpServletResponse response = send(openEnded);
+        assertEquals(206, response.getStatus());
+        assertEquals("789", response.getContentAsString());
+
+        MockHttpServletRequest suffix = new MockHttpServletRequest("GET", "/files/download");
+        suffix.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        response = send(suffix);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 7-9/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("789", response.getContentAsString());
+
+        // 파일 길이를 넘는 끝 위치는 마지막 바이트로 줄임
+        MockHttpServletRequest pastEnd = new MockHttpServletRequest("GET", "/files/download");
+        pastEnd.addHeader(HttpHeaders.RANGE, "bytes=8-100");
+        response = send(pastEnd);
+        assertEquals(206, response.getStatus());
+        assertEquals("89", response.getContentAsString());
+    }
+
+    @Test
+    void rejectsUnsatisfiableRangeWith416() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("", response.getContentAsString());
+
+        MockHttpServletRequest reversed = new MockHttpServletRequest("GET", "/files/download");
+        reversed.addHeader(HttpHeaders.RANGE, "bytes=5-2");
+        assertEquals(416, send(reversed).getStatus());
+    }
+
+    @Test
+    void sendsWholeFileForMultipleOrMalformedRanges() throws IOException {
+        MockHttpServletRequest multi = new MockHttpServletRequest("GET", "/files/download");
+        multi.addHeader(HttpHeaders.RANGE, "bytes=0-1,4-5");
+        MockHttpServletResponse response = send(multi);
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/files/download");
+        malformed.addHeader(HttpHeaders.RANGE, "items=0-1");
+        response = send(malformed);
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void appliesRangeOnlyWhenIfRangeEtagMatches() throws IOException {
+        String etag = send(new MockHttpServletRequest("GET", "/files/download")).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest matching = new MockHttpServletRequest("GET", "/files/download");
+        matching.addHeader(HttpHeaders.RANGE, "bytes=5-");
+        matching.addHeader(HttpHeaders.IF_RANGE, etag);
+        MockHttpServletResponse response = send(matching);
+        assertEquals(206, response.getStatus());
+        assertEquals("56789", response.getContentAsString());
+
+        // 파일이 바뀌었으면 (ETag 불일치) 이어받지 않고 전체를 보냄
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/files/download");
+        stale.addHeader(HttpHeaders.RANGE, "bytes=5-");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+        response = send(stale);
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void appliesRangeOnlyWhenIfRangeDateMatches() throws IOException {
+        MockHttpServletRequest matching = new MockHttpServletRequest("GET", "/files/download");
+        matching.addHeader(HttpHeaders.RANGE, "bytes=0-0");
+        matching.addHeader(HttpHeaders.IF_RANGE, file.lastModified());
+        assertEquals(206, send(matching).getStatus());
+
+        MockHttpServletRequest older = new MockHttpServletRequest("GET", "/files/download");
+        older.addHeader(HttpHeaders.RANGE, "bytes=0-0");
+        older.addHeader(HttpHeaders.IF_RANGE, file.lastModified() - 1000);
+        assertEquals(200, send(older).getStatus());
+    }
+
+    @Test
+    void answersConditionalRequestsWith304() throws IOException {
+        String etag = send(new MockHttpServletRequest("GET", "/files/download")).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest ifNoneMatch = new MockHttpServletRequest("GET", "/files/download");
+        ifNoneMatch.addHeader(HttpHeaders.IF_NONE_MATCH, "\"x\", " + etag);
+        MockHttpServletResponse response = send(ifNoneMatch);
+        assertEquals(304, response.getStatus());
+        assertEquals("", response.getContentAsString());
+
+        MockHttpServletRequest ifModifiedSince = new MockHttpServletRequest("GET", "/files/download");
+        ifModifiedSince.addHeader(HttpHeaders.IF_MODIFIED_SINCE, file.lastModified());
+        assertEquals(304, send(ifModifiedSince).getStatus());
+    }
+
+    @Test
+    void headRequestSendsHeadersOnly() throws IOException {
+        MockHttpServletResponse response = send(new MockHttpServletRequest("HEAD", "/files/download"));
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("", response.getContentAsString());
+    }
+
+    @Test
+    void handsLargeFilesToContainerSendfile() throws IOException {
+        Files.write(file.toPath(), new byte[64 * 1024]);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/download");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=1024-");
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(file.getCanonicalPath(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(1024L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(64L * 1024, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        // 본문은 컨테이너가 보내므로 응답에 직접 쓰지 않음
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RangeFileSender.send(request, response, file, CONTENT_TYPE, "자료.bin");
+        return response;
+    }
+}